@@ -0,0 +1,128 @@
+package ch.epfl.rigel.coordinates;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Objects;
+
+/**
+ * Cette classe *package private* représente le noyau de projection vectoriel, qui projette
+ * à la fois autant de points que le processeur a de voies pour des nombres de type double
+ * (p.ex. 4 avec AVX2, 8 avec AVX-512), au moyen de l'API Vector.
+ *
+ * Elle dépend du module incubateur jdk.incubator.vector et se trouve pour cette raison dans
+ * un répertoire source distinct, à compiler et à exécuter avec l'option
+ * --add-modules jdk.incubator.vector. Elle n'est jamais référencée directement, mais chargée
+ * par réflexion (ProjectionKernel.load) : si elle est absente ou que le module n'est pas
+ * chargé, le noyau scalaire est utilisé.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+final class VectorProjectionKernel implements ProjectionKernel {
+
+    private final static VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    // Entrelacement des abscisses et des ordonnées (x0, y0, x1, y1, ...) : chaque voie de la
+    // première, puis de la seconde moitié est dupliquée, et les voies impaires sont prises
+    // dans le vecteur des ordonnées. Une permutation de deux vecteurs (rearrange(s, v)) serait
+    // plus directe, mais est environ trois fois plus lente avec le JDK 17.
+    private final static VectorShuffle<Double> DUPLICATE_LOW = duplicate(0);
+    private final static VectorShuffle<Double> DUPLICATE_HIGH = duplicate(SPECIES.length() / 2);
+    private final static VectorMask<Double> ODD_LANES = oddLanes();
+
+    /**
+     * Constructeur du noyau vectoriel, appelé par réflexion.
+     */
+    VectorProjectionKernel() {}
+
+    /**
+     * Méthode qui retourne le nombre de points traités à la fois par le noyau, soit le nombre
+     * de voies de la forme de vecteur préférée du processeur.
+     *
+     * @return le nombre de voies du noyau
+     */
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Méthode qui projette par groupes de lanes() points, puis un à un pour les derniers
+     * points, ceux de l'intervalle donné, comme décrit dans ProjectionKernel. Les opérations
+     * sont exactement celles du noyau scalaire, sans multiplication-addition fusionnée, si
+     * bien que les résultats sont identiques.
+     *
+     * @param m la matrice de projection, ligne par ligne
+     * @param x les composantes x des vecteurs unitaires
+     * @param y les composantes y des vecteurs unitaires
+     * @param z les composantes z des vecteurs unitaires
+     * @param from l'index du premier point à projeter
+     * @param to l'index suivant celui du dernier point à projeter
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @throws IndexOutOfBoundsException si l'intervalle n'est pas valide pour les colonnes
+     * ou le tableau de sortie
+     */
+    @Override
+    public void project(double[] m, double[] x, double[] y, double[] z, int from, int to, double[] outXY) {
+        Objects.checkFromToIndex(from, to, Math.min(Math.min(x.length, y.length), z.length));
+        Objects.checkFromToIndex(2*from, 2*to, outXY.length);
+
+        int lanes = SPECIES.length();
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1);
+        DoubleVector m00 = DoubleVector.broadcast(SPECIES, m[0]);
+        DoubleVector m01 = DoubleVector.broadcast(SPECIES, m[1]);
+        DoubleVector m02 = DoubleVector.broadcast(SPECIES, m[2]);
+        DoubleVector m10 = DoubleVector.broadcast(SPECIES, m[3]);
+        DoubleVector m11 = DoubleVector.broadcast(SPECIES, m[4]);
+        DoubleVector m12 = DoubleVector.broadcast(SPECIES, m[5]);
+        DoubleVector m20 = DoubleVector.broadcast(SPECIES, m[6]);
+        DoubleVector m21 = DoubleVector.broadcast(SPECIES, m[7]);
+        DoubleVector m22 = DoubleVector.broadcast(SPECIES, m[8]);
+
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += lanes) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, i);
+            DoubleVector vz = DoubleVector.fromArray(SPECIES, z, i);
+
+            DoubleVector d = one.div(one.add(m20.mul(vx)).add(m21.mul(vy)).add(m22.mul(vz)));
+            DoubleVector px = d.mul(m00.mul(vx).add(m01.mul(vy)).add(m02.mul(vz)));
+            DoubleVector py = d.mul(m10.mul(vx).add(m11.mul(vy)).add(m12.mul(vz)));
+
+            px.rearrange(DUPLICATE_LOW)
+                    .blend(py.rearrange(DUPLICATE_LOW), ODD_LANES)
+                    .intoArray(outXY, 2*i);
+            px.rearrange(DUPLICATE_HIGH)
+                    .blend(py.rearrange(DUPLICATE_HIGH), ODD_LANES)
+                    .intoArray(outXY, 2*i + lanes);
+        }
+        ScalarProjectionKernel.INSTANCE.project(m, x, y, z, i, to, outXY);
+    }
+
+    /**
+     * Méthode statique privée qui retourne la permutation dupliquant chacune des voies d'une
+     * moitié d'un vecteur, à partir de la voie first : (first, first, first + 1, first + 1, ...).
+     *
+     * @param first la première voie dupliquée
+     * @return la permutation de duplication
+     */
+    private static VectorShuffle<Double> duplicate(int first) {
+        int[] sources = new int[SPECIES.length()];
+        for (int k = 0; k < sources.length; k++)
+            sources[k] = first + k / 2;
+        return VectorShuffle.fromArray(SPECIES, sources, 0);
+    }
+
+    /**
+     * Méthode statique privée qui retourne le masque des voies impaires.
+     *
+     * @return le masque des voies impaires
+     */
+    private static VectorMask<Double> oddLanes() {
+        boolean[] odd = new boolean[SPECIES.length()];
+        for (int k = 0; k < odd.length; k++)
+            odd[k] = k % 2 == 1;
+        return VectorMask.fromArray(SPECIES, odd, 0);
+    }
+}
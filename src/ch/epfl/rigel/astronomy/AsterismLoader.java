@@ -6,9 +6,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Ce type énuméré contient un seul élément nommé INSTANCE et
@@ -25,22 +23,24 @@ public enum AsterismLoader implements StarCatalogue.Loader {
 
     /**
      * Cette méthode ajoute au bâtisseur de catalogue l'ensemble des astérismes contenus
-     * dans le flot d'entré donné.
+     * dans le flot d'entré donné, éventuellement compressé au format gzip. Les étoiles sont
+     * retrouvées grâce à l'index des numéros Hipparcos du bâtisseur.
      *
      * @param inputStream le flot d'entré contenant les astérismes à charger
      * @param builder le bâtisseur qui doit se voir ajouter les astérismes du flot d'entrée
-     * @throws IOException
+     * @throws IOException en cas d'erreur d'entrée/sortie, ou si un astérisme référence
+     * un numéro Hipparcos qu'aucune étoile du bâtisseur ne possède
      */
     @Override
     public void load(InputStream inputStream, StarCatalogue.Builder builder) throws IOException {
         List<Star> stars = builder.stars();
 
-        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, Charset.forName("US-ASCII")))) {
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(CatalogueStreams.decompressed(inputStream), Charset.forName("US-ASCII")))) {
 
             String line = "";
             while ((line = bufferedReader.readLine()) != null && !line.isBlank()) {
                 String[] tab = line.split(",");
-                List<Star> asterismStars = this.getStarsListFromHipparcosIdTab(tab, stars);
+                List<Star> asterismStars = this.getStarsListFromHipparcosIdTab(tab, stars, builder);
                 builder.addAsterism(new Asterism(asterismStars));
             }
         }
@@ -52,16 +52,18 @@ public enum AsterismLoader implements StarCatalogue.Loader {
      *
      * @param hipparcosIdTab le tableau des identifiants Hipparcos (en chaîne de caractères)
      * @param stars la liste de l'ensemble des étoiles du catalogue
+     * @param builder le bâtisseur dont l'index des numéros Hipparcos est utilisé
      * @return la liste des étoiles dont l'identifiant Hipparcos est présent dans hipparcosIdTab
+     * @throws IOException si l'un des identifiants n'est celui d'aucune étoile
      */
-    private List<Star> getStarsListFromHipparcosIdTab(String[] hipparcosIdTab, List<Star> stars) {
-        List<Star> result = new ArrayList<>();
-        Map<Integer, Star> hipparcosStarMap = new HashMap<>();
-        for (Star s: stars)
-            hipparcosStarMap.put(s.hipparcosId(), s);
-
-        for (int i = 0; i < hipparcosIdTab.length; i++) {
-            result.add(hipparcosStarMap.get(Integer.parseInt(hipparcosIdTab[i])));
+    private List<Star> getStarsListFromHipparcosIdTab(String[] hipparcosIdTab, List<Star> stars,
+                                                      StarCatalogue.Builder builder) throws IOException {
+        List<Star> result = new ArrayList<>(hipparcosIdTab.length);
+        for (String hipparcosId : hipparcosIdTab) {
+            int index = builder.indexOfHipparcosId(Integer.parseInt(hipparcosId));
+            if (index < 0)
+                throw new IOException("Numéro Hipparcos inconnu : " + hipparcosId);
+            result.add(stars.get(index));
         }
 
         return result;
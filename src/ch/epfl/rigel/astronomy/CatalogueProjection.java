@@ -0,0 +1,73 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+
+/**
+ * Classe non instanciable qui projette en bloc toutes les étoiles d'un catalogue, p.ex.
+ * pour calculer de nombreuses images du ciel sur un serveur.
+ *
+ * Contrairement au ciel observé, qui ne projette que les étoiles observables, par ordre de
+ * magnitude, les étoiles sont ici projetées dans l'ordre de la table du catalogue, dont les
+ * colonnes — les vecteurs unitaires déduits des ascensions droites et des déclinaisons —
+ * sont lues de manière contiguë. Elles le sont ainsi par le noyau vectoriel de la projection
+ * s'il est disponible (cf. StereographicProjection.vectorLanes), et par tranches parallèles
+ * si elles sont assez nombreuses.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class CatalogueProjection {
+
+    private CatalogueProjection() {} // Constructeur privé pour rendre la classe non instantiable
+
+    /**
+     * Méthode qui projette toutes les étoiles du catalogue donné, grâce à la conversion et à
+     * la projection données, et écrit la projection de l'étoile d'index i aux positions 2i et
+     * 2i + 1 du tableau de sortie, qui peut être réutilisé d'une image à l'autre. Le résultat
+     * est exactement celui de la composition de la projection avec la conversion, calculée
+     * à partir des vecteurs unitaires par StereographicProjection.applyBatchToUnitVectorRange.
+     *
+     * @param catalogue le catalogue des étoiles à projeter
+     * @param equToHrz la conversion de coordonnées équatoriales en coordonnées horizontales
+     * @param projection la projection stéréographique à utiliser
+     * @param parallelismThreshold le nombre d'étoiles à partir duquel elles sont projetées
+     *                             en parallèle
+     * @param outXY le tableau dans lequel écrire les positions projetées des étoiles
+     * @throws IllegalArgumentException si le seuil n'est pas strictement positif, ou si le
+     * tableau de sortie est plus court que deux fois le nombre d'étoiles
+     */
+    public static void projectAll(StarCatalogue catalogue, EquatorialToHorizontalConversion equToHrz,
+                                  StereographicProjection projection, int parallelismThreshold,
+                                  double[] outXY) {
+        int n = catalogue.starCount();
+        Preconditions.checkArgument(parallelismThreshold > 0 && outXY.length >= 2*n);
+
+        StarTable table = catalogue.table();
+        double[] x = table.unitXColumn();
+        double[] y = table.unitYColumn();
+        double[] z = table.unitZColumn();
+        ParallelSlices.forEach(n, parallelismThreshold, (from, to) ->
+                projection.applyBatchToUnitVectorRange(equToHrz, x, y, z, from, to, outXY));
+    }
+
+    /**
+     * Méthode qui projette, comme la méthode précédente, toutes les étoiles du catalogue
+     * donné, et retourne leurs positions dans un nouveau tableau de longueur deux fois le
+     * nombre d'étoiles.
+     *
+     * @param catalogue le catalogue des étoiles à projeter
+     * @param equToHrz la conversion de coordonnées équatoriales en coordonnées horizontales
+     * @param projection la projection stéréographique à utiliser
+     * @param parallelismThreshold le nombre d'étoiles à partir duquel elles sont projetées
+     *                             en parallèle
+     * @return les positions projetées des étoiles
+     * @throws IllegalArgumentException si le seuil n'est pas strictement positif
+     */
+    public static double[] projectAll(StarCatalogue catalogue, EquatorialToHorizontalConversion equToHrz,
+                                      StereographicProjection projection, int parallelismThreshold) {
+        double[] positions = new double[2*catalogue.starCount()];
+        projectAll(catalogue, equToHrz, projection, parallelismThreshold, positions);
+        return positions;
+    }
+}
@@ -0,0 +1,341 @@
+package ch.epfl.rigel.astronomy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Ce type énuméré contient un seul élément nommé INSTANCE et représentant un chargeur
+ * d'instantané binaire de catalogue. Un instantané contient les colonnes des étoiles,
+ * leur table de noms distincts et les index déjà résolus des astérismes d'un catalogue
+ * construit, ce qui permet de le recharger sans analyser à nouveau les fichiers sources.
+ *
+ * Un instantané est composé, dans l'ordre et en gros-boutiste, de :
+ *      - l'entête : le nombre magique, la version du format et la somme de contrôle
+ *      des sources à partir desquelles il a été construit
+ *      - le nombre d'étoiles n, puis les colonnes ra et dec (n double chacune), mag (n float),
+ *      température de couleur et numéro Hipparcos (n int chacune)
+ *      - le nombre m de noms distincts, les m + 1 positions de début de ces noms, puis
+ *      leurs caractères mis bout à bout
+ *      - les identifiants des noms des étoiles (n int)
+ *      - le nombre d'astérismes, puis pour chacun son nombre d'étoiles et leurs index
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public enum CatalogueSnapshot implements StarCatalogue.Loader {
+
+    /**
+     * Objet représentant un chargeur d'instantané binaire de catalogue.
+     */
+    INSTANCE;
+
+    private final static int MAGIC = 0x52474C53; // "RGLS"
+    private final static int VERSION = 2;
+    private final static int HEADER_SIZE = 2*Integer.BYTES + Long.BYTES;
+    private final static int CHECKSUM_BUFFER_SIZE = 1 << 16;
+    // Taille des données d'une étoile : ra, dec, mag, température de couleur, numéro
+    // Hipparcos et identifiant du nom
+    private final static int STAR_RECORD_SIZE = 2*Double.BYTES + Float.BYTES + 3*Integer.BYTES;
+    private final static String SNAPSHOT_FILE_NAME_FORMAT = "catalogue-%08x.snapshot";
+    private final static String SNAPSHOT_FILE_GLOB = "catalogue-*.snapshot";
+
+    /**
+     * Cette méthode ajoute au bâtisseur de catalogue toutes les étoiles et tous les astérismes
+     * de l'instantané contenu dans le flot d'entrée. Si le flot est un flot de fichier,
+     * le reste du fichier est projeté en mémoire plutôt que lu.
+     *
+     * @param inputStream le flot d'entrée contenant l'instantané
+     * @param builder le bâtisseur qui doit se voir ajouter les étoiles et astérismes de l'instantané
+     * @throws IOException en cas d'erreur d'entrée/sortie, ou si le flot ne contient pas
+     * un instantané valide
+     */
+    @Override
+    public void load(InputStream inputStream, StarCatalogue.Builder builder) throws IOException {
+        try (inputStream) {
+            ByteBuffer buffer = CatalogueStreams.bufferOf(inputStream);
+            checkHeader(buffer);
+            loadContent(buffer, builder);
+        }
+    }
+
+    /**
+     * Méthode statique qui écrit dans le flot de sortie donné l'instantané du catalogue donné,
+     * construit à partir de sources dont la somme de contrôle est sourceChecksum.
+     * Le flot n'est pas fermé.
+     *
+     * @param catalogue le catalogue à écrire
+     * @param sourceChecksum la somme de contrôle des sources du catalogue
+     * @param outputStream le flot de sortie
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static void write(StarCatalogue catalogue, long sourceChecksum, OutputStream outputStream)
+            throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        StarTable table = catalogue.table();
+        int n = table.size();
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceChecksum);
+
+        out.writeInt(n);
+        double[] ra = table.raColumn();
+        double[] dec = table.decColumn();
+        float[] magnitude = table.magnitudeColumn();
+        int[] colorTemperature = table.colorTemperatureColumn();
+        int[] hipparcosId = table.hipparcosIdColumn();
+        for (int i = 0; i < n; i++) out.writeDouble(ra[i]);
+        for (int i = 0; i < n; i++) out.writeDouble(dec[i]);
+        for (int i = 0; i < n; i++) out.writeFloat(magnitude[i]);
+        for (int i = 0; i < n; i++) out.writeInt(colorTemperature[i]);
+        for (int i = 0; i < n; i++) out.writeInt(hipparcosId[i]);
+
+        NameTable names = table.names();
+        int m = names.size();
+        out.writeInt(m);
+        int nameOffset = 0;
+        out.writeInt(nameOffset);
+        for (int id = 0; id < m; id++) {
+            nameOffset += names.name(id).length();
+            out.writeInt(nameOffset);
+        }
+        for (int id = 0; id < m; id++) out.writeChars(names.name(id));
+        int[] nameId = table.nameIdColumn();
+        for (int i = 0; i < n; i++) out.writeInt(nameId[i]);
+
+        out.writeInt(catalogue.asterisms().size());
+        for (Asterism asterism : catalogue.asterisms()) {
+            List<Integer> indices = catalogue.asterismIndices(asterism);
+            out.writeInt(indices.size());
+            for (int index : indices)
+                out.writeInt(index);
+        }
+        out.flush();
+    }
+
+    /**
+     * Méthode statique qui calcule la somme de contrôle (CRC-32) du contenu des flots donnés,
+     * lus dans l'ordre et jusqu'à leur fin. Les flots ne sont pas fermés.
+     * Le contenu des flots est pris tel quel : la somme de contrôle de sources compressées
+     * est donc calculée sans les décompresser, et un instantané à jour permet de ne pas
+     * les décompresser du tout.
+     *
+     * @param inputStreams les flots dont calculer la somme de contrôle
+     * @return la somme de contrôle du contenu des flots
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static long checksum(InputStream... inputStreams) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+        for (InputStream inputStream : inputStreams) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1)
+                crc.update(buffer, 0, read);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Méthode statique qui retourne le fichier, dans le répertoire de cache donné, de
+     * l'instantané du catalogue construit à partir de sources de somme de contrôle
+     * sourceChecksum. Le nom du fichier étant dérivé de la somme de contrôle, un instantané
+     * périmé n'est jamais lu à la place de celui des sources actuelles.
+     *
+     * @param cacheDirectory le répertoire de cache
+     * @param sourceChecksum la somme de contrôle des sources du catalogue
+     * @return le fichier de l'instantané correspondant aux sources
+     */
+    public static Path snapshotFile(Path cacheDirectory, long sourceChecksum) {
+        return cacheDirectory.resolve(String.format(SNAPSHOT_FILE_NAME_FORMAT, sourceChecksum));
+    }
+
+    /**
+     * Méthode statique qui retourne le catalogue de l'instantané stocké dans le fichier donné
+     * si celui-ci existe, est lisible et a été construit à partir de sources de somme de
+     * contrôle sourceChecksum, et une valeur vide sinon.
+     *
+     * @param snapshotFile le fichier de l'instantané
+     * @param sourceChecksum la somme de contrôle actuelle des sources du catalogue
+     * @return le catalogue de l'instantané s'il est à jour, une valeur vide sinon
+     */
+    public static Optional<StarCatalogue> loadIfUpToDate(Path snapshotFile, long sourceChecksum) {
+        if (Files.isRegularFile(snapshotFile)) {
+            try (FileInputStream in = new FileInputStream(snapshotFile.toFile())) {
+                ByteBuffer buffer = CatalogueStreams.bufferOf(in);
+                if (checkHeader(buffer) == sourceChecksum) {
+                    StarCatalogue.Builder builder = new StarCatalogue.Builder();
+                    loadContent(buffer, builder);
+                    return Optional.of(builder.build());
+                }
+            } catch (IOException | RuntimeException e) {
+                // Instantané illisible : il doit être reconstruit
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Méthode statique qui (ré)écrit dans le fichier donné l'instantané du catalogue donné,
+     * construit à partir de sources de somme de contrôle sourceChecksum. L'instantané est
+     * d'abord écrit dans un fichier temporaire, puis déplacé, de manière à ce qu'un
+     * instantané partiellement écrit ne soit jamais lu. Les autres instantanés du répertoire,
+     * construits à partir de sources différentes, sont ensuite supprimés, pour que le cache
+     * ne grossisse pas à chaque modification des sources. Le cache étant facultatif,
+     * une erreur d'écriture ou de suppression est ignorée.
+     *
+     * @param snapshotFile le fichier de l'instantané
+     * @param sourceChecksum la somme de contrôle des sources du catalogue
+     * @param catalogue le catalogue à écrire
+     */
+    public static void save(Path snapshotFile, long sourceChecksum, StarCatalogue catalogue) {
+        Path directory = snapshotFile.toAbsolutePath().getParent();
+        Path tmpFile = null;
+        try {
+            Files.createDirectories(directory);
+            tmpFile = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmpFile)) {
+                write(catalogue, sourceChecksum, out);
+            }
+            Files.move(tmpFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            deleteOtherSnapshots(directory, snapshotFile);
+        } catch (IOException e) {
+            // Le cache est facultatif : le catalogue construit reste utilisable
+            try {
+                if (tmpFile != null)
+                    Files.deleteIfExists(tmpFile);
+            } catch (IOException ignored) {
+                // Rien de plus à faire
+            }
+        }
+    }
+
+    /**
+     * Méthode statique privée qui supprime les instantanés du répertoire donné autres que
+     * le fichier donné. Un instantané qui ne peut être supprimé est laissé en place.
+     *
+     * @param directory le répertoire de cache
+     * @param snapshotFile le fichier de l'instantané à conserver
+     * @throws IOException en cas d'erreur lors du parcours du répertoire
+     */
+    private static void deleteOtherSnapshots(Path directory, Path snapshotFile) throws IOException {
+        Path kept = snapshotFile.toAbsolutePath();
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(directory, SNAPSHOT_FILE_GLOB)) {
+            for (Path snapshot : snapshots) {
+                if (snapshot.toAbsolutePath().equals(kept))
+                    continue;
+                try {
+                    Files.deleteIfExists(snapshot);
+                } catch (IOException e) {
+                    // Instantané périmé en cours d'utilisation : il sera supprimé plus tard
+                }
+            }
+        }
+    }
+
+    /**
+     * Méthode statique privée qui lit et vérifie l'entête de l'instantané contenu dans
+     * le tampon donné, et retourne la somme de contrôle des sources qu'il contient.
+     *
+     * @param buffer le tampon contenant l'instantané
+     * @return la somme de contrôle des sources de l'instantané
+     * @throws IOException si l'entête n'est pas celui d'un instantané de version connue
+     */
+    private static long checkHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            throw new IOException("Instantané de catalogue invalide");
+        return buffer.getLong();
+    }
+
+    /**
+     * Méthode statique privée qui vérifie qu'un nombre d'éléments lu dans l'instantané est
+     * positif ou nul et que le reste du tampon est assez grand pour les contenir, avant que
+     * des tableaux ne soient alloués pour eux : un instantané tronqué ou corrompu dont
+     * l'entête est intact est ainsi rejeté, au lieu d'épuiser la mémoire.
+     *
+     * @param count le nombre d'éléments lu
+     * @param buffer le tampon contenant l'instantané, positionné après ce nombre
+     * @param elementSize la taille minimale d'un élément, en octets
+     * @return le nombre d'éléments
+     * @throws IOException si le nombre est négatif ou trop grand pour le reste du tampon
+     */
+    private static int checkCount(int count, ByteBuffer buffer, int elementSize) throws IOException {
+        if (count < 0 || count > buffer.remaining() / elementSize)
+            throw new IOException("Instantané de catalogue invalide");
+        return count;
+    }
+
+    /**
+     * Méthode statique privée qui ajoute au bâtisseur les étoiles et astérismes de
+     * l'instantané contenu dans le tampon donné, dont l'entête a déjà été lu.
+     *
+     * @param buffer le tampon contenant l'instantané, positionné après son entête
+     * @param builder le bâtisseur
+     * @throws IOException si le tampon ne contient pas un instantané valide
+     */
+    private static void loadContent(ByteBuffer buffer, StarCatalogue.Builder builder) throws IOException {
+        try {
+            int n = checkCount(buffer.getInt(), buffer, STAR_RECORD_SIZE);
+            double[] ra = new double[n];
+            double[] dec = new double[n];
+            float[] magnitude = new float[n];
+            int[] colorTemperature = new int[n];
+            int[] hipparcosId = new int[n];
+            int[] nameId = new int[n];
+
+            buffer.asDoubleBuffer().get(ra);
+            buffer.position(buffer.position() + n*Double.BYTES);
+            buffer.asDoubleBuffer().get(dec);
+            buffer.position(buffer.position() + n*Double.BYTES);
+            buffer.asFloatBuffer().get(magnitude);
+            buffer.position(buffer.position() + n*Float.BYTES);
+            buffer.asIntBuffer().get(colorTemperature);
+            buffer.position(buffer.position() + n*Integer.BYTES);
+            buffer.asIntBuffer().get(hipparcosId);
+            buffer.position(buffer.position() + n*Integer.BYTES);
+
+            int m = checkCount(buffer.getInt(), buffer, Integer.BYTES);
+            int[] nameOffsets = new int[m + 1];
+            buffer.asIntBuffer().get(nameOffsets);
+            buffer.position(buffer.position() + (m + 1)*Integer.BYTES);
+            char[] nameChars = new char[checkCount(nameOffsets[m], buffer, Character.BYTES)];
+            buffer.asCharBuffer().get(nameChars);
+            buffer.position(buffer.position() + nameChars.length*Character.BYTES);
+            String[] distinctNames = new String[m];
+            for (int id = 0; id < m; id++)
+                distinctNames[id] = new String(nameChars, nameOffsets[id], nameOffsets[id + 1] - nameOffsets[id]);
+
+            buffer.asIntBuffer().get(nameId);
+            buffer.position(buffer.position() + n*Integer.BYTES);
+
+            int firstIndex = builder.stars().size();
+            builder.addStars(new StarTable(ra, dec, magnitude, colorTemperature,
+                    hipparcosId, nameId, distinctNames));
+
+            List<Star> stars = builder.stars();
+            int nbAsterisms = checkCount(buffer.getInt(), buffer, Integer.BYTES);
+            for (int i = 0; i < nbAsterisms; i++) {
+                int length = checkCount(buffer.getInt(), buffer, Integer.BYTES);
+                List<Star> asterismStars = new ArrayList<>(length);
+                for (int j = 0; j < length; j++)
+                    asterismStars.add(stars.get(firstIndex + buffer.getInt()));
+                builder.addAsterism(new Asterism(asterismStars));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException
+                | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Instantané de catalogue invalide", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ch.epfl.rigel.astronomy;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Cette classe *package private* et non instanciable regroupe des méthodes utilitaires
+ * partagées par les chargeurs de catalogue pour accéder au contenu de leurs flots d'entrée.
+ * Les flots compressés au format gzip sont reconnus à leur nombre magique, et décompressés
+ * à la volée de manière transparente.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+final class CatalogueStreams {
+
+    private final static int GZIP_MAGIC_SIZE = 2;
+    private final static int DECOMPRESSION_BUFFER_SIZE = 1 << 16;
+
+    private CatalogueStreams() {} // Constructeur privé pour rendre la classe non instantiable
+
+    /**
+     * Méthode statique qui retourne un tampon contenant le reste — décompressé au besoin —
+     * du flot donné. S'il s'agit d'un flot de fichier non compressé, le reste du fichier
+     * est projeté en mémoire plutôt que lu ; sinon, le flot est lu jusqu'à sa fin.
+     *
+     * @param inputStream le flot d'entrée
+     * @return le tampon contenant le reste du flot
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    static ByteBuffer bufferOf(InputStream inputStream) throws IOException {
+        if (inputStream instanceof FileInputStream) {
+            FileChannel channel = ((FileInputStream) inputStream).getChannel();
+            long position = channel.position();
+            ByteBuffer magic = ByteBuffer.allocate(GZIP_MAGIC_SIZE);
+            while (magic.hasRemaining() && channel.read(magic, position + magic.position()) > 0) {
+                // Lecture positionnelle : la position du canal est inchangée
+            }
+            if (!isGzipMagic(magic.array(), magic.position()))
+                return channel.map(FileChannel.MapMode.READ_ONLY, position, channel.size() - position);
+        }
+        return ByteBuffer.wrap(decompressed(inputStream).readAllBytes());
+    }
+
+    /**
+     * Méthode statique qui retourne un flot donnant le contenu décompressé du flot donné
+     * s'il est compressé au format gzip, et ce contenu tel quel sinon. Le flot retourné
+     * doit être utilisé à la place du flot donné, qu'il ferme lorsqu'il est fermé.
+     *
+     * @param inputStream le flot d'entrée, éventuellement compressé
+     * @return le flot du contenu décompressé
+     * @throws IOException en cas d'erreur d'entrée/sortie, ou si le flot est compressé
+     * mais que son entête gzip n'est pas valide
+     */
+    static InputStream decompressed(InputStream inputStream) throws IOException {
+        InputStream in = inputStream.markSupported()
+                ? inputStream
+                : new BufferedInputStream(inputStream, DECOMPRESSION_BUFFER_SIZE);
+        byte[] magic = new byte[GZIP_MAGIC_SIZE];
+        in.mark(GZIP_MAGIC_SIZE);
+        int length = in.readNBytes(magic, 0, GZIP_MAGIC_SIZE);
+        in.reset();
+
+        return isGzipMagic(magic, length)
+                ? new GZIPInputStream(in, DECOMPRESSION_BUFFER_SIZE)
+                : in;
+    }
+
+    /**
+     * Méthode statique privée qui indique si les premiers octets donnés sont le nombre
+     * magique (gros-boutiste 1F 8B) d'un contenu compressé au format gzip.
+     *
+     * @param bytes les premiers octets du contenu
+     * @param length le nombre d'octets lus
+     * @return true si le contenu est compressé au format gzip
+     */
+    private static boolean isGzipMagic(byte[] bytes, int length) {
+        return length == GZIP_MAGIC_SIZE
+                && (bytes[0] & 0xFF) == (GZIPInputStream.GZIP_MAGIC & 0xFF)
+                && (bytes[1] & 0xFF) == (GZIPInputStream.GZIP_MAGIC >>> 8);
+    }
+}
@@ -2,6 +2,9 @@ package ch.epfl.rigel.astronomy;
 
 import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Cette interface représente un modèle d'objet céleste, c'est-à-dire d'une manière
  * de calculer les caractéristiques de cet objet à un instant donné.
@@ -21,4 +24,34 @@ public interface CelestialObjectModel<O> {
      * @return l'objet modélisé par le modèle pour les paramètres donnés
      */
     public abstract O at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion);
+
+    /**
+     * Méthode qui retourne l'objet modélisé par le modèle à l'instant du contexte donné.
+     * Par défaut, elle se contente d'appeler at avec le nombre de jours et la conversion du
+     * contexte ; les modèles qui ont besoin de l'état de l'orbite terrestre ou du Soleil la
+     * redéfinissent afin de réutiliser ceux du contexte plutôt que de les recalculer.
+     *
+     * @param context le contexte de l'instant
+     * @return l'objet modélisé par le modèle à l'instant du contexte
+     */
+    public default O at(SolarSystemContext context) {
+        return at(context.daysSinceJ2010(), context.eclipticToEquatorialConversion());
+    }
+
+    /**
+     * Méthode qui retourne la liste (non modifiable) des objets modélisés par les modèles
+     * donnés, dans le même ordre, tous calculés à l'instant du contexte donné, qui est donc
+     * partagé entre eux.
+     *
+     * @param models les modèles
+     * @param context le contexte de l'instant
+     * @param <O> le type des objets modélisés
+     * @return la liste des objets modélisés à l'instant du contexte
+     */
+    public static <O> List<O> atAll(List<? extends CelestialObjectModel<? extends O>> models, SolarSystemContext context) {
+        List<O> objects = new ArrayList<>(models.size());
+        for (CelestialObjectModel<? extends O> model : models)
+            objects.add(model.at(context));
+        return List.copyOf(objects);
+    }
 }
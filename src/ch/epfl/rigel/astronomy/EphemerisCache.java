@@ -0,0 +1,382 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.EclipticCoordinates;
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.rigel.math.ChebyshevFit;
+import ch.epfl.rigel.math.ClosedInterval;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.min;
+import static java.lang.Math.rint;
+
+/**
+ * Cette classe représente un modèle d'objet céleste qui approche un autre modèle par des
+ * polynômes de Chebyshev, ajustés sur une fenêtre de temps glissante.
+ *
+ * Les grandeurs de l'objet indépendantes de l'obliquité de l'écliptique — ses coordonnées
+ * écliptiques, sa taille angulaire, etc. — sont échantillonnées aux nœuds de Chebyshev de
+ * la fenêtre, puis approchées chacune par un polynôme (ChebyshevFit). Tant que les instants
+ * demandés restent dans la fenêtre, le calcul d'un objet se réduit à l'évaluation de ces
+ * polynômes et à la conversion en coordonnées équatoriales. Lorsqu'un instant en sort,
+ * une nouvelle fenêtre centrée sur lui est ajustée.
+ *
+ * La taille de la fenêtre est adaptée de manière à ce que l'écart entre l'approximation et
+ * le modèle, mesuré entre les nœuds, ne dépasse pas l'erreur maximale donnée pour les angles
+ * (en radians), ni une tolérance fixe pour les grandeurs photométriques (magnitude et phase).
+ * La fenêtre est divisée par deux tant que ce n'est pas le cas, sans descendre sous une
+ * taille minimale, et doublée lors de l'ajustement suivant.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class EphemerisCache<O> implements CelestialObjectModel<O> {
+
+    private final static int NODE_COUNT = 12;
+    private final static double INITIAL_WINDOW_DAYS = 16;
+    private final static double MIN_WINDOW_DAYS = 1d / 64;
+    private final static double MAGNITUDE_TOLERANCE = 1e-2;
+    private final static double PHASE_TOLERANCE = 1e-3;
+
+    // Conversion laissant les coordonnées écliptiques inchangées
+    private final static EclipticToEquatorialConversion ECLIPTIC = new EclipticToEquatorialConversion(0);
+
+    private final CelestialObjectModel<O> model;
+    private final Codec<O> codec;
+    private final double[] tolerances;
+    private volatile Window window;
+
+    /**
+     * Constructeur privé d'un cache du modèle donné, dont les grandeurs sont extraites et
+     * combinées par le codec donné.
+     *
+     * @param model le modèle à approcher
+     * @param codec le codec des grandeurs de l'objet
+     * @param maxError l'erreur maximale sur les angles, en radians
+     * @throws IllegalArgumentException si l'erreur maximale n'est pas strictement positive
+     */
+    private EphemerisCache(CelestialObjectModel<O> model, Codec<O> codec, double maxError) {
+        Preconditions.checkArgument(maxError > 0);
+        this.model = model;
+        this.codec = codec;
+        this.tolerances = codec.tolerances(maxError);
+    }
+
+    /**
+     * Méthode qui retourne un cache du modèle du Soleil.
+     *
+     * @param maxError l'erreur maximale sur les angles, en radians
+     * @return un cache du modèle du Soleil
+     * @throws IllegalArgumentException si l'erreur maximale n'est pas strictement positive
+     */
+    public static EphemerisCache<Sun> ofSun(double maxError) {
+        return new EphemerisCache<>(SunModel.SUN, new SunCodec(), maxError);
+    }
+
+    /**
+     * Méthode qui retourne un cache du modèle de la Lune.
+     *
+     * @param maxError l'erreur maximale sur les angles, en radians
+     * @return un cache du modèle de la Lune
+     * @throws IllegalArgumentException si l'erreur maximale n'est pas strictement positive
+     */
+    public static EphemerisCache<Moon> ofMoon(double maxError) {
+        return new EphemerisCache<>(MoonModel.MOON, new MoonCodec(), maxError);
+    }
+
+    /**
+     * Méthode qui retourne un cache du modèle de planète donné.
+     *
+     * @param planetModel le modèle de la planète
+     * @param maxError l'erreur maximale sur les angles, en radians
+     * @return un cache du modèle de la planète
+     * @throws IllegalArgumentException si l'erreur maximale n'est pas strictement positive
+     */
+    public static EphemerisCache<Planet> ofPlanet(PlanetModel planetModel, double maxError) {
+        return new EphemerisCache<>(planetModel, new PlanetCodec(planetModel.at(0, ECLIPTIC).name()), maxError);
+    }
+
+    /**
+     * Méthode qui retourne l'objet modélisé pour le nombre de jours après l'époque J2010
+     * donné, à partir des polynômes de la fenêtre courante, ajustée au préalable si elle
+     * ne contient pas cet instant.
+     *
+     * @param daysSinceJ2010 nombre de jours après l'époque J2010
+     * @param eclipticToEquatorialConversion la conversion pour obtenir ses coordonnées équatoriales
+     *                                       à partir de ses coordonnées écliptiques
+     * @return l'objet modélisé pour les paramètres donnés
+     */
+    @Override
+    public O at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+        Window window = this.window;
+        if (window == null || !window.interval.contains(daysSinceJ2010)) {
+            double size = (window == null)
+                    ? INITIAL_WINDOW_DAYS
+                    : min(INITIAL_WINDOW_DAYS, 2 * window.interval.size());
+            window = fit(daysSinceJ2010, size);
+            this.window = window;
+        }
+
+        double[] components = new double[window.fits.length];
+        for (int c = 0; c < components.length; c++)
+            components[c] = window.fits[c].at(daysSinceJ2010);
+        return codec.object(components, eclipticToEquatorialConversion);
+    }
+
+    /**
+     * Méthode d'accès *package private* qui retourne l'intervalle de temps (en jours après
+     * l'époque J2010) couvert par la fenêtre courante, ou null si aucune fenêtre n'a encore
+     * été ajustée.
+     *
+     * @return l'intervalle couvert par la fenêtre courante, ou null
+     */
+    ClosedInterval coveredInterval() {
+        Window window = this.window;
+        return window == null ? null : window.interval;
+    }
+
+    /**
+     * Méthode privée qui ajuste une fenêtre centrée sur l'instant donné, en partant de la
+     * taille donnée et en la divisant par deux tant que l'approximation n'est pas assez
+     * précise, sans descendre sous la taille minimale.
+     *
+     * @param center le centre de la fenêtre, en jours après l'époque J2010
+     * @param size la taille initiale de la fenêtre, en jours
+     * @return la fenêtre ajustée
+     */
+    private Window fit(double center, double size) {
+        int n = tolerances.length;
+        double[] components = new double[n];
+        while (true) {
+            ClosedInterval interval = ClosedInterval.of(center - size / 2, center + size / 2);
+            double[] nodes = ChebyshevFit.nodes(interval, NODE_COUNT);
+
+            double[][] values = new double[n][NODE_COUNT];
+            for (int m = 0; m < NODE_COUNT; m++) {
+                codec.components(model.at(nodes[m], ECLIPTIC), components);
+                for (int c = 0; c < n; c++) {
+                    // Les angles sont déroulés, afin d'être continus sur la fenêtre
+                    values[c][m] = (codec.isAngle(c) && m > 0)
+                            ? values[c][m - 1] + symmetric(components[c] - values[c][m - 1])
+                            : components[c];
+                }
+            }
+
+            ChebyshevFit[] fits = new ChebyshevFit[n];
+            for (int c = 0; c < n; c++)
+                fits[c] = ChebyshevFit.of(interval, values[c]);
+
+            if (size <= MIN_WINDOW_DAYS || isAccurate(interval, nodes, fits))
+                return new Window(interval, fits);
+            size /= 2;
+        }
+    }
+
+    /**
+     * Méthode privée qui détermine si les approximations données respectent les tolérances,
+     * en les comparant au modèle aux bornes de l'intervalle et entre chaque paire de nœuds.
+     *
+     * @param interval l'intervalle des approximations
+     * @param nodes les nœuds de Chebyshev de l'intervalle, par ordre croissant
+     * @param fits les approximations des grandeurs de l'objet
+     * @return vrai si et seulement si toutes les approximations respectent leur tolérance
+     */
+    private boolean isAccurate(ClosedInterval interval, double[] nodes, ChebyshevFit[] fits) {
+        double[] components = new double[fits.length];
+        for (int m = 0; m <= nodes.length; m++) {
+            double t = (m == 0) ? interval.low()
+                    : (m == nodes.length) ? interval.high()
+                    : (nodes[m - 1] + nodes[m]) / 2;
+            codec.components(model.at(t, ECLIPTIC), components);
+            for (int c = 0; c < fits.length; c++) {
+                double error = components[c] - fits[c].at(t);
+                if (codec.isAngle(c))
+                    error = symmetric(error);
+                if (!(abs(error) <= tolerances[c]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Méthode statique privée qui ramène l'angle donné dans l'intervalle [-π, π].
+     *
+     * @param angle l'angle, en radians
+     * @return l'angle équivalent compris entre -π et π
+     */
+    private static double symmetric(double angle) {
+        return angle - Angle.TAU * rint(angle / Angle.TAU);
+    }
+
+    /**
+     * Cette classe imbriquée statique privée représente une fenêtre ajustée : son intervalle
+     * de temps et les approximations des grandeurs de l'objet sur celui-ci.
+     */
+    private final static class Window {
+        private final ClosedInterval interval;
+        private final ChebyshevFit[] fits;
+
+        /**
+         * Constructeur d'une fenêtre.
+         *
+         * @param interval l'intervalle de temps de la fenêtre
+         * @param fits les approximations des grandeurs de l'objet
+         */
+        Window(ClosedInterval interval, ChebyshevFit[] fits) {
+            this.interval = interval;
+            this.fits = fits;
+        }
+    }
+
+    /**
+     * Cette interface privée représente la manière d'extraire les grandeurs approchées d'un
+     * objet calculé dans le repère écliptique (son ascension droite et sa déclinaison étant
+     * alors sa longitude et sa latitude écliptiques), et de reconstruire l'objet à partir
+     * des valeurs approchées de ces grandeurs.
+     */
+    private interface Codec<O> {
+        /**
+         * Méthode qui retourne la tolérance de chaque grandeur, pour l'erreur maximale
+         * donnée sur les angles.
+         *
+         * @param maxError l'erreur maximale sur les angles
+         * @return les tolérances des grandeurs
+         */
+        double[] tolerances(double maxError);
+
+        /**
+         * Méthode qui indique si la grandeur d'index donné est un angle défini modulo 2π.
+         *
+         * @param c l'index de la grandeur
+         * @return vrai si et seulement si la grandeur est un angle défini modulo 2π
+         */
+        boolean isAngle(int c);
+
+        /**
+         * Méthode qui écrit dans le tableau donné les grandeurs de l'objet donné, calculé
+         * dans le repère écliptique.
+         *
+         * @param object l'objet calculé dans le repère écliptique
+         * @param out le tableau dans lequel écrire ses grandeurs
+         */
+        void components(O object, double[] out);
+
+        /**
+         * Méthode qui reconstruit l'objet à partir des valeurs de ses grandeurs.
+         *
+         * @param components les valeurs des grandeurs de l'objet
+         * @param conversion la conversion pour obtenir ses coordonnées équatoriales
+         * @return l'objet
+         */
+        O object(double[] components, EclipticToEquatorialConversion conversion);
+    }
+
+    /**
+     * Codec du Soleil : longitude écliptique, anomalie moyenne et taille angulaire.
+     */
+    private final static class SunCodec implements Codec<Sun> {
+        @Override
+        public double[] tolerances(double maxError) {
+            return new double[]{maxError, maxError, maxError};
+        }
+
+        @Override
+        public boolean isAngle(int c) {
+            return c < 2;
+        }
+
+        @Override
+        public void components(Sun sun, double[] out) {
+            out[0] = sun.eclipticPos().lon();
+            out[1] = sun.meanAnomaly();
+            out[2] = sun.angularSize();
+        }
+
+        @Override
+        public Sun object(double[] components, EclipticToEquatorialConversion conversion) {
+            EclipticCoordinates eclipticPos = EclipticCoordinates.of(Angle.normalizePositive(components[0]), 0);
+            return new Sun(eclipticPos, conversion.apply(eclipticPos), (float) components[2],
+                    (float) Angle.normalizePositive(components[1]));
+        }
+    }
+
+    /**
+     * Codec de la Lune : longitude et latitude écliptiques, taille angulaire, phase et
+     * magnitude.
+     */
+    private final static class MoonCodec implements Codec<Moon> {
+        private final static ClosedInterval PHASE_INTERVAL = ClosedInterval.of(0, 1);
+
+        @Override
+        public double[] tolerances(double maxError) {
+            return new double[]{maxError, maxError, maxError, PHASE_TOLERANCE, MAGNITUDE_TOLERANCE};
+        }
+
+        @Override
+        public boolean isAngle(int c) {
+            return c == 0;
+        }
+
+        @Override
+        public void components(Moon moon, double[] out) {
+            EquatorialCoordinates eclipticPos = moon.equatorialPos();
+            out[0] = eclipticPos.ra();
+            out[1] = eclipticPos.dec();
+            out[2] = moon.angularSize();
+            out[3] = moon.phase();
+            out[4] = moon.magnitude();
+        }
+
+        @Override
+        public Moon object(double[] components, EclipticToEquatorialConversion conversion) {
+            EclipticCoordinates eclipticPos = EclipticCoordinates.of(
+                    Angle.normalizePositive(components[0]), components[1]);
+            return new Moon(conversion.apply(eclipticPos), (float) components[2], (float) components[4],
+                    (float) PHASE_INTERVAL.clip(components[3]));
+        }
+    }
+
+    /**
+     * Codec d'une planète : longitude et latitude écliptiques, taille angulaire et magnitude.
+     */
+    private final static class PlanetCodec implements Codec<Planet> {
+        private final String name;
+
+        /**
+         * Constructeur du codec de la planète de nom donné.
+         *
+         * @param name le nom de la planète
+         */
+        PlanetCodec(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public double[] tolerances(double maxError) {
+            return new double[]{maxError, maxError, maxError, MAGNITUDE_TOLERANCE};
+        }
+
+        @Override
+        public boolean isAngle(int c) {
+            return c == 0;
+        }
+
+        @Override
+        public void components(Planet planet, double[] out) {
+            EquatorialCoordinates eclipticPos = planet.equatorialPos();
+            out[0] = eclipticPos.ra();
+            out[1] = eclipticPos.dec();
+            out[2] = planet.angularSize();
+            out[3] = planet.magnitude();
+        }
+
+        @Override
+        public Planet object(double[] components, EclipticToEquatorialConversion conversion) {
+            EclipticCoordinates eclipticPos = EclipticCoordinates.of(
+                    Angle.normalizePositive(components[0]), components[1]);
+            return new Planet(name, conversion.apply(eclipticPos), (float) components[2], (float) components[3]);
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Classe qui représente les éphémérides d'objets du système solaire (Soleil, Lune, planètes,
+ * ou tout autre modèle d'objet céleste) à une suite d'instants régulièrement espacés : leurs
+ * coordonnées équatoriales et, si un lieu d'observation est donné, horizontales.
+ *
+ * Les coordonnées sont stockées par colonnes, dans des tableaux de nombres : une éphéméride
+ * de milliers d'instants ne compte ainsi qu'une poignée d'objets. Les instants sont calculés
+ * par paquets, en parallèle sur les fils du ForkJoinPool commun ; les paquets peuvent aussi
+ * être transmis au fur et à mesure à un consommateur (stream), ce qui évite de garder en
+ * mémoire l'éphéméride complète.
+ *
+ * Les paquets étant calculés simultanément à des instants éloignés, les modèles exacts sont
+ * préférables aux caches (EphemerisCache), qui ne couvrent qu'un intervalle de temps à la fois.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class EphemerisSeries {
+
+    private final static int CHUNK_SIZE = 256; // Nombre d'instants par paquet
+    private final static int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+    private final List<? extends CelestialObjectModel<? extends CelestialObject>> models;
+    private final ZonedDateTime start;
+    private final Duration step;
+    private final GeographicCoordinates where; // null si les coordonnées horizontales ne sont pas calculées
+    private final int firstInstant;
+    private final int size;
+
+    // Colonnes, la coordonnée de l'objet b à l'instant k se trouvant à l'index b*size + k
+    private final double[] ra;
+    private final double[] dec;
+    private final double[] az;
+    private final double[] alt;
+
+    /**
+     * Constructeur privé d'une éphéméride dont les coordonnées restent à calculer.
+     *
+     * @param models les modèles des objets
+     * @param start l'instant d'index 0 de la suite d'instants
+     * @param step l'intervalle entre deux instants successifs
+     * @param where le lieu d'observation, ou null
+     * @param firstInstant l'index, dans la suite d'instants, du premier instant de l'éphéméride
+     * @param size le nombre d'instants de l'éphéméride
+     * @throws IllegalArgumentException s'il y a plus de Integer.MAX_VALUE couples objet-instant
+     */
+    private EphemerisSeries(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                            ZonedDateTime start, Duration step, GeographicCoordinates where,
+                            int firstInstant, int size) {
+        this.models = models;
+        this.start = start;
+        this.step = step;
+        this.where = where;
+        this.firstInstant = firstInstant;
+        this.size = size;
+
+        int length = length(models.size(), size);
+        this.ra = new double[length];
+        this.dec = new double[length];
+        this.az = where == null ? null : new double[length];
+        this.alt = where == null ? null : new double[length];
+    }
+
+    /**
+     * Méthode qui calcule les coordonnées équatoriales des objets dont les modèles sont
+     * donnés, aux instants start, start + step, start + 2·step, etc. jusqu'à end (inclus).
+     *
+     * @param models les modèles des objets
+     * @param start le premier instant
+     * @param end le dernier instant possible
+     * @param step l'intervalle entre deux instants successifs
+     * @return l'éphéméride des objets
+     * @throws IllegalArgumentException si l'intervalle n'est pas strictement positif, si end
+     *                                  précède start, s'il y a trop d'instants ou s'il y a
+     *                                  plus de Integer.MAX_VALUE couples objet-instant
+     */
+    public static EphemerisSeries compute(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                                          ZonedDateTime start, ZonedDateTime end, Duration step) {
+        return computeAll(models, start, end, step, null);
+    }
+
+    /**
+     * Méthode qui calcule les coordonnées équatoriales et horizontales, pour le lieu
+     * d'observation donné, des objets dont les modèles sont donnés, aux instants start,
+     * start + step, start + 2·step, etc. jusqu'à end (inclus).
+     *
+     * @param models les modèles des objets
+     * @param start le premier instant
+     * @param end le dernier instant possible
+     * @param step l'intervalle entre deux instants successifs
+     * @param where le lieu d'observation
+     * @return l'éphéméride des objets
+     * @throws IllegalArgumentException si l'intervalle n'est pas strictement positif, si end
+     *                                  précède start, s'il y a trop d'instants ou s'il y a
+     *                                  plus de Integer.MAX_VALUE couples objet-instant
+     */
+    public static EphemerisSeries compute(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                                          ZonedDateTime start, ZonedDateTime end, Duration step,
+                                          GeographicCoordinates where) {
+        return computeAll(models, start, end, step, Objects.requireNonNull(where));
+    }
+
+    /**
+     * Méthode qui calcule, comme compute, les coordonnées équatoriales des objets dont les
+     * modèles sont donnés, mais par paquets d'au plus chunkSize instants successifs, chaque
+     * paquet étant transmis au consommateur donné dès qu'il est calculé.
+     *
+     * Les paquets sont calculés en parallèle, mais transmis sur le fil appelant et dans
+     * l'ordre chronologique : le consommateur n'a donc pas à être sûr vis-à-vis des fils.
+     * La méthode ne retourne qu'une fois tous les paquets transmis.
+     *
+     * @param models les modèles des objets
+     * @param start le premier instant
+     * @param end le dernier instant possible
+     * @param step l'intervalle entre deux instants successifs
+     * @param chunkSize le nombre maximum d'instants par paquet
+     * @param sink le consommateur des paquets
+     * @throws IllegalArgumentException si l'intervalle ou la taille des paquets ne sont pas
+     *                                  strictement positifs, si end précède start, s'il y
+     *                                  a trop d'instants ou si un paquet compte plus de
+     *                                  Integer.MAX_VALUE couples objet-instant
+     */
+    public static void stream(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                              ZonedDateTime start, ZonedDateTime end, Duration step,
+                              int chunkSize, Consumer<? super EphemerisSeries> sink) {
+        streamAll(models, start, end, step, null, chunkSize, sink);
+    }
+
+    /**
+     * Méthode qui calcule, comme compute, les coordonnées équatoriales et horizontales des
+     * objets dont les modèles sont donnés, mais par paquets d'au plus chunkSize instants
+     * successifs, transmis dans l'ordre chronologique, sur le fil appelant, au consommateur
+     * donné (voir la variante sans lieu d'observation).
+     *
+     * @param models les modèles des objets
+     * @param start le premier instant
+     * @param end le dernier instant possible
+     * @param step l'intervalle entre deux instants successifs
+     * @param where le lieu d'observation
+     * @param chunkSize le nombre maximum d'instants par paquet
+     * @param sink le consommateur des paquets
+     * @throws IllegalArgumentException si l'intervalle ou la taille des paquets ne sont pas
+     *                                  strictement positifs, si end précède start, s'il y
+     *                                  a trop d'instants ou si un paquet compte plus de
+     *                                  Integer.MAX_VALUE couples objet-instant
+     */
+    public static void stream(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                              ZonedDateTime start, ZonedDateTime end, Duration step,
+                              GeographicCoordinates where, int chunkSize,
+                              Consumer<? super EphemerisSeries> sink) {
+        streamAll(models, start, end, step, Objects.requireNonNull(where), chunkSize, sink);
+    }
+
+    /**
+     * Méthode d'accès qui retourne l'index, dans la suite de tous les instants calculés, du
+     * premier instant de l'éphéméride : il est nul, sauf pour les paquets transmis par stream.
+     *
+     * @return l'index du premier instant de l'éphéméride
+     */
+    public int firstInstant() {
+        return firstInstant;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre d'instants de l'éphéméride.
+     *
+     * @return le nombre d'instants
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre d'objets de l'éphéméride, dans l'ordre des
+     * modèles donnés lors du calcul.
+     *
+     * @return le nombre d'objets
+     */
+    public int objectCount() {
+        return models.size();
+    }
+
+    /**
+     * Méthode qui indique si l'éphéméride contient les coordonnées horizontales des objets.
+     *
+     * @return vrai ssi les coordonnées horizontales ont été calculées
+     */
+    public boolean hasHorizontalCoordinates() {
+        return where != null;
+    }
+
+    /**
+     * Méthode qui retourne l'instant d'index k de l'éphéméride.
+     *
+     * @param k l'index de l'instant
+     * @return l'instant d'index k
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public ZonedDateTime instant(int k) {
+        Objects.checkIndex(k, size);
+        return instantAt(start, step, firstInstant + k);
+    }
+
+    /**
+     * Méthode qui retourne l'ascension droite, en radians, de l'objet d'index object à
+     * l'instant d'index k.
+     *
+     * @param object l'index de l'objet
+     * @param k l'index de l'instant
+     * @return l'ascension droite de l'objet à l'instant
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     */
+    public double ra(int object, int k) {
+        return ra[index(object, k)];
+    }
+
+    /**
+     * Méthode qui retourne la déclinaison, en radians, de l'objet d'index object à
+     * l'instant d'index k.
+     *
+     * @param object l'index de l'objet
+     * @param k l'index de l'instant
+     * @return la déclinaison de l'objet à l'instant
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     */
+    public double dec(int object, int k) {
+        return dec[index(object, k)];
+    }
+
+    /**
+     * Méthode qui retourne l'azimut, en radians, de l'objet d'index object à l'instant
+     * d'index k.
+     *
+     * @param object l'index de l'objet
+     * @param k l'index de l'instant
+     * @return l'azimut de l'objet à l'instant
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     * @throws IllegalStateException si les coordonnées horizontales n'ont pas été calculées
+     */
+    public double az(int object, int k) {
+        return horizontal(az)[index(object, k)];
+    }
+
+    /**
+     * Méthode qui retourne la hauteur, en radians, de l'objet d'index object à l'instant
+     * d'index k.
+     *
+     * @param object l'index de l'objet
+     * @param k l'index de l'instant
+     * @return la hauteur de l'objet à l'instant
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     * @throws IllegalStateException si les coordonnées horizontales n'ont pas été calculées
+     */
+    public double alt(int object, int k) {
+        return horizontal(alt)[index(object, k)];
+    }
+
+    /**
+     * Méthode qui retourne un nouveau tableau contenant les ascensions droites de l'objet
+     * d'index object, à chaque instant de l'éphéméride.
+     *
+     * @param object l'index de l'objet
+     * @return les ascensions droites de l'objet, par instant
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double[] ra(int object) {
+        return column(ra, object);
+    }
+
+    /**
+     * Méthode qui retourne un nouveau tableau contenant les déclinaisons de l'objet d'index
+     * object, à chaque instant de l'éphéméride.
+     *
+     * @param object l'index de l'objet
+     * @return les déclinaisons de l'objet, par instant
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double[] dec(int object) {
+        return column(dec, object);
+    }
+
+    /**
+     * Méthode qui retourne un nouveau tableau contenant les azimuts de l'objet d'index
+     * object, à chaque instant de l'éphéméride.
+     *
+     * @param object l'index de l'objet
+     * @return les azimuts de l'objet, par instant
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     * @throws IllegalStateException si les coordonnées horizontales n'ont pas été calculées
+     */
+    public double[] az(int object) {
+        return column(horizontal(az), object);
+    }
+
+    /**
+     * Méthode qui retourne un nouveau tableau contenant les hauteurs de l'objet d'index
+     * object, à chaque instant de l'éphéméride.
+     *
+     * @param object l'index de l'objet
+     * @return les hauteurs de l'objet, par instant
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     * @throws IllegalStateException si les coordonnées horizontales n'ont pas été calculées
+     */
+    public double[] alt(int object) {
+        return column(horizontal(alt), object);
+    }
+
+    /**
+     * Méthode statique privée qui calcule l'éphéméride complète, par paquets calculés en
+     * parallèle.
+     *
+     * @param models les modèles des objets
+     * @param start le premier instant
+     * @param end le dernier instant possible
+     * @param step l'intervalle entre deux instants successifs
+     * @param where le lieu d'observation, ou null
+     * @return l'éphéméride des objets
+     */
+    private static EphemerisSeries computeAll(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                                              ZonedDateTime start, ZonedDateTime end, Duration step,
+                                              GeographicCoordinates where) {
+        int count = instantCount(start, end, step);
+        EphemerisSeries series = new EphemerisSeries(List.copyOf(models), start, step, where, 0, count);
+
+        List<ForkJoinTask<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < count; from += CHUNK_SIZE) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(count, from + CHUNK_SIZE);
+            chunks.add(ForkJoinTask.adapt(() -> series.fill(chunkFrom, chunkTo)));
+        }
+        ForkJoinTask.invokeAll(chunks);
+        return series;
+    }
+
+    /**
+     * Méthode statique privée qui calcule l'éphéméride paquet par paquet, en ne calculant à
+     * l'avance qu'un nombre limité de paquets, et transmet ceux-ci dans l'ordre au consommateur.
+     *
+     * @param models les modèles des objets
+     * @param start le premier instant
+     * @param end le dernier instant possible
+     * @param step l'intervalle entre deux instants successifs
+     * @param where le lieu d'observation, ou null
+     * @param chunkSize le nombre maximum d'instants par paquet
+     * @param sink le consommateur des paquets
+     */
+    private static void streamAll(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                                  ZonedDateTime start, ZonedDateTime end, Duration step,
+                                  GeographicCoordinates where, int chunkSize,
+                                  Consumer<? super EphemerisSeries> sink) {
+        Preconditions.checkArgument(chunkSize > 0);
+        Objects.requireNonNull(sink);
+        int count = instantCount(start, end, step);
+        List<? extends CelestialObjectModel<? extends CelestialObject>> modelsCopy = List.copyOf(models);
+        length(modelsCopy.size(), Math.min(chunkSize, count)); // Vérifié ici plutôt que dans les tâches
+
+        int chunksInFlight = CHUNKS_IN_FLIGHT_PER_THREAD * ForkJoinPool.getCommonPoolParallelism();
+        int from = 0;
+        while (from < count) {
+            List<ForkJoinTask<EphemerisSeries>> chunks = new ArrayList<>(chunksInFlight);
+            for (int c = 0; c < chunksInFlight && from < count; c++) {
+                int chunkFrom = from;
+                int chunkSizeHere = Math.min(chunkSize, count - from);
+                chunks.add(ForkJoinTask.adapt(() -> {
+                    EphemerisSeries chunk = new EphemerisSeries(modelsCopy, start, step, where, chunkFrom, chunkSizeHere);
+                    chunk.fill(0, chunkSizeHere);
+                    return chunk;
+                }));
+                from += chunkSizeHere;
+            }
+            ForkJoinTask.invokeAll(chunks);
+            for (ForkJoinTask<EphemerisSeries> chunk : chunks)
+                sink.accept(chunk.join());
+        }
+    }
+
+    /**
+     * Méthode privée qui calcule les coordonnées des objets aux instants d'index from
+     * (inclus) à to (exclu) de l'éphéméride. Tous les objets d'un même instant partagent
+     * le même contexte (SolarSystemContext).
+     *
+     * @param from l'index du premier instant à calculer
+     * @param to l'index suivant celui du dernier instant à calculer
+     */
+    private void fill(int from, int to) {
+        for (int k = from; k < to; k++) {
+            TimeContext time = TimeContext.of(instantAt(start, step, firstInstant + k));
+            SolarSystemContext context = SolarSystemContext.at(
+                    time.daysSinceJ2010(), new EclipticToEquatorialConversion(time));
+            EquatorialToHorizontalConversion equToHrz = where == null
+                    ? null
+                    : new EquatorialToHorizontalConversion(time, where);
+
+            for (int b = 0; b < models.size(); b++) {
+                EquatorialCoordinates equ = models.get(b).at(context).equatorialPos();
+                int i = b*size + k;
+                ra[i] = equ.ra();
+                dec[i] = equ.dec();
+                if (equToHrz != null) {
+                    HorizontalCoordinates hor = equToHrz.apply(equ);
+                    az[i] = hor.az();
+                    alt[i] = hor.alt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Méthode statique privée qui retourne le nombre d'instants de start à end (inclus),
+     * espacés de step.
+     *
+     * @param start le premier instant
+     * @param end le dernier instant possible
+     * @param step l'intervalle entre deux instants successifs
+     * @return le nombre d'instants
+     * @throws IllegalArgumentException si l'intervalle n'est pas strictement positif, si end
+     *                                  précède start ou s'il y a trop d'instants
+     */
+    private static int instantCount(ZonedDateTime start, ZonedDateTime end, Duration step) {
+        Preconditions.checkArgument(!step.isNegative() && !step.isZero() && !end.isBefore(start));
+        long count = Duration.between(start, end).dividedBy(step) + 1;
+        Preconditions.checkArgument(count <= Integer.MAX_VALUE);
+        return (int) count;
+    }
+
+    /**
+     * Méthode statique privée qui retourne la longueur des colonnes d'une éphéméride,
+     * c'est-à-dire le nombre de couples objet-instant.
+     *
+     * @param objectCount le nombre d'objets
+     * @param instantCount le nombre d'instants
+     * @return le nombre de couples objet-instant
+     * @throws IllegalArgumentException si ce nombre dépasse Integer.MAX_VALUE
+     */
+    private static int length(int objectCount, int instantCount) {
+        long length = (long) objectCount * instantCount;
+        Preconditions.checkArgument(length <= Integer.MAX_VALUE);
+        return (int) length;
+    }
+
+    /**
+     * Méthode statique privée qui retourne l'instant d'index k de la suite start, start + step, etc.
+     *
+     * @param start l'instant d'index 0
+     * @param step l'intervalle entre deux instants successifs
+     * @param k l'index de l'instant
+     * @return l'instant d'index k
+     */
+    private static ZonedDateTime instantAt(ZonedDateTime start, Duration step, int k) {
+        return start.plus(step.multipliedBy(k));
+    }
+
+    /**
+     * Méthode privée qui retourne l'index dans les colonnes des coordonnées de l'objet
+     * d'index object à l'instant d'index k.
+     *
+     * @param object l'index de l'objet
+     * @param k l'index de l'instant
+     * @return l'index dans les colonnes
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     */
+    private int index(int object, int k) {
+        Objects.checkIndex(object, models.size());
+        Objects.checkIndex(k, size);
+        return object*size + k;
+    }
+
+    /**
+     * Méthode privée qui retourne une copie de la partie de la colonne donnée qui concerne
+     * l'objet d'index object.
+     *
+     * @param values la colonne
+     * @param object l'index de l'objet
+     * @return les valeurs de l'objet, par instant
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    private double[] column(double[] values, int object) {
+        Objects.checkIndex(object, models.size());
+        double[] column = new double[size];
+        System.arraycopy(values, object*size, column, 0, size);
+        return column;
+    }
+
+    /**
+     * Méthode statique privée qui retourne la colonne de coordonnées horizontales donnée,
+     * ou lève IllegalStateException si elle n'a pas été calculée.
+     *
+     * @param values la colonne de coordonnées horizontales, ou null
+     * @return la colonne
+     * @throws IllegalStateException si la colonne n'a pas été calculée
+     */
+    private static double[] horizontal(double[] values) {
+        if (values == null)
+            throw new IllegalStateException("coordonnées horizontales non calculées");
+        return values;
+    }
+}
@@ -28,12 +28,14 @@ public enum Epoch {
     ));
 
     private ZonedDateTime epoch;
+    private final long epochMillis; // L'époque, en millisecondes depuis le 1er janvier 1970 à 0h00 UTC
     private static double MILLIS_PER_DAYS = ((1000 * 60) * 60) * 24; // Jour solaire ?
     private static double DAYS_PER_JULIAN_CENTURIES = 36525;
     private static double MILLIS_PER_JULIAN_CENTURIES = MILLIS_PER_DAYS * DAYS_PER_JULIAN_CENTURIES;
 
     private Epoch(ZonedDateTime epoch) {
         this.epoch = epoch;
+        this.epochMillis = epoch.toInstant().toEpochMilli();
     }
 
     /**
@@ -61,4 +63,30 @@ public enum Epoch {
         double millisUntil = this.epoch.until(when, ChronoUnit.MILLIS);
         return millisUntil / MILLIS_PER_JULIAN_CENTURIES;
     }
+
+    /**
+     * Méthode qui retourne le nombre de jours (pas forcément entier) entre l'époque à laquelle
+     * on l'applique et l'instant donné en millisecondes depuis le 1er janvier 1970 à 0h00 UTC,
+     * comme daysUntil, mais sans créer le moindre objet.
+     *
+     * @param epochMillis l'instant à comparer, en millisecondes depuis le 1er janvier 1970 à 0h00 UTC
+     * @return le nombre de jours (pas forcément entier) entre l'époque appliquée et l'instant
+     */
+    public double daysUntil(long epochMillis) {
+        double millisUntil = epochMillis - this.epochMillis;
+        return millisUntil / MILLIS_PER_DAYS;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de siècles juliens entre l'époque à laquelle on l'applique
+     * et l'instant donné en millisecondes depuis le 1er janvier 1970 à 0h00 UTC, comme
+     * julianCenturiesUntil, mais sans créer le moindre objet.
+     *
+     * @param epochMillis l'instant à comparer, en millisecondes depuis le 1er janvier 1970 à 0h00 UTC
+     * @return le nombre de siècles juliens (pas forcément entier) entre l'époque appliquée et l'instant
+     */
+    public double julianCenturiesUntil(long epochMillis) {
+        double millisUntil = epochMillis - this.epochMillis;
+        return millisUntil / MILLIS_PER_JULIAN_CENTURIES;
+    }
 }
@@ -0,0 +1,531 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.Math.*;
+
+/**
+ * Cette classe représente un index spatial des étoiles d'un catalogue, fondé sur le
+ * découpage hiérarchique de la sphère céleste en cellules de même aire du schéma HEALPix
+ * (ordre « nested »), en coordonnées équatoriales.
+ *
+ * À l'ordre k, la sphère est découpée en 12·4^k cellules de même aire ; chaque cellule
+ * d'ordre k est l'union de 4 cellules d'ordre k + 1, dont les numéros sont ceux de la
+ * cellule multipliés par 4, plus 0 à 3. Les étoiles sont triées par numéro de cellule au
+ * plus fin ordre de l'index, si bien que les étoiles de n'importe quelle cellule, à
+ * n'importe quel ordre, occupent une plage contiguë de positions dans cet ordre.
+ *
+ * Les requêtes (cône, polygone convexe) parcourent la hiérarchie des cellules en ne
+ * descendant que dans celles qui peuvent intersecter la région, et retournent des plages
+ * de positions — c'est-à-dire un sur-ensemble des étoiles de la région, à filtrer si
+ * nécessaire. Elles sont conservatrices : aucune étoile de la région n'est omise.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class HealpixIndex {
+
+    private final static int BASE_CELL_COUNT = 12;
+    private final static int MAX_ORDER = 10;
+    private final static int TARGET_STARS_PER_CELL = 16;
+    private final static double TWO_THIRDS = 2d / 3d;
+
+    // Ligne (en unités de nside) et colonne du coin sud de chacune des 12 cellules de base
+    private final static int[] BASE_ROW = {2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4};
+    private final static int[] BASE_COLUMN = {1, 3, 5, 7, 0, 2, 4, 6, 1, 3, 5, 7};
+
+    private final int order;
+    private final int[] starOrder;
+    private final int[] cellStart;
+    private final double[] maxCellRadius;
+
+    /**
+     * Constructeur privé d'un index d'ordre donné, à partir des index des étoiles triés
+     * par cellule et de la position de la première étoile de chaque cellule.
+     *
+     * @param order l'ordre des plus petites cellules de l'index
+     * @param starOrder les index des étoiles, triés par cellule
+     * @param cellStart la position de la première étoile de chaque cellule, suivie du
+     *                  nombre d'étoiles
+     */
+    private HealpixIndex(int order, int[] starOrder, int[] cellStart) {
+        this.order = order;
+        this.starOrder = starOrder;
+        this.cellStart = cellStart;
+        this.maxCellRadius = new double[order + 1];
+        for (int k = 0; k <= order; k++)
+            maxCellRadius[k] = maxCellRadius(k);
+    }
+
+    /**
+     * Méthode statique qui construit l'index spatial des étoiles de la table donnée, à
+     * partir de leurs vecteurs unitaires équatoriaux. L'ordre de l'index est le plus petit
+     * donnant en moyenne au plus une quinzaine d'étoiles par cellule.
+     *
+     * @param table la table des étoiles à indexer
+     * @return l'index spatial des étoiles de la table
+     */
+    static HealpixIndex of(StarTable table) {
+        int n = table.size();
+        int order = 0;
+        while (order < MAX_ORDER && (long) BASE_CELL_COUNT << 2*order < n / TARGET_STARS_PER_CELL)
+            order += 1;
+
+        // Comme pour l'ordre de magnitude du catalogue, chaque étoile est représentée par un
+        // long dont les 32 bits de poids fort codent sa cellule, et les 32 bits de poids
+        // faible son index, afin de trier sans emballage
+        double[] x = table.unitXColumn();
+        double[] y = table.unitYColumn();
+        double[] z = table.unitZColumn();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = ((long) cellOf(order, x[i], y[i], z[i]) << 32) | i;
+        Arrays.sort(keys);
+
+        int[] starOrder = new int[n];
+        int[] cellStart = new int[cellCount(order) + 1];
+        for (int position = 0; position < n; position++) {
+            starOrder[position] = (int) keys[position];
+            cellStart[(int) (keys[position] >>> 32) + 1] += 1;
+        }
+        for (int cell = 0; cell < cellStart.length - 1; cell++)
+            cellStart[cell + 1] += cellStart[cell];
+
+        return new HealpixIndex(order, starOrder, cellStart);
+    }
+
+    /**
+     * Méthode d'accès qui retourne l'ordre des plus petites cellules de l'index.
+     *
+     * @return l'ordre des plus petites cellules de l'index
+     */
+    public int order() {
+        return order;
+    }
+
+    /**
+     * Méthode qui retourne le nombre d'étoiles indexées.
+     *
+     * @return le nombre d'étoiles indexées
+     */
+    public int size() {
+        return starOrder.length;
+    }
+
+    /**
+     * Méthode qui retourne l'index — dans le catalogue — de l'étoile se trouvant à la
+     * position donnée dans l'ordre de l'index.
+     *
+     * @param position la position de l'étoile dans l'ordre de l'index
+     * @return l'index de l'étoile dans le catalogue
+     * @throws IndexOutOfBoundsException si la position n'est pas valide
+     */
+    public int starAt(int position) {
+        return starOrder[position];
+    }
+
+    /**
+     * Méthode qui retourne la plage des positions des étoiles de la cellule d'ordre
+     * order() contenant le point de coordonnées équatoriales données, sous la forme d'un
+     * tableau de deux éléments : la première position (incluse) et la dernière (exclue).
+     *
+     * @param equ les coordonnées équatoriales du point
+     * @return la plage des positions des étoiles de la cellule du point
+     */
+    public int[] cellRange(EquatorialCoordinates equ) {
+        int cell = cellOf(order, equ.ra(), equ.dec());
+        return new int[]{cellStart[cell], cellStart[cell + 1]};
+    }
+
+    /**
+     * Méthode qui retourne les plages des positions des étoiles pouvant se trouver à une
+     * distance angulaire inférieure ou égale au rayon donné du point de coordonnées
+     * équatoriales données. Les plages sont disjointes, non vides, triées et fusionnées
+     * lorsqu'elles sont contiguës, et retournées sous la forme d'un tableau contenant à la
+     * position 2·r la première position (incluse) de la plage r, et à la position 2·r + 1
+     * la dernière (exclue).
+     *
+     * @param center le centre du cône
+     * @param radius le rayon angulaire du cône, en radians
+     * @return les plages des positions des étoiles pouvant se trouver dans le cône
+     * @throws IllegalArgumentException si le rayon est négatif
+     */
+    public int[] coneQuery(EquatorialCoordinates center, double radius) {
+        Preconditions.checkArgument(radius >= 0);
+        double cosDec = cos(center.dec());
+        double[] axis = {cosDec * cos(center.ra()), cosDec * sin(center.ra()), sin(center.dec())};
+
+        RangeBuilder ranges = new RangeBuilder();
+        double[] cellCenter = new double[3];
+        for (int cell = 0; cell < BASE_CELL_COUNT; cell++)
+            coneQuery(0, cell, axis, radius, cellCenter, ranges);
+        return ranges.toArray();
+    }
+
+    /**
+     * Méthode qui retourne les plages des positions des étoiles pouvant se trouver dans le
+     * polygone sphérique convexe dont les sommets sont donnés, dans un sens quelconque,
+     * les côtés étant des arcs de grand cercle. Les plages sont retournées sous la même
+     * forme que par coneQuery.
+     *
+     * @param vertices les sommets du polygone
+     * @return les plages des positions des étoiles pouvant se trouver dans le polygone
+     * @throws IllegalArgumentException si le polygone a moins de 3 sommets ou n'est pas
+     * convexe
+     */
+    public int[] polygonQuery(List<EquatorialCoordinates> vertices) {
+        Preconditions.checkArgument(vertices.size() >= 3);
+        int n = vertices.size();
+        double[][] v = new double[n][];
+        double[] centroid = new double[3];
+        for (int i = 0; i < n; i++) {
+            EquatorialCoordinates vertex = vertices.get(i);
+            double cosDec = cos(vertex.dec());
+            v[i] = new double[]{cosDec * cos(vertex.ra()), cosDec * sin(vertex.ra()), sin(vertex.dec())};
+            for (int c = 0; c < 3; c++)
+                centroid[c] += v[i][c];
+        }
+
+        // Normales unitaires des plans des côtés, orientées vers l'intérieur du polygone
+        double[][] normals = new double[n][];
+        for (int i = 0; i < n; i++) {
+            double[] a = v[i], b = v[(i + 1) % n];
+            double[] normal = {
+                    a[1]*b[2] - a[2]*b[1],
+                    a[2]*b[0] - a[0]*b[2],
+                    a[0]*b[1] - a[1]*b[0]};
+            double norm = sqrt(dot(normal, normal));
+            Preconditions.checkArgument(norm > 0);
+            double sign = dot(normal, centroid) < 0 ? -1 : 1;
+            for (int c = 0; c < 3; c++)
+                normal[c] *= sign / norm;
+            normals[i] = normal;
+        }
+        for (double[] normal : normals) {
+            for (double[] vertex : v)
+                Preconditions.checkArgument(dot(normal, vertex) >= -1e-12);
+        }
+
+        RangeBuilder ranges = new RangeBuilder();
+        double[] cellCenter = new double[3];
+        for (int cell = 0; cell < BASE_CELL_COUNT; cell++)
+            polygonQuery(0, cell, normals, cellCenter, ranges);
+        return ranges.toArray();
+    }
+
+    /**
+     * Méthode privée qui ajoute aux plages données celles des étoiles de la cellule donnée
+     * pouvant se trouver dans le cône, en descendant dans ses sous-cellules si elle n'est
+     * ni disjointe du cône ni entièrement contenue dans celui-ci.
+     *
+     * @param k l'ordre de la cellule
+     * @param cell le numéro de la cellule
+     * @param axis le vecteur unitaire de l'axe du cône
+     * @param radius le rayon angulaire du cône
+     * @param cellCenter un tableau de travail de 3 éléments
+     * @param ranges les plages auxquelles ajouter celles des étoiles de la cellule
+     */
+    private void coneQuery(int k, int cell, double[] axis, double radius, double[] cellCenter,
+                           RangeBuilder ranges) {
+        cellCenter(k, cell, cellCenter);
+        double distance = acos(max(-1, min(1, dot(axis, cellCenter))));
+        if (distance > radius + maxCellRadius[k])
+            return;
+
+        if (k == order || distance + maxCellRadius[k] <= radius) {
+            addCell(k, cell, ranges);
+        } else {
+            for (int child = 4*cell; child < 4*cell + 4; child++)
+                coneQuery(k + 1, child, axis, radius, cellCenter, ranges);
+        }
+    }
+
+    /**
+     * Méthode privée qui ajoute aux plages données celles des étoiles de la cellule donnée
+     * pouvant se trouver dans le polygone, en descendant dans ses sous-cellules si elle
+     * n'est ni disjointe du polygone ni entièrement contenue dans celui-ci. La cellule est
+     * disjointe du polygone si son centre est, de plus que son rayon, du côté extérieur de
+     * l'un des côtés.
+     *
+     * @param k l'ordre de la cellule
+     * @param cell le numéro de la cellule
+     * @param normals les normales unitaires intérieures des côtés du polygone
+     * @param cellCenter un tableau de travail de 3 éléments
+     * @param ranges les plages auxquelles ajouter celles des étoiles de la cellule
+     */
+    private void polygonQuery(int k, int cell, double[][] normals, double[] cellCenter,
+                              RangeBuilder ranges) {
+        cellCenter(k, cell, cellCenter);
+        double sinRadius = sin(min(maxCellRadius[k], PI / 2));
+        boolean inside = true;
+        for (double[] normal : normals) {
+            double sinDistance = dot(normal, cellCenter);
+            if (sinDistance < -sinRadius)
+                return;
+            inside &= sinDistance >= sinRadius;
+        }
+
+        if (k == order || inside) {
+            addCell(k, cell, ranges);
+        } else {
+            for (int child = 4*cell; child < 4*cell + 4; child++)
+                polygonQuery(k + 1, child, normals, cellCenter, ranges);
+        }
+    }
+
+    /**
+     * Méthode privée qui ajoute aux plages données celle des étoiles de la cellule donnée,
+     * c'est-à-dire celles des cellules de l'index qu'elle contient.
+     *
+     * @param k l'ordre de la cellule
+     * @param cell le numéro de la cellule
+     * @param ranges les plages auxquelles ajouter celle des étoiles de la cellule
+     */
+    private void addCell(int k, int cell, RangeBuilder ranges) {
+        int shift = 2*(order - k);
+        ranges.add(cellStart[cell << shift], cellStart[(cell + 1) << shift]);
+    }
+
+    /**
+     * Méthode statique qui retourne le nombre de cellules à l'ordre donné, soit 12·4^k.
+     *
+     * @param k l'ordre
+     * @return le nombre de cellules à l'ordre donné
+     */
+    static int cellCount(int k) {
+        return BASE_CELL_COUNT << 2*k;
+    }
+
+    /**
+     * Méthode statique qui retourne le numéro de la cellule d'ordre donné contenant le
+     * point de coordonnées équatoriales données.
+     *
+     * @param k l'ordre
+     * @param ra l'ascension droite du point, en radians
+     * @param dec la déclinaison du point, en radians
+     * @return le numéro de la cellule contenant le point
+     */
+    static int cellOf(int k, double ra, double dec) {
+        double cosDec = cos(dec);
+        return cellOf(k, cosDec * cos(ra), cosDec * sin(ra), sin(dec));
+    }
+
+    /**
+     * Méthode statique qui retourne le numéro de la cellule d'ordre donné contenant le
+     * point dont le vecteur unitaire équatorial est donné.
+     *
+     * @param k l'ordre
+     * @param x la composante x du vecteur unitaire
+     * @param y la composante y du vecteur unitaire
+     * @param z la composante z du vecteur unitaire
+     * @return le numéro de la cellule contenant le point
+     */
+    static int cellOf(int k, double x, double y, double z) {
+        int nside = 1 << k;
+        double za = abs(z);
+        double tt = atan2(y, x) / (PI / 2);
+        if (tt < 0)
+            tt += 4;
+        if (tt >= 4)
+            tt = 0;
+
+        if (za <= TWO_THIRDS) {
+            // Région équatoriale : indices des lignes de bord montantes et descendantes
+            double temp1 = nside * (0.5 + tt);
+            double temp2 = nside * (z * 0.75);
+            int jp = (int) (temp1 - temp2);
+            int jm = (int) (temp1 + temp2);
+            int ifp = jp >> k;
+            int ifm = jm >> k;
+            int face = (ifp == ifm) ? (ifp | 4) : ((ifp < ifm) ? ifp : (ifm + 8));
+            int ix = jm & (nside - 1);
+            int iy = nside - (jp & (nside - 1)) - 1;
+            return cellOf(k, face, ix, iy);
+        } else {
+            // Régions polaires
+            int ntt = min(3, (int) tt);
+            double tp = tt - ntt;
+            double tmp = nside * sqrt(3 * (1 - za));
+            int jp = min(nside - 1, (int) (tp * tmp));
+            int jm = min(nside - 1, (int) ((1 - tp) * tmp));
+            return (z >= 0)
+                    ? cellOf(k, ntt, nside - jm - 1, nside - jp - 1)
+                    : cellOf(k, ntt + 8, jp, jm);
+        }
+    }
+
+    /**
+     * Méthode statique qui écrit dans le tableau donné le vecteur unitaire équatorial du
+     * centre de la cellule d'ordre et de numéro donnés.
+     *
+     * @param k l'ordre de la cellule
+     * @param cell le numéro de la cellule
+     * @param out le tableau de 3 éléments dans lequel écrire le vecteur unitaire
+     */
+    static void cellCenter(int k, int cell, double[] out) {
+        int nside = 1 << k;
+        int face = cell >>> 2*k;
+        int inFace = cell & ((1 << 2*k) - 1);
+        int ix = compress(inFace);
+        int iy = compress(inFace >>> 1);
+
+        long cellCount = (long) BASE_CELL_COUNT * nside * nside;
+        double fact2 = 4d / cellCount;
+        double fact1 = 2 * nside * fact2;
+
+        int jr = BASE_ROW[face] * nside - ix - iy - 1;
+        int nr;
+        double z;
+        if (jr < nside) {
+            nr = jr;
+            z = 1 - nr * nr * fact2;
+        } else if (jr > 3 * nside) {
+            nr = 4 * nside - jr;
+            z = nr * nr * fact2 - 1;
+        } else {
+            nr = nside;
+            z = (2 * nside - jr) * fact1;
+        }
+
+        int jp = BASE_COLUMN[face] * nr + ix - iy;
+        if (jp < 0)
+            jp += 8 * nr;
+        double phi = (nr == nside)
+                ? 0.75 * (PI / 2) * jp * fact1
+                : (0.5 * (PI / 2) * jp) / nr;
+
+        double sinTheta = sqrt((1 - z) * (1 + z));
+        out[0] = sinTheta * cos(phi);
+        out[1] = sinTheta * sin(phi);
+        out[2] = z;
+    }
+
+    /**
+     * Méthode statique qui retourne la plus grande distance angulaire entre le centre
+     * d'une cellule d'ordre donné et l'un de ses coins, atteinte pour les cellules situées
+     * à la frontière entre la région équatoriale et les régions polaires.
+     *
+     * @param k l'ordre
+     * @return le rayon angulaire maximal des cellules d'ordre donné, en radians
+     */
+    static double maxCellRadius(int k) {
+        int nside = 1 << k;
+        double t = 1 - 1d / nside;
+        double zb = 1 - t * t / 3;
+        double[] a = vectorOf(TWO_THIRDS, PI / (4 * nside));
+        double[] b = vectorOf(zb, 0);
+        return acos(max(-1, min(1, dot(a, b))));
+    }
+
+    /**
+     * Méthode statique privée qui retourne le numéro de la cellule d'ordre donné, de
+     * cellule de base et de coordonnées dans celle-ci données, en entrelaçant les bits
+     * de ses coordonnées.
+     *
+     * @param k l'ordre
+     * @param face le numéro de la cellule de base
+     * @param ix la première coordonnée dans la cellule de base
+     * @param iy la seconde coordonnée dans la cellule de base
+     * @return le numéro de la cellule
+     */
+    private static int cellOf(int k, int face, int ix, int iy) {
+        return (face << 2*k) + spread(ix) + (spread(iy) << 1);
+    }
+
+    /**
+     * Méthode statique privée qui intercale un bit nul avant chacun des 16 bits de poids
+     * faible de l'entier donné.
+     *
+     * @param v l'entier
+     * @return l'entier dont les bits sont espacés
+     */
+    private static int spread(int v) {
+        v &= 0xFFFF;
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    /**
+     * Méthode statique privée qui effectue l'opération inverse de spread, en ne conservant
+     * que les bits de rang pair de l'entier donné.
+     *
+     * @param v l'entier
+     * @return l'entier dont les bits de rang pair sont rassemblés
+     */
+    private static int compress(int v) {
+        v &= 0x55555555;
+        v = (v | (v >>> 1)) & 0x33333333;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F;
+        v = (v | (v >>> 4)) & 0x00FF00FF;
+        v = (v | (v >>> 8)) & 0x0000FFFF;
+        return v;
+    }
+
+    /**
+     * Méthode statique privée qui retourne le vecteur unitaire de cote et de longitude
+     * données.
+     *
+     * @param z la cote du vecteur
+     * @param phi la longitude du vecteur
+     * @return le vecteur unitaire
+     */
+    private static double[] vectorOf(double z, double phi) {
+        double sinTheta = sqrt((1 - z) * (1 + z));
+        return new double[]{sinTheta * cos(phi), sinTheta * sin(phi), z};
+    }
+
+    /**
+     * Méthode statique privée qui retourne le produit scalaire des vecteurs donnés.
+     *
+     * @param a le premier vecteur
+     * @param b le second vecteur
+     * @return le produit scalaire des deux vecteurs
+     */
+    private static double dot(double[] a, double[] b) {
+        return a[0]*b[0] + a[1]*b[1] + a[2]*b[2];
+    }
+
+    /**
+     * Cette classe imbriquée statique privée accumule des plages de positions ajoutées
+     * dans l'ordre croissant, en ignorant les plages vides et en fusionnant les plages
+     * contiguës.
+     */
+    private final static class RangeBuilder {
+        private int[] bounds = new int[16];
+        private int size;
+
+        /**
+         * Méthode qui ajoute la plage donnée.
+         *
+         * @param from la première position de la plage
+         * @param to la position suivant la dernière position de la plage
+         */
+        void add(int from, int to) {
+            if (from == to)
+                return;
+            if (size > 0 && bounds[size - 1] == from) {
+                bounds[size - 1] = to;
+                return;
+            }
+            if (size == bounds.length)
+                bounds = Arrays.copyOf(bounds, 2 * size);
+            bounds[size++] = from;
+            bounds[size++] = to;
+        }
+
+        /**
+         * Méthode qui retourne les plages accumulées.
+         *
+         * @return le tableau des bornes des plages accumulées
+         */
+        int[] toArray() {
+            return Arrays.copyOf(bounds, size);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ch.epfl.rigel.astronomy;
+
+import java.util.Arrays;
+
+/**
+ * Cette classe *package private* représente un index associant à un numéro Hipparcos
+ * l'index d'une étoile dans une table d'étoiles. Il s'agit d'une table de hachage
+ * à adressage ouvert (sondage linéaire) stockée dans deux tableaux d'entiers, sans
+ * aucun emballage des clés ou des valeurs.
+ *
+ * Lorsque plusieurs étoiles ont le même numéro Hipparcos, l'index conserve la dernière
+ * d'entre elles, comme le ferait une table associative remplie dans l'ordre des étoiles.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+final class HipparcosIndex {
+
+    /**
+     * Valeur retournée par get lorsque le numéro Hipparcos n'est pas indexé.
+     */
+    static final int ABSENT = -1;
+
+    private final static int MIN_CAPACITY = 16;
+    private final static int GOLDEN_RATIO_MULTIPLIER = 0x9E3779B9;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Constructeur d'un index vide, dimensionné pour contenir le nombre d'étoiles donné
+     * sans devoir être agrandi.
+     *
+     * @param expectedSize le nombre d'étoiles attendu
+     */
+    HipparcosIndex(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * expectedSize)
+            capacity <<= 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Méthode statique qui construit l'index des numéros Hipparcos des étoiles
+     * de la table donnée.
+     *
+     * @param table la table des étoiles à indexer
+     * @return l'index des étoiles de la table
+     */
+    static HipparcosIndex of(StarTable table) {
+        HipparcosIndex index = new HipparcosIndex(table.size());
+        index.putAll(table, 0);
+        return index;
+    }
+
+    /**
+     * Méthode qui ajoute à l'index les étoiles de la table dont l'index est supérieur
+     * ou égal à from, dans l'ordre de la table.
+     *
+     * @param table la table des étoiles
+     * @param from l'index de la première étoile à ajouter
+     */
+    void putAll(StarTable table, int from) {
+        int[] hipparcosIds = table.hipparcosIdColumn();
+        for (int i = from; i < table.size(); i++)
+            put(hipparcosIds[i], i);
+    }
+
+    /**
+     * Méthode qui associe l'index d'étoile donné au numéro Hipparcos donné, en remplaçant
+     * l'éventuelle association précédente.
+     *
+     * @param hipparcosId le numéro Hipparcos
+     * @param starIndex l'index de l'étoile, positif ou nul
+     */
+    void put(int hipparcosId, int starIndex) {
+        if (2 * (size + 1) > keys.length)
+            grow();
+
+        int mask = keys.length - 1;
+        int slot = slotOf(hipparcosId, mask);
+        while (values[slot] != ABSENT && keys[slot] != hipparcosId)
+            slot = (slot + 1) & mask;
+
+        if (values[slot] == ABSENT) {
+            keys[slot] = hipparcosId;
+            size += 1;
+        }
+        values[slot] = starIndex;
+    }
+
+    /**
+     * Méthode qui retourne l'index de l'étoile ayant le numéro Hipparcos donné,
+     * ou ABSENT si aucune étoile n'a ce numéro.
+     *
+     * @param hipparcosId le numéro Hipparcos
+     * @return l'index de l'étoile, ou ABSENT
+     */
+    int get(int hipparcosId) {
+        int mask = keys.length - 1;
+        int slot = slotOf(hipparcosId, mask);
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == hipparcosId)
+                return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de numéros Hipparcos distincts de l'index.
+     *
+     * @return le nombre de numéros Hipparcos distincts de l'index
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Méthode privée qui double la capacité de l'index et y replace ses associations.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(2 * oldKeys.length);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != ABSENT)
+                put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    /**
+     * Méthode privée qui (ré)alloue des tableaux vides de la capacité donnée.
+     *
+     * @param capacity la capacité, une puissance de deux
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, ABSENT);
+    }
+
+    /**
+     * Méthode statique privée qui retourne la première case sondée pour le numéro donné.
+     * La multiplication par le nombre d'or répartit les numéros consécutifs dans toute la table.
+     *
+     * @param hipparcosId le numéro Hipparcos
+     * @param mask la capacité de la table moins un
+     * @return la première case sondée
+     */
+    private static int slotOf(int hipparcosId, int mask) {
+        int hash = hipparcosId * GOLDEN_RATIO_MULTIPLIER;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
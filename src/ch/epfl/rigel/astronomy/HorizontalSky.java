@@ -0,0 +1,309 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cette classe représente le ciel vu à un instant et d'un lieu d'observation donnés, en
+ * coordonnées horizontales : elle contient le Soleil, la Lune et les planètes ainsi que
+ * leurs positions horizontales, et les directions horizontales des étoiles observées.
+ *
+ * Elle constitue la première étape du calcul d'un ciel observé, qui ne dépend que de
+ * l'instant, du lieu et de la magnitude limite : la seconde étape, la projection, peut
+ * ainsi être refaite — p.ex. lorsque le centre de projection change — sans recalculer
+ * aucune position astronomique. Les directions des étoiles sont stockées sous la forme de
+ * vecteurs unitaires (est, nord, zénith), dans des colonnes primitives.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class HorizontalSky {
+
+    private final StarCatalogue catalogue;
+    private final Sun sun;
+    private final HorizontalCoordinates sunHorizontalPos;
+    private final Moon moon;
+    private final HorizontalCoordinates moonHorizontalPos;
+    private final List<Planet> planets;
+    private final List<HorizontalCoordinates> planetHorizontalPositions;
+
+    private final int[] starIndices;
+    private final int[] computedStarIndices;
+    private final int[] asterismStarPositions;
+    private final double[] starEast;
+    private final double[] starNorth;
+    private final double[] starUp;
+
+    /**
+     * Constructeur qui calcule le ciel à l'instant et au lieu d'observation donnés, pour
+     * toutes les étoiles du catalogue.
+     *
+     * @param observationMoment l'instant d'observation
+     * @param observationPosition la position d'observation
+     * @param catalogue le catalogue contenant les étoiles et astérismes
+     */
+    public HorizontalSky(ZonedDateTime observationMoment, GeographicCoordinates observationPosition,
+                         StarCatalogue catalogue) {
+        this(observationMoment, observationPosition, catalogue, Double.POSITIVE_INFINITY, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructeur qui calcule le ciel à l'instant et au lieu d'observation donnés, pour les
+     * étoiles strictement plus brillantes que la magnitude limite, obtenues par recherche
+     * dichotomique dans l'ordre de magnitude du catalogue. Les étoiles des astérismes sont
+     * toutefois toujours calculées, afin que les astérismes puissent être dessinés en entier.
+     * Les directions des étoiles sont calculées en parallèle dès que leur nombre atteint
+     * le seuil donné.
+     *
+     * @param observationMoment l'instant d'observation
+     * @param observationPosition la position d'observation
+     * @param catalogue le catalogue contenant les étoiles et astérismes
+     * @param limitingMagnitude la magnitude limite des étoiles observées
+     * @param parallelismThreshold le nombre d'étoiles à partir duquel leurs directions sont
+     *                             calculées en parallèle
+     * @throws IllegalArgumentException si le seuil n'est pas strictement positif
+     */
+    public HorizontalSky(ZonedDateTime observationMoment, GeographicCoordinates observationPosition,
+                         StarCatalogue catalogue, double limitingMagnitude, int parallelismThreshold) {
+        this(observationMoment, observationPosition, catalogue, limitingMagnitude, parallelismThreshold,
+                SolarSystemModel.EXACT);
+    }
+
+    /**
+     * Constructeur qui fait de même que le constructeur précédent, mais calcule le Soleil,
+     * la Lune et les planètes avec les modèles donnés, p.ex. des caches des modèles exacts.
+     *
+     * @param observationMoment l'instant d'observation
+     * @param observationPosition la position d'observation
+     * @param catalogue le catalogue contenant les étoiles et astérismes
+     * @param limitingMagnitude la magnitude limite des étoiles observées
+     * @param parallelismThreshold le nombre d'étoiles à partir duquel leurs directions sont
+     *                             calculées en parallèle
+     * @param solarSystemModel les modèles du Soleil, de la Lune et des planètes
+     * @throws IllegalArgumentException si le seuil n'est pas strictement positif
+     */
+    public HorizontalSky(ZonedDateTime observationMoment, GeographicCoordinates observationPosition,
+                         StarCatalogue catalogue, double limitingMagnitude, int parallelismThreshold,
+                         SolarSystemModel solarSystemModel) {
+        this(TimeContext.of(observationMoment), observationPosition, catalogue, limitingMagnitude,
+                parallelismThreshold, solarSystemModel);
+    }
+
+    /**
+     * Constructeur qui fait de même que le constructeur précédent, l'instant d'observation
+     * étant donné par son contexte, dont les grandeurs (jours après J2010, temps sidéral,
+     * etc.) sont partagées par toutes les conversions.
+     *
+     * @param observationTime le contexte de l'instant d'observation
+     * @param observationPosition la position d'observation
+     * @param catalogue le catalogue contenant les étoiles et astérismes
+     * @param limitingMagnitude la magnitude limite des étoiles observées
+     * @param parallelismThreshold le nombre d'étoiles à partir duquel leurs directions sont
+     *                             calculées en parallèle
+     * @param solarSystemModel les modèles du Soleil, de la Lune et des planètes
+     * @throws IllegalArgumentException si le seuil n'est pas strictement positif
+     */
+    public HorizontalSky(TimeContext observationTime, GeographicCoordinates observationPosition,
+                         StarCatalogue catalogue, double limitingMagnitude, int parallelismThreshold,
+                         SolarSystemModel solarSystemModel) {
+        Preconditions.checkArgument(parallelismThreshold > 0);
+
+        // 1. Variables communes
+        double daysSinceJ2010 = observationTime.daysSinceJ2010();
+        EclipticToEquatorialConversion eclToEqu = new EclipticToEquatorialConversion(observationTime);
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                observationTime,
+                observationPosition);
+
+        // 2. Calculs du Soleil, de la Lune et des planètes extraterrestres, qui partagent
+        // l'état de l'orbite terrestre et le Soleil de l'instant
+        SolarSystemContext context = SolarSystemContext.at(daysSinceJ2010, eclToEqu);
+        this.sun = solarSystemModel.sun().at(context);
+        this.sunHorizontalPos = equToHrz.apply(sun.equatorialPos());
+        this.moon = solarSystemModel.moon().at(context);
+        this.moonHorizontalPos = equToHrz.apply(moon.equatorialPos());
+
+        this.planets = CelestialObjectModel.atAll(solarSystemModel.planets(), context);
+        List<HorizontalCoordinates> planetHorizontalPositions = new ArrayList<>();
+        for (Planet planet : planets)
+            planetHorizontalPositions.add(equToHrz.apply(planet.equatorialPos()));
+        this.planetHorizontalPositions = List.copyOf(planetHorizontalPositions);
+
+        // 3. Directions des étoiles plus brillantes que la magnitude limite, puis des étoiles
+        // des astérismes plus faibles, à partir des vecteurs unitaires précalculés par le catalogue
+        int nbObservedStars = catalogue.starsBrighterThan(limitingMagnitude);
+        int[] starIndices = new int[nbObservedStars];
+        for (int rank = 0; rank < nbObservedStars; rank++)
+            starIndices[rank] = catalogue.starIndexByMagnitude(rank);
+
+        // Les rangs des étoiles des astérismes étant triés, celles qui sont plus brillantes que
+        // la magnitude limite sont calculées à la position donnée par leur rang, et les autres
+        // sont ajoutées, par rang croissant, à la suite des étoiles observées
+        int[] asterismStarRanks = catalogue.asterismStarRanks();
+        int nbBrighterAsterismStars = Arrays.binarySearch(asterismStarRanks, nbObservedStars);
+        if (nbBrighterAsterismStars < 0)
+            nbBrighterAsterismStars = -nbBrighterAsterismStars - 1;
+
+        int nbFainterAsterismStars = asterismStarRanks.length - nbBrighterAsterismStars;
+        int[] computedStarIndices = Arrays.copyOf(starIndices, nbObservedStars + nbFainterAsterismStars);
+        int[] asterismStarPositions = Arrays.copyOf(asterismStarRanks, asterismStarRanks.length);
+        for (int k = nbBrighterAsterismStars; k < asterismStarRanks.length; k++) {
+            int position = nbObservedStars + k - nbBrighterAsterismStars;
+            computedStarIndices[position] = catalogue.starIndexByMagnitude(asterismStarRanks[k]);
+            asterismStarPositions[k] = position;
+        }
+
+        StarTable table = catalogue.table();
+        double[] x = table.unitXColumn();
+        double[] y = table.unitYColumn();
+        double[] z = table.unitZColumn();
+        int n = computedStarIndices.length;
+        double[] starEast = new double[n];
+        double[] starNorth = new double[n];
+        double[] starUp = new double[n];
+        ParallelSlices.forEach(n, parallelismThreshold, (from, to) -> equToHrz.applyBatchToUnitVectors(
+                x, y, z, computedStarIndices, from, to, starEast, starNorth, starUp));
+
+        this.catalogue = catalogue;
+        this.starIndices = starIndices;
+        this.computedStarIndices = computedStarIndices;
+        this.asterismStarPositions = asterismStarPositions;
+        this.starEast = starEast;
+        this.starNorth = starNorth;
+        this.starUp = starUp;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le catalogue des étoiles du ciel.
+     *
+     * @return le catalogue des étoiles du ciel
+     */
+    public StarCatalogue catalogue() {
+        return catalogue;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le Soleil.
+     *
+     * @return le Soleil
+     */
+    public Sun sun() {
+        return sun;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la position horizontale du Soleil.
+     *
+     * @return la position horizontale du Soleil
+     */
+    public HorizontalCoordinates sunHorizontalPos() {
+        return sunHorizontalPos;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la Lune.
+     *
+     * @return la Lune
+     */
+    public Moon moon() {
+        return moon;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la position horizontale de la Lune.
+     *
+     * @return la position horizontale de la Lune
+     */
+    public HorizontalCoordinates moonHorizontalPos() {
+        return moonHorizontalPos;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la liste (non modifiable) des planètes extraterrestres.
+     *
+     * @return la liste des planètes extraterrestres
+     */
+    public List<Planet> planets() {
+        return planets;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la liste (non modifiable) des positions horizontales
+     * des planètes extraterrestres, dans le même ordre que la liste des planètes.
+     *
+     * @return la liste des positions horizontales des planètes
+     */
+    public List<HorizontalCoordinates> planetHorizontalPositions() {
+        return planetHorizontalPositions;
+    }
+
+    /**
+     * Méthode d'accès qui retourne les index — dans le catalogue — des étoiles observées,
+     * c'est-à-dire plus brillantes que la magnitude limite, triés par magnitude croissante.
+     * Le tableau retourné ne doit pas être modifié.
+     *
+     * @return le tableau des index des étoiles observées
+     */
+    public int[] starIndices() {
+        return starIndices;
+    }
+
+    /**
+     * Méthode d'accès qui retourne les index des étoiles dont la direction a été calculée :
+     * celles retournées par starIndices, suivies des étoiles des astérismes plus faibles.
+     * Le tableau retourné ne doit pas être modifié.
+     *
+     * @return le tableau des index des étoiles calculées
+     */
+    int[] computedStarIndices() {
+        return computedStarIndices;
+    }
+
+    /**
+     * Méthode d'accès qui retourne les positions — dans computedStarIndices — des étoiles
+     * appartenant à au moins un astérisme, sans doublons et triées par ordre croissant.
+     * Le tableau retourné ne doit pas être modifié.
+     *
+     * @return le tableau des positions des étoiles des astérismes
+     */
+    int[] asterismStarPositions() {
+        return asterismStarPositions;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne des composantes vers l'est des directions des
+     * étoiles calculées, dans l'ordre de computedStarIndices. Elle ne doit pas être modifiée.
+     *
+     * @return la colonne des composantes vers l'est
+     */
+    double[] starEastColumn() {
+        return starEast;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne des composantes vers le nord des directions des
+     * étoiles calculées, dans l'ordre de computedStarIndices. Elle ne doit pas être modifiée.
+     *
+     * @return la colonne des composantes vers le nord
+     */
+    double[] starNorthColumn() {
+        return starNorth;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne des composantes vers le zénith des directions
+     * des étoiles calculées, dans l'ordre de computedStarIndices. Elle ne doit pas être modifiée.
+     *
+     * @return la colonne des composantes vers le zénith
+     */
+    double[] starUpColumn() {
+        return starUp;
+    }
+}
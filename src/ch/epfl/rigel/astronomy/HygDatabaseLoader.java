@@ -1,31 +1,71 @@
 package ch.epfl.rigel.astronomy;
 
-import ch.epfl.rigel.coordinates.EquatorialCoordinates;
 import ch.epfl.rigel.math.Angle;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * Ce type énuméré contient un seul élément nommé INSTANCE et représentant
- * un chargeur de catalogue HYG.
+ * Ce type énuméré contient deux éléments nommés INSTANCE et PARALLEL et représentant
+ * respectivement un chargeur de catalogue HYG séquentiel et parallèle.
+ *
+ * Le chargeur analyse directement les octets du flot (projeté en mémoire s'il s'agit
+ * d'un fichier) : seules les colonnes utiles sont lues, et les nombres sont analysés
+ * sur place, sans créer de chaînes intermédiaires. Un catalogue compressé au format gzip
+ * est décompressé à la volée en mémoire avant d'être analysé.
+ *
+ * Le chargeur parallèle découpe le catalogue en tranches alignées sur les débuts de lignes,
+ * analysées chacune par une tâche ForkJoin dans son propre bâtisseur, puis fusionnées
+ * dans l'ordre du fichier : les index des étoiles sont donc identiques à ceux obtenus
+ * par le chargeur séquentiel.
  *
  * @author Thomas Bonnardel (319827)
  */
 public enum HygDatabaseLoader implements StarCatalogue.Loader {
 
     /**
-     * Objet représentant un chargeur de catalogue HYG.
+     * Objet représentant un chargeur de catalogue HYG séquentiel.
+     */
+    INSTANCE(false),
+
+    /**
+     * Objet représentant un chargeur de catalogue HYG qui analyse le catalogue
+     * en parallèle sur les cœurs disponibles.
+     */
+    PARALLEL(true);
+
+    private final static Columns LAST_USED_COLUMN = Columns.CON;
+    private final static int MAX_FAST_MANTISSA_DIGITS = 18; // Un long peut contenir tout nombre de 18 chiffres
+    private final static long MAX_EXACT_MANTISSA = 1L << 53;
+    private final static double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private final static int MIN_CHUNK_SIZE = 1 << 16;
+    private final static int CHUNKS_PER_THREAD = 4;
+
+    private final boolean parallel;
+
+    /**
+     * Constructeur d'un chargeur de catalogue HYG.
+     *
+     * @param parallel true si le catalogue doit être analysé en parallèle
      */
-     INSTANCE;
+    HygDatabaseLoader(boolean parallel) {
+        this.parallel = parallel;
+    }
 
     /**
      * Cette méthode ajoute au bâtisseur de catalogue toutes les étoiles obtenues
      * du catalogue HYG en utilisant le contenu des colonnes de la manière suivante,
-     * où la valeur par défaut mentionnée est celle à utiliser si la colonne est vide :
+     * où la valeur par défaut mentionnée est celle à utiliser si la colonne est vide :
      *      - le numéro Hipparcos de l'étoile est obtenu de la colonne hip (0 par défaut)
      *      - le nom de l'étoile est obtenu de la colonne proper si elle n'est pas vide et
      *      sinon par concaténation de la colonne bayer (? par défaut [point d'interrogation]),
@@ -35,50 +75,417 @@ public enum HygDatabaseLoader implements StarCatalogue.Loader {
      *      - la magnitude de l'étoile est obtenue de la colonne mag (0 par défaut)
      *      - l'indice de couleur B-V est obtenu de la colonne ci (0 par défaut)
      *
-     * @param inputStream le flot d'entrée contenant les étoiles ou astérismes à charger
+     * @param inputStream le flot d'entrée, éventuellement compressé au format gzip,
+     *                    contenant les étoiles ou astérismes à charger
      * @param builder le bâtisseur qui doit se voir ajouter les étoiles et astérismes du flot d'entrée
      * @throws IOException en cas d'erreur d'entrée/sortie
      */
     @Override
     public void load(InputStream inputStream, StarCatalogue.Builder builder) throws IOException {
-        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, Charset.forName("US-ASCII")))) {
-            String line = bufferedReader.readLine(); // Lecture de la ligne d'en-tête
-
-            while ((line = bufferedReader.readLine()) != null && !line.isBlank()) {
-                String[] tab = line.split(",");
-                int hipparcosId = (!tab[Columns.HIP.ordinal()].isBlank())
-                        ? Integer.parseInt(tab[Columns.HIP.ordinal()])
-                        : 0;
-
-                String name = tab[Columns.PROPER.ordinal()];
-                if (name.isBlank()) {
-                    StringBuilder sb = new StringBuilder();
-                    if (tab[Columns.BAYER.ordinal()].isBlank()) {
-                        sb.append("?");
-                    } else {
-                        sb.append(tab[Columns.BAYER.ordinal()]);
-                    }
-                    sb.append(" ");
-                    sb.append(tab[Columns.CON.ordinal()]);
+        ByteBuffer buffer;
+        try (inputStream) {
+            buffer = CatalogueStreams.bufferOf(inputStream);
+        }
+        load(buffer, builder, StarFilter.ALL);
+    }
+
+    /**
+     * Méthode *package private* qui ajoute au bâtisseur les étoiles du catalogue HYG contenu
+     * dans le tampon donné qui sont acceptées par le filtre donné, dans l'ordre du catalogue.
+     * Le filtre étant appliqué avant l'analyse des autres colonnes, les étoiles rejetées
+     * ne coûtent que le repérage de leurs colonnes.
+     *
+     * @param buffer le tampon contenant le catalogue, ligne d'en-tête comprise
+     * @param builder le bâtisseur auquel ajouter les étoiles
+     * @param filter le filtre des étoiles à ajouter
+     */
+    void load(ByteBuffer buffer, StarCatalogue.Builder builder, StarFilter filter) {
+        int end = buffer.limit();
+        int start = nextLineStart(buffer, 0, end); // Saut de la ligne d'en-tête
+        if (parallel)
+            loadInParallel(buffer, start, end, builder, filter);
+        else
+            new Parser(buffer, filter).parseLines(start, end, builder);
+    }
+
+    /**
+     * Méthode statique privée qui ajoute au bâtisseur les étoiles des lignes comprises entre
+     * les positions start et end du tampon, analysées en parallèle par tranches.
+     *
+     * Les tranches sont fusionnées dans l'ordre, jusqu'à la première qui se termine par
+     * une ligne blanche. Une erreur d'analyse n'est levée que si elle concerne une tranche
+     * fusionnée, de manière à se comporter exactement comme le chargeur séquentiel.
+     *
+     * @param buffer le tampon contenant le catalogue
+     * @param start la position du début de la première ligne d'étoile
+     * @param end la position de fin du catalogue
+     * @param builder le bâtisseur auquel ajouter les étoiles
+     * @param filter le filtre des étoiles à ajouter
+     */
+    private static void loadInParallel(ByteBuffer buffer, int start, int end,
+                                       StarCatalogue.Builder builder, StarFilter filter) {
+        int nbChunks = Math.max(1, Math.min(
+                CHUNKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism(),
+                (end - start) / MIN_CHUNK_SIZE));
+
+        List<Chunk> chunks = new ArrayList<>(nbChunks);
+        int chunkStart = start;
+        for (int i = 1; i <= nbChunks; i++) {
+            int chunkEnd = (i == nbChunks)
+                    ? end
+                    : nextLineStart(buffer, start + (int) ((long) (end - start) * i / nbChunks) - 1, end);
+            if (chunkEnd > chunkStart)
+                chunks.add(new Chunk(new Parser(buffer.duplicate(), filter), chunkStart, chunkEnd));
+            chunkStart = Math.max(chunkStart, chunkEnd);
+        }
+
+        ForkJoinTask.invokeAll(chunks);
+
+        for (Chunk chunk : chunks) {
+            if (chunk.failure != null)
+                throw chunk.failure;
+            builder.addStars(chunk.builder.table());
+            if (chunk.stoppedAtBlankLine)
+                return;
+        }
+    }
+
+    /**
+     * Méthode statique privée qui retourne la position du début de la ligne qui suit
+     * celle contenant la position donnée, ou end s'il n'y en a pas.
+     *
+     * @param buffer le tampon contenant le catalogue
+     * @param position une position dans le tampon
+     * @param end la fin de la zone du tampon à considérer
+     * @return la position du début de la ligne suivante
+     */
+    private static int nextLineStart(ByteBuffer buffer, int position, int end) {
+        while (position < end && buffer.get(position) != '\n')
+            position += 1;
+        return Math.min(position + 1, end);
+    }
+
+    /**
+     * Cette classe privée représente la tâche d'analyse d'une tranche du catalogue,
+     * dont le résultat est conservé dans un bâtisseur qui lui est propre.
+     */
+    private final static class Chunk extends RecursiveAction {
+        private final static long serialVersionUID = 1L;
+
+        private final Parser parser;
+        private final int start;
+        private final int end;
+        private final StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        private boolean stoppedAtBlankLine;
+        private RuntimeException failure;
+
+        /**
+         * Constructeur de la tâche d'analyse de la tranche comprise entre les positions données.
+         *
+         * @param parser l'analyseur, propre à la tranche, des lignes du catalogue
+         * @param start la position du début de la tranche, qui doit être un début de ligne
+         * @param end la position de fin de la tranche
+         */
+        private Chunk(Parser parser, int start, int end) {
+            this.parser = parser;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                stoppedAtBlankLine = parser.parseLines(start, end, builder);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+    }
 
-                    name = sb.toString();
+    /**
+     * Cette classe privée représente un analyseur de lignes du catalogue HYG.
+     * Elle conserve entre les lignes les tampons nécessaires à l'analyse, de manière
+     * à ce que l'analyse d'une ligne ne crée que le nom de l'étoile.
+     */
+    private final static class Parser {
+        private final ByteBuffer buffer;
+        private final StarFilter filter;
+        private final int[] fieldStarts = new int[LAST_USED_COLUMN.ordinal() + 1];
+        private final int[] fieldEnds = new int[LAST_USED_COLUMN.ordinal() + 1];
+        private byte[] nameBytes = new byte[64];
+
+        /**
+         * Constructeur d'un analyseur des lignes contenues dans le tampon donné,
+         * qui n'ajoute que les étoiles acceptées par le filtre donné.
+         *
+         * @param buffer le tampon contenant le catalogue
+         * @param filter le filtre des étoiles à ajouter
+         */
+        private Parser(ByteBuffer buffer, StarFilter filter) {
+            this.buffer = buffer;
+            this.filter = filter;
+        }
+
+        /**
+         * Méthode qui ajoute au bâtisseur les étoiles des lignes comprises entre les positions
+         * start (incluse), qui doit être un début de ligne, et end (exclue). Comme pour une
+         * lecture ligne par ligne, l'analyse s'arrête à la première ligne blanche.
+         *
+         * @param start la position du début de la première ligne
+         * @param end la position de fin de la zone à analyser
+         * @param builder le bâtisseur auquel ajouter les étoiles
+         * @return true si l'analyse s'est arrêtée sur une ligne blanche
+         */
+        private boolean parseLines(int start, int end, StarCatalogue.Builder builder) {
+            int position = start;
+            while (position < end) {
+                int lineEnd = position;
+                while (lineEnd < end && buffer.get(lineEnd) != '\n')
+                    lineEnd += 1;
+                int contentEnd = (lineEnd > position && buffer.get(lineEnd - 1) == '\r')
+                        ? lineEnd - 1
+                        : lineEnd;
+
+                if (isBlank(position, contentEnd))
+                    return true;
+                parseLine(position, contentEnd, builder);
+                position = lineEnd + 1;
+            }
+            return false;
+        }
+
+        /**
+         * Méthode privée qui ajoute au bâtisseur l'étoile décrite par la ligne comprise
+         * entre les positions données.
+         *
+         * @param start la position du début de la ligne
+         * @param end la position de la fin de la ligne (sans le saut de ligne)
+         * @param builder le bâtisseur auquel ajouter l'étoile
+         */
+        private void parseLine(int start, int end, StarCatalogue.Builder builder) {
+            // Repérage des colonnes utiles, jusqu'à la dernière d'entre elles
+            int column = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end && column <= LAST_USED_COLUMN.ordinal(); i++) {
+                if (i == end || buffer.get(i) == ',') {
+                    fieldStarts[column] = fieldStart;
+                    fieldEnds[column] = i;
+                    column += 1;
+                    fieldStart = i + 1;
                 }
+            }
+            if (column <= LAST_USED_COLUMN.ordinal())
+                throw new ArrayIndexOutOfBoundsException(column);
+
+            int hipparcosId = !isBlank(Columns.HIP)
+                    ? parseInt(Columns.HIP)
+                    : 0;
+
+            double magnitude = !isBlank(Columns.MAG)
+                    ? parseDouble(Columns.MAG)
+                    : 0;
+
+            if (!filter.accepts(hipparcosId, magnitude))
+                return;
+
+            String name;
+            if (!isBlank(Columns.PROPER)) {
+                name = string(Columns.PROPER);
+            } else {
+                name = bayerName();
+            }
+
+            double ra = Angle.normalizePositive(parseDouble(Columns.RARAD));
+            double dec = parseDouble(Columns.DECRAD);
+
+            double colorIndex = !isBlank(Columns.CI)
+                    ? parseDouble(Columns.CI)
+                    : 0;
+
+            builder.addStar(hipparcosId, name, ra, dec, (float)magnitude, (float)colorIndex);
+        }
+
+        /**
+         * Méthode privée qui construit le nom d'une étoile par concaténation de la colonne
+         * bayer (? par défaut), d'un espace et de la colonne con.
+         *
+         * @return le nom de l'étoile
+         */
+        private String bayerName() {
+            int bayerLength = isBlank(Columns.BAYER) ? 1 : length(Columns.BAYER);
+            int conLength = length(Columns.CON);
+            int length = bayerLength + 1 + conLength;
+            if (nameBytes.length < length)
+                nameBytes = new byte[2*length];
+
+            if (isBlank(Columns.BAYER))
+                nameBytes[0] = '?';
+            else
+                buffer.get(fieldStarts[Columns.BAYER.ordinal()], nameBytes, 0, bayerLength);
+            nameBytes[bayerLength] = ' ';
+            buffer.get(fieldStarts[Columns.CON.ordinal()], nameBytes, bayerLength + 1, conLength);
+
+            return new String(nameBytes, 0, length, StandardCharsets.US_ASCII);
+        }
 
-                double ra = Angle.normalizePositive(Double.parseDouble(tab[Columns.RARAD.ordinal()]));
-                double dec = Double.parseDouble(tab[Columns.DECRAD.ordinal()]);
-                EquatorialCoordinates equatorialPos = EquatorialCoordinates.of(ra, dec);
+        /**
+         * Méthode privée qui retourne le contenu de la colonne donnée de la ligne courante.
+         *
+         * @param column la colonne
+         * @return le contenu de la colonne
+         */
+        private String string(Columns column) {
+            int length = length(column);
+            if (nameBytes.length < length)
+                nameBytes = new byte[2*length];
+            buffer.get(fieldStarts[column.ordinal()], nameBytes, 0, length);
+            return new String(nameBytes, 0, length, StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * Méthode privée qui retourne la longueur, en octets, de la colonne donnée
+         * de la ligne courante.
+         *
+         * @param column la colonne
+         * @return la longueur de la colonne
+         */
+        private int length(Columns column) {
+            return fieldEnds[column.ordinal()] - fieldStarts[column.ordinal()];
+        }
+
+        /**
+         * Méthode privée qui indique si la colonne donnée de la ligne courante est blanche,
+         * c'est-à-dire vide ou ne contenant que des espaces.
+         *
+         * @param column la colonne
+         * @return true si la colonne est blanche
+         */
+        private boolean isBlank(Columns column) {
+            return isBlank(fieldStarts[column.ordinal()], fieldEnds[column.ordinal()]);
+        }
+
+        /**
+         * Méthode privée qui indique si les octets compris entre les positions données
+         * sont tous des espaces (au sens de String.isBlank pour des caractères ASCII).
+         *
+         * @param start la position de début (incluse)
+         * @param end la position de fin (exclue)
+         * @return true si la zone est blanche
+         */
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b != ' ' && (b < '\t' || b > '\r') && (b < 0x1C || b > 0x1F))
+                    return false;
+            }
+            return true;
+        }
 
-                double magnitude = (!tab[Columns.MAG.ordinal()].isBlank())
-                        ? Double.parseDouble(tab[Columns.MAG.ordinal()])
-                        : 0;
+        /**
+         * Méthode privée qui analyse sur place l'entier contenu dans la colonne donnée.
+         * Les cas inhabituels sont délégués à Integer.parseInt, qui lève alors les mêmes
+         * exceptions que lors d'une analyse classique.
+         *
+         * @param column la colonne
+         * @return l'entier contenu dans la colonne
+         * @throws NumberFormatException si la colonne ne contient pas un entier valide
+         */
+        private int parseInt(Columns column) {
+            int start = fieldStarts[column.ordinal()];
+            int end = fieldEnds[column.ordinal()];
+            final int MAX_FAST_DIGITS = 9;
 
-                double colorIndex = (!tab[Columns.CI.ordinal()].isBlank())
-                        ? Double.parseDouble(tab[Columns.CI.ordinal()])
-                        : 0;
+            if (end - start > MAX_FAST_DIGITS)
+                return Integer.parseInt(string(column));
 
-                builder.addStar(new Star(hipparcosId, name, equatorialPos, (float)magnitude, (float)colorIndex));
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9)
+                    return Integer.parseInt(string(column));
+                value = 10*value + digit;
             }
+            return value;
         }
+
+        /**
+         * Méthode privée qui analyse sur place le nombre décimal contenu dans la colonne
+         * donnée. Lorsque la mantisse tient exactement dans un double et que la puissance
+         * de dix est elle-même exacte, une seule multiplication ou division suffit, et son
+         * arrondi correct garantit un résultat identique à celui de Double.parseDouble.
+         * Les autres cas (mantisse trop longue, exposant, ...) sont délégués à
+         * Double.parseDouble.
+         *
+         * @param column la colonne
+         * @return le nombre contenu dans la colonne
+         * @throws NumberFormatException si la colonne ne contient pas un nombre valide
+         */
+        private double parseDouble(Columns column) {
+            int start = fieldStarts[column.ordinal()];
+            int end = fieldEnds[column.ordinal()];
+
+            int i = start;
+            boolean negative = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negative = buffer.get(i) == '-';
+                i += 1;
+            }
+
+            long mantissa = 0;
+            int nbDigits = 0;
+            int exponent = 0;
+            boolean hasDigit = false;
+            boolean afterPoint = false;
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && !afterPoint) {
+                    afterPoint = true;
+                } else if ('0' <= b && b <= '9') {
+                    hasDigit = true;
+                    if (mantissa != 0 || b != '0') {
+                        if (nbDigits == MAX_FAST_MANTISSA_DIGITS)
+                            return Double.parseDouble(string(column));
+                        mantissa = 10*mantissa + (b - '0');
+                        nbDigits += 1;
+                    }
+                    if (afterPoint)
+                        exponent -= 1;
+                } else {
+                    return Double.parseDouble(string(column));
+                }
+            }
+
+            if (!hasDigit || mantissa > MAX_EXACT_MANTISSA
+                    || -exponent >= EXACT_POWERS_OF_TEN.length)
+                return Double.parseDouble(string(column));
+
+            double value = (exponent == 0)
+                    ? mantissa
+                    : mantissa / EXACT_POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+    }
+
+    /**
+     * Cette interface fonctionnelle *package private* représente un filtre des étoiles
+     * à charger, selon leur numéro Hipparcos et leur magnitude.
+     */
+    @FunctionalInterface
+    interface StarFilter {
+        /**
+         * Filtre acceptant toutes les étoiles.
+         */
+        StarFilter ALL = (hipparcosId, magnitude) -> true;
+
+        /**
+         * Méthode qui indique si l'étoile de numéro Hipparcos et de magnitude donnés
+         * doit être chargée.
+         *
+         * @param hipparcosId le numéro Hipparcos de l'étoile (0 si elle n'en a pas)
+         * @param magnitude la magnitude de l'étoile (0 si elle est inconnue)
+         * @return true si l'étoile doit être chargée
+         */
+        boolean accepts(int hipparcosId, double magnitude);
     }
 
     /**
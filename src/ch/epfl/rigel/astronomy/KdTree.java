@@ -0,0 +1,235 @@
+package ch.epfl.rigel.astronomy;
+
+/**
+ * Cette classe *package private* représente un arbre k-d de points du plan, permettant de
+ * trouver le point le plus proche d'un point donné en un temps logarithmique en moyenne.
+ *
+ * L'arbre est implicite : les points sont stockés dans trois tableaux parallèles (index,
+ * abscisses, ordonnées), permutés de manière à ce que le point médian de chaque plage soit
+ * la racine du sous-arbre correspondant, les points de la moitié gauche de la plage ayant
+ * une coordonnée de séparation inférieure ou égale à la sienne, et ceux de la moitié droite
+ * une coordonnée supérieure ou égale. La coordonnée de séparation alterne entre l'abscisse
+ * (aux profondeurs paires) et l'ordonnée (aux profondeurs impaires). Aucun nœud n'est alloué.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+final class KdTree {
+
+    /**
+     * Valeur retournée par nearest lorsqu'aucun point n'est assez proche.
+     */
+    static final int NONE = -1;
+
+    private final int[] ids;
+    private final double[] xs;
+    private final double[] ys;
+
+    /**
+     * Constructeur privé qui construit l'arbre des points donnés, dont il devient propriétaire.
+     *
+     * @param ids les index des points
+     * @param xs les abscisses des points
+     * @param ys les ordonnées des points
+     */
+    private KdTree(int[] ids, double[] xs, double[] ys) {
+        this.ids = ids;
+        this.xs = xs;
+        this.ys = ys;
+        build(0, ids.length, 0);
+    }
+
+    /**
+     * Méthode statique qui construit l'arbre des points d'index donnés, dont les coordonnées
+     * sont stockées dans le tableau positions : l'abscisse du point d'index i à la position
+     * 2·i, et son ordonnée à la position 2·i + 1. Les points dont l'une des coordonnées
+     * n'est pas finie sont ignorés.
+     *
+     * @param positions les coordonnées des points
+     * @param indices les index des points à placer dans l'arbre
+     * @return l'arbre des points d'index donnés
+     */
+    static KdTree of(double[] positions, int[] indices) {
+        int n = 0;
+        for (int i : indices) {
+            if (Double.isFinite(positions[2*i]) && Double.isFinite(positions[2*i + 1]))
+                n += 1;
+        }
+
+        int[] ids = new int[n];
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int k = 0;
+        for (int i : indices) {
+            double x = positions[2*i], y = positions[2*i + 1];
+            if (Double.isFinite(x) && Double.isFinite(y)) {
+                ids[k] = i;
+                xs[k] = x;
+                ys[k] = y;
+                k += 1;
+            }
+        }
+        return new KdTree(ids, xs, ys);
+    }
+
+    /**
+     * Méthode qui retourne le nombre de points de l'arbre.
+     *
+     * @return le nombre de points de l'arbre
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Méthode qui retourne l'index du point de l'arbre le plus proche du point donné, pour
+     * peu que le carré de sa distance à celui-ci soit strictement inférieur au carré de
+     * distance donné, ou NONE sinon.
+     *
+     * @param x l'abscisse du point
+     * @param y l'ordonnée du point
+     * @param maxSquareDistance le carré de la distance maximale (exclue)
+     * @return l'index du point le plus proche, ou NONE
+     */
+    int nearest(double x, double y, double maxSquareDistance) {
+        Search search = new Search(maxSquareDistance);
+        nearest(0, ids.length, 0, x, y, search);
+        return search.id;
+    }
+
+    /**
+     * Méthode privée qui cherche, parmi les points de la plage donnée, un point plus proche
+     * du point donné que le meilleur trouvé jusqu'ici, en commençant par le côté de la
+     * séparation contenant le point, et en ne visitant l'autre côté que s'il peut contenir
+     * un point plus proche.
+     *
+     * @param lo le début de la plage (inclus)
+     * @param hi la fin de la plage (exclue)
+     * @param depth la profondeur de la plage dans l'arbre
+     * @param x l'abscisse du point
+     * @param y l'ordonnée du point
+     * @param search l'état de la recherche
+     */
+    private void nearest(int lo, int hi, int depth, double x, double y, Search search) {
+        if (lo >= hi)
+            return;
+
+        int mid = (lo + hi) >>> 1;
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        double squareDistance = dx*dx + dy*dy;
+        if (squareDistance < search.squareDistance) {
+            search.squareDistance = squareDistance;
+            search.id = ids[mid];
+        }
+
+        double diff = (depth & 1) == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, x, y, search);
+            if (diff*diff < search.squareDistance)
+                nearest(mid + 1, hi, depth + 1, x, y, search);
+        } else {
+            nearest(mid + 1, hi, depth + 1, x, y, search);
+            if (diff*diff < search.squareDistance)
+                nearest(lo, mid, depth + 1, x, y, search);
+        }
+    }
+
+    /**
+     * Méthode privée qui organise récursivement la plage donnée en sous-arbre, en plaçant
+     * en son milieu le point médian selon la coordonnée de séparation de la profondeur.
+     *
+     * @param lo le début de la plage (inclus)
+     * @param hi la fin de la plage (exclue)
+     * @param depth la profondeur de la plage dans l'arbre
+     */
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1)
+            return;
+
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, (depth & 1) == 0 ? xs : ys);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Méthode privée qui permute les points de la plage [lo, hi] de manière à ce que le
+     * point de position k soit celui qui s'y trouverait si la plage était triée selon la
+     * coordonnée donnée, les points qui le précèdent ayant une coordonnée inférieure ou
+     * égale, et ceux qui le suivent une coordonnée supérieure ou égale (sélection rapide
+     * de Hoare, avec pivot médian de trois).
+     *
+     * @param lo le début de la plage (inclus)
+     * @param hi la fin de la plage (incluse)
+     * @param k la position à placer
+     * @param keys la coordonnée selon laquelle sélectionner
+     */
+    private void select(int lo, int hi, int k, double[] keys) {
+        while (hi > lo) {
+            int middle = (lo + hi) >>> 1;
+            if (keys[middle] < keys[lo])
+                swap(middle, lo);
+            if (keys[hi] < keys[lo])
+                swap(hi, lo);
+            if (keys[hi] < keys[middle])
+                swap(hi, middle);
+            double pivot = keys[middle];
+
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot)
+                    i += 1;
+                while (keys[j] > pivot)
+                    j -= 1;
+                if (i <= j) {
+                    swap(i, j);
+                    i += 1;
+                    j -= 1;
+                }
+            }
+
+            if (k <= j)
+                hi = j;
+            else if (k >= i)
+                lo = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Méthode privée qui échange les points de positions données.
+     *
+     * @param a la position du premier point
+     * @param b la position du second point
+     */
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double x = xs[a];
+        xs[a] = xs[b];
+        xs[b] = x;
+        double y = ys[a];
+        ys[a] = ys[b];
+        ys[b] = y;
+    }
+
+    /**
+     * Cette classe imbriquée statique privée représente l'état d'une recherche du point le
+     * plus proche : le meilleur point trouvé jusqu'ici et le carré de sa distance.
+     */
+    private final static class Search {
+        private double squareDistance;
+        private int id = NONE;
+
+        /**
+         * Constructeur d'une recherche n'ayant encore trouvé aucun point.
+         *
+         * @param maxSquareDistance le carré de la distance maximale (exclue)
+         */
+        Search(double maxSquareDistance) {
+            this.squareDistance = maxSquareDistance;
+        }
+    }
+}
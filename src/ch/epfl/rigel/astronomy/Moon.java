@@ -37,6 +37,15 @@ public final class Moon extends CelestialObject {
         this.phase = (float) Preconditions.checkInInterval(PHASE_INTERVAL, phase);
     }
 
+    /**
+     * Méthode d'accès qui retourne la phase de la Lune, comprise entre 0 et 1.
+     *
+     * @return la phase de la Lune
+     */
+    public double phase() {
+        return phase;
+    }
+
     /**
      * Redéfinition de la méthode info pour que la phase apparaisse après le nom, entre parenthèses
      * et exprimé en pourcent, avec une décimale.
@@ -40,11 +40,36 @@ public enum MoonModel implements CelestialObjectModel<Moon> {
      */
     @Override
     public Moon at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+        return at(daysSinceJ2010, eclipticToEquatorialConversion, SunModel.SUN.at(daysSinceJ2010, eclipticToEquatorialConversion));
+    }
+
+    /**
+     * Méthode qui retourne la Lune modélisée par le modèle à l'instant du contexte donné,
+     * en utilisant le Soleil qu'il contient plutôt que de le recalculer.
+     *
+     * @param context le contexte de l'instant
+     * @return le modèle de la Lune calculé
+     */
+    @Override
+    public Moon at(SolarSystemContext context) {
+        return at(context.daysSinceJ2010(), context.eclipticToEquatorialConversion(), context.sun());
+    }
+
+    /**
+     * Méthode privée qui retourne la Lune modélisée par le modèle, étant donné le Soleil
+     * au même instant.
+     *
+     * @param daysSinceJ2010 nombre de jours après l'époque J2010
+     * @param eclipticToEquatorialConversion la conversion pour obtenir ses coordonnées équatoriales
+     *                                       à partir de ses coordonnées écliptiques
+     * @param sun le Soleil au même instant
+     * @return le modèle de la Lune calculé
+     */
+    private Moon at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion, Sun sun) {
         // 1. Calcul de la longitude orbital
         double meanOrbitalLongitude = Angle.ofDeg(13.1763966)*daysSinceJ2010 + L_0;
         double meanAnomaly = meanOrbitalLongitude - Angle.ofDeg(0.1114041)*daysSinceJ2010 - P_0;
 
-        Sun sun = SunModel.SUN.at(daysSinceJ2010, eclipticToEquatorialConversion);
         double sunMeanAnomaly = sun.meanAnomaly();
         double sunGeocentricEclipticLongitude = sun.eclipticPos().lon();
 
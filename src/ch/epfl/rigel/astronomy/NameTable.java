@@ -0,0 +1,117 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cette classe *package private* représente une table de noms d'étoiles sans doublons :
+ * chaque nom distinct n'y est stocké qu'une fois, et identifié par un entier. La table
+ * stocke en outre, pour chaque nom, sa clef de recherche (le nom en majuscules), calculée
+ * une seule fois lors de l'ajout du nom.
+ *
+ * De nombreuses étoiles du catalogue HYG portant le même nom synthétique (p.ex. « ? Ori »),
+ * les étoiles d'une table partagent ainsi les mêmes instances de String.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+final class NameTable {
+
+    private final static int DEFAULT_CAPACITY = 16;
+
+    private final Map<String, Integer> ids;
+    private String[] names;
+    private String[] keys;
+    private int size;
+
+    /**
+     * Constructeur qui construit une table de noms vide.
+     */
+    NameTable() {
+        this.ids = new HashMap<>();
+        this.names = new String[DEFAULT_CAPACITY];
+        this.keys = new String[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Constructeur qui construit une table contenant les noms donnés, qui doivent être
+     * distincts, et dont les identifiants sont leurs index dans le tableau.
+     *
+     * @param names les noms distincts
+     * @throws IllegalArgumentException si deux noms sont égaux
+     */
+    NameTable(String[] names) {
+        this();
+        for (int i = 0; i < names.length; i++)
+            Preconditions.checkArgument(idOf(names[i]) == i);
+    }
+
+    /**
+     * Méthode qui retourne l'identifiant du nom donné, en l'ajoutant à la table s'il
+     * n'y figure pas encore.
+     *
+     * @param name le nom
+     * @return l'identifiant du nom
+     */
+    int idOf(String name) {
+        Integer id = ids.get(name);
+        if (id != null)
+            return id;
+
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        names[size] = name;
+        keys[size] = name.toUpperCase();
+        ids.put(name, size);
+        return size++;
+    }
+
+    /**
+     * Méthode qui retourne le nom d'identifiant donné.
+     *
+     * @param id l'identifiant du nom
+     * @return le nom d'identifiant donné
+     * @throws IndexOutOfBoundsException si l'identifiant n'est pas valide
+     */
+    String name(int id) {
+        return names[checkId(id)];
+    }
+
+    /**
+     * Méthode qui retourne la clef de recherche, c'est-à-dire le nom en majuscules,
+     * du nom d'identifiant donné.
+     *
+     * @param id l'identifiant du nom
+     * @return la clef de recherche du nom d'identifiant donné
+     * @throws IndexOutOfBoundsException si l'identifiant n'est pas valide
+     */
+    String key(int id) {
+        return keys[checkId(id)];
+    }
+
+    /**
+     * Méthode qui retourne le nombre de noms distincts de la table.
+     *
+     * @return le nombre de noms distincts
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Méthode privée qui vérifie que l'identifiant donné est valide et le retourne.
+     *
+     * @param id l'identifiant à vérifier
+     * @return l'identifiant donné
+     * @throws IndexOutOfBoundsException si l'identifiant n'est pas valide
+     */
+    private int checkId(int id) {
+        if (id < 0 || id >= size)
+            throw new IndexOutOfBoundsException(id);
+        return id;
+    }
+}
@@ -1,5 +1,6 @@
 package ch.epfl.rigel.astronomy;
 
+import ch.epfl.rigel.Preconditions;
 import ch.epfl.rigel.coordinates.*;
 
 import java.time.ZonedDateTime;
@@ -22,14 +23,16 @@ public final class ObservedSky {
     private final double[] planetPositions;
     private final List<Star> stars;
     private final double[] starPositions;
+    private final int[] starIndices;
+    private final int[] visibleStarIndices;
 
     private final StarCatalogue catalogue;
-    private final Map<CelestialObject, CartesianCoordinates> celestialObjectsMap;
+    private volatile KdTree starTree;
 
 
     /**
      * Constructeur prenant en argument tous les paramètres décrivant l'observation,
-     * et calcule la position projetée dans le plan de tous les objets célestes à
+     * et calcule la position projetée dans le plan de tous les objets célestes à
      * l'exception de la Terre.
      *
      * @param observationMoment l'intant d'observation
@@ -39,51 +42,165 @@ public final class ObservedSky {
      */
     public ObservedSky(ZonedDateTime observationMoment, GeographicCoordinates observationPosition,
                        StereographicProjection stereographicProjection, StarCatalogue catalogue) {
-        // 1. Variables communes
-        double daysSinceJ2010 = Epoch.J2010.daysUntil(observationMoment);
-        EclipticToEquatorialConversion eclToEqu = new EclipticToEquatorialConversion(observationMoment);
-        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
-                observationMoment,
-                observationPosition);
-
-        // 2. Calculs du Soleil et de la Lune
-        this.sun = SunModel.SUN.at(daysSinceJ2010, eclToEqu);
-        this.sunPosition = stereographicProjection.apply(equToHrz.apply(this.sun.equatorialPos()));
-        this.moon = MoonModel.MOON.at(daysSinceJ2010, eclToEqu);
-        this.moonPosition = stereographicProjection.apply(equToHrz.apply(this.moon.equatorialPos()));
-
-        // 3. Calculs des planètes extraterrestres
-        int nbPlanets = PlanetModel.ALL_EXTRA_TERRESTRIAL.size();
-        List<Planet> planets = new ArrayList<>();
-        double[] planetPositions = new double[2*nbPlanets];
-        for(int i = 0; i < nbPlanets; i++) {
-            Planet p = PlanetModel.ALL_EXTRA_TERRESTRIAL.get(i).at(daysSinceJ2010, eclToEqu);
-            CartesianCoordinates coordinates = stereographicProjection.apply(equToHrz.apply(p.equatorialPos()));
-
-            planets.add(p);
+        this(observationMoment, observationPosition, stereographicProjection, catalogue,
+                Double.POSITIVE_INFINITY, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructeur *package private* qui fait de même que le constructeur précédent, mais
+     * n'observe que les étoiles strictement plus brillantes que la magnitude limite (ainsi
+     * que celles des astérismes), et les calcule et projette en parallèle dès que leur
+     * nombre atteint le seuil donné. Il calcule successivement le ciel en coordonnées
+     * horizontales (HorizontalSky), puis sa projection.
+     *
+     * @param observationMoment l'intant d'observation
+     * @param observationPosition la position d'observation
+     * @param stereographicProjection la projection stéréographique à utiliser
+     * @param catalogue le catalogue contenant les étoiles et astérismes
+     * @param limitingMagnitude la magnitude limite des étoiles observées
+     * @param parallelismThreshold le nombre d'étoiles observées à partir duquel elles sont
+     *                             projetées en parallèle
+     * @throws IllegalArgumentException si le seuil n'est pas strictement positif
+     */
+    ObservedSky(ZonedDateTime observationMoment, GeographicCoordinates observationPosition,
+                StereographicProjection stereographicProjection, StarCatalogue catalogue,
+                double limitingMagnitude, int parallelismThreshold) {
+        this(TimeContext.of(observationMoment), observationPosition, stereographicProjection,
+                catalogue, limitingMagnitude, parallelismThreshold);
+    }
+
+    /**
+     * Constructeur qui fait de même que le constructeur précédent, l'instant d'observation
+     * étant donné par son contexte (p.ex. TimeContext.ofEpochMillis) : les grandeurs qui en
+     * dérivent sont calculées une seule fois, sans passer par java.time.
+     *
+     * @param observationTime le contexte de l'instant d'observation
+     * @param observationPosition la position d'observation
+     * @param stereographicProjection la projection stéréographique à utiliser
+     * @param catalogue le catalogue contenant les étoiles et astérismes
+     * @param limitingMagnitude la magnitude limite des étoiles observées
+     * @param parallelismThreshold le nombre d'étoiles observées à partir duquel elles sont
+     *                             projetées en parallèle
+     * @throws IllegalArgumentException si le seuil n'est pas strictement positif
+     */
+    public ObservedSky(TimeContext observationTime, GeographicCoordinates observationPosition,
+                       StereographicProjection stereographicProjection, StarCatalogue catalogue,
+                       double limitingMagnitude, int parallelismThreshold) {
+        this(new HorizontalSky(observationTime, observationPosition, catalogue,
+                        limitingMagnitude, parallelismThreshold, SolarSystemModel.EXACT),
+                stereographicProjection, limitingMagnitude, Double.POSITIVE_INFINITY,
+                parallelismThreshold);
+    }
+
+    /**
+     * Constructeur qui projette dans le plan, avec la projection stéréographique donnée,
+     * le ciel en coordonnées horizontales donné. Seule la projection est calculée : aucune
+     * position astronomique n'est recalculée, ce qui permet de changer de projection (p.ex.
+     * de centre de projection) à moindre coût.
+     *
+     * Parmi les étoiles du ciel en coordonnées horizontales, seules celles qui sont
+     * strictement plus brillantes que la magnitude limite donnée sont observées. Ces
+     * étoiles formant un préfixe de l'ordre de magnitude, elles sont obtenues par recherche
+     * dichotomique : un même ciel en coordonnées horizontales, calculé pour la magnitude
+     * limite la plus faible, peut ainsi être projeté pour des magnitudes limites différentes
+     * (p.ex. selon le champ de vue). Une magnitude limite plus faible que celle du ciel en
+     * coordonnées horizontales est sans effet.
+     *
+     * Les étoiles observées situées hors du cône de vue, c'est-à-dire à une distance
+     * angulaire du centre de projection supérieure au rayon donné, sont éliminées avant la
+     * projection : elles ne sont ni projetées — leurs positions valent NaN — ni retournées
+     * par visibleStarIndices, et ne peuvent donc pas être l'objet le plus proche d'un point.
+     * Les étoiles des astérismes sont toutefois toujours projetées, afin que les segments
+     * des astérismes partiellement visibles puissent être dessinés. Pour que l'élimination
+     * soit conservatrice, le rayon doit être au moins égal à la distance angulaire entre le
+     * centre de projection et les coins de la zone visible ; un rayon supérieur ou égal à π
+     * n'élimine aucune étoile.
+     *
+     * Les étoiles sont projetées en parallèle dès que leur nombre atteint le seuil donné.
+     * Chaque tâche écrit dans des positions distinctes du tableau des positions des étoiles,
+     * et le résultat est identique à celui de la projection séquentielle.
+     *
+     * @param horizontalSky le ciel en coordonnées horizontales
+     * @param stereographicProjection la projection stéréographique à utiliser
+     * @param limitingMagnitude la magnitude limite des étoiles observées
+     * @param viewRadius le rayon angulaire du cône de vue, en radians
+     * @param parallelismThreshold le nombre d'étoiles à partir duquel elles sont projetées
+     *                             en parallèle
+     * @throws IllegalArgumentException si le rayon ou le seuil n'est pas strictement positif
+     */
+    public ObservedSky(HorizontalSky horizontalSky, StereographicProjection stereographicProjection,
+                       double limitingMagnitude, double viewRadius, int parallelismThreshold) {
+        Preconditions.checkArgument(viewRadius > 0 && parallelismThreshold > 0);
+
+        // 1. Projection du Soleil, de la Lune et des planètes extraterrestres
+        this.sun = horizontalSky.sun();
+        this.sunPosition = stereographicProjection.apply(horizontalSky.sunHorizontalPos());
+        this.moon = horizontalSky.moon();
+        this.moonPosition = stereographicProjection.apply(horizontalSky.moonHorizontalPos());
+
+        List<HorizontalCoordinates> planetHorizontalPositions = horizontalSky.planetHorizontalPositions();
+        double[] planetPositions = new double[2*planetHorizontalPositions.size()];
+        for (int i = 0; i < planetHorizontalPositions.size(); i++) {
+            CartesianCoordinates coordinates = stereographicProjection.apply(planetHorizontalPositions.get(i));
             planetPositions[2*i] = coordinates.x();
             planetPositions[2*i + 1] = coordinates.y();
         }
-        this.planets = planets;
+        this.planets = horizontalSky.planets();
         this.planetPositions = planetPositions;
 
-        // 4. Calculs des étoiles du catalogue
-        int nbStars = catalogue.stars().size();
-        List<Star> stars = new ArrayList<>();
-        double[] starPositions = new double[2*nbStars];
-        for (int i = 0; i < nbStars; i++) {
-            Star s = catalogue.stars().get(i);
-            CartesianCoordinates coordinates = stereographicProjection.apply(equToHrz.apply(s.equatorialPos()));
-
-            stars.add(s);
-            starPositions[2*i] = coordinates.x();
-            starPositions[2*i + 1] = coordinates.y();
+        // 2. Projection des étoiles, directement à partir de leurs directions horizontales,
+        // par un unique produit matriciel par étoile
+        StarCatalogue catalogue = horizontalSky.catalogue();
+        double[] starPositions = new double[2*catalogue.starCount()];
+        Arrays.fill(starPositions, Double.NaN);
+
+        // Les étoiles observées sont les premières étoiles du ciel en coordonnées horizontales
+        int[] horizontalStarIndices = horizontalSky.starIndices();
+        int nbObservedStars = Math.min(catalogue.starsBrighterThan(limitingMagnitude),
+                horizontalStarIndices.length);
+        int[] starIndices = nbObservedStars == horizontalStarIndices.length
+                ? horizontalStarIndices
+                : Arrays.copyOf(horizontalStarIndices, nbObservedStars);
+
+        int[] computedStarIndices = horizontalSky.computedStarIndices();
+        double[] east = horizontalSky.starEastColumn();
+        double[] north = horizontalSky.starNorthColumn();
+        double[] up = horizontalSky.starUpColumn();
+        int[] visibleStarIndices;
+        if (viewRadius >= Math.PI && nbObservedStars == horizontalStarIndices.length) {
+            ParallelSlices.forEach(computedStarIndices.length, parallelismThreshold,
+                    (from, to) -> stereographicProjection.applyBatchToHorizontalUnitVectors(
+                            east, north, up, computedStarIndices, from, to, starPositions));
+            visibleStarIndices = starIndices;
+        } else {
+            // Les étoiles observées étant les premières calculées, leurs positions sont
+            // celles de leur rang dans starIndices
+            int[] selection = new int[nbObservedStars];
+            int nbVisibleStars;
+            if (viewRadius >= Math.PI) {
+                for (int j = 0; j < nbObservedStars; j++)
+                    selection[j] = j;
+                nbVisibleStars = nbObservedStars;
+            } else {
+                nbVisibleStars = stereographicProjection.selectWithinAngularDistance(
+                        east, north, up, 0, nbObservedStars, viewRadius, selection);
+            }
+            visibleStarIndices = new int[nbVisibleStars];
+            for (int j = 0; j < nbVisibleStars; j++)
+                visibleStarIndices[j] = starIndices[selection[j]];
+
+            int[] projected = union(selection, nbVisibleStars, horizontalSky.asterismStarPositions());
+            ParallelSlices.forEach(projected.length, parallelismThreshold,
+                    (from, to) -> stereographicProjection.applyBatchToHorizontalUnitVectors(
+                            east, north, up, computedStarIndices, projected, from, to, starPositions));
         }
-        this.stars = stars;
+
+        this.stars = catalogue.stars();
         this.starPositions = starPositions;
+        this.starIndices = starIndices;
+        this.visibleStarIndices = visibleStarIndices;
 
         this.catalogue = catalogue;
-        this.celestialObjectsMap = getAllCelestialObjectsWithPosition();
     }
 
     /**
@@ -162,6 +279,9 @@ public final class ObservedSky {
      * Le tableau retourné par starPositions contient à la position 0 la coordonnée x
      * de la première étoile retournée par stars, à la position 1 la coordonnée y
      * de cette même étoile, et ainsi de suite.
+     * Les coordonnées des étoiles qui n'ont pas été projetées, car plus faibles que
+     * la magnitude limite ou hors du cône de vue, et ne faisant partie d'aucun astérisme,
+     * valent NaN.
      *
      * @return le tableau des positions des étoiles
      */
@@ -169,6 +289,68 @@ public final class ObservedSky {
         return this.starPositions;
     }
 
+    /**
+     * Méthode d'accès qui retourne les index — dans la liste retournée par stars — des
+     * étoiles observées, c'est-à-dire plus brillantes que la magnitude limite, triés
+     * par magnitude croissante.
+     *
+     * @return le tableau des index des étoiles observées
+     */
+    public int[] starIndices() {
+        return this.starIndices;
+    }
+
+    /**
+     * Méthode d'accès qui retourne les index — dans la liste retournée par stars — des
+     * étoiles observées situées dans le cône de vue, triés par magnitude croissante. Ce
+     * sont les seules étoiles observées à avoir été projetées, et donc à devoir être
+     * dessinées. Sans cône de vue, ce sont toutes les étoiles observées.
+     *
+     * @return le tableau des index des étoiles visibles
+     */
+    public int[] visibleStarIndices() {
+        return this.visibleStarIndices;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la clef de recherche — le nom en majuscules — de
+     * l'étoile d'index donné dans la liste retournée par stars. Cette clef est précalculée
+     * par le catalogue, et n'est donc pas allouée à chaque appel.
+     *
+     * @param index l'index de l'étoile
+     * @return la clef de recherche de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public String starNameKey(int index) {
+        return catalogue.starNameKey(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne la magnitude de l'étoile d'index donné dans la liste
+     * retournée par stars. Elle est lue dans les colonnes du catalogue, sans matérialiser
+     * l'étoile.
+     *
+     * @param index l'index de l'étoile
+     * @return la magnitude de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double starMagnitude(int index) {
+        return catalogue.starMagnitude(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne la température de couleur de l'étoile d'index donné dans
+     * la liste retournée par stars. Elle est lue dans les colonnes du catalogue, sans
+     * matérialiser l'étoile.
+     *
+     * @param index l'index de l'étoile
+     * @return la température de couleur de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public int starColorTemperature(int index) {
+        return catalogue.starColorTemperature(index);
+    }
+
     /**
      * Méthode d'accès qui retourne l'ensemble des astérismes du catalogue.
      *
@@ -198,52 +380,98 @@ public final class ObservedSky {
      * distance inférieure à la distance maximale.
      * Le type de retour est un optionel de CelestianObject.
      *
+     * Seules les étoiles retournées par visibleStarIndices sont prises en compte. Elles sont
+     * cherchées dans un arbre k-d construit directement sur le tableau des positions lors du
+     * premier appel, si bien qu'un ciel sur lequel cette méthode n'est jamais appelée
+     * n'alloue rien par étoile.
+     *
      * @param coordinates les coordonnées du point du plan à étudier
      * @param maxDistance la distance maximale autorisée
      * @return l'objet céleste le plus proche du point spécifié sous la forme d'un optionnel
      */
     public Optional<CelestialObject> objectClosestTo(CartesianCoordinates coordinates, double maxDistance) {
-        Optional<CelestialObject> closestObject = Optional.empty();
+        CelestialObject closestObject = null;
         double minSquareDistance = maxDistance*maxDistance;
         double x = coordinates.x();
         double y = coordinates.y();
 
-        for (CelestialObject object: celestialObjectsMap.keySet()) {
-            CartesianCoordinates objectCoord = celestialObjectsMap.get(object);
-            double distance = (objectCoord.x()-x)*(objectCoord.x()-x)
-                    + (objectCoord.y()-y)*(objectCoord.y()-y);
-
+        double sunDistance = squareDistance(sunPosition.x(), sunPosition.y(), x, y);
+        if (sunDistance < minSquareDistance) {
+            closestObject = sun;
+            minSquareDistance = sunDistance;
+        }
+        double moonDistance = squareDistance(moonPosition.x(), moonPosition.y(), x, y);
+        if (moonDistance < minSquareDistance) {
+            closestObject = moon;
+            minSquareDistance = moonDistance;
+        }
+        for (int i = 0; i < planets.size(); i++) {
+            double distance = squareDistance(planetPositions[2*i], planetPositions[2*i + 1], x, y);
             if (distance < minSquareDistance) {
-                closestObject = Optional.of(object);
+                closestObject = planets.get(i);
                 minSquareDistance = distance;
             }
         }
-        return closestObject;
+
+        int closestStar = starTree().nearest(x, y, minSquareDistance);
+        if (closestStar != KdTree.NONE)
+            closestObject = stars.get(closestStar);
+
+        return Optional.ofNullable(closestObject);
     }
 
+    /**
+     * Méthode privée qui retourne l'arbre k-d des étoiles visibles, en le construisant lors
+     * du premier appel. Deux fils appelant cette méthode simultanément peuvent construire
+     * chacun un arbre, ce qui est sans conséquence puisque ces arbres sont équivalents.
+     *
+     * @return l'arbre k-d des étoiles visibles
+     */
+    private KdTree starTree() {
+        KdTree tree = starTree;
+        if (tree == null) {
+            tree = KdTree.of(starPositions, visibleStarIndices);
+            starTree = tree;
+        }
+        return tree;
+    }
 
     /**
-     * Méthode privée qui retourne la table associative dont les clés
-     * sont les objets célestes et les valeurs sont leurs coordonnées.
+     * Méthode statique privée qui retourne le carré de la distance entre deux points du plan.
      *
-     * @return la table associative dont les clés sont les objets célestes
-     * et les valeurs sont leurs coordonnées
+     * @param x1 l'abscisse du premier point
+     * @param y1 l'ordonnée du premier point
+     * @param x2 l'abscisse du second point
+     * @param y2 l'ordonnée du second point
+     * @return le carré de la distance entre les deux points
      */
-    private Map<CelestialObject, CartesianCoordinates> getAllCelestialObjectsWithPosition() {
-        Map<CelestialObject, CartesianCoordinates> map = new HashMap<>();
-        map.put(sun, sunPosition);
-        map.put(moon, moonPosition);
+    private static double squareDistance(double x1, double y1, double x2, double y2) {
+        return (x1 - x2)*(x1 - x2) + (y1 - y2)*(y1 - y2);
+    }
 
-        for (int i = 0; i < planets.size(); i++) {
-            map.put(planets.get(i), CartesianCoordinates.of(
-                    planetPositions[2*i], planetPositions[2*i + 1]
-            ));
-        }
-        for (int i = 0; i < stars.size(); i++) {
-            map.put(stars.get(i), CartesianCoordinates.of(
-                    starPositions[2*i], starPositions[2*i + 1]
-            ));
+    /**
+     * Méthode statique privée qui retourne, sans doublons et par ordre croissant, l'union
+     * des n premiers éléments du tableau a et des éléments du tableau b, tous deux triés
+     * par ordre croissant et sans doublons.
+     *
+     * @param a le premier tableau trié
+     * @param n le nombre d'éléments du premier tableau à considérer
+     * @param b le second tableau trié
+     * @return l'union triée des deux tableaux
+     */
+    private static int[] union(int[] a, int n, int[] b) {
+        int[] union = new int[n + b.length];
+        int i = 0, j = 0, size = 0;
+        while (i < n || j < b.length) {
+            if (j == b.length || (i < n && a[i] < b[j]))
+                union[size++] = a[i++];
+            else if (i == n || b[j] < a[i])
+                union[size++] = b[j++];
+            else {
+                union[size++] = a[i++];
+                j++;
+            }
         }
-        return map;
+        return Arrays.copyOf(union, size);
     }
 }
@@ -0,0 +1,81 @@
+package ch.epfl.rigel.astronomy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Cette classe *package private* et non instanciable permet d'appliquer un traitement
+ * aux tranches d'un intervalle d'index, en parallèle sur les fils du ForkJoinPool commun
+ * si l'intervalle est assez grand, et séquentiellement sinon.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+final class ParallelSlices {
+
+    private final static int MIN_SLICE_SIZE = 1 << 12;
+    private final static int SLICES_PER_THREAD = 4;
+
+    private ParallelSlices() {} // Constructeur privé pour rendre la classe non instantiable
+
+    /**
+     * Méthode statique qui applique le traitement donné aux tranches de l'intervalle
+     * [0, length[. Si length est inférieur au seuil donné, le traitement est appliqué
+     * une seule fois à l'intervalle entier, sur le fil appelant ; sinon, l'intervalle est
+     * découpé en tranches disjointes, traitées chacune par une tâche ForkJoin. La méthode
+     * ne retourne qu'une fois toutes les tranches traitées.
+     *
+     * @param length la longueur de l'intervalle à traiter
+     * @param parallelismThreshold la longueur à partir de laquelle l'intervalle est traité
+     *                             en parallèle
+     * @param action le traitement à appliquer à chaque tranche
+     */
+    static void forEach(int length, int parallelismThreshold, SliceAction action) {
+        forEach(length, parallelismThreshold, MIN_SLICE_SIZE, action);
+    }
+
+    /**
+     * Méthode statique qui applique, comme forEach, le traitement donné aux tranches de
+     * l'intervalle [0, length[, mais en découpant celui-ci en tranches d'au moins
+     * minSliceSize éléments, ce qui convient aux traitements dont chaque élément est coûteux.
+     *
+     * @param length la longueur de l'intervalle à traiter
+     * @param parallelismThreshold la longueur à partir de laquelle l'intervalle est traité
+     *                             en parallèle
+     * @param minSliceSize la taille minimale d'une tranche (sauf si l'intervalle est plus petit)
+     * @param action le traitement à appliquer à chaque tranche
+     */
+    static void forEach(int length, int parallelismThreshold, int minSliceSize, SliceAction action) {
+        if (length < parallelismThreshold) {
+            action.apply(0, length);
+            return;
+        }
+
+        int nbSlices = Math.max(1, Math.min(
+                SLICES_PER_THREAD * ForkJoinPool.getCommonPoolParallelism(),
+                length / minSliceSize));
+
+        List<ForkJoinTask<?>> slices = new ArrayList<>(nbSlices);
+        for (int k = 0; k < nbSlices; k++) {
+            int from = (int) ((long) length * k / nbSlices);
+            int to = (int) ((long) length * (k + 1) / nbSlices);
+            slices.add(ForkJoinTask.adapt(() -> action.apply(from, to)));
+        }
+        ForkJoinTask.invokeAll(slices);
+    }
+
+    /**
+     * Interface fonctionnelle représentant le traitement d'une tranche [from, to[.
+     */
+    @FunctionalInterface
+    interface SliceAction {
+        /**
+         * Méthode qui traite la tranche d'index donnée.
+         *
+         * @param from le premier index de la tranche
+         * @param to l'index suivant le dernier index de la tranche
+         */
+        void apply(int from, int to);
+    }
+}
@@ -140,11 +140,42 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
      */
     @Override
     public Planet at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+        double earthTrueAnomaly = EARTH.trueAnomalyAt(daysSinceJ2010);
+        return at(daysSinceJ2010, eclipticToEquatorialConversion,
+                EARTH.orbitPlaneLongitude(earthTrueAnomaly), EARTH.orbitRadius(earthTrueAnomaly));
+    }
+
+    /**
+     * Méthode qui retourne la planète modélisée par le modèle à l'instant du contexte donné,
+     * en utilisant l'état de l'orbite terrestre qu'il contient plutôt que de le recalculer.
+     *
+     * @param context le contexte de l'instant
+     * @return le modèle de la planète calculé
+     */
+    @Override
+    public Planet at(SolarSystemContext context) {
+        return at(context.daysSinceJ2010(), context.eclipticToEquatorialConversion(),
+                context.earthOrbitPlaneLongitude(), context.earthOrbitRadius());
+    }
+
+    /**
+     * Méthode privée qui retourne la planète modélisée par le modèle, étant donné la
+     * longitude et le rayon de la Terre dans le plan de son orbite au même instant.
+     *
+     * @param daysSinceJ2010 nombre de jours après l'époque J2010
+     * @param eclipticToEquatorialConversion la conversion pour obtenir ses coordonnées équatoriales
+     *                                       à partir de ses coordonnées écliptiques
+     * @param L la longitude de la Terre dans le plan de son orbite
+     * @param R le rayon de la Terre dans le plan de son orbite
+     * @return le modèle de la planète calculé
+     */
+    private Planet at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion,
+                      double L, double R) {
         double meanAnomaly = calculateMeanAnomaly(daysSinceJ2010);
         double trueAnomaly = calculateTrueAnomaly(meanAnomaly);
 
-        double orbitRadius = calculateOrbitRadius(trueAnomaly);
-        double orbitPlaneLongitude = calculateOrbitPlaneLongitude(trueAnomaly);
+        double orbitRadius = orbitRadius(trueAnomaly);
+        double orbitPlaneLongitude = orbitPlaneLongitude(trueAnomaly);
         double eclipticLatitude = calculateEclipticLatitude(orbitPlaneLongitude);
 
         double eclipticRadius = calculateEclipticRadius(orbitRadius, eclipticLatitude);
@@ -152,21 +183,34 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
 
         double geocentricEclipticLongitude;
         if (isInnerPlanet()) {
-            geocentricEclipticLongitude = calculateGeocentricEclipticLongitudeForInnerPlanets(daysSinceJ2010, eclipticRadius, eclipticLongitude);
+            geocentricEclipticLongitude = calculateGeocentricEclipticLongitudeForInnerPlanets(L, R, eclipticRadius, eclipticLongitude);
         } else {
-            geocentricEclipticLongitude = calculateGeocentricEclipticLongitudeForOuterPlanets(daysSinceJ2010, eclipticRadius, eclipticLongitude);
+            geocentricEclipticLongitude = calculateGeocentricEclipticLongitudeForOuterPlanets(L, R, eclipticRadius, eclipticLongitude);
         }
-        double geocentricEclipticLatitude = calculateGeocentricEclipticLatitude(daysSinceJ2010, eclipticRadius, eclipticLongitude, eclipticLatitude, geocentricEclipticLongitude);
+        double geocentricEclipticLatitude = calculateGeocentricEclipticLatitude(L, R, eclipticRadius, eclipticLongitude, eclipticLatitude, geocentricEclipticLongitude);
 
         EquatorialCoordinates equatorialPos = eclipticToEquatorialConversion.apply(EclipticCoordinates.of(geocentricEclipticLongitude, geocentricEclipticLatitude));
 
-        double angularSize = calculateAngularSize(daysSinceJ2010, orbitRadius, orbitPlaneLongitude, eclipticLatitude);
-        double magnitude = calculateMagnitude(daysSinceJ2010, geocentricEclipticLongitude, orbitPlaneLongitude, orbitRadius, eclipticLatitude);
+        // La distance à la Terre sert à la fois à la taille angulaire et à la magnitude
+        double rho = calculateDistance(L, R, orbitRadius, orbitPlaneLongitude, eclipticLatitude);
+        double angularSize = calculateAngularSize(rho);
+        double magnitude = calculateMagnitude(rho, geocentricEclipticLongitude, orbitPlaneLongitude, orbitRadius);
 
         return new Planet(frenchName, equatorialPos, (float)angularSize, (float)magnitude);
 
     }
 
+    /**
+     * Méthode *package private* qui calcule l'anomalie vraie de la planète au nombre de
+     * jours après l'époque J2010 donné.
+     *
+     * @param daysSinceJ2010 nombre de jours après l'époque J2010
+     * @return l'anomalie vraie
+     */
+    double trueAnomalyAt(double daysSinceJ2010) {
+        return calculateTrueAnomaly(calculateMeanAnomaly(daysSinceJ2010));
+    }
+
 
     /**
      * Méthode privée qui indique si la planète est inférieure ou non.
@@ -198,22 +242,22 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
     }
 
     /**
-     * Méthode privée qui calcule le rayon de la planète dans le plan de son orbite.
+     * Méthode *package private* qui calcule le rayon de la planète dans le plan de son orbite.
      *
-     * @param trueAnomaly
+     * @param trueAnomaly l'anomalie vraie
      * @return le rayon de la planète dans le plan de son orbite
      */
-    private double calculateOrbitRadius(double trueAnomaly) {
+    double orbitRadius(double trueAnomaly) {
         return (semiMajorAxis*(1-eccentricity*eccentricity)) / (1 + eccentricity*cos(trueAnomaly));
     }
 
     /**
-     * Méthode privée qui calcule la longitude de la planète dans le plan de son orbite.
+     * Méthode *package private* qui calcule la longitude de la planète dans le plan de son orbite.
      *
-     * @param trueAnomaly
+     * @param trueAnomaly l'anomalie vraie
      * @return la longitude de la planète dans le plan de son orbite
      */
-    private double calculateOrbitPlaneLongitude(double trueAnomaly) {
+    double orbitPlaneLongitude(double trueAnomaly) {
         return Angle.normalizePositive(trueAnomaly + perigeeLongitude);
     }
 
@@ -253,14 +297,13 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
     /**
      * Méthode privée qui calcule la longitude écliptique géocentrique pour les planètes inférieures.
      *
-     * @param daysSinceJ2010
+     * @param L la longitude de la Terre dans le plan de son orbite
+     * @param R le rayon de la Terre dans le plan de son orbite
      * @param eclipticRadius
      * @param eclipticLongitude
      * @return la longitude écliptique géocentrique pour les planètes inférieures
      */
-    private double calculateGeocentricEclipticLongitudeForInnerPlanets(double daysSinceJ2010, double eclipticRadius, double eclipticLongitude) {
-        double L = calculateEarthOrbitPlaneLongitude(daysSinceJ2010);
-        double R = calculateEarthOrbitRadius(daysSinceJ2010);
+    private double calculateGeocentricEclipticLongitudeForInnerPlanets(double L, double R, double eclipticRadius, double eclipticLongitude) {
         return Angle.normalizePositive(PI + L + atan2(eclipticRadius*sin(L-eclipticLongitude),
                             R - eclipticRadius*cos(L - eclipticLongitude)));
     }
@@ -268,18 +311,16 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
     /**
      * Méthode privée qui calcule la latitude écliptique géocentrique de la planète.
      *
-     * @param daysSinceJ2010
+     * @param L la longitude de la Terre dans le plan de son orbite
+     * @param R le rayon de la Terre dans le plan de son orbite
      * @param eclipticRadius
      * @param eclipticLongitude
      * @param eclipticLatitude
      * @param geocentricEclipticLongitude
      * @return la latitude écliptique géocentrique de la planète
      */
-    private double calculateGeocentricEclipticLatitude(double daysSinceJ2010, double eclipticRadius, double eclipticLongitude,
+    private double calculateGeocentricEclipticLatitude(double L, double R, double eclipticRadius, double eclipticLongitude,
                                                        double eclipticLatitude, double geocentricEclipticLongitude) {
-        double L = calculateEarthOrbitPlaneLongitude(daysSinceJ2010);
-        double R = calculateEarthOrbitRadius(daysSinceJ2010);
-
         return atan(eclipticRadius*tan(eclipticLatitude)*sin(geocentricEclipticLongitude - eclipticLongitude)
                 /(R*sin(eclipticLongitude - L)));
     }
@@ -287,14 +328,13 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
     /**
      * Méthode privée qui calcule la longitude écliptique géocentrique pour les planètes supérieures.
      *
-     * @param daysSinceJ2010
+     * @param L la longitude de la Terre dans le plan de son orbite
+     * @param R le rayon de la Terre dans le plan de son orbite
      * @param eclipticRadius
      * @param eclipticLongitude
      * @return la longitude écliptique géocentrique pour les planètes supérieures
      */
-    private double calculateGeocentricEclipticLongitudeForOuterPlanets(double daysSinceJ2010, double eclipticRadius, double eclipticLongitude) {
-        double L = calculateEarthOrbitPlaneLongitude(daysSinceJ2010);
-        double R = calculateEarthOrbitRadius(daysSinceJ2010);
+    private double calculateGeocentricEclipticLongitudeForOuterPlanets(double L, double R, double eclipticRadius, double eclipticLongitude) {
         return Angle.normalizePositive(eclipticLongitude + atan2(R*sin(eclipticLongitude - L),
                                     eclipticRadius - R*cos(eclipticLongitude - L)));
     }
@@ -302,16 +342,14 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
     /**
      * Méthode privée qui calcule la distance séparant la Terre de la planète étudiée (en UA).
      *
-     * @param daysSinceJ2010
+     * @param L la longitude de la Terre dans le plan de son orbite
+     * @param R le rayon de la Terre dans le plan de son orbite
      * @param orbitRadius
      * @param orbitPlaneLongitude
      * @param eclipticLatitude
      * @return la distance séparant la Terre de la planète étudiée (en UA)
      */
-    private double calculateDistance(double daysSinceJ2010, double orbitRadius, double orbitPlaneLongitude, double eclipticLatitude) {
-        double L = calculateEarthOrbitPlaneLongitude(daysSinceJ2010);
-        double R = calculateEarthOrbitRadius(daysSinceJ2010);
-
+    private double calculateDistance(double L, double R, double orbitRadius, double orbitPlaneLongitude, double eclipticLatitude) {
         double rhoSquare = Polynomial.of(1,
                 -2*R*cos(orbitPlaneLongitude - L)*cos(eclipticLatitude),
                 R*R).at(orbitRadius);
@@ -322,56 +360,24 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
     /**
      * Méthode privée qui calcule la taille angulaire de la planète.
      *
-     * @param daysSinceJ2010
-     * @param orbitRadius
-     * @param orbitPlaneLongitude
-     * @param eclipticLatitude
+     * @param rho la distance séparant la Terre de la planète (en UA)
      * @return la taille angulaire de la planète
      */
-    private double calculateAngularSize(double daysSinceJ2010, double orbitRadius, double orbitPlaneLongitude, double eclipticLatitude) {
-        double rho = calculateDistance(daysSinceJ2010, orbitRadius, orbitPlaneLongitude, eclipticLatitude);
+    private double calculateAngularSize(double rho) {
         return angularSize/rho;
     }
 
     /**
      * Méthode privée qui calcule la magnitude de la planète.
      *
-     * @param daysSinceJ2010
+     * @param rho la distance séparant la Terre de la planète (en UA)
      * @param geocentricEclipticLongitude
      * @param orbitPlaneLongitude
      * @param orbitRadius
-     * @param eclipticLatitude
      * @return la magnitude de la planète
      */
-    private double calculateMagnitude(double daysSinceJ2010, double geocentricEclipticLongitude, double orbitPlaneLongitude, double orbitRadius, double eclipticLatitude) {
+    private double calculateMagnitude(double rho, double geocentricEclipticLongitude, double orbitPlaneLongitude, double orbitRadius) {
         double F = (1 + cos(geocentricEclipticLongitude - orbitPlaneLongitude))/2;
-        double rho = calculateDistance(daysSinceJ2010, orbitRadius, orbitPlaneLongitude, eclipticLatitude);
         return magnitude + 5*log10((orbitRadius*rho)/sqrt(F));
     }
-
-    /**
-     * Méthode privée qui calcule le rayon de la Terre dans le plan de son orbite.
-     *
-     * @param daysSinceJ2010
-     * @return le rayon de la Terre dans le plan de son orbite
-     */
-    private double calculateEarthOrbitRadius(double daysSinceJ2010) {
-        double meanAnomaly = EARTH.calculateMeanAnomaly(daysSinceJ2010);
-        double trueAnomay = EARTH.calculateTrueAnomaly(meanAnomaly);
-
-        return (EARTH.semiMajorAxis*(1-EARTH.eccentricity*EARTH.eccentricity)) / (1+EARTH.eccentricity*cos(trueAnomay));
-    }
-
-    /**
-     * Méthode privée qui calcule la longitude de la Terre dans le plan de son orbite.
-     *
-     * @param daysSinceJ2010
-     * @return la longitude de la Terre dans le plan de son orbite
-     */
-    private double calculateEarthOrbitPlaneLongitude(double daysSinceJ2010) {
-        double meanAnomaly = EARTH.calculateMeanAnomaly(daysSinceJ2010);
-        double trueAnomay = EARTH.calculateTrueAnomaly(meanAnomaly);
-
-        return Angle.normalizePositive(trueAnomay + EARTH.perigeeLongitude);
-    }
 }
@@ -0,0 +1,146 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Cette classe représente un chargeur progressif de catalogue, qui construit le catalogue
+ * par paliers de magnitude. Chaque palier produit une nouvelle génération immuable du
+ * catalogue, contenant les étoiles de la génération précédente — aux mêmes index — suivies
+ * des étoiles du palier.
+ *
+ * La première génération contient les étoiles plus brillantes que la première limite de
+ * magnitude, ainsi que toutes les étoiles des astérismes, quelle que soit leur magnitude.
+ * Les astérismes étant ajoutés dès cette génération, les index de leurs étoiles restent
+ * valides dans toutes les générations suivantes, qui partagent d'ailleurs leurs instances.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class ProgressiveCatalogueLoader {
+
+    private final ByteBuffer hygBuffer;
+    private final byte[] asterismBytes;
+    private final double[] magnitudeLimits;
+    private final HipparcosIndex asterismStarIds;
+    private final StarCatalogue.Builder builder;
+    private int nbGenerations;
+
+    /**
+     * Constructeur d'un chargeur progressif du catalogue HYG et du catalogue d'astérismes
+     * contenus dans les flots donnés, éventuellement compressés au format gzip, qui sont
+     * entièrement lus puis fermés.
+     *
+     * @param hygStream le flot contenant le catalogue HYG
+     * @param asterismStream le flot contenant le catalogue d'astérismes
+     * @param magnitudeLimits les limites de magnitude séparant les paliers, en ordre
+     *                        strictement croissant
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     * @throws IllegalArgumentException si aucune limite n'est donnée, ou si les limites
+     * ne sont pas en ordre strictement croissant
+     */
+    public ProgressiveCatalogueLoader(InputStream hygStream, InputStream asterismStream,
+                                      double... magnitudeLimits) throws IOException {
+        Preconditions.checkArgument(magnitudeLimits.length > 0);
+        for (int i = 1; i < magnitudeLimits.length; i++)
+            Preconditions.checkArgument(magnitudeLimits[i - 1] < magnitudeLimits[i]);
+
+        try (hygStream; asterismStream) {
+            this.hygBuffer = CatalogueStreams.bufferOf(hygStream);
+            this.asterismBytes = CatalogueStreams.decompressed(asterismStream).readAllBytes();
+        }
+        this.magnitudeLimits = magnitudeLimits.clone();
+        this.asterismStarIds = asterismStarIds(asterismBytes);
+        this.builder = new StarCatalogue.Builder();
+    }
+
+    /**
+     * Méthode qui retourne le nombre total de générations du catalogue, c'est-à-dire
+     * le nombre de limites de magnitude plus un.
+     *
+     * @return le nombre total de générations du catalogue
+     */
+    public int generationCount() {
+        return magnitudeLimits.length + 1;
+    }
+
+    /**
+     * Méthode qui indique s'il reste des générations du catalogue à construire.
+     *
+     * @return true s'il reste des générations à construire
+     */
+    public boolean hasNextGeneration() {
+        return nbGenerations < generationCount();
+    }
+
+    /**
+     * Méthode qui charge le palier de magnitude suivant et retourne la nouvelle génération
+     * du catalogue, qui contient toutes les étoiles chargées jusqu'alors. La dernière
+     * génération contient toutes les étoiles du catalogue HYG.
+     *
+     * @return la nouvelle génération du catalogue
+     * @throws IOException en cas d'erreur lors du chargement des astérismes
+     * @throws NoSuchElementException si toutes les générations ont déjà été construites
+     */
+    public StarCatalogue nextGeneration() throws IOException {
+        if (!hasNextGeneration())
+            throw new NoSuchElementException();
+
+        int tier = nbGenerations;
+        double lower = (tier == 0) ? Double.NEGATIVE_INFINITY : magnitudeLimits[tier - 1];
+        double upper = (tier == magnitudeLimits.length) ? Double.POSITIVE_INFINITY : magnitudeLimits[tier];
+
+        HygDatabaseLoader.StarFilter filter = (tier == 0)
+                ? (hipparcosId, magnitude) -> magnitude < upper || isAsterismStar(hipparcosId)
+                : (hipparcosId, magnitude) -> lower <= magnitude && magnitude < upper
+                        && !isAsterismStar(hipparcosId);
+        HygDatabaseLoader.PARALLEL.load(hygBuffer.duplicate(), builder, filter);
+
+        if (tier == 0)
+            builder.loadFrom(new ByteArrayInputStream(asterismBytes), AsterismLoader.INSTANCE);
+
+        nbGenerations += 1;
+        return builder.build();
+    }
+
+    /**
+     * Méthode privée qui indique si le numéro Hipparcos donné est celui d'une étoile
+     * d'un astérisme.
+     *
+     * @param hipparcosId le numéro Hipparcos
+     * @return true si le numéro est celui d'une étoile d'un astérisme
+     */
+    private boolean isAsterismStar(int hipparcosId) {
+        return asterismStarIds.get(hipparcosId) != HipparcosIndex.ABSENT;
+    }
+
+    /**
+     * Méthode statique privée qui retourne l'ensemble des numéros Hipparcos des étoiles
+     * du catalogue d'astérismes donné, qui en contient une liste par ligne.
+     *
+     * @param asterismBytes le contenu du catalogue d'astérismes
+     * @return l'ensemble des numéros Hipparcos des étoiles des astérismes
+     * @throws IOException si un numéro n'est pas valide
+     */
+    private static HipparcosIndex asterismStarIds(byte[] asterismBytes) throws IOException {
+        HipparcosIndex ids = new HipparcosIndex(0);
+        String content = new String(asterismBytes, StandardCharsets.US_ASCII);
+        for (String line : content.split("\\R")) {
+            if (line.isBlank())
+                break;
+            for (String hipparcosId : line.split(",")) {
+                try {
+                    ids.put(Integer.parseInt(hipparcosId), 0);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Numéro Hipparcos invalide : " + hipparcosId, e);
+                }
+            }
+        }
+        return ids;
+    }
+}
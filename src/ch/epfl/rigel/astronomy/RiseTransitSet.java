@@ -0,0 +1,496 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.math.Angle;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+
+import static java.lang.Math.*;
+
+/**
+ * Classe qui représente les heures de lever, de passage au méridien (culmination supérieure)
+ * et de coucher d'objets célestes, pour un lieu d'observation et une suite de jours.
+ *
+ * Chaque jour est l'intervalle allant de minuit à minuit dans le fuseau horaire donné ; pour
+ * chaque jour et chaque objet est retenue la première occurrence de chaque événement qui s'y
+ * produit. Les heures sont exprimées en nombre de jours après l'époque J2010, et valent NaN
+ * si l'événement ne se produit pas ce jour-là (objet circumpolaire ou toujours sous l'horizon,
+ * ou événement tombant le jour suivant). Elles sont stockées par colonnes, dans des tableaux
+ * de nombres.
+ *
+ * Un objet se lève ou se couche lorsque le haut de son disque franchit l'horizon, compte tenu
+ * de la réfraction atmosphérique (34'). Pour les objets fixes, comme les étoiles, les heures
+ * des événements sont calculées directement à partir de l'angle horaire ; pour les objets
+ * mobiles (Soleil, Lune, planètes), elles sont encadrées en échantillonnant la hauteur et
+ * l'angle horaire toutes les heures, puis calculées par dichotomie.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class RiseTransitSet {
+
+    private final static double REFRACTION = Angle.ofDMS(0, 34, 0);
+    private final static double SIDEREAL_RATE = Angle.TAU * SiderealTime.S1_CONSTANT; // En radians par jour
+    private final static int SAMPLES_PER_DAY = 24;
+    private final static double TIME_TOLERANCE = 1d / 86_400; // Une seconde, en jours
+
+    private final static int PARALLELISM_THRESHOLD = 1 << 10;
+    private final static int MIN_STAR_SLICE_SIZE = 1 << 12;
+    private final static int MIN_MODEL_SLICE_SIZE = 8;
+
+    private final int objectCount;
+    private final int dayCount;
+
+    // Colonnes, l'événement de l'objet o le jour d se trouvant à l'index o*dayCount + d
+    private final double[] rise;
+    private final double[] transit;
+    private final double[] set;
+
+    /**
+     * Constructeur privé de résultats qui restent à calculer.
+     *
+     * @param objectCount le nombre d'objets
+     * @param dayCount le nombre de jours
+     * @throws IllegalArgumentException si le nombre d'événements de chaque sorte, c'est-à-dire
+     * le nombre d'objets multiplié par le nombre de jours, dépasse Integer.MAX_VALUE
+     */
+    private RiseTransitSet(int objectCount, int dayCount) {
+        Preconditions.checkArgument((long) objectCount * dayCount <= Integer.MAX_VALUE);
+        this.objectCount = objectCount;
+        this.dayCount = dayCount;
+        this.rise = new double[objectCount * dayCount];
+        this.transit = new double[objectCount * dayCount];
+        this.set = new double[objectCount * dayCount];
+    }
+
+    /**
+     * Méthode qui calcule les heures de lever, de passage au méridien et de coucher de toutes
+     * les étoiles du catalogue donné (dans l'ordre de leurs index), en parallèle.
+     *
+     * @param catalogue le catalogue d'étoiles
+     * @param first le premier jour
+     * @param last le dernier jour (inclus)
+     * @param zone le fuseau horaire dans lequel les jours sont définis
+     * @param where le lieu d'observation
+     * @return les événements des étoiles
+     * @throws IllegalArgumentException si le dernier jour précède le premier, ou si le nombre
+     * d'objets multiplié par le nombre de jours dépasse Integer.MAX_VALUE
+     */
+    public static RiseTransitSet ofStars(StarCatalogue catalogue, LocalDate first, LocalDate last,
+                                         ZoneId zone, GeographicCoordinates where) {
+        int n = catalogue.starCount();
+        double[] ra = new double[n];
+        double[] dec = new double[n];
+        double[] h0 = new double[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = catalogue.starRa(i);
+            dec[i] = catalogue.starDec(i);
+            h0[i] = -REFRACTION;
+        }
+        return ofFixed(ra, dec, h0, first, last, zone, where);
+    }
+
+    /**
+     * Méthode qui calcule les heures de lever, de passage au méridien et de coucher des objets
+     * donnés, considérés comme fixes sur la sphère céleste, en tenant compte de leur taille
+     * angulaire.
+     *
+     * @param objects les objets
+     * @param first le premier jour
+     * @param last le dernier jour (inclus)
+     * @param zone le fuseau horaire dans lequel les jours sont définis
+     * @param where le lieu d'observation
+     * @return les événements des objets, dans l'ordre de ceux-ci
+     * @throws IllegalArgumentException si le dernier jour précède le premier, ou si le nombre
+     * d'objets multiplié par le nombre de jours dépasse Integer.MAX_VALUE
+     */
+    public static RiseTransitSet ofObjects(List<? extends CelestialObject> objects, LocalDate first, LocalDate last,
+                                           ZoneId zone, GeographicCoordinates where) {
+        int n = objects.size();
+        double[] ra = new double[n];
+        double[] dec = new double[n];
+        double[] h0 = new double[n];
+        for (int i = 0; i < n; i++) {
+            CelestialObject object = objects.get(i);
+            EquatorialCoordinates equ = object.equatorialPos();
+            ra[i] = equ.ra();
+            dec[i] = equ.dec();
+            h0[i] = -REFRACTION - object.angularSize()/2;
+        }
+        return ofFixed(ra, dec, h0, first, last, zone, where);
+    }
+
+    /**
+     * Méthode qui calcule les heures de lever, de passage au méridien et de coucher des objets
+     * mobiles dont les modèles sont donnés (p.ex. SunModel.SUN, MoonModel.MOON et les
+     * planètes), en tenant compte de leur taille angulaire.
+     *
+     * @param models les modèles des objets
+     * @param first le premier jour
+     * @param last le dernier jour (inclus)
+     * @param zone le fuseau horaire dans lequel les jours sont définis
+     * @param where le lieu d'observation
+     * @return les événements des objets, dans l'ordre des modèles
+     * @throws IllegalArgumentException si le dernier jour précède le premier, ou si le nombre
+     * d'objets multiplié par le nombre de jours dépasse Integer.MAX_VALUE
+     */
+    public static RiseTransitSet ofModels(List<? extends CelestialObjectModel<? extends CelestialObject>> models,
+                                          LocalDate first, LocalDate last, ZoneId zone,
+                                          GeographicCoordinates where) {
+        List<? extends CelestialObjectModel<? extends CelestialObject>> modelsCopy = List.copyOf(models);
+        Days days = new Days(first, last, zone, where);
+        RiseTransitSet result = new RiseTransitSet(modelsCopy.size(), days.count());
+
+        ParallelSlices.forEach(result.rise.length, PARALLELISM_THRESHOLD / SAMPLES_PER_DAY, MIN_MODEL_SLICE_SIZE, (from, to) -> {
+            double[] f = new double[SAMPLES_PER_DAY + 1];
+            double[] sinH = new double[SAMPLES_PER_DAY + 1];
+            double[] cosH = new double[SAMPLES_PER_DAY + 1];
+            for (int i = from; i < to; i++)
+                result.solveModel(modelsCopy.get(i / days.count()), days, i % days.count(), i, f, sinH, cosH);
+        });
+        return result;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre d'objets.
+     *
+     * @return le nombre d'objets
+     */
+    public int objectCount() {
+        return objectCount;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre de jours.
+     *
+     * @return le nombre de jours
+     */
+    public int dayCount() {
+        return dayCount;
+    }
+
+    /**
+     * Méthode qui retourne l'heure de lever de l'objet d'index object le jour d'index day.
+     *
+     * @param object l'index de l'objet
+     * @param day l'index du jour
+     * @return l'heure du lever, en jours après l'époque J2010, ou NaN
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     */
+    public double rise(int object, int day) {
+        return rise[index(object, day)];
+    }
+
+    /**
+     * Méthode qui retourne l'heure de passage au méridien de l'objet d'index object le jour
+     * d'index day. Celui-ci a lieu même si l'objet est alors sous l'horizon.
+     *
+     * @param object l'index de l'objet
+     * @param day l'index du jour
+     * @return l'heure du passage au méridien, en jours après l'époque J2010, ou NaN
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     */
+    public double transit(int object, int day) {
+        return transit[index(object, day)];
+    }
+
+    /**
+     * Méthode qui retourne l'heure de coucher de l'objet d'index object le jour d'index day.
+     *
+     * @param object l'index de l'objet
+     * @param day l'index du jour
+     * @return l'heure du coucher, en jours après l'époque J2010, ou NaN
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     */
+    public double set(int object, int day) {
+        return set[index(object, day)];
+    }
+
+    /**
+     * Méthode statique privée qui calcule, en parallèle, les événements d'objets fixes dont
+     * les coordonnées équatoriales sont données sous forme de colonnes.
+     *
+     * @param ra les ascensions droites
+     * @param dec les déclinaisons
+     * @param h0 les hauteurs du centre des objets à leur lever et à leur coucher
+     * @param first le premier jour
+     * @param last le dernier jour (inclus)
+     * @param zone le fuseau horaire dans lequel les jours sont définis
+     * @param where le lieu d'observation
+     * @return les événements des objets
+     */
+    private static RiseTransitSet ofFixed(double[] ra, double[] dec, double[] h0, LocalDate first,
+                                          LocalDate last, ZoneId zone, GeographicCoordinates where) {
+        Days days = new Days(first, last, zone, where);
+        RiseTransitSet result = new RiseTransitSet(ra.length, days.count());
+
+        ParallelSlices.forEach(result.rise.length, PARALLELISM_THRESHOLD, MIN_STAR_SLICE_SIZE, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int o = i / days.count();
+                result.solveFixed(ra[o], dec[o], h0[o], days, i % days.count(), i);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Méthode privée qui calcule directement les événements d'un objet fixe pour un jour.
+     * L'angle horaire de l'objet croissant uniformément, il passe au méridien lorsque
+     * celui-ci est nul, et se lève ou se couche lorsqu'il vaut -H0 ou H0, avec
+     * cos(H0) = (sin(h0) - sin(φ)·sin(δ)) / (cos(φ)·cos(δ)), h0 étant la hauteur de son centre
+     * lorsque le haut de son disque franchit l'horizon apparent.
+     *
+     * @param ra l'ascension droite de l'objet
+     * @param dec la déclinaison de l'objet
+     * @param h0 la hauteur du centre de l'objet à son lever et à son coucher
+     * @param days les jours
+     * @param day l'index du jour
+     * @param i l'index du résultat
+     */
+    private void solveFixed(double ra, double dec, double h0, Days days, int day, int i) {
+        double start = days.start(day);
+        double length = days.length(day);
+        double lst = days.localSiderealTime(day);
+
+        transit[i] = eventTime(start, length, ra - lst);
+
+        double cosH0 = (sin(h0) - days.sinLat*sin(dec)) / (days.cosLat*cos(dec));
+        if (abs(cosH0) <= 1) {
+            double H0 = acos(cosH0);
+            rise[i] = eventTime(start, length, ra - H0 - lst);
+            set[i] = eventTime(start, length, ra + H0 - lst);
+        } else {
+            rise[i] = Double.NaN;
+            set[i] = Double.NaN;
+        }
+    }
+
+    /**
+     * Méthode statique privée qui retourne l'heure à laquelle l'angle horaire d'un objet fixe
+     * aura augmenté de l'angle donné (ramené à [0, τ[) depuis le début du jour, ou NaN si
+     * elle tombe après la fin du jour.
+     *
+     * @param start le début du jour, en jours après l'époque J2010
+     * @param length la durée du jour, en jours
+     * @param angle l'angle dont l'angle horaire doit augmenter
+     * @return l'heure de l'événement, ou NaN
+     */
+    private static double eventTime(double start, double length, double angle) {
+        double delay = Angle.normalizePositive(angle) / SIDEREAL_RATE;
+        return delay < length ? start + delay : Double.NaN;
+    }
+
+    /**
+     * Méthode privée qui calcule les événements d'un objet mobile pour un jour, en encadrant
+     * chacun d'eux entre deux échantillons horaires successifs, puis en l'affinant par
+     * dichotomie. Les tableaux donnés servent à stocker les échantillons.
+     *
+     * @param model le modèle de l'objet
+     * @param days les jours
+     * @param day l'index du jour
+     * @param i l'index du résultat
+     * @param f les hauteurs du haut du disque au-dessus de l'horizon apparent, par échantillon
+     * @param sinH les sinus de l'angle horaire, par échantillon
+     * @param cosH les cosinus de l'angle horaire, par échantillon
+     */
+    private void solveModel(CelestialObjectModel<? extends CelestialObject> model, Days days, int day, int i,
+                            double[] f, double[] sinH, double[] cosH) {
+        double start = days.start(day);
+        double step = days.length(day) / SAMPLES_PER_DAY;
+        EclipticToEquatorialConversion eclToEqu = days.eclipticToEquatorialConversion(day);
+
+        double[] sample = new double[3];
+        for (int j = 0; j <= SAMPLES_PER_DAY; j++) {
+            days.sample(model, eclToEqu, day, start + j*step, sample);
+            f[j] = sample[0];
+            sinH[j] = sample[1];
+            cosH[j] = sample[2];
+        }
+
+        rise[i] = Double.NaN;
+        transit[i] = Double.NaN;
+        set[i] = Double.NaN;
+        for (int j = 0; j < SAMPLES_PER_DAY; j++) {
+            double low = start + j*step;
+            double high = low + step;
+            if (Double.isNaN(rise[i]) && f[j] < 0 && f[j + 1] >= 0)
+                rise[i] = bisect(model, eclToEqu, days, day, low, high, 0, sample);
+            if (Double.isNaN(set[i]) && f[j] >= 0 && f[j + 1] < 0)
+                set[i] = bisect(model, eclToEqu, days, day, low, high, 0, sample);
+            if (Double.isNaN(transit[i]) && sinH[j] < 0 && sinH[j + 1] >= 0 && cosH[j] > 0 && cosH[j + 1] > 0)
+                transit[i] = bisect(model, eclToEqu, days, day, low, high, 1, sample);
+        }
+    }
+
+    /**
+     * Méthode privée qui affine par dichotomie l'heure à laquelle la composante donnée des
+     * échantillons (0 pour la hauteur, 1 pour le sinus de l'angle horaire) change de signe,
+     * celle-ci étant de signes différents aux deux bornes de l'intervalle donné.
+     *
+     * @param model le modèle de l'objet
+     * @param eclToEqu la conversion écliptique/équatoriale du jour
+     * @param days les jours
+     * @param day l'index du jour
+     * @param low la borne inférieure de l'intervalle
+     * @param high la borne supérieure de l'intervalle
+     * @param component la composante des échantillons considérée
+     * @param sample le tableau dans lequel stocker les échantillons
+     * @return l'heure du changement de signe, à une seconde près
+     */
+    private static double bisect(CelestialObjectModel<? extends CelestialObject> model,
+                                 EclipticToEquatorialConversion eclToEqu, Days days, int day,
+                                 double low, double high, int component, double[] sample) {
+        days.sample(model, eclToEqu, day, low, sample);
+        boolean lowIsNegative = sample[component] < 0;
+        while (high - low > TIME_TOLERANCE) {
+            double middle = (low + high) / 2;
+            days.sample(model, eclToEqu, day, middle, sample);
+            if ((sample[component] < 0) == lowIsNegative)
+                low = middle;
+            else
+                high = middle;
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Méthode privée qui retourne l'index dans les colonnes de l'événement de l'objet
+     * d'index object le jour d'index day.
+     *
+     * @param object l'index de l'objet
+     * @param day l'index du jour
+     * @return l'index dans les colonnes
+     * @throws IndexOutOfBoundsException si l'un des index n'est pas valide
+     */
+    private int index(int object, int day) {
+        Objects.checkIndex(object, objectCount);
+        Objects.checkIndex(day, dayCount);
+        return object*dayCount + day;
+    }
+
+    /**
+     * Classe privée qui représente la suite de jours pour lesquels les événements sont
+     * calculés, et le lieu d'observation. Le temps sidéral local de chaque jour n'est
+     * calculé qu'une fois, à son début ; il augmente ensuite uniformément.
+     */
+    private final static class Days {
+
+        private final double cosLat;
+        private final double sinLat;
+        private final double[] starts; // Débuts des jours, et fin du dernier, en jours après J2010
+        private final double[] localSiderealTimes; // Au début de chaque jour
+        private final EclipticToEquatorialConversion[] eclipticToEquatorialConversions;
+
+        /**
+         * Constructeur de la suite de jours allant de first à last (inclus).
+         *
+         * @param first le premier jour
+         * @param last le dernier jour (inclus)
+         * @param zone le fuseau horaire dans lequel les jours sont définis
+         * @param where le lieu d'observation
+         * @throws IllegalArgumentException si le dernier jour précède le premier
+         */
+        private Days(LocalDate first, LocalDate last, ZoneId zone, GeographicCoordinates where) {
+            Preconditions.checkArgument(!last.isBefore(first));
+            int count = Math.toIntExact(ChronoUnit.DAYS.between(first, last) + 1);
+
+            this.cosLat = cos(where.lat());
+            this.sinLat = sin(where.lat());
+            this.starts = new double[count + 1];
+            this.localSiderealTimes = new double[count];
+            this.eclipticToEquatorialConversions = new EclipticToEquatorialConversion[count];
+            for (int d = 0; d <= count; d++) {
+                ZonedDateTime start = first.plusDays(d).atStartOfDay(zone);
+                starts[d] = Epoch.J2010.daysUntil(start);
+                if (d < count) {
+                    localSiderealTimes[d] = SiderealTime.local(start, where);
+                    eclipticToEquatorialConversions[d] = new EclipticToEquatorialConversion(
+                            start.plus(Duration.ofHours(12)));
+                }
+            }
+        }
+
+        /**
+         * Méthode d'accès qui retourne le nombre de jours.
+         *
+         * @return le nombre de jours
+         */
+        private int count() {
+            return localSiderealTimes.length;
+        }
+
+        /**
+         * Méthode d'accès qui retourne le début du jour d'index day.
+         *
+         * @param day l'index du jour
+         * @return le début du jour, en jours après l'époque J2010
+         */
+        private double start(int day) {
+            return starts[day];
+        }
+
+        /**
+         * Méthode d'accès qui retourne la durée du jour d'index day (qui n'est pas toujours
+         * de 24 heures, à cause des changements d'heure).
+         *
+         * @param day l'index du jour
+         * @return la durée du jour, en jours
+         */
+        private double length(int day) {
+            return starts[day + 1] - starts[day];
+        }
+
+        /**
+         * Méthode d'accès qui retourne le temps sidéral local au début du jour d'index day.
+         *
+         * @param day l'index du jour
+         * @return le temps sidéral local, en radians
+         */
+        private double localSiderealTime(int day) {
+            return localSiderealTimes[day];
+        }
+
+        /**
+         * Méthode d'accès qui retourne la conversion écliptique/équatoriale du jour d'index
+         * day, calculée à midi, l'obliquité de l'écliptique variant très peu en un jour.
+         *
+         * @param day l'index du jour
+         * @return la conversion écliptique/équatoriale du jour
+         */
+        private EclipticToEquatorialConversion eclipticToEquatorialConversion(int day) {
+            return eclipticToEquatorialConversions[day];
+        }
+
+        /**
+         * Méthode qui calcule l'objet du modèle donné à l'heure t du jour d'index day, et
+         * stocke dans le tableau donné la hauteur du haut de son disque au-dessus de
+         * l'horizon apparent, ainsi que le sinus et le cosinus de son angle horaire.
+         *
+         * @param model le modèle de l'objet
+         * @param eclToEqu la conversion écliptique/équatoriale du jour
+         * @param day l'index du jour
+         * @param t l'heure, en jours après l'époque J2010
+         * @param out le tableau dans lequel stocker les trois valeurs
+         */
+        private void sample(CelestialObjectModel<? extends CelestialObject> model,
+                            EclipticToEquatorialConversion eclToEqu, int day, double t, double[] out) {
+            CelestialObject object = model.at(t, eclToEqu);
+            double H = localSiderealTimes[day] + SIDEREAL_RATE*(t - starts[day]) - object.equatorialPos().ra();
+            double dec = object.equatorialPos().dec();
+            double cosH = cos(H);
+            double alt = asin(sin(dec)*sinLat + cos(dec)*cosLat*cosH);
+
+            out[0] = alt + REFRACTION + object.angularSize()/2;
+            out[1] = sin(H);
+            out[2] = cosH;
+        }
+    }
+}
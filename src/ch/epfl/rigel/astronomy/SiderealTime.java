@@ -15,7 +15,8 @@ import java.time.temporal.ChronoUnit;
 public final class SiderealTime {
 
     private final static double NB_MILLIS_PER_HOUR = 3600.*1000.;
-    private final static double S1_CONSTANT = 1.002737909;
+    private final static long NB_MILLIS_PER_DAY = 24L*3600L*1000L;
+    final static double S1_CONSTANT = 1.002737909; // Jours sidéraux par jour solaire, utilisé aussi par RiseTransitSet
     private final static Polynomial S0_POLYNOM = Polynomial.of(0.000025862, 2400.051336, 6.697374558);
 
     private SiderealTime() {} // Constructeur privée pour rendre la classe non instantiable
@@ -54,4 +55,36 @@ public final class SiderealTime {
     public static double local(ZonedDateTime when, GeographicCoordinates where) {
         return Angle.normalizePositive(greenwich(when) + where.lon());
     }
+
+    /**
+     * Méthode statique qui retourne le temps sidéral de Greenwich, en radians et compris
+     * dans l'intervalle [0, τ[, pour l'instant donné en millisecondes depuis le 1er janvier
+     * 1970 à 0h00 UTC, comme greenwich, mais sans créer le moindre objet.
+     *
+     * @param epochMillis l'instant, en millisecondes depuis le 1er janvier 1970 à 0h00 UTC
+     * @return le temps sidéral de Greenwich en radians et compris dans l'intervalle [0, τ[
+     */
+    public static double greenwich(long epochMillis) {
+        long dayStartMillis = Math.floorDiv(epochMillis, NB_MILLIS_PER_DAY) * NB_MILLIS_PER_DAY;
+
+        double T = Epoch.J2000.julianCenturiesUntil(dayStartMillis);
+        double t = (epochMillis - dayStartMillis) / NB_MILLIS_PER_HOUR;
+        double S0 = S0_POLYNOM.at(T);
+        double S1 = S1_CONSTANT*t;
+
+        return Angle.normalizePositive(Angle.ofHr(S0 + S1));
+    }
+
+    /**
+     * Méthode statique qui retourne le temps sidéral local, en radians et compris dans
+     * l'intervalle [0, τ[, pour l'instant donné en millisecondes depuis le 1er janvier 1970
+     * à 0h00 UTC et la position where, sans créer le moindre objet.
+     *
+     * @param epochMillis l'instant, en millisecondes depuis le 1er janvier 1970 à 0h00 UTC
+     * @param where la position actuelle
+     * @return le temps sidéral local, en radians et compris dans l'intervalle [0, τ[
+     */
+    public static double local(long epochMillis, GeographicCoordinates where) {
+        return Angle.normalizePositive(greenwich(epochMillis) + where.lon());
+    }
 }
@@ -0,0 +1,112 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+
+import java.util.Objects;
+
+/**
+ * Classe qui représente le contexte d'un instant, partagé par le calcul de tous les objets
+ * du système solaire à cet instant : le nombre de jours après l'époque J2010, la conversion
+ * écliptique/équatoriale (donc l'obliquité de l'écliptique), l'état de l'orbite terrestre
+ * et le Soleil.
+ *
+ * L'état de l'orbite terrestre et le Soleil ne sont calculés qu'au premier accès, puis
+ * réutilisés par tous les modèles qui en ont besoin. Un contexte n'est pas destiné à être
+ * partagé entre plusieurs fils d'exécution.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class SolarSystemContext {
+
+    private final double daysSinceJ2010;
+    private final EclipticToEquatorialConversion eclipticToEquatorialConversion;
+
+    private boolean earthComputed;
+    private double earthOrbitPlaneLongitude;
+    private double earthOrbitRadius;
+    private Sun sun;
+
+    /**
+     * Constructeur privé du contexte.
+     *
+     * @param daysSinceJ2010 nombre de jours après l'époque J2010
+     * @param eclipticToEquatorialConversion la conversion écliptique/équatoriale
+     */
+    private SolarSystemContext(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+        this.daysSinceJ2010 = daysSinceJ2010;
+        this.eclipticToEquatorialConversion = Objects.requireNonNull(eclipticToEquatorialConversion);
+    }
+
+    /**
+     * Méthode qui retourne le contexte de l'instant donné.
+     *
+     * @param daysSinceJ2010 nombre (éventuellement négatif) de jours après l'époque J2010
+     * @param eclipticToEquatorialConversion la conversion écliptique/équatoriale de l'instant
+     * @return le contexte de l'instant
+     * @throws NullPointerException si la conversion est nulle
+     */
+    public static SolarSystemContext at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+        return new SolarSystemContext(daysSinceJ2010, eclipticToEquatorialConversion);
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre de jours après l'époque J2010.
+     *
+     * @return le nombre de jours après l'époque J2010
+     */
+    public double daysSinceJ2010() {
+        return daysSinceJ2010;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la conversion écliptique/équatoriale de l'instant.
+     *
+     * @return la conversion écliptique/équatoriale
+     */
+    public EclipticToEquatorialConversion eclipticToEquatorialConversion() {
+        return eclipticToEquatorialConversion;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la longitude de la Terre dans le plan de son orbite.
+     *
+     * @return la longitude de la Terre dans le plan de son orbite
+     */
+    public double earthOrbitPlaneLongitude() {
+        computeEarth();
+        return earthOrbitPlaneLongitude;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le rayon de la Terre dans le plan de son orbite (en UA).
+     *
+     * @return le rayon de la Terre dans le plan de son orbite
+     */
+    public double earthOrbitRadius() {
+        computeEarth();
+        return earthOrbitRadius;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le Soleil à l'instant du contexte, selon le modèle exact.
+     *
+     * @return le Soleil
+     */
+    public Sun sun() {
+        if (sun == null)
+            sun = SunModel.SUN.at(daysSinceJ2010, eclipticToEquatorialConversion);
+        return sun;
+    }
+
+    /**
+     * Méthode privée qui calcule l'état de l'orbite terrestre, si ce n'est pas déjà fait.
+     */
+    private void computeEarth() {
+        if (earthComputed)
+            return;
+        double trueAnomaly = PlanetModel.EARTH.trueAnomalyAt(daysSinceJ2010);
+        earthOrbitPlaneLongitude = PlanetModel.EARTH.orbitPlaneLongitude(trueAnomaly);
+        earthOrbitRadius = PlanetModel.EARTH.orbitRadius(trueAnomaly);
+        earthComputed = true;
+    }
+}
@@ -0,0 +1,83 @@
+package ch.epfl.rigel.astronomy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cette classe regroupe les modèles utilisés pour calculer le Soleil, la Lune et les
+ * planètes extraterrestres du système solaire : soit les modèles exacts, soit des caches
+ * de ceux-ci (EphemerisCache), adaptés au calcul répété du ciel à des instants proches,
+ * p.ex. lors d'une animation.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class SolarSystemModel {
+
+    /**
+     * Les modèles exacts du Soleil, de la Lune et des planètes extraterrestres.
+     */
+    public final static SolarSystemModel EXACT = new SolarSystemModel(
+            SunModel.SUN, MoonModel.MOON, List.copyOf(PlanetModel.ALL_EXTRA_TERRESTRIAL));
+
+    private final CelestialObjectModel<Sun> sun;
+    private final CelestialObjectModel<Moon> moon;
+    private final List<CelestialObjectModel<Planet>> planets;
+
+    /**
+     * Constructeur privé qui regroupe les modèles donnés.
+     *
+     * @param sun le modèle du Soleil
+     * @param moon le modèle de la Lune
+     * @param planets les modèles des planètes extraterrestres
+     */
+    private SolarSystemModel(CelestialObjectModel<Sun> sun, CelestialObjectModel<Moon> moon,
+                             List<CelestialObjectModel<Planet>> planets) {
+        this.sun = sun;
+        this.moon = moon;
+        this.planets = planets;
+    }
+
+    /**
+     * Méthode qui retourne un nouveau groupe de caches des modèles exacts, dont les angles
+     * sont approchés avec l'erreur maximale donnée.
+     *
+     * @param maxError l'erreur maximale sur les angles, en radians
+     * @return un groupe de caches des modèles exacts
+     * @throws IllegalArgumentException si l'erreur maximale n'est pas strictement positive
+     */
+    public static SolarSystemModel cached(double maxError) {
+        List<CelestialObjectModel<Planet>> planets = new ArrayList<>();
+        for (PlanetModel model : PlanetModel.ALL_EXTRA_TERRESTRIAL)
+            planets.add(EphemerisCache.ofPlanet(model, maxError));
+        return new SolarSystemModel(
+                EphemerisCache.ofSun(maxError), EphemerisCache.ofMoon(maxError), List.copyOf(planets));
+    }
+
+    /**
+     * Méthode d'accès qui retourne le modèle du Soleil.
+     *
+     * @return le modèle du Soleil
+     */
+    public CelestialObjectModel<Sun> sun() {
+        return sun;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le modèle de la Lune.
+     *
+     * @return le modèle de la Lune
+     */
+    public CelestialObjectModel<Moon> moon() {
+        return moon;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la liste (non modifiable) des modèles des planètes
+     * extraterrestres, dans l'ordre de PlanetModel.ALL_EXTRA_TERRESTRIAL.
+     *
+     * @return la liste des modèles des planètes extraterrestres
+     */
+    public List<CelestialObjectModel<Planet>> planets() {
+        return planets;
+    }
+}
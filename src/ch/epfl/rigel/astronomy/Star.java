@@ -42,6 +42,43 @@ public final class Star extends CelestialObject {
         this.colorTemperature = calculateColorTemperature(colorIndex);
     }
 
+    /**
+     * Constructeur *package private* qui construit une étoile à partir de sa température
+     * de couleur déjà calculée. Il est utilisé par le catalogue pour recréer à la demande
+     * les étoiles qu'il stocke sous forme de colonnes, et dont les valeurs ont donc déjà
+     * été validées.
+     *
+     * @param name le nom de l'étoile
+     * @param equatorialPos la position équatoriale de l'étoile
+     * @param magnitude la magnitude de l'étoile
+     * @param hipparcosId le numéro Hipparcos de l'étoile
+     * @param colorTemperature la température de couleur de l'étoile
+     */
+    Star(String name, EquatorialCoordinates equatorialPos, float magnitude, int hipparcosId, int colorTemperature) {
+        super(name, equatorialPos, STAR_ANGULAR_SIZE, magnitude);
+
+        this.hipparcosId = hipparcosId;
+        this.colorTemperature = colorTemperature;
+    }
+
+    /**
+     * Méthode statique *package private* qui vérifie le numéro Hipparcos et l'indice de
+     * couleur donnés, et retourne la température de couleur correspondante, ou lève
+     * IllegalArgumentException dans les mêmes cas que le constructeur public.
+     *
+     * @param hipparcosId le numéro Hipparcos de l'étoile
+     * @param colorIndex l'indice de couleur de l'étoile
+     * @return la température de couleur de l'étoile
+     * @throws IllegalArgumentException si le numéro Hipparcos est négatif ou si
+     * l'indice de couleur n'est pas compris dans l'intervalle [-0.5, 5.5]
+     */
+    static int checkedColorTemperature(int hipparcosId, float colorIndex) {
+        Preconditions.checkArgument(hipparcosId >= 0);
+        Preconditions.checkInInterval(COLOR_INDEX_INTERVAL, colorIndex);
+
+        return calculateColorTemperature(colorIndex);
+    }
+
     /**
      * Méthode privée qui calcule la température de couleur en fonction
      * de l'index de couleur de l'étoile.
@@ -49,7 +86,7 @@ public final class Star extends CelestialObject {
      * @param colorIndex l'index de couleur de l'étoile
      * @return la température de couleur de l'étoile
      */
-    private int calculateColorTemperature(float colorIndex) {
+    private static int calculateColorTemperature(float colorIndex) {
         return (int) (4600*(1/(.92*colorIndex + 1.7 ) + 1/(.92*colorIndex + .62)));
     }
 
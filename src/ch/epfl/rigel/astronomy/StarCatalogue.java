@@ -1,5 +1,10 @@
 package ch.epfl.rigel.astronomy;
 
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.rigel.math.ClosedInterval;
+import ch.epfl.rigel.math.RightOpenInterval;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
@@ -11,9 +16,17 @@ import java.util.*;
  */
 public final class StarCatalogue {
 
+    private final static RightOpenInterval RA_INTERVAL = RightOpenInterval.of(0, Angle.ofDeg(360));
+    private final static ClosedInterval DEC_INTERVAL = ClosedInterval.symmetric(Angle.ofDeg(180));
+
+    private final StarTable table;
     private final List<Star> stars;
-    private final Map<Star, Integer> starIndexMap;
+    private final HipparcosIndex hipparcosIndex;
+    private volatile HealpixIndex spatialIndex;
+    private final int[] magnitudeOrder;
+    private final float[] sortedMagnitudes;
     private final Map<Asterism, List<Integer>> catalogue;
+    private final int[] asterismStarRanks;
 
     /**
      * Constructeur qui construit un catalogue constitué des étoiles stars et des astérismes
@@ -26,31 +39,138 @@ public final class StarCatalogue {
      * pas partie de la liste d'étoiles
      */
     public StarCatalogue(List<Star> stars, List<Asterism> asterisms) {
-        this.stars = List.copyOf(stars);
+        this(tableOf(stars), asterisms);
+    }
+
+    /**
+     * Constructeur privé qui construit un catalogue à partir d'une table d'étoiles
+     * stockée par colonnes, dont il devient propriétaire.
+     *
+     * @param table la table des étoiles du catalogue
+     * @param asterisms la liste des astérismes à ajouter au catalogue
+     * @throws IllegalArgumentException si l'un des astérismes contient une étoile qui ne fait
+     * pas partie de la table
+     */
+    private StarCatalogue(StarTable table, List<Asterism> asterisms) {
+        this.table = table;
+        this.stars = table.view();
+        this.hipparcosIndex = HipparcosIndex.of(table);
+        this.magnitudeOrder = magnitudeOrder(table);
+        this.sortedMagnitudes = new float[magnitudeOrder.length];
+        for (int rank = 0; rank < magnitudeOrder.length; rank++)
+            sortedMagnitudes[rank] = table.magnitude(magnitudeOrder[rank]);
 
-        // Construction de starIntegerMap
-        starIndexMap = new HashMap<>();
-        for (int i = 0; i < stars.size(); i++)
-            starIndexMap.put(stars.get(i), i);
+        // Index par identité des étoiles déjà créées, construit uniquement si une étoile
+        // d'astérisme ne peut pas être retrouvée par son numéro Hipparcos
+        Map<Star, Integer> starIndexMap = null;
 
         Map<Asterism, List<Integer>> catalogue = new HashMap<>();
         for (Asterism asterism : asterisms) {
             List<Integer> starsIndex = new ArrayList<>();
             for (Star star: asterism.stars()) {
-                if (starIndexMap.containsKey(star)) {
-                    starsIndex.add(starIndexMap.get(star));
-                } else {
-                    throw new IllegalArgumentException();
+                int index = hipparcosIndex.get(star.hipparcosId());
+                if (index == HipparcosIndex.ABSENT || table.starIfCreated(index) != star) {
+                    if (starIndexMap == null)
+                        starIndexMap = createdStarIndexMap(table);
+                    if (!starIndexMap.containsKey(star))
+                        throw new IllegalArgumentException();
+                    index = starIndexMap.get(star);
                 }
+                starsIndex.add(index);
             }
             catalogue.put(asterism, starsIndex);
         }
 
         this.catalogue = Map.copyOf(catalogue);
+        this.asterismStarRanks = asterismStarRanks(magnitudeOrder, catalogue.values());
+    }
+
+    /**
+     * Méthode statique privée qui retourne, sans doublons et triés par ordre croissant, les
+     * rangs dans l'ordre de magnitude des étoiles appartenant à au moins un astérisme.
+     *
+     * @param magnitudeOrder les index des étoiles, triés par magnitude croissante
+     * @param asterismIndices les listes des index des étoiles de chaque astérisme
+     * @return les rangs des étoiles des astérismes
+     */
+    private static int[] asterismStarRanks(int[] magnitudeOrder, Collection<List<Integer>> asterismIndices) {
+        BitSet isAsterismStar = new BitSet(magnitudeOrder.length);
+        for (List<Integer> indices : asterismIndices) {
+            for (int i : indices)
+                isAsterismStar.set(i);
+        }
+
+        int[] ranks = new int[isAsterismStar.cardinality()];
+        int nbRanks = 0;
+        for (int rank = 0; rank < magnitudeOrder.length; rank++) {
+            if (isAsterismStar.get(magnitudeOrder[rank]))
+                ranks[nbRanks++] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Méthode statique privée qui retourne une table associant leur index aux étoiles
+     * déjà créées de la table donnée, seules à pouvoir faire partie d'un astérisme.
+     *
+     * @param table la table des étoiles
+     * @return la table associant leur index aux étoiles déjà créées
+     */
+    private static Map<Star, Integer> createdStarIndexMap(StarTable table) {
+        Map<Star, Integer> starIndexMap = new HashMap<>();
+        for (int i = 0; i < table.size(); i++) {
+            Star star = table.starIfCreated(i);
+            if (star != null)
+                starIndexMap.put(star, i);
+        }
+        return starIndexMap;
+    }
+
+    /**
+     * Méthode statique privée qui retourne les index des étoiles de la table donnée, triés
+     * par magnitude croissante (des plus brillantes aux plus faibles), les étoiles de même
+     * magnitude restant dans l'ordre de la table. Pour éviter tout emballage, chaque étoile
+     * est représentée par un long dont les 32 bits de poids fort codent sa magnitude de
+     * manière à ce que leur ordre d'entiers signés soit celui des magnitudes, et les 32 bits
+     * de poids faible son index.
+     *
+     * @param table la table des étoiles
+     * @return les index des étoiles, triés par magnitude croissante
+     */
+    private static int[] magnitudeOrder(StarTable table) {
+        int n = table.size();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int bits = Float.floatToIntBits(table.magnitude(i));
+            bits ^= (bits >> 31) & Integer.MAX_VALUE;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[n];
+        for (int rank = 0; rank < n; rank++)
+            order[rank] = (int) keys[rank];
+        return order;
+    }
+
+    /**
+     * Méthode statique privée qui retourne une table contenant les étoiles données.
+     *
+     * @param stars les étoiles à placer dans la table
+     * @return la table contenant les étoiles données
+     */
+    private static StarTable tableOf(List<Star> stars) {
+        StarTable table = new StarTable(stars.size());
+        for (Star star : stars)
+            table.add(star);
+        return table;
     }
 
     /**
      * Méthode d'accès qui retourne la liste des étoiles du catalogue.
+     * Les étoiles étant stockées par colonnes, la liste retournée est une vue qui
+     * crée chaque étoile lors de son premier accès ; les accès suivants retournent
+     * toujours la même instance.
      *
      * @return la liste des étoiles du catalogue
      */
@@ -58,6 +178,182 @@ public final class StarCatalogue {
         return stars;
     }
 
+    /**
+     * Méthode d'accès qui retourne le nombre d'étoiles du catalogue.
+     *
+     * @return le nombre d'étoiles du catalogue
+     */
+    public int starCount() {
+        return table.size();
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nom de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile dans le catalogue
+     * @return le nom de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public String starName(int index) {
+        return table.name(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne la clef de recherche de l'étoile d'index donné,
+     * c'est-à-dire son nom en majuscules. Cette clef est calculée une seule fois par nom
+     * distinct, lors du chargement, et partagée par toutes les étoiles de même nom.
+     *
+     * @param index l'index de l'étoile dans le catalogue
+     * @return la clef de recherche de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public String starNameKey(int index) {
+        return table.nameKey(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne l'ascension droite, en radians, de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile dans le catalogue
+     * @return l'ascension droite de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double starRa(int index) {
+        return table.ra(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne la déclinaison, en radians, de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile dans le catalogue
+     * @return la déclinaison de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double starDec(int index) {
+        return table.dec(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne la magnitude de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile dans le catalogue
+     * @return la magnitude de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double starMagnitude(int index) {
+        return table.magnitude(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne la température de couleur de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile dans le catalogue
+     * @return la température de couleur de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public int starColorTemperature(int index) {
+        return table.colorTemperature(index);
+    }
+
+    /**
+     * Méthode d'accès qui retourne le numéro Hipparcos de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile dans le catalogue
+     * @return le numéro Hipparcos de l'étoile
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public int starHipparcosId(int index) {
+        return table.hipparcosId(index);
+    }
+
+    /**
+     * Méthode qui retourne le nombre d'étoiles du catalogue strictement plus brillantes que
+     * la magnitude donnée, c'est-à-dire de magnitude strictement inférieure. Ces étoiles sont
+     * celles dont le rang, dans l'ordre de magnitude croissante, est compris entre 0 (inclus)
+     * et la valeur retournée (exclue) ; celle-ci est obtenue par recherche dichotomique.
+     *
+     * @param magnitude la magnitude limite
+     * @return le nombre d'étoiles plus brillantes que la magnitude donnée
+     */
+    public int starsBrighterThan(double magnitude) {
+        int low = 0;
+        int high = sortedMagnitudes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedMagnitudes[middle] < magnitude)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Méthode qui retourne l'index — dans le catalogue — de l'étoile de rang donné dans
+     * l'ordre de magnitude croissante, l'étoile de rang 0 étant la plus brillante.
+     *
+     * @param rank le rang de l'étoile dans l'ordre de magnitude croissante
+     * @return l'index de l'étoile dans le catalogue
+     * @throws IndexOutOfBoundsException si le rang n'est pas valide
+     */
+    public int starIndexByMagnitude(int rank) {
+        return magnitudeOrder[rank];
+    }
+
+    /**
+     * Méthode qui retourne l'index — dans le catalogue — de l'étoile ayant le numéro
+     * Hipparcos donné, ou -1 si aucune étoile du catalogue n'a ce numéro. Si plusieurs
+     * étoiles ont ce numéro, l'index de la dernière d'entre elles est retourné.
+     * La recherche se fait en temps constant, grâce à un index construit une seule fois.
+     *
+     * @param hipparcosId le numéro Hipparcos de l'étoile
+     * @return l'index de l'étoile ayant ce numéro, ou -1
+     */
+    public int indexOfHipparcosId(int hipparcosId) {
+        return hipparcosIndex.get(hipparcosId);
+    }
+
+    /**
+     * Méthode d'accès qui retourne l'index spatial des étoiles du catalogue, qui permet de
+     * retrouver les étoiles d'une région du ciel sans parcourir tout le catalogue. Il est
+     * construit lors du premier appel, de manière à ce que les catalogues qui ne l'utilisent
+     * pas n'en paient pas le coût. Deux fils appelant cette méthode simultanément peuvent
+     * construire chacun un index, ce qui est sans conséquence puisque ces index sont
+     * équivalents.
+     *
+     * @return l'index spatial des étoiles du catalogue
+     */
+    public HealpixIndex spatialIndex() {
+        HealpixIndex index = spatialIndex;
+        if (index == null) {
+            index = HealpixIndex.of(table);
+            spatialIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Méthode d'accès *package private* qui retourne les rangs — dans l'ordre de magnitude
+     * croissante — des étoiles appartenant à au moins un astérisme, sans doublons et triés
+     * par ordre croissant. Ils sont calculés une seule fois, à la construction du catalogue.
+     * Le tableau retourné ne doit pas être modifié.
+     *
+     * @return les rangs des étoiles des astérismes
+     */
+    int[] asterismStarRanks() {
+        return asterismStarRanks;
+    }
+
+    /**
+     * Méthode d'accès *package private* qui retourne la table des étoiles du catalogue,
+     * afin que les boucles de calcul puissent parcourir directement ses colonnes.
+     *
+     * @return la table des étoiles du catalogue
+     */
+    StarTable table() {
+        return table;
+    }
+
     /**
      * Méthode d'accès qui retourne l'ensemble des astérismes du catalogue.
      *
@@ -90,7 +386,9 @@ public final class StarCatalogue {
      */
     public final static class Builder {
         private List<Asterism> asterisms;
-        private List<Star> stars;
+        private StarTable stars;
+        private HipparcosIndex hipparcosIndex;
+        private int indexedStarCount;
 
         /**
          * Constructeur par défaut qui initialise le bâtisseur de manière à ce que
@@ -98,7 +396,7 @@ public final class StarCatalogue {
          */
         public Builder() {
             this.asterisms = new ArrayList<>();
-            this.stars = new ArrayList<>();
+            this.stars = new StarTable();
         }
 
         /**
@@ -114,14 +412,84 @@ public final class StarCatalogue {
         }
 
         /**
-         * Méthode d'accès qui retourne une vue non modifiable — mais pas immuable — 
+         * Méthode qui ajoute au catalogue en cours de construction l'étoile décrite par
+         * les valeurs données, sans créer d'instance de Star, et retourne le bâtisseur.
+         * Les valeurs sont validées de la même manière que par le constructeur de Star.
+         *
+         * @param hipparcosId le numéro Hipparcos de l'étoile
+         * @param name le nom de l'étoile
+         * @param ra l'ascension droite de l'étoile, en radians
+         * @param dec la déclinaison de l'étoile, en radians
+         * @param magnitude la magnitude de l'étoile
+         * @param colorIndex l'indice de couleur de l'étoile
+         * @return le bâtisseur
+         * @throws IllegalArgumentException si le numéro Hipparcos est négatif, si l'indice
+         * de couleur n'est pas compris dans l'intervalle [-0.5, 5.5] ou si la position
+         * équatoriale n'est pas valide
+         * @throws NullPointerException si le nom est nul
+         */
+        public Builder addStar(int hipparcosId, String name, double ra, double dec,
+                               float magnitude, float colorIndex) {
+            Objects.requireNonNull(name);
+            Preconditions.checkInInterval(RA_INTERVAL, ra);
+            Preconditions.checkInInterval(DEC_INTERVAL, dec);
+            int colorTemperature = Star.checkedColorTemperature(hipparcosId, colorIndex);
+
+            this.stars.add(hipparcosId, name, ra, dec, magnitude, colorTemperature);
+            return this;
+        }
+
+        /**
+         * Méthode *package private* qui ajoute au catalogue en cours de construction toutes
+         * les étoiles de la table donnée, dans leur ordre, et retourne le bâtisseur.
+         *
+         * @param table la table des étoiles à ajouter
+         * @return le bâtisseur
+         */
+        Builder addStars(StarTable table) {
+            this.stars.addAll(table);
+            return this;
+        }
+
+        /**
+         * Méthode qui retourne l'index de l'étoile du catalogue en cours de construction
+         * ayant le numéro Hipparcos donné, ou -1 si aucune étoile n'a ce numéro. Si plusieurs
+         * étoiles ont ce numéro, l'index de la dernière d'entre elles est retourné.
+         * L'index des numéros est construit lors du premier appel, puis seulement complété
+         * par les étoiles ajoutées depuis.
+         *
+         * @param hipparcosId le numéro Hipparcos de l'étoile
+         * @return l'index de l'étoile ayant ce numéro, ou -1
+         */
+        public int indexOfHipparcosId(int hipparcosId) {
+            if (hipparcosIndex == null) {
+                hipparcosIndex = HipparcosIndex.of(stars);
+            } else if (indexedStarCount < stars.size()) {
+                hipparcosIndex.putAll(stars, indexedStarCount);
+            }
+            indexedStarCount = stars.size();
+            return hipparcosIndex.get(hipparcosId);
+        }
+
+        /**
+         * Méthode d'accès *package private* qui retourne la table des étoiles du catalogue
+         * en cours de construction.
+         *
+         * @return la table des étoiles du catalogue en cours de construction
+         */
+        StarTable table() {
+            return this.stars;
+        }
+
+        /**
+         * Méthode d'accès qui retourne une vue non modifiable — mais pas immuable — 
          * sur les étoiles du catalogue en cours de construction.
          *
-         * @return une vue non modifiable — mais pas immuable - sur les étoiles
+         * @return une vue non modifiable — mais pas immuable - sur les étoiles
          * du catalogue en cours de construction
          */
         public List<Star> stars() {
-            return Collections.unmodifiableList(this.stars);
+            return this.stars.view();
         }
 
         /**
@@ -170,7 +538,7 @@ public final class StarCatalogue {
          * @return le catalogue construit conformément au bâtisseur
          */
         public StarCatalogue build() {
-            return new StarCatalogue(this.stars, this.asterisms);
+            return new StarCatalogue(this.stars.compactCopy(), this.asterisms);
         }
     }
 
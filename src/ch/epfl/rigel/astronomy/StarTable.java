@@ -0,0 +1,484 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cette classe *package private* représente une table d'étoiles stockée par colonnes :
+ * chaque caractéristique des étoiles (ascension droite, déclinaison, magnitude, ...)
+ * est stockée dans un tableau primitif distinct, et les noms dans une table de noms sans
+ * doublons (NameTable), dont les identifiants forment la colonne des noms.
+ * La table stocke de plus, pour chaque étoile, le vecteur unitaire (x, y, z) de sa direction
+ * dans le repère équatorial, calculé une fois pour toutes lors de l'ajout de l'étoile, ce qui
+ * permet de la projeter sans fonction transcendante.
+ * Les instances de Star ne sont créées qu'à la demande (poids mouche), puis conservées
+ * afin que l'identité des étoiles soit préservée.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+final class StarTable {
+
+    private final static int DEFAULT_CAPACITY = 16;
+
+    private int size;
+    private double[] ra;
+    private double[] dec;
+    private float[] magnitude;
+    private int[] colorTemperature;
+    private int[] hipparcosId;
+    private double[] unitX;
+    private double[] unitY;
+    private double[] unitZ;
+
+    private int[] nameId;
+    private final NameTable names;
+
+    private AtomicReferenceArray<Star> stars;
+
+    /**
+     * Constructeur qui construit une table vide pouvant contenir capacity étoiles
+     * avant de devoir être agrandie.
+     *
+     * @param capacity la capacité initiale de la table
+     */
+    StarTable(int capacity) {
+        int c = Math.max(capacity, 1);
+        this.ra = new double[c];
+        this.dec = new double[c];
+        this.magnitude = new float[c];
+        this.colorTemperature = new int[c];
+        this.hipparcosId = new int[c];
+        this.unitX = new double[c];
+        this.unitY = new double[c];
+        this.unitZ = new double[c];
+        this.nameId = new int[c];
+        this.names = new NameTable();
+        this.stars = new AtomicReferenceArray<>(c);
+    }
+
+    /**
+     * Constructeur qui construit une table vide de capacité par défaut.
+     */
+    StarTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructeur qui construit une table à partir de colonnes déjà remplies, dont elle
+     * devient propriétaire. Toutes les colonnes doivent avoir la même longueur, qui est
+     * le nombre d'étoiles, et les noms des étoiles sont donnés par leur identifiant, qui
+     * est leur index dans le tableau des noms distincts.
+     *
+     * @param ra la colonne des ascensions droites
+     * @param dec la colonne des déclinaisons
+     * @param magnitude la colonne des magnitudes
+     * @param colorTemperature la colonne des températures de couleur
+     * @param hipparcosId la colonne des numéros Hipparcos
+     * @param nameId la colonne des identifiants des noms
+     * @param distinctNames les noms distincts des étoiles
+     * @throws IllegalArgumentException si les longueurs des colonnes ne concordent pas,
+     * si un identifiant de nom n'est pas valide ou si deux noms distincts sont égaux
+     */
+    StarTable(double[] ra, double[] dec, float[] magnitude, int[] colorTemperature,
+              int[] hipparcosId, int[] nameId, String[] distinctNames) {
+        int n = ra.length;
+        Preconditions.checkArgument(dec.length == n && magnitude.length == n
+                && colorTemperature.length == n && hipparcosId.length == n
+                && nameId.length == n);
+        for (int id : nameId)
+            Preconditions.checkArgument(0 <= id && id < distinctNames.length);
+
+        this.size = n;
+        this.ra = ra;
+        this.dec = dec;
+        this.magnitude = magnitude;
+        this.colorTemperature = colorTemperature;
+        this.hipparcosId = hipparcosId;
+        this.unitX = new double[n];
+        this.unitY = new double[n];
+        this.unitZ = new double[n];
+        for (int i = 0; i < n; i++)
+            setUnitVector(i);
+        this.nameId = nameId;
+        this.names = new NameTable(distinctNames);
+        this.stars = new AtomicReferenceArray<>(Math.max(n, 1));
+    }
+
+    /**
+     * Méthode qui ajoute l'étoile donnée à la fin de la table. L'instance donnée est
+     * conservée telle quelle, et sera retournée par star pour l'index correspondant.
+     *
+     * @param star l'étoile à ajouter
+     */
+    void add(Star star) {
+        EquatorialCoordinates pos = star.equatorialPos();
+        int index = size;
+        add(star.hipparcosId(), star.name(), pos.ra(), pos.dec(),
+                (float) star.magnitude(), star.colorTemperature());
+        stars.set(index, star);
+    }
+
+    /**
+     * Méthode qui ajoute à la fin de la table une étoile décrite par ses colonnes,
+     * sans créer d'instance de Star. Les valeurs données doivent avoir été validées
+     * au préalable.
+     *
+     * @param hipparcosId le numéro Hipparcos de l'étoile
+     * @param name le nom de l'étoile
+     * @param ra l'ascension droite de l'étoile, en radians
+     * @param dec la déclinaison de l'étoile, en radians
+     * @param magnitude la magnitude de l'étoile
+     * @param colorTemperature la température de couleur de l'étoile
+     */
+    void add(int hipparcosId, String name, double ra, double dec, float magnitude, int colorTemperature) {
+        ensureCapacity(size + 1);
+        this.ra[size] = ra;
+        this.dec[size] = dec;
+        this.magnitude[size] = magnitude;
+        this.colorTemperature[size] = colorTemperature;
+        this.hipparcosId[size] = hipparcosId;
+        setUnitVector(size);
+        this.nameId[size] = names.idOf(name);
+        size += 1;
+    }
+
+    /**
+     * Méthode qui ajoute à la fin de la table toutes les étoiles de la table donnée,
+     * dans leur ordre, en conservant les instances déjà créées. Les noms de la table donnée
+     * sont ajoutés à la table de noms, chaque nom distinct n'étant traduit qu'une fois.
+     *
+     * @param that la table dont les étoiles sont à ajouter
+     */
+    void addAll(StarTable that) {
+        int n = that.size;
+        ensureCapacity(size + n);
+        System.arraycopy(that.ra, 0, ra, size, n);
+        System.arraycopy(that.dec, 0, dec, size, n);
+        System.arraycopy(that.magnitude, 0, magnitude, size, n);
+        System.arraycopy(that.colorTemperature, 0, colorTemperature, size, n);
+        System.arraycopy(that.hipparcosId, 0, hipparcosId, size, n);
+        System.arraycopy(that.unitX, 0, unitX, size, n);
+        System.arraycopy(that.unitY, 0, unitY, size, n);
+        System.arraycopy(that.unitZ, 0, unitZ, size, n);
+
+
+        int[] translatedId = new int[that.names.size()];
+        for (int id = 0; id < translatedId.length; id++)
+            translatedId[id] = names.idOf(that.names.name(id));
+        for (int i = 0; i < n; i++)
+            nameId[size + i] = translatedId[that.nameId[i]];
+
+        for (int i = 0; i < n; i++)
+            stars.set(size + i, that.stars.get(i));
+        size += n;
+    }
+
+    /**
+     * Méthode qui retourne une copie de la table, dont les colonnes sont exactement
+     * dimensionnées, et qui partage les instances d'étoiles déjà créées.
+     *
+     * @return une copie compacte de la table
+     */
+    StarTable compactCopy() {
+        StarTable copy = new StarTable(size);
+        copy.addAll(this);
+        return copy;
+    }
+
+    /**
+     * Méthode qui retourne le nombre d'étoiles de la table.
+     *
+     * @return le nombre d'étoiles de la table
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Méthode qui retourne l'étoile d'index donné, en la créant si nécessaire.
+     * Deux appels avec le même index retournent toujours la même instance.
+     *
+     * @param index l'index de l'étoile
+     * @return l'étoile d'index donné
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    Star star(int index) {
+        Star star = stars.get(checkIndex(index));
+        if (star == null) {
+            Star created = new Star(name(index), EquatorialCoordinates.of(ra[index], dec[index]),
+                    magnitude[index], hipparcosId[index], colorTemperature[index]);
+            star = stars.compareAndExchange(index, null, created);
+            if (star == null)
+                star = created;
+        }
+        return star;
+    }
+
+    /**
+     * Méthode qui retourne l'étoile d'index donné si elle a déjà été créée,
+     * et null sinon.
+     *
+     * @param index l'index de l'étoile
+     * @return l'étoile d'index donné si elle existe déjà, null sinon
+     */
+    Star starIfCreated(int index) {
+        return stars.get(checkIndex(index));
+    }
+
+    /**
+     * Méthode qui retourne le nom de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile
+     * @return le nom de l'étoile
+     */
+    String name(int index) {
+        return names.name(nameId[checkIndex(index)]);
+    }
+
+    /**
+     * Méthode qui retourne la clef de recherche — le nom en majuscules — de l'étoile
+     * d'index donné. Cette clef est calculée une seule fois par nom distinct.
+     *
+     * @param index l'index de l'étoile
+     * @return la clef de recherche de l'étoile
+     */
+    String nameKey(int index) {
+        return names.key(nameId[checkIndex(index)]);
+    }
+
+    /**
+     * Méthode qui retourne l'ascension droite, en radians, de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile
+     * @return l'ascension droite de l'étoile
+     */
+    double ra(int index) {
+        return ra[checkIndex(index)];
+    }
+
+    /**
+     * Méthode qui retourne la déclinaison, en radians, de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile
+     * @return la déclinaison de l'étoile
+     */
+    double dec(int index) {
+        return dec[checkIndex(index)];
+    }
+
+    /**
+     * Méthode qui retourne la magnitude de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile
+     * @return la magnitude de l'étoile
+     */
+    float magnitude(int index) {
+        return magnitude[checkIndex(index)];
+    }
+
+    /**
+     * Méthode qui retourne la température de couleur de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile
+     * @return la température de couleur de l'étoile
+     */
+    int colorTemperature(int index) {
+        return colorTemperature[checkIndex(index)];
+    }
+
+    /**
+     * Méthode qui retourne le numéro Hipparcos de l'étoile d'index donné.
+     *
+     * @param index l'index de l'étoile
+     * @return le numéro Hipparcos de l'étoile
+     */
+    int hipparcosId(int index) {
+        return hipparcosId[checkIndex(index)];
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des ascensions droites. Seuls les size() premiers
+     * éléments du tableau retourné sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des ascensions droites
+     */
+    double[] raColumn() {
+        return ra;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des déclinaisons. Seuls les size() premiers
+     * éléments du tableau retourné sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des déclinaisons
+     */
+    double[] decColumn() {
+        return dec;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des magnitudes. Seuls les size() premiers
+     * éléments du tableau retourné sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des magnitudes
+     */
+    float[] magnitudeColumn() {
+        return magnitude;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des températures de couleur. Seuls les size() premiers
+     * éléments du tableau retourné sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des températures de couleur
+     */
+    int[] colorTemperatureColumn() {
+        return colorTemperature;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des numéros Hipparcos. Seuls les size() premiers
+     * éléments du tableau retourné sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des numéros Hipparcos
+     */
+    int[] hipparcosIdColumn() {
+        return hipparcosId;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des composantes x des vecteurs unitaires
+     * équatoriaux (cos(dec)·cos(ra)). Seuls les size() premiers éléments du tableau retourné
+     * sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des composantes x des vecteurs unitaires
+     */
+    double[] unitXColumn() {
+        return unitX;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des composantes y des vecteurs unitaires
+     * équatoriaux (cos(dec)·sin(ra)). Seuls les size() premiers éléments du tableau retourné
+     * sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des composantes y des vecteurs unitaires
+     */
+    double[] unitYColumn() {
+        return unitY;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des composantes z des vecteurs unitaires
+     * équatoriaux (sin(dec)). Seuls les size() premiers éléments du tableau retourné
+     * sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des composantes z des vecteurs unitaires
+     */
+    double[] unitZColumn() {
+        return unitZ;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la colonne brute des identifiants des noms. Seuls les size()
+     * premiers éléments du tableau retourné sont significatifs, et il ne doit pas être modifié.
+     *
+     * @return la colonne brute des identifiants des noms
+     */
+    int[] nameIdColumn() {
+        return nameId;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la table des noms distincts de la table.
+     *
+     * @return la table des noms distincts
+     */
+    NameTable names() {
+        return names;
+    }
+
+    /**
+     * Méthode qui retourne une vue non modifiable sur les étoiles de la table,
+     * qui crée les instances de Star à la demande.
+     *
+     * @return une vue sur les étoiles de la table
+     */
+    List<Star> view() {
+        return new StarListView();
+    }
+
+    /**
+     * Méthode privée qui calcule le vecteur unitaire équatorial de l'étoile d'index donné,
+     * à partir de son ascension droite et de sa déclinaison.
+     *
+     * @param index l'index de l'étoile
+     */
+    private void setUnitVector(int index) {
+        double cosDec = Math.cos(dec[index]);
+        unitX[index] = cosDec * Math.cos(ra[index]);
+        unitY[index] = cosDec * Math.sin(ra[index]);
+        unitZ[index] = Math.sin(dec[index]);
+    }
+
+    /**
+     * Méthode privée qui agrandit les colonnes de manière à ce qu'elles puissent
+     * contenir au moins capacity étoiles.
+     *
+     * @param capacity la capacité minimale souhaitée
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ra.length)
+            return;
+
+        int newCapacity = Math.max(capacity, ra.length * 2);
+        ra = Arrays.copyOf(ra, newCapacity);
+        dec = Arrays.copyOf(dec, newCapacity);
+        magnitude = Arrays.copyOf(magnitude, newCapacity);
+        colorTemperature = Arrays.copyOf(colorTemperature, newCapacity);
+        hipparcosId = Arrays.copyOf(hipparcosId, newCapacity);
+        unitX = Arrays.copyOf(unitX, newCapacity);
+        unitY = Arrays.copyOf(unitY, newCapacity);
+        unitZ = Arrays.copyOf(unitZ, newCapacity);
+        nameId = Arrays.copyOf(nameId, newCapacity);
+
+        AtomicReferenceArray<Star> newStars = new AtomicReferenceArray<>(newCapacity);
+        for (int i = 0; i < size; i++)
+            newStars.set(i, stars.get(i));
+        stars = newStars;
+    }
+
+    /**
+     * Méthode privée qui vérifie que l'index donné est valide et le retourne.
+     *
+     * @param index l'index à vérifier
+     * @return l'index donné
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(index);
+        return index;
+    }
+
+    /**
+     * Cette classe privée représente une vue sur les étoiles de la table.
+     */
+    private final class StarListView extends AbstractList<Star> implements RandomAccess {
+        @Override
+        public Star get(int index) {
+            return star(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
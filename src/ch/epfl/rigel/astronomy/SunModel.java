@@ -48,6 +48,18 @@ public enum SunModel implements CelestialObjectModel<Sun> {
         return new Sun(eclipticPos, equatorialPos, (float) angularSize, (float) meanAnomaly);
     }
 
+    /**
+     * Méthode qui retourne le Soleil modélisé par le modèle à l'instant du contexte donné,
+     * qui n'est ainsi calculé qu'une fois par contexte.
+     *
+     * @param context le contexte de l'instant
+     * @return le modèle du Soleil calculé
+     */
+    @Override
+    public Sun at(SolarSystemContext context) {
+        return context.sun();
+    }
+
     /**
      * Méthode privée qui calcule l'anomalie moyenne.
      *
@@ -0,0 +1,131 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.math.Angle;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Classe qui représente un instant et les grandeurs qui en dérivent et que partagent les
+ * calculs du ciel à cet instant : le nombre de jours après l'époque J2010, le nombre de
+ * siècles juliens après l'époque J2000 et le temps sidéral de Greenwich.
+ *
+ * Ces grandeurs sont calculées une seule fois, à la construction, à partir du nombre de
+ * millisecondes écoulées depuis le 1er janvier 1970 à 0h00 UTC, sans passer par les classes
+ * de java.time ; un seul contexte peut ainsi servir à toutes les conversions d'une image.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class TimeContext {
+
+    private final static double JULIAN_DATE_OF_1970 = 2_440_587.5; // Date julienne du 1er janvier 1970 à 0h00 UTC
+    private final static double MILLIS_PER_DAY = 24d * 3600d * 1000d;
+
+    private final long epochMillis;
+    private final double daysSinceJ2010;
+    private final double julianCenturiesSinceJ2000;
+    private final double greenwichSiderealTime;
+
+    /**
+     * Constructeur privé du contexte de l'instant donné.
+     *
+     * @param epochMillis l'instant, en millisecondes depuis le 1er janvier 1970 à 0h00 UTC
+     */
+    private TimeContext(long epochMillis) {
+        this.epochMillis = epochMillis;
+        this.daysSinceJ2010 = Epoch.J2010.daysUntil(epochMillis);
+        this.julianCenturiesSinceJ2000 = Epoch.J2000.julianCenturiesUntil(epochMillis);
+        this.greenwichSiderealTime = SiderealTime.greenwich(epochMillis);
+    }
+
+    /**
+     * Méthode qui retourne le contexte de l'instant donné en millisecondes depuis le
+     * 1er janvier 1970 à 0h00 UTC.
+     *
+     * @param epochMillis l'instant, en millisecondes depuis le 1er janvier 1970 à 0h00 UTC
+     * @return le contexte de l'instant
+     */
+    public static TimeContext ofEpochMillis(long epochMillis) {
+        return new TimeContext(epochMillis);
+    }
+
+    /**
+     * Méthode qui retourne le contexte de l'instant donné par sa date julienne, arrondi à
+     * la milliseconde.
+     *
+     * @param julianDate la date julienne de l'instant
+     * @return le contexte de l'instant
+     */
+    public static TimeContext ofJulianDate(double julianDate) {
+        return new TimeContext(Math.round((julianDate - JULIAN_DATE_OF_1970) * MILLIS_PER_DAY));
+    }
+
+    /**
+     * Méthode qui retourne le contexte du couple date/heure donné, tronqué à la milliseconde.
+     *
+     * @param when le couple date/heure
+     * @return le contexte de l'instant
+     */
+    public static TimeContext of(ZonedDateTime when) {
+        return new TimeContext(when.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Méthode d'accès qui retourne l'instant, en millisecondes depuis le 1er janvier 1970
+     * à 0h00 UTC.
+     *
+     * @return l'instant en millisecondes
+     */
+    public long epochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * Méthode d'accès qui retourne la date julienne de l'instant.
+     *
+     * @return la date julienne
+     */
+    public double julianDate() {
+        return JULIAN_DATE_OF_1970 + epochMillis / MILLIS_PER_DAY;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre (pas forcément entier) de jours après l'époque J2010.
+     *
+     * @return le nombre de jours après l'époque J2010
+     */
+    public double daysSinceJ2010() {
+        return daysSinceJ2010;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre (pas forcément entier) de siècles juliens après
+     * l'époque J2000.
+     *
+     * @return le nombre de siècles juliens après l'époque J2000
+     */
+    public double julianCenturiesSinceJ2000() {
+        return julianCenturiesSinceJ2000;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le temps sidéral de Greenwich, en radians et compris dans
+     * l'intervalle [0, τ[.
+     *
+     * @return le temps sidéral de Greenwich
+     */
+    public double greenwichSiderealTime() {
+        return greenwichSiderealTime;
+    }
+
+    /**
+     * Méthode qui retourne le temps sidéral local de la position donnée, en radians et compris
+     * dans l'intervalle [0, τ[.
+     *
+     * @param where la position
+     * @return le temps sidéral local
+     */
+    public double localSiderealTime(GeographicCoordinates where) {
+        return Angle.normalizePositive(greenwichSiderealTime + where.lon());
+    }
+}
@@ -0,0 +1,133 @@
+package ch.epfl.rigel.coordinates;
+
+import ch.epfl.rigel.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * Classe qui représente un tableau de taille fixe de coordonnées cartésiennes, stockées à la
+ * suite dans un tableau de nombres : l'abscisse et l'ordonnée du point d'index i y occupent
+ * les positions 2i et 2i + 1, comme dans le tableau des positions des étoiles du ciel observé.
+ *
+ * Contrairement à CartesianCoordinates, un tel tableau est modifiable et réutilisable : les
+ * projections peuvent y écrire leurs résultats sans créer le moindre objet. Le contenu d'une
+ * case peut toutefois toujours être obtenu sous la forme de coordonnées immuables (get).
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class CartesianBuffer {
+
+    private final double[] xy;
+
+    /**
+     * Constructeur privé d'un tableau de coordonnées utilisant le tableau de nombres donné.
+     *
+     * @param xy les abscisses et ordonnées, à la suite
+     */
+    private CartesianBuffer(double[] xy) {
+        this.xy = xy;
+    }
+
+    /**
+     * Méthode qui retourne un nouveau tableau de size coordonnées, toutes nulles.
+     *
+     * @param size le nombre de coordonnées
+     * @return un tableau de coordonnées nulles
+     * @throws IllegalArgumentException si la taille est négative
+     */
+    public static CartesianBuffer ofSize(int size) {
+        Preconditions.checkArgument(size >= 0);
+        return new CartesianBuffer(new double[2 * size]);
+    }
+
+    /**
+     * Méthode qui retourne un tableau de coordonnées utilisant — sans le copier — le tableau
+     * de nombres donné, dans lequel l'abscisse et l'ordonnée du point d'index i occupent les
+     * positions 2i et 2i + 1. Les modifications de l'un sont visibles dans l'autre.
+     *
+     * @param xy les abscisses et ordonnées, à la suite
+     * @return un tableau de coordonnées utilisant le tableau donné
+     * @throws IllegalArgumentException si la longueur du tableau est impaire
+     */
+    public static CartesianBuffer wrap(double[] xy) {
+        Preconditions.checkArgument(xy.length % 2 == 0);
+        return new CartesianBuffer(xy);
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre de coordonnées du tableau.
+     *
+     * @return le nombre de coordonnées
+     */
+    public int size() {
+        return xy.length / 2;
+    }
+
+    /**
+     * Méthode qui retourne l'abscisse du point d'index i.
+     *
+     * @param i l'index du point
+     * @return l'abscisse du point
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double x(int i) {
+        return xy[2 * Objects.checkIndex(i, size())];
+    }
+
+    /**
+     * Méthode qui retourne l'ordonnée du point d'index i.
+     *
+     * @param i l'index du point
+     * @return l'ordonnée du point
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double y(int i) {
+        return xy[2 * Objects.checkIndex(i, size()) + 1];
+    }
+
+    /**
+     * Méthode qui retourne les coordonnées (immuables) du point d'index i.
+     *
+     * @param i l'index du point
+     * @return les coordonnées du point
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public CartesianCoordinates get(int i) {
+        return CartesianCoordinates.of(x(i), y(i));
+    }
+
+    /**
+     * Méthode qui modifie les coordonnées du point d'index i.
+     *
+     * @param i l'index du point
+     * @param x la nouvelle abscisse
+     * @param y la nouvelle ordonnée
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public void set(int i, double x, double y) {
+        int offset = 2 * Objects.checkIndex(i, size());
+        xy[offset] = x;
+        xy[offset + 1] = y;
+    }
+
+    /**
+     * Méthode qui modifie les coordonnées du point d'index i.
+     *
+     * @param i l'index du point
+     * @param coordinates les nouvelles coordonnées
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public void set(int i, CartesianCoordinates coordinates) {
+        set(i, coordinates.x(), coordinates.y());
+    }
+
+    /**
+     * Méthode d'accès *package private* qui retourne le tableau de nombres utilisé, pour les
+     * calculs en bloc du paquetage.
+     *
+     * @return les abscisses et ordonnées, à la suite
+     */
+    double[] xy() {
+        return xy;
+    }
+}
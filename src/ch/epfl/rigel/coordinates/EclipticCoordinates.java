@@ -14,6 +14,9 @@ import java.util.Locale;
  */
 public final class EclipticCoordinates extends SphericalCoordinates {
 
+    private final static RightOpenInterval LON_INTERVAL = RightOpenInterval.of(Angle.ofDeg(0), Angle.ofDeg(360));
+    private final static ClosedInterval LAT_INTERVAL = ClosedInterval.symmetric(Angle.ofDeg(180));
+
     private EclipticCoordinates(double lon, double lat) {
         super(lon, lat);
     }
@@ -27,10 +30,8 @@ public final class EclipticCoordinates extends SphericalCoordinates {
      * @throws IllegalArgumentException si l'une des composantes est invalide
      */
     public static EclipticCoordinates of(double lon, double lat) {
-        RightOpenInterval lonInterval = RightOpenInterval.of(Angle.ofDeg(0), Angle.ofDeg(360));
-        ClosedInterval latInterval = ClosedInterval.symmetric(Angle.ofDeg(180));
-        Preconditions.checkInInterval(lonInterval, lon);
-        Preconditions.checkInInterval(latInterval, lat);
+        Preconditions.checkInInterval(LON_INTERVAL, lon);
+        Preconditions.checkInInterval(LAT_INTERVAL, lat);
 
         return new EclipticCoordinates(lon, lat);
     }
@@ -1,6 +1,7 @@
 package ch.epfl.rigel.coordinates;
 
 import ch.epfl.rigel.astronomy.Epoch;
+import ch.epfl.rigel.astronomy.TimeContext;
 import ch.epfl.rigel.math.Angle;
 import ch.epfl.rigel.math.Polynomial;
 
@@ -21,6 +22,13 @@ import static java.lang.Math.asin;
  */
 public final class EclipticToEquatorialConversion implements Function<EclipticCoordinates, EquatorialCoordinates> {
 
+    // Formule provenant du paragraphe 2.6 de l'énoncé de l'étape 3
+    private final static Polynomial ECLIPTIC_OBLIQUITY_POLYNOMIAL = Polynomial.of(
+            Angle.ofDMS(0,0, 0.00181),
+            -1.*Angle.ofDMS(0, 0, 0.0006),
+            -1.*Angle.ofDMS(0, 0, 46.815),
+            Angle.ofDMS(23, 26, 21.45));
+
     private final double cosOfEclipticObliquity;
     private final double sinOfEclipticObliquity;
 
@@ -31,26 +39,51 @@ public final class EclipticToEquatorialConversion implements Function<EclipticCo
      * @param when le couple date/heure de référence pour les conversions
      */
     public EclipticToEquatorialConversion(ZonedDateTime when) {
-        double eclipticObliquity = calculateEclipticObliquity(when);
+        this(calculateEclipticObliquity(when));
+    }
+
+    /**
+     * Constructeur qui construit un changement de système de coordonnées entre
+     * les coordonnées écliptiques et les coordonnées équatoriales pour l'instant du
+     * contexte donné, sans recalculer les grandeurs qui en dérivent.
+     *
+     * @param time le contexte de l'instant de référence pour les conversions
+     */
+    public EclipticToEquatorialConversion(TimeContext time) {
+        this(calculateEclipticObliquity(time.julianCenturiesSinceJ2000()));
+    }
+
+    /**
+     * Constructeur qui construit un changement de système de coordonnées entre
+     * les coordonnées écliptiques et les coordonnées équatoriales pour l'obliquité de
+     * l'écliptique donnée. Une obliquité nulle donne un changement de système qui laisse
+     * les coordonnées inchangées, l'ascension droite étant la longitude (normalisée) et la
+     * déclinaison la latitude.
+     *
+     * @param eclipticObliquity l'obliquité de l'écliptique en radians
+     */
+    public EclipticToEquatorialConversion(double eclipticObliquity) {
         this.cosOfEclipticObliquity = cos(eclipticObliquity);
         this.sinOfEclipticObliquity = sin(eclipticObliquity);
     }
 
     /**
-     * Méthode privée qui calcule l'obliquité de l'écliptique en fonction du couple date/heure when.
+     * Méthode statique privée qui calcule l'obliquité de l'écliptique en fonction du couple date/heure when.
      * @param when le couple date/heure de référence pour les conversions
      * @return l'obliquité de l'écliptique en radians
      */
-    private double calculateEclipticObliquity(ZonedDateTime when) {
-        // Formule provenant du paragraphe 2.6 de l'énoncé de l'étape 3
-        Polynomial P = Polynomial.of(
-                Angle.ofDMS(0,0, 0.00181),
-                -1.*Angle.ofDMS(0, 0, 0.0006),
-                -1.*Angle.ofDMS(0, 0, 46.815),
-                Angle.ofDMS(23, 26, 21.45));
-        double T = Epoch.J2000.julianCenturiesUntil(when);
-
-        return P.at(T);
+    private static double calculateEclipticObliquity(ZonedDateTime when) {
+        return calculateEclipticObliquity(Epoch.J2000.julianCenturiesUntil(when));
+    }
+
+    /**
+     * Méthode statique privée qui calcule l'obliquité de l'écliptique en fonction du nombre
+     * de siècles juliens T après l'époque J2000.
+     * @param T le nombre de siècles juliens après l'époque J2000
+     * @return l'obliquité de l'écliptique en radians
+     */
+    private static double calculateEclipticObliquity(double T) {
+        return ECLIPTIC_OBLIQUITY_POLYNOMIAL.at(T);
     }
 
     /**
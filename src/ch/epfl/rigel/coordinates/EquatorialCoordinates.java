@@ -14,6 +14,9 @@ import java.util.Locale;
  */
 public final class EquatorialCoordinates extends SphericalCoordinates {
 
+    private final static RightOpenInterval RA_INTERVAL = RightOpenInterval.of(Angle.ofDeg(0), Angle.ofDeg(360));
+    private final static ClosedInterval DEC_INTERVAL = ClosedInterval.symmetric(Angle.ofDeg(180));
+
     private EquatorialCoordinates(double lon, double lat) {
         super(lon, lat);
     }
@@ -27,10 +30,8 @@ public final class EquatorialCoordinates extends SphericalCoordinates {
      * @throws IllegalArgumentException si l'une des composantes est invalide
      */
     public static EquatorialCoordinates of(double ra, double dec) {
-        RightOpenInterval raInterval = RightOpenInterval.of(Angle.ofDeg(0), Angle.ofDeg(360));
-        ClosedInterval decInterval = ClosedInterval.symmetric(Angle.ofDeg(180));
-        Preconditions.checkInInterval(raInterval, ra);
-        Preconditions.checkInInterval(decInterval, dec);
+        Preconditions.checkInInterval(RA_INTERVAL, ra);
+        Preconditions.checkInInterval(DEC_INTERVAL, dec);
 
         return new EquatorialCoordinates(ra, dec);
     }
@@ -1,9 +1,12 @@
 package ch.epfl.rigel.coordinates;
 
+import ch.epfl.rigel.Preconditions;
 import ch.epfl.rigel.astronomy.SiderealTime;
+import ch.epfl.rigel.astronomy.TimeContext;
 import ch.epfl.rigel.math.Angle;
 
 import java.time.ZonedDateTime;
+import java.util.Objects;
 import java.util.function.Function;
 
 import static java.lang.Math.*;
@@ -35,6 +38,21 @@ public final class EquatorialToHorizontalConversion implements Function<Equatori
         this.sinLat = sin(where.lat());
     }
 
+    /**
+     * Constructeur qui construit un changement de système de coordonnées entre
+     * les coordonnées équatoriales et les coordonnées horizontales pour l'instant du
+     * contexte donné, dont le temps sidéral est déjà calculé, et la localisation
+     * d'observation where.
+     *
+     * @param time le contexte de l'instant de l'observation
+     * @param where les coordonnées du lieu d'observation
+     */
+    public EquatorialToHorizontalConversion(TimeContext time, GeographicCoordinates where) {
+        this.localSideralTime = time.localSiderealTime(where);
+        this.cosLat = cos(where.lat());
+        this.sinLat = sin(where.lat());
+    }
+
 
     /**
      * Méthode qui retourne les coordonnées horizontales correspondant
@@ -55,8 +73,149 @@ public final class EquatorialToHorizontalConversion implements Function<Equatori
                 sinDec - sinLat*sinH
         ));
 
-        double h = asin(sinH);
-        return HorizontalCoordinates.of(A, h);
+        double h = altitude(sinH);
+        return HorizontalCoordinates.ofTrusted(A, h);
+    }
+
+    /**
+     * Méthode qui convertit en coordonnées horizontales les coordonnées équatoriales données
+     * sous forme de colonnes, et écrit le résultat dans les colonnes de sortie données.
+     * Les coordonnées d'index i sont ainsi converties en l'azimut outAz[i] et la hauteur
+     * outAlt[i], exactement comme le ferait apply, mais sans créer le moindre objet.
+     *
+     * @param ra les ascensions droites, en radians
+     * @param dec les déclinaisons, en radians
+     * @param outAz le tableau dans lequel écrire les azimuts, en radians
+     * @param outAlt le tableau dans lequel écrire les hauteurs, en radians
+     * @throws IllegalArgumentException si les tableaux n'ont pas tous la même longueur
+     */
+    public void applyBatch(double[] ra, double[] dec, double[] outAz, double[] outAlt) {
+        int n = ra.length;
+        Preconditions.checkArgument(dec.length == n && outAz.length == n && outAlt.length == n);
+
+        for (int i = 0; i < n; i++) {
+            double H = this.localSideralTime - ra[i];
+            double cosDec = cos(dec[i]);
+            double sinDec = sin(dec[i]);
+
+            double sinH = sinDec*sinLat + cosDec*cosLat*cos(H);
+            outAz[i] = Angle.normalizePositive(atan2(
+                    -cosDec*cosLat*sin(H),
+                    sinDec - sinLat*sinH
+            ));
+            outAlt[i] = altitude(sinH);
+        }
+    }
+
+    /**
+     * Méthode qui convertit, comme la méthode précédente, les coordonnées équatoriales données
+     * sous forme de colonnes, mais écrit le résultat dans le tableau de coordonnées horizontales
+     * donné, qui peut être réutilisé d'un appel à l'autre.
+     *
+     * @param ra les ascensions droites, en radians
+     * @param dec les déclinaisons, en radians
+     * @param out le tableau dans lequel écrire les coordonnées horizontales
+     * @throws IllegalArgumentException si les colonnes et le tableau n'ont pas tous la même taille
+     */
+    public void applyBatch(double[] ra, double[] dec, HorizontalBuffer out) {
+        applyBatch(ra, dec, out.azColumn(), out.altColumn());
+    }
+
+    /**
+     * Méthode qui convertit en vecteurs unitaires du repère horizontal les points dont la
+     * direction est donnée par des vecteurs unitaires du repère équatorial, sous forme de
+     * colonnes (x, y, z) — qui peuvent être plus longues que nécessaire. Seuls les points
+     * dont l'index figure entre les positions from (incluse) et to (exclue) du tableau
+     * indices sont traités ; le vecteur du point indices[k] est écrit à la position k des
+     * colonnes de sortie, qui contiennent ses composantes vers l'est, vers le nord et vers
+     * le zénith.
+     *
+     * La conversion est une rotation, calculée une fois par appel : chaque point coûte un
+     * produit matrice-vecteur, sans aucune fonction transcendante. La hauteur h et l'azimut
+     * A du point sont ceux donnés par apply, aux erreurs d'arrondi près, avec
+     * up = sin(h), north = cos(h)·cos(A) et east = cos(h)·sin(A).
+     *
+     * @param x les composantes x (cos(dec)·cos(ra)) des vecteurs unitaires équatoriaux
+     * @param y les composantes y (cos(dec)·sin(ra)) des vecteurs unitaires équatoriaux
+     * @param z les composantes z (sin(dec)) des vecteurs unitaires équatoriaux
+     * @param indices les index des points à convertir
+     * @param from la position, dans indices, du premier index à traiter
+     * @param to la position, dans indices, suivant celle du dernier index à traiter
+     * @param outEast la colonne dans laquelle écrire les composantes vers l'est
+     * @param outNorth la colonne dans laquelle écrire les composantes vers le nord
+     * @param outUp la colonne dans laquelle écrire les composantes vers le zénith
+     * @throws IndexOutOfBoundsException si la tranche ou l'un des index n'est pas valide
+     */
+    public void applyBatchToUnitVectors(double[] x, double[] y, double[] z,
+                                        int[] indices, int from, int to,
+                                        double[] outEast, double[] outNorth, double[] outUp) {
+        Objects.checkFromToIndex(from, to, indices.length);
+        double[] m = horizontalBasis();
+        for (int k = from; k < to; k++) {
+            int i = indices[k];
+            double vx = x[i], vy = y[i], vz = z[i];
+            outEast[k] = m[0]*vx + m[1]*vy + m[2]*vz;
+            outNorth[k] = m[3]*vx + m[4]*vy + m[5]*vz;
+            outUp[k] = m[6]*vx + m[7]*vy + m[8]*vz;
+        }
+    }
+
+    /**
+     * Méthode qui retourne, exprimés dans le repère équatorial, les vecteurs unitaires
+     * pointant vers l'est, vers le nord et vers le zénith du lieu d'observation, à l'instant
+     * de la conversion. Ce sont les lignes de la matrice de rotation du repère équatorial
+     * vers le repère horizontal, retournées ligne par ligne dans un tableau de 9 éléments.
+     *
+     * @return les lignes de la matrice de la conversion
+     */
+    double[] horizontalBasis() {
+        double cosLst = cos(localSideralTime);
+        double sinLst = sin(localSideralTime);
+        return new double[] {
+                -sinLst, cosLst, 0,
+                -sinLat*cosLst, -sinLat*sinLst, cosLat,
+                cosLat*cosLst, cosLat*sinLst, sinLat
+        };
+    }
+
+    /**
+     * Méthode statique privée qui retourne la hauteur dont le sinus est donné. Les erreurs
+     * d'arrondi pouvant amener ce sinus légèrement hors de [-1, 1] près du zénith ou du nadir,
+     * il y est d'abord ramené : asin retournerait sinon NaN, que HorizontalCoordinates.ofTrusted
+     * ne vérifie pas.
+     *
+     * @param sinH le sinus de la hauteur
+     * @return la hauteur, en radians, dans [-π/2, π/2]
+     */
+    private static double altitude(double sinH) {
+        return asin(max(-1, min(1, sinH)));
+    }
+
+    /**
+     * Méthode d'accès qui retourne le temps sidéral local de la conversion, en radians.
+     *
+     * @return le temps sidéral local
+     */
+    double localSiderealTime() {
+        return localSideralTime;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le cosinus de la latitude du lieu d'observation.
+     *
+     * @return le cosinus de la latitude
+     */
+    double cosLat() {
+        return cosLat;
+    }
+
+    /**
+     * Méthode d'accès qui retourne le sinus de la latitude du lieu d'observation.
+     *
+     * @return le sinus de la latitude
+     */
+    double sinLat() {
+        return sinLat;
     }
 
     /**
@@ -0,0 +1,137 @@
+package ch.epfl.rigel.coordinates;
+
+import ch.epfl.rigel.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * Classe qui représente un tableau de taille fixe de coordonnées horizontales, stockées par
+ * colonnes : les azimuts d'une part et les hauteurs d'autre part, en radians.
+ *
+ * Contrairement à HorizontalCoordinates, un tel tableau est modifiable et réutilisable : les
+ * conversions peuvent y écrire leurs résultats, et les projections les y lire, sans créer le
+ * moindre objet. Le contenu d'une case peut toutefois toujours être obtenu sous la forme de
+ * coordonnées immuables (get). Comme celles-ci, les coordonnées du tableau sont toujours
+ * valides : initialement nulles, elles sont validées par les méthodes de modification.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class HorizontalBuffer {
+
+    private final double[] az;
+    private final double[] alt;
+
+    /**
+     * Constructeur privé d'un tableau de size coordonnées, toutes nulles.
+     *
+     * @param size le nombre de coordonnées
+     */
+    private HorizontalBuffer(int size) {
+        this.az = new double[size];
+        this.alt = new double[size];
+    }
+
+    /**
+     * Méthode qui retourne un nouveau tableau de size coordonnées, toutes nulles (azimut
+     * nord et hauteur nulle).
+     *
+     * @param size le nombre de coordonnées
+     * @return un tableau de coordonnées nulles
+     * @throws IllegalArgumentException si la taille est négative
+     */
+    public static HorizontalBuffer ofSize(int size) {
+        Preconditions.checkArgument(size >= 0);
+        return new HorizontalBuffer(size);
+    }
+
+    /**
+     * Méthode d'accès qui retourne le nombre de coordonnées du tableau.
+     *
+     * @return le nombre de coordonnées
+     */
+    public int size() {
+        return az.length;
+    }
+
+    /**
+     * Méthode qui retourne l'azimut, en radians, du point d'index i.
+     *
+     * @param i l'index du point
+     * @return l'azimut du point
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double az(int i) {
+        return az[i];
+    }
+
+    /**
+     * Méthode qui retourne la hauteur, en radians, du point d'index i.
+     *
+     * @param i l'index du point
+     * @return la hauteur du point
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public double alt(int i) {
+        return alt[i];
+    }
+
+    /**
+     * Méthode qui retourne les coordonnées (immuables) du point d'index i.
+     *
+     * @param i l'index du point
+     * @return les coordonnées du point
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public HorizontalCoordinates get(int i) {
+        return HorizontalCoordinates.ofTrusted(az[i], alt[i]);
+    }
+
+    /**
+     * Méthode qui modifie les coordonnées du point d'index i, données en radians.
+     *
+     * @param i l'index du point
+     * @param az le nouvel azimut, en radians
+     * @param alt la nouvelle hauteur, en radians
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     * @throws IllegalArgumentException si l'une des composantes n'est pas valide
+     */
+    public void set(int i, double az, double alt) {
+        Objects.checkIndex(i, size());
+        HorizontalCoordinates.checkHorizontalCoordinatesValidity(az, alt);
+        this.az[i] = az;
+        this.alt[i] = alt;
+    }
+
+    /**
+     * Méthode qui modifie les coordonnées du point d'index i.
+     *
+     * @param i l'index du point
+     * @param coordinates les nouvelles coordonnées
+     * @throws IndexOutOfBoundsException si l'index n'est pas valide
+     */
+    public void set(int i, HorizontalCoordinates coordinates) {
+        Objects.checkIndex(i, size());
+        this.az[i] = coordinates.az();
+        this.alt[i] = coordinates.alt();
+    }
+
+    /**
+     * Méthode d'accès *package private* qui retourne la colonne des azimuts, pour les calculs
+     * en bloc du paquetage, dont les résultats sont valides par construction.
+     *
+     * @return la colonne des azimuts
+     */
+    double[] azColumn() {
+        return az;
+    }
+
+    /**
+     * Méthode d'accès *package private* qui retourne la colonne des hauteurs, pour les calculs
+     * en bloc du paquetage, dont les résultats sont valides par construction.
+     *
+     * @return la colonne des hauteurs
+     */
+    double[] altColumn() {
+        return alt;
+    }
+}
@@ -18,6 +18,9 @@ import java.util.Locale;
  */
 public final class HorizontalCoordinates extends SphericalCoordinates {
 
+    private final static RightOpenInterval AZ_INTERVAL = RightOpenInterval.of(0, Angle.ofDeg(360.)); // [0°, 360°[
+    private final static ClosedInterval ALT_INTERVAL = ClosedInterval.symmetric(Angle.ofDeg(180.)); // [–90°, +90°]
+
     private HorizontalCoordinates(double az, double alt) { // Constructeur privé
         super(az, alt);
     }
@@ -54,21 +57,30 @@ public final class HorizontalCoordinates extends SphericalCoordinates {
 
 
     /**
-     * Méthode privée qui vérifie si les composantes des coordonnées horizontales
+     * Méthode statique *package private* qui retourne les coordonnées horizontales dont
+     * l'azimut et la hauteur sont donnés en radians, sans les valider. Elle est réservée aux
+     * conversions et projections du paquetage, dont les résultats sont valides par construction
+     * (azimut normalisé, hauteur obtenue par arc sinus).
+     *
+     * @param az  l'azimut en radians, dans [0, τ[
+     * @param alt la hauteur en radians, dans [-π/2, π/2]
+     * @return les coordonnéees horizontales des paramètres donnés
+     */
+    static HorizontalCoordinates ofTrusted(double az, double alt) {
+        return new HorizontalCoordinates(az, alt);
+    }
+
+    /**
+     * Méthode *package private* qui vérifie si les composantes des coordonnées horizontales
      * sont valides, si ce n'est pas le cas, elle lève IllegalArgumentException.
      *
      * @param az l'azimut en radians
      * @param alt la hauteur en radians
      * @throws IllegalArgumentException si l'une des composantes n'est pas valide
      */
-    private static void checkHorizontalCoordinatesValidity(double az, double alt) {
-        // az doit appartenir à l'intervalle [0°, 360°[
-        RightOpenInterval azInterval = RightOpenInterval.of(0, Angle.ofDeg(360.));
-        Preconditions.checkInInterval(azInterval, az);
-
-        // alt doit appartenir à l'intervalle [–90°, +90°]
-        ClosedInterval altInterval = ClosedInterval.symmetric(Angle.ofDeg(180.));
-        Preconditions.checkInInterval(altInterval, alt);
+    static void checkHorizontalCoordinatesValidity(double az, double alt) {
+        Preconditions.checkInInterval(AZ_INTERVAL, az);
+        Preconditions.checkInInterval(ALT_INTERVAL, alt);
     }
 
 
@@ -0,0 +1,71 @@
+package ch.epfl.rigel.coordinates;
+
+/**
+ * Cette interface *package private* représente un noyau de calcul qui projette des vecteurs
+ * unitaires, donnés sous forme de colonnes, au moyen d'une matrice 3×3 composant une
+ * conversion en coordonnées horizontales et une projection stéréographique.
+ *
+ * Le noyau scalaire (ScalarProjectionKernel) est toujours disponible. Un noyau vectoriel,
+ * utilisant l'API Vector du module incubateur jdk.incubator.vector, se trouve dans le
+ * répertoire source incubator, compilé séparément : il n'est utilisé que si sa classe est
+ * présente et que le module est chargé (option --add-modules jdk.incubator.vector).
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+interface ProjectionKernel {
+
+    /**
+     * Nom de la classe du noyau vectoriel, chargée par réflexion
+     */
+    String VECTOR_KERNEL_CLASS_NAME = "ch.epfl.rigel.coordinates.VectorProjectionKernel";
+
+    /**
+     * Méthode qui retourne le nombre de points traités à la fois par le noyau, qui vaut 1
+     * pour le noyau scalaire.
+     *
+     * @return le nombre de voies du noyau
+     */
+    int lanes();
+
+    /**
+     * Méthode qui projette les points dont la direction est donnée par les vecteurs unitaires
+     * (x[i], y[i], z[i]), pour i compris entre from (inclus) et to (exclu), et écrit la
+     * projection du point i aux positions 2i et 2i + 1 du tableau de sortie.
+     *
+     * La matrice m contient, ligne par ligne, les composantes donnant l'abscisse, l'ordonnée
+     * et la composante selon l'axe de visée ; la projection du vecteur v vaut ainsi
+     * d·(m[0..2]·v, m[3..5]·v), avec d = 1 / (1 + m[6..8]·v). Tous les noyaux effectuent
+     * exactement les mêmes opérations, dans le même ordre, et retournent donc des résultats
+     * identiques.
+     *
+     * @param m la matrice de projection, ligne par ligne
+     * @param x les composantes x des vecteurs unitaires
+     * @param y les composantes y des vecteurs unitaires
+     * @param z les composantes z des vecteurs unitaires
+     * @param from l'index du premier point à projeter
+     * @param to l'index suivant celui du dernier point à projeter
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @throws IndexOutOfBoundsException si l'intervalle n'est pas valide pour les colonnes
+     * ou le tableau de sortie
+     */
+    void project(double[] m, double[] x, double[] y, double[] z, int from, int to, double[] outXY);
+
+    /**
+     * Méthode statique qui retourne le noyau vectoriel s'il est disponible et traite au moins
+     * deux points à la fois, et le noyau scalaire sinon.
+     *
+     * @return le meilleur noyau disponible
+     */
+    static ProjectionKernel load() {
+        try {
+            ProjectionKernel vector = (ProjectionKernel) Class.forName(VECTOR_KERNEL_CLASS_NAME)
+                    .getDeclaredConstructor()
+                    .newInstance();
+            if (vector.lanes() >= 2)
+                return vector;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Classe absente ou module jdk.incubator.vector non chargé : noyau scalaire
+        }
+        return ScalarProjectionKernel.INSTANCE;
+    }
+}
@@ -0,0 +1,56 @@
+package ch.epfl.rigel.coordinates;
+
+import java.util.Objects;
+
+/**
+ * Cette énumération *package private* représente le noyau de projection scalaire, qui
+ * projette les points un à un, et qui est toujours disponible.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+enum ScalarProjectionKernel implements ProjectionKernel {
+    /**
+     * Objet représentant le noyau de projection scalaire.
+     */
+    INSTANCE;
+
+    /**
+     * Méthode qui retourne le nombre de points traités à la fois par le noyau, soit 1.
+     *
+     * @return le nombre de voies du noyau
+     */
+    @Override
+    public int lanes() {
+        return 1;
+    }
+
+    /**
+     * Méthode qui projette un à un les points de l'intervalle donné, comme décrit dans
+     * ProjectionKernel.
+     *
+     * @param m la matrice de projection, ligne par ligne
+     * @param x les composantes x des vecteurs unitaires
+     * @param y les composantes y des vecteurs unitaires
+     * @param z les composantes z des vecteurs unitaires
+     * @param from l'index du premier point à projeter
+     * @param to l'index suivant celui du dernier point à projeter
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @throws IndexOutOfBoundsException si l'intervalle n'est pas valide pour les colonnes
+     * ou le tableau de sortie
+     */
+    @Override
+    public void project(double[] m, double[] x, double[] y, double[] z, int from, int to, double[] outXY) {
+        Objects.checkFromToIndex(from, to, Math.min(Math.min(x.length, y.length), z.length));
+        Objects.checkFromToIndex(2*from, 2*to, outXY.length);
+
+        double m00 = m[0], m01 = m[1], m02 = m[2];
+        double m10 = m[3], m11 = m[4], m12 = m[5];
+        double m20 = m[6], m21 = m[7], m22 = m[8];
+        for (int i = from; i < to; i++) {
+            double vx = x[i], vy = y[i], vz = z[i];
+            double d = 1 / (1 + m20*vx + m21*vy + m22*vz);
+            outXY[2*i] = d * (m00*vx + m01*vy + m02*vz);
+            outXY[2*i + 1] = d * (m10*vx + m11*vy + m12*vz);
+        }
+    }
+}
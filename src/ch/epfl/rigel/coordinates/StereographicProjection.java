@@ -1,8 +1,11 @@
 package ch.epfl.rigel.coordinates;
 
+import ch.epfl.rigel.Preconditions;
 import ch.epfl.rigel.math.Angle;
+import ch.epfl.rigel.math.Trigonometry;
 
 import java.util.Locale;
+import java.util.Objects;
 import java.util.function.Function;
 
 import static java.lang.Math.sin;
@@ -11,6 +14,8 @@ import static java.lang.Math.tan;
 import static java.lang.Math.atan2;
 import static java.lang.Math.asin;
 import static java.lang.Math.sqrt;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 
 /**
  * Cette classe représente une projection stéréographique de coordonnées horizontales.
@@ -19,23 +24,49 @@ import static java.lang.Math.sqrt;
  */
 public final class StereographicProjection implements Function<HorizontalCoordinates, CartesianCoordinates> {
 
+    // Noyau de projection en bloc, vectoriel si possible (cf. ProjectionKernel)
+    private final static ProjectionKernel KERNEL = ProjectionKernel.load();
+
     private final HorizontalCoordinates center;
     private final double lambda0;
     private final double phi1;
     private final double cosPhi1;
     private final double sinPhi1;
+    private final double cosLambda0;
+    private final double sinLambda0;
+    private final Trigonometry trigonometry;
 
     /**
-     * Constructeur qui créé la projection stéréographique centrée en center.
+     * Constructeur qui créé la projection stéréographique centrée en center, dont les
+     * fonctions trigonométriques sont calculées exactement.
      *
      * @param center le centre de la projection stéréographique
      */
     public StereographicProjection(HorizontalCoordinates center) {
+        this(center, Trigonometry.EXACT);
+    }
+
+    /**
+     * Constructeur qui créé la projection stéréographique centrée en center, dont les
+     * fonctions trigonométriques des méthodes apply, inverseApply (et de leurs versions
+     * en bloc) et des méthodes relatives aux parallèles sont calculées selon le mode donné.
+     * Le mode rapide ne convient qu'au dessin : les angles retournés, ainsi que les
+     * coordonnées projetées des points à moins de 90° du centre, peuvent alors différer de
+     * ceux du mode exact de quelques Trigonometry.MAX_FAST_ERROR.
+     *
+     * @param center le centre de la projection stéréographique
+     * @param trigonometry le mode de calcul des fonctions trigonométriques
+     * @throws NullPointerException si le mode est nul
+     */
+    public StereographicProjection(HorizontalCoordinates center, Trigonometry trigonometry) {
+        this.trigonometry = Objects.requireNonNull(trigonometry);
         this.center = center;
         this.lambda0 = center.az();
         this.phi1 = center.alt();
         this.cosPhi1 = cos(phi1);
         this.sinPhi1 = sin(phi1);
+        this.cosLambda0 = cos(lambda0);
+        this.sinLambda0 = sin(lambda0);
     }
 
     /**
@@ -46,7 +77,7 @@ public final class StereographicProjection implements Function<HorizontalCoordin
      * @return les coordonnées du centre du cercle correspondant à la projection du parallèle
      */
     public CartesianCoordinates circleCenterForParallel(HorizontalCoordinates hor) {
-        double cy = cos(phi1) / (sin(hor.alt()) + sin(phi1));
+        double cy = cosPhi1 / (trigonometry.sin(hor.alt()) + sinPhi1);
         return CartesianCoordinates.of(0, cy);
     }
 
@@ -59,7 +90,7 @@ public final class StereographicProjection implements Function<HorizontalCoordin
      */
     public double circleRadiusForParallel(HorizontalCoordinates hor) {
         double phi = hor.alt();
-        return cos(phi) / (sin(phi) + sin(phi1));
+        return trigonometry.cos(phi) / (trigonometry.sin(phi) + sinPhi1);
     }
 
     /**
@@ -83,17 +114,259 @@ public final class StereographicProjection implements Function<HorizontalCoordin
     @Override
     public CartesianCoordinates apply(HorizontalCoordinates azAlt) {
         double phi = azAlt.alt();
-        double cosPhi = cos(phi);
-        double sinPhi = sin(phi);
+        double cosPhi = trigonometry.cos(phi);
+        double sinPhi = trigonometry.sin(phi);
         double lambdaD = azAlt.az() - lambda0;
-        double cosLambdaD = cos(lambdaD);
+        double cosLambdaD = trigonometry.cos(lambdaD);
         double d = 1 / (1 + sinPhi*sinPhi1 + cosPhi*cosPhi1*cosLambdaD);
 
-        double x = d * cosPhi * sin(lambdaD);
+        double x = d * cosPhi * trigonometry.sin(lambdaD);
         double y = d * (sinPhi*cosPhi1 - cosPhi*sinPhi1*cosLambdaD);
         return CartesianCoordinates.of(x, y);
     }
 
+    /**
+     * Méthode qui projette les points dont les coordonnées horizontales sont données sous
+     * forme de colonnes, et écrit le résultat dans le tableau de sortie donné : la projection
+     * du point d'index i y occupe les positions 2i (abscisse) et 2i + 1 (ordonnée).
+     * Le résultat est exactement celui de apply, mais aucun objet n'est créé.
+     *
+     * @param az les azimuts des points, en radians
+     * @param alt les hauteurs des points, en radians
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @throws IllegalArgumentException si les tableaux des azimuts et des hauteurs n'ont pas
+     * la même longueur, ou si le tableau de sortie n'a pas une longueur double
+     */
+    public void applyBatch(double[] az, double[] alt, double[] outXY) {
+        int n = az.length;
+        Preconditions.checkArgument(alt.length == n && outXY.length == 2*n);
+
+        for (int i = 0; i < n; i++)
+            project(az[i], alt[i], outXY, 2*i);
+    }
+
+    /**
+     * Méthode qui projette, comme la méthode précédente, les points dont les coordonnées
+     * horizontales sont données, et écrit le résultat dans le tableau de coordonnées
+     * cartésiennes donné, qui peut être réutilisé d'un appel à l'autre.
+     *
+     * @param in les coordonnées horizontales des points
+     * @param out le tableau dans lequel écrire les coordonnées projetées
+     * @throws IllegalArgumentException si les deux tableaux n'ont pas la même taille
+     */
+    public void applyBatch(HorizontalBuffer in, CartesianBuffer out) {
+        applyBatch(in.azColumn(), in.altColumn(), out.xy());
+    }
+
+    /**
+     * Méthode qui projette, grâce à la conversion donnée, les points dont la direction est
+     * donnée par des vecteurs unitaires du repère équatorial, sous forme de colonnes (x, y, z),
+     * d'index compris entre from (inclus) et to (exclu) — p.ex. une tranche de la table des
+     * étoiles d'un catalogue —, la projection du point d'index i étant écrite aux positions
+     * 2i et 2i + 1 du tableau de sortie ; les autres positions sont laissées telles quelles.
+     * Des appels concurrents portant sur des intervalles disjoints écrivent dans des parties
+     * disjointes du tableau de sortie.
+     *
+     * La conversion en coordonnées horizontales (temps sidéral local et latitude) et la
+     * rotation amenant le centre de projection sur l'axe de visée sont composées en une
+     * unique matrice 3×3, calculée une fois par appel : chaque point coûte alors un produit
+     * matrice-vecteur et une division, sans aucune fonction transcendante. Les colonnes étant
+     * lues de manière contiguë, les points sont projetés par le noyau vectoriel, plusieurs à
+     * la fois, s'il est disponible (cf. vectorLanes).
+     *
+     * Le résultat ne diffère de celui de la composition de apply avec la méthode apply de la
+     * conversion que par les erreurs d'arrondi : l'écart sur chaque coordonnée est inférieur
+     * à 1e-9 fois la distance du point projeté à l'origine (au moins 1), tant que le point
+     * est à plus de 1e-3 radian de l'antipode du centre de projection, au voisinage duquel
+     * les coordonnées projetées tendent vers l'infini.
+     *
+     * @param equToHrz la conversion de coordonnées équatoriales en coordonnées horizontales
+     * @param x les composantes x (cos(dec)·cos(ra)) des vecteurs unitaires équatoriaux
+     * @param y les composantes y (cos(dec)·sin(ra)) des vecteurs unitaires équatoriaux
+     * @param z les composantes z (sin(dec)) des vecteurs unitaires équatoriaux
+     * @param from l'index du premier point à projeter
+     * @param to l'index suivant celui du dernier point à projeter
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @throws IndexOutOfBoundsException si l'intervalle n'est pas valide pour les colonnes
+     * ou le tableau de sortie
+     */
+    public void applyBatchToUnitVectorRange(EquatorialToHorizontalConversion equToHrz,
+                                            double[] x, double[] y, double[] z,
+                                            int from, int to, double[] outXY) {
+        KERNEL.project(equatorialMatrix(equToHrz), x, y, z, from, to, outXY);
+    }
+
+    /**
+     * Méthode qui retourne le nombre de points projetés à la fois par applyBatchToUnitVectorRange :
+     * le nombre de voies du noyau vectoriel s'il est disponible, c.-à-d. si sa classe a été
+     * compilée et que le module jdk.incubator.vector est chargé, et 1 sinon.
+     *
+     * @return le nombre de voies du noyau de projection
+     */
+    public static int vectorLanes() {
+        return KERNEL.lanes();
+    }
+
+    /**
+     * Méthode qui projette les points dont la direction est donnée par des vecteurs unitaires
+     * du repère horizontal, sous forme de colonnes (est, nord, zénith) comme celles produites
+     * par la méthode applyBatchToUnitVectors de EquatorialToHorizontalConversion. Le vecteur
+     * de position k des colonnes, pour k compris entre from (inclus) et to (exclu), est celui
+     * du point d'index indices[k], dont la projection est écrite aux positions 2·indices[k]
+     * et 2·indices[k] + 1 du tableau de sortie.
+     *
+     * Chaque point coûte un produit matrice-vecteur et une division, sans aucune fonction
+     * transcendante ; la tolérance est la même que celle de applyBatchToUnitVectorRange.
+     *
+     * @param east les composantes vers l'est des vecteurs unitaires horizontaux
+     * @param north les composantes vers le nord des vecteurs unitaires horizontaux
+     * @param up les composantes vers le zénith des vecteurs unitaires horizontaux
+     * @param indices les index des points
+     * @param from la position du premier vecteur à traiter
+     * @param to la position suivant celle du dernier vecteur à traiter
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @throws IndexOutOfBoundsException si la tranche ou l'un des index n'est pas valide
+     */
+    public void applyBatchToHorizontalUnitVectors(double[] east, double[] north, double[] up,
+                                                  int[] indices, int from, int to, double[] outXY) {
+        Objects.checkFromToIndex(from, to, indices.length);
+
+        // Lignes de la matrice dans le repère horizontal : abscisse, ordonnée et composante
+        // selon l'axe de visée (l'abscisse n'a pas de composante zénithale)
+        double m00 = cosLambda0, m01 = -sinLambda0;
+        double m10 = -sinPhi1*sinLambda0, m11 = -sinPhi1*cosLambda0, m12 = cosPhi1;
+        double m20 = cosPhi1*sinLambda0, m21 = cosPhi1*cosLambda0, m22 = sinPhi1;
+
+        for (int k = from; k < to; k++) {
+            int i = indices[k];
+            double e = east[k], n = north[k], u = up[k];
+            double d = 1 / (1 + m20*e + m21*n + m22*u);
+            outXY[2*i] = d * (m00*e + m01*n);
+            outXY[2*i + 1] = d * (m10*e + m11*n + m12*u);
+        }
+    }
+
+    /**
+     * Méthode qui fait de même que la méthode précédente, mais ne projette que les vecteurs
+     * dont les positions sont données, dans le tableau selection, entre les positions from
+     * (incluse) et to (exclue), p.ex. celles retournées par selectWithinAngularDistance.
+     *
+     * @param east les composantes vers l'est des vecteurs unitaires horizontaux
+     * @param north les composantes vers le nord des vecteurs unitaires horizontaux
+     * @param up les composantes vers le zénith des vecteurs unitaires horizontaux
+     * @param indices les index des points
+     * @param selection les positions des vecteurs à projeter
+     * @param from la position, dans selection, de la première position à traiter
+     * @param to la position, dans selection, suivant celle de la dernière position à traiter
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @throws IndexOutOfBoundsException si la tranche ou l'une des positions ou l'un des
+     * index n'est pas valide
+     */
+    public void applyBatchToHorizontalUnitVectors(double[] east, double[] north, double[] up,
+                                                  int[] indices, int[] selection, int from, int to,
+                                                  double[] outXY) {
+        Objects.checkFromToIndex(from, to, selection.length);
+
+        double m00 = cosLambda0, m01 = -sinLambda0;
+        double m10 = -sinPhi1*sinLambda0, m11 = -sinPhi1*cosLambda0, m12 = cosPhi1;
+        double m20 = cosPhi1*sinLambda0, m21 = cosPhi1*cosLambda0, m22 = sinPhi1;
+
+        for (int s = from; s < to; s++) {
+            int k = selection[s];
+            int i = indices[k];
+            double e = east[k], n = north[k], u = up[k];
+            double d = 1 / (1 + m20*e + m21*n + m22*u);
+            outXY[2*i] = d * (m00*e + m01*n);
+            outXY[2*i + 1] = d * (m10*e + m11*n + m12*u);
+        }
+    }
+
+    /**
+     * Méthode qui sélectionne, parmi les vecteurs unitaires horizontaux (est, nord, zénith)
+     * de positions comprises entre from (incluse) et to (exclue), ceux dont la direction est
+     * à une distance angulaire du centre de projection inférieure ou égale à la distance
+     * donnée. Leurs positions sont écrites, par ordre croissant, au début du tableau de
+     * sortie, et leur nombre est retourné.
+     *
+     * Le test se réduit à comparer le produit scalaire de chaque vecteur avec la direction
+     * du centre — la composante de la projection selon l'axe de visée — au cosinus de la
+     * distance donnée ; aucun point n'est projeté.
+     *
+     * @param east les composantes vers l'est des vecteurs unitaires horizontaux
+     * @param north les composantes vers le nord des vecteurs unitaires horizontaux
+     * @param up les composantes vers le zénith des vecteurs unitaires horizontaux
+     * @param from la position du premier vecteur à traiter
+     * @param to la position suivant celle du dernier vecteur à traiter
+     * @param maxAngularDistance la distance angulaire maximale au centre, en radians
+     * @param outSelection le tableau dans lequel écrire les positions sélectionnées
+     * @return le nombre de positions sélectionnées
+     * @throws IndexOutOfBoundsException si la tranche n'est pas valide, ou si le tableau de
+     * sortie est trop petit
+     */
+    public int selectWithinAngularDistance(double[] east, double[] north, double[] up,
+                                           int from, int to, double maxAngularDistance,
+                                           int[] outSelection) {
+        Objects.checkFromToIndex(from, to, east.length);
+
+        double m20 = cosPhi1*sinLambda0, m21 = cosPhi1*cosLambda0, m22 = sinPhi1;
+        double minCos = cos(maxAngularDistance);
+
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            if (m20*east[k] + m21*north[k] + m22*up[k] >= minCos)
+                outSelection[count++] = k;
+        }
+        return count;
+    }
+
+    /**
+     * Méthode privée qui retourne, ligne par ligne, la matrice 3×3 composant la conversion
+     * donnée et la rotation amenant le centre de projection sur l'axe de visée : ses lignes
+     * donnent, pour un vecteur unitaire équatorial, l'abscisse, l'ordonnée et la composante
+     * selon l'axe de visée, avant la division par 1 plus cette dernière.
+     *
+     * @param equToHrz la conversion de coordonnées équatoriales en coordonnées horizontales
+     * @return les lignes de la matrice de projection
+     */
+    private double[] equatorialMatrix(EquatorialToHorizontalConversion equToHrz) {
+        // Lignes de la conversion : composantes est, nord et zénithale du repère horizontal
+        double[] basis = equToHrz.horizontalBasis();
+        double ex = basis[0], ey = basis[1], ez = basis[2];
+        double nx = basis[3], ny = basis[4], nz = basis[5];
+        double ux = basis[6], uy = basis[7], uz = basis[8];
+
+        // Composante horizontale dans la direction de l'azimut du centre de projection
+        double fx = sinLambda0*ex + cosLambda0*nx;
+        double fy = sinLambda0*ey + cosLambda0*ny;
+        double fz = sinLambda0*ez + cosLambda0*nz;
+
+        return new double[] {
+                cosLambda0*ex - sinLambda0*nx, cosLambda0*ey - sinLambda0*ny, cosLambda0*ez - sinLambda0*nz,
+                cosPhi1*ux - sinPhi1*fx, cosPhi1*uy - sinPhi1*fy, cosPhi1*uz - sinPhi1*fz,
+                cosPhi1*fx + sinPhi1*ux, cosPhi1*fy + sinPhi1*uy, cosPhi1*fz + sinPhi1*uz
+        };
+    }
+
+    /**
+     * Méthode privée qui projette le point de coordonnées horizontales données, et écrit
+     * son abscisse et son ordonnée aux positions offset et offset + 1 du tableau donné.
+     *
+     * @param az l'azimut du point, en radians
+     * @param alt la hauteur du point, en radians
+     * @param outXY le tableau dans lequel écrire les coordonnées projetées
+     * @param offset la position de l'abscisse dans le tableau
+     */
+    private void project(double az, double alt, double[] outXY, int offset) {
+        double cosPhi = trigonometry.cos(alt);
+        double sinPhi = trigonometry.sin(alt);
+        double lambdaD = az - lambda0;
+        double cosLambdaD = trigonometry.cos(lambdaD);
+        double d = 1 / (1 + sinPhi*sinPhi1 + cosPhi*cosPhi1*cosLambdaD);
+
+        outXY[offset] = d * cosPhi * trigonometry.sin(lambdaD);
+        outXY[offset + 1] = d * (sinPhi*cosPhi1 - cosPhi*sinPhi1*cosLambdaD);
+    }
+
     /**
      * Méthode qui retourne les coordonnées horizontales du point dont la projection
      * est le point de coordonnées cartésiennes xy.
@@ -113,10 +386,56 @@ public final class StereographicProjection implements Function<HorizontalCoordin
         double sinc = (2*rho) / (rhoSquared + 1);
         double cosc = (1 - rhoSquared) / (rhoSquared + 1);
 
-        double lambda = atan2((x*sinc), (rho*cosPhi1*cosc - y*sinPhi1*sinc)) + lambda0;
-        double phi = asin(cosc*sinPhi1 + (y*sinc*cosPhi1)/rho);
+        double lambda = trigonometry.atan2((x*sinc), (rho*cosPhi1*cosc - y*sinPhi1*sinc)) + lambda0;
+        double phi = altitude(cosc*sinPhi1 + (y*sinc*cosPhi1)/rho);
+
+        return HorizontalCoordinates.ofTrusted(Angle.normalizePositive(lambda), phi);
+    }
+
+    /**
+     * Méthode qui calcule les coordonnées horizontales des points dont les projections sont
+     * données, et les écrit dans le tableau de coordonnées horizontales donné. Le résultat
+     * est exactement celui de inverseApply, mais aucun objet n'est créé.
+     *
+     * @param in les coordonnées cartésiennes des projections des points
+     * @param out le tableau dans lequel écrire les coordonnées horizontales des points
+     * @throws IllegalArgumentException si les deux tableaux n'ont pas la même taille
+     */
+    public void inverseApplyBatch(CartesianBuffer in, HorizontalBuffer out) {
+        int n = in.size();
+        Preconditions.checkArgument(out.size() == n);
+        double[] xy = in.xy();
+        double[] az = out.azColumn();
+        double[] alt = out.altColumn();
+
+        for (int i = 0; i < n; i++) {
+            double x = xy[2*i];
+            double y = xy[2*i + 1];
+            if (x == 0 && y == 0) { // Cas limite de l'origine (cf. étape 9)
+                az[i] = lambda0;
+                alt[i] = phi1;
+                continue;
+            }
+            double rhoSquared = x*x+ y*y;
+            double rho = sqrt(rhoSquared);
+            double sinc = (2*rho) / (rhoSquared + 1);
+            double cosc = (1 - rhoSquared) / (rhoSquared + 1);
+
+            az[i] = Angle.normalizePositive(trigonometry.atan2((x*sinc), (rho*cosPhi1*cosc - y*sinPhi1*sinc)) + lambda0);
+            alt[i] = altitude(cosc*sinPhi1 + (y*sinc*cosPhi1)/rho);
+        }
+    }
 
-        return HorizontalCoordinates.of(Angle.normalizePositive(lambda), phi);
+    /**
+     * Méthode privée qui retourne, selon le mode de calcul de la projection, la hauteur dont
+     * le sinus est donné. Près du zénith, l'inversion peut donner un sinus dépassant 1 d'un
+     * ulp ; il est donc d'abord ramené dans [-1, 1] afin que la hauteur ne soit jamais NaN.
+     *
+     * @param sinPhi le sinus de la hauteur
+     * @return la hauteur, en radians, dans [-π/2, π/2]
+     */
+    private double altitude(double sinPhi) {
+        return trigonometry.asin(max(-1, min(1, sinPhi)));
     }
 
     /**
@@ -53,12 +53,14 @@ public final class AutocompleteTextField extends TextField {
         if (prefix == null || prefix.isEmpty())
             return null;
 
+        // Les suggestions sont des clefs de recherche, déjà en majuscules
+        String key = prefix.toUpperCase();
         Set<String> set = new TreeSet<>();
         for (String s : suggestions) {
             if (set.size() > MAX_NAMES_ON_DIPLAY)
                 break;
 
-            if (s.startsWith(prefix.toUpperCase()))
+            if (s.startsWith(key))
                 set.add(s);
         }
 
@@ -1,24 +1,40 @@
 package ch.epfl.rigel.gui;
 
 import ch.epfl.rigel.astronomy.CelestialObject;
+import ch.epfl.rigel.astronomy.StarCatalogue;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * Cette classe représente un moteur de recherche d'objets célestes.
+ * Il accepte les noms des objets du système solaire de l'instant observé, les noms de
+ * toutes les étoiles du catalogue — qu'elles soient affichées ou non — ainsi que les
+ * requêtes de la forme « HIP n », qui désignent l'étoile du catalogue de numéro
+ * Hipparcos n. La table des noms des étoiles est construite une seule fois par catalogue.
  *
  * @author Thomas Bonnardel (319827)
  */
 public final class CelestialObjectSearchEngine {
 
+    private final static String HIPPARCOS_PREFIX = "HIP ";
+
     private Map<String, CelestialObject> celestialObjectMap;
+    private StarCatalogue catalogue;
+    private Map<String, Integer> starIndexByName;
+    private final NavigableSet<String> names;
 
     /**
      * Constructeur de la classe.
      */
     public CelestialObjectSearchEngine() {
         this.celestialObjectMap = new TreeMap<>();
+        this.starIndexByName = new HashMap<>();
+        this.names = new TreeSet<>();
     }
 
     /**
@@ -28,16 +44,53 @@ public final class CelestialObjectSearchEngine {
      * @return true si l'objet existe, false sinon
      */
     public boolean search(String name) {
-        return celestialObjectMap.keySet().contains(name);
+        return celestialObjectMap.containsKey(name) || starIndexByName.containsKey(name)
+                || hipparcosStarIndex(name) >= 0;
+    }
+
+    /**
+     * Méthode qui retourne une vue non modifiable de l'ensemble trié des noms acceptés par
+     * le moteur de recherche, hormis les requêtes « HIP n ». La vue suit les changements
+     * de catalogue, et peut donc être utilisée comme ensemble de suggestions.
+     *
+     * @return l'ensemble des noms des objets célestes et des étoiles
+     */
+    public NavigableSet<String> names() {
+        return Collections.unmodifiableNavigableSet(names);
     }
 
     /**
-     * Méthode qui (re) initialise la table associative des objets célestes.
+     * Méthode qui (re) initialise la table associative des objets du système solaire de
+     * l'instant observé. Comme leurs noms ne changent pas d'un instant à l'autre, l'ensemble
+     * des noms n'est reconstruit que si la table contient un nom qu'il ne contient pas.
      *
      * @param celestialObjectMap la nouvelle table associative des objets célestes
      */
     public void setCelestialObjectMap(Map<String, CelestialObject> celestialObjectMap) {
         this.celestialObjectMap = celestialObjectMap;
+        if (!names.containsAll(celestialObjectMap.keySet()))
+            updateNames();
+    }
+
+    /**
+     * Méthode qui (re) initialise le catalogue dans lequel sont recherchées les étoiles,
+     * et construit la table de leurs index par nom. Plusieurs étoiles pouvant porter le
+     * même nom, c'est la plus brillante d'entre elles qui est retenue.
+     *
+     * @param catalogue le catalogue d'étoiles
+     */
+    public void setCatalogue(StarCatalogue catalogue) {
+        Map<String, Integer> starIndexByName = new HashMap<>();
+        for (int rank = 0; rank < catalogue.starCount(); rank++) {
+            int index = catalogue.starIndexByMagnitude(rank);
+            String key = catalogue.starNameKey(index);
+            if (!key.isBlank())
+                starIndexByName.putIfAbsent(key, index);
+        }
+
+        this.catalogue = catalogue;
+        this.starIndexByName = starIndexByName;
+        updateNames();
     }
 
     /**
@@ -52,6 +105,41 @@ public final class CelestialObjectSearchEngine {
         if (!search(name))
             throw new IllegalArgumentException();
 
-        return celestialObjectMap.get(name);
+        CelestialObject object = celestialObjectMap.get(name);
+        if (object != null)
+            return object;
+
+        Integer index = starIndexByName.get(name);
+        return catalogue.stars().get((index != null) ? index : hipparcosStarIndex(name));
+    }
+
+    /**
+     * Méthode privée qui reconstruit l'ensemble des noms acceptés, à partir des noms des
+     * objets du système solaire et de ceux des étoiles.
+     */
+    private void updateNames() {
+        names.clear();
+        names.addAll(starIndexByName.keySet());
+        names.addAll(celestialObjectMap.keySet());
+    }
+
+    /**
+     * Méthode privée qui retourne l'index dans le catalogue de l'étoile désignée par la
+     * requête donnée, de la forme « HIP n » avec n strictement positif, ou -1 si la requête
+     * n'est pas de cette forme ou qu'aucune étoile du catalogue n'a ce numéro.
+     *
+     * @param name la requête
+     * @return l'index de l'étoile désignée, ou -1
+     */
+    private int hipparcosStarIndex(String name) {
+        if (catalogue == null || !name.startsWith(HIPPARCOS_PREFIX))
+            return -1;
+
+        String number = name.substring(HIPPARCOS_PREFIX.length()).strip();
+        if (number.isEmpty() || number.length() > 9 || !number.chars().allMatch(Character::isDigit))
+            return -1;
+        int hipparcosId = Integer.parseInt(number);
+        // Le numéro 0 est celui des étoiles qui n'ont pas de numéro Hipparcos
+        return (hipparcosId > 0) ? catalogue.indexOfHipparcosId(hipparcosId) : -1;
     }
 }
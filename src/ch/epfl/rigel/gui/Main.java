@@ -1,10 +1,11 @@
 package ch.epfl.rigel.gui;
 
-import ch.epfl.rigel.astronomy.AsterismLoader;
-import ch.epfl.rigel.astronomy.HygDatabaseLoader;
+import ch.epfl.rigel.astronomy.CatalogueSnapshot;
+import ch.epfl.rigel.astronomy.ProgressiveCatalogueLoader;
 import ch.epfl.rigel.astronomy.StarCatalogue;
 import ch.epfl.rigel.coordinates.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.geometry.Orientation;
@@ -21,10 +22,13 @@ import javafx.util.converter.NumberStringConverter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.function.UnaryOperator;
 
 /**
@@ -48,6 +52,12 @@ public final class Main extends Application {
 
     private final static String CONTROL_BAR_HBOX_CHILDREN_STYLE = "-fx-spacing: inherit; -fx-alignment: baseline-left;";
     private static final String FONT_AWESOME = "/Font Awesome 5 Free-Solid-900.otf";
+    private static final String HYG_CATALOGUE_NAME = "/hygdata_v3.csv";
+    private static final String ASTERISMS_CATALOGUE_NAME = "/asterisms.txt";
+    private static final double[] CATALOGUE_MAGNITUDE_TIERS = {4, 6};
+    private static final String COMPRESSED_RESOURCE_SUFFIX = ".gz";
+    private static final Path CATALOGUE_CACHE_DIRECTORY =
+            Path.of(System.getProperty("user.home"), ".rigel", "cache");
     private final static String UNDO_ICON = "\uf0e2";
     private final static String PLAY_ICON = "\uf04b";
     private final static String PAUSE_ICON = "\uf04c";
@@ -211,6 +221,19 @@ public final class Main extends Application {
         return getClass().getResourceAsStream(resourceName);
     }
 
+    /**
+     * Méthode privée qui retourne le stream d'un fichier source du catalogue. La version
+     * compressée (gzip) du fichier est utilisée si elle est présente dans les ressources ;
+     * les chargeurs la décompressent alors à la volée.
+     *
+     * @param resourceName le nom de la ressource non compressée
+     * @return le stream associé
+     */
+    private InputStream catalogueStream(String resourceName) {
+        InputStream compressed = resourceStream(resourceName + COMPRESSED_RESOURCE_SUFFIX);
+        return (compressed != null) ? compressed : resourceStream(resourceName);
+    }
+
     /**
      * Méthode privée qui créé et retourne le panneau de
      * l'écoulement du temps.
@@ -263,14 +286,13 @@ public final class Main extends Application {
 
     private HBox createSearchHBox() throws IOException {
         AutocompleteTextField searchTextField = new AutocompleteTextField();
-        searchTextField.setPromptText("Rigel, Soleil ...");
+        searchTextField.setPromptText("Rigel, Soleil, HIP 24436 ...");
+        // Les suggestions suivent les noms du moteur de recherche, y compris lorsque le
+        // catalogue change
+        searchTextField.setSuggestions(searchEngine.names());
+        searchEngine.setCelestialObjectMap(observedCatalogueBean.getCelestialObjectMap());
         observedCatalogueBean.celestialObjectMapProperty().addListener(
-                (p, o, n) ->
-                    {
-                        searchTextField.setSuggestions(n.keySet());
-                        searchEngine.setCelestialObjectMap(n);
-                    }
-                );
+                (p, o, n) -> searchEngine.setCelestialObjectMap(n));
 
         Button searchButton = new Button(SEARCH_ICON);
         try (InputStream fontStream = resourceStream(FONT_AWESOME)) {
@@ -318,30 +340,103 @@ public final class Main extends Application {
     /**
      * Méthode privée qui retourne le panneau du ciel.
      *
+     * Si l'instantané binaire du catalogue est à jour, le catalogue complet en est chargé.
+     * Sinon, le catalogue est chargé progressivement : seules les étoiles brillantes (et
+     * celles des astérismes) sont chargées avant le premier dessin, les paliers plus faibles
+     * étant chargés en arrière-plan.
+     *
      * @return le panneau du ciel
      * @throws IOException en cas d'erreur entrée / sortie
      */
     private Pane createSky() throws IOException {
-        Pane skyPane = null;
-        try (InputStream hs1 = resourceStream("/hygdata_v3.csv");
-         InputStream hs2 = resourceStream("/asterisms.txt")) {
-            StarCatalogue catalogue = new StarCatalogue.Builder()
-                    .loadFrom(hs1, HygDatabaseLoader.INSTANCE)
-                    .loadFrom(hs2, AsterismLoader.INSTANCE)
-                    .build();
-
-            skyCanvasManager =
-                    new SkyCanvasManager(catalogue,
-                            dateTimeBean, observerLocationBean,
-                            viewingParametersBean, observedCatalogueBean);
-            Canvas skyCanvas = skyCanvasManager.canvas();
-            skyPane = new Pane(skyCanvas);
-            skyCanvas.widthProperty().bind(skyPane.widthProperty());
-            skyCanvas.heightProperty().bind(skyPane.heightProperty());
+        long checksum = catalogueSourcesChecksum();
+        Path snapshotFile = CatalogueSnapshot.snapshotFile(CATALOGUE_CACHE_DIRECTORY, checksum);
+        Optional<StarCatalogue> snapshot = CatalogueSnapshot.loadIfUpToDate(snapshotFile, checksum);
+        ProgressiveCatalogueLoader progressiveLoader = null;
+        StarCatalogue catalogue;
+        if (snapshot.isPresent()) {
+            catalogue = snapshot.get();
+        } else {
+            progressiveLoader = new ProgressiveCatalogueLoader(
+                    catalogueStream(HYG_CATALOGUE_NAME),
+                    catalogueStream(ASTERISMS_CATALOGUE_NAME),
+                    CATALOGUE_MAGNITUDE_TIERS);
+            catalogue = progressiveLoader.nextGeneration();
         }
+        searchEngine.setCatalogue(catalogue);
+
+        skyCanvasManager =
+                new SkyCanvasManager(catalogue,
+                        dateTimeBean, observerLocationBean,
+                        viewingParametersBean, observedCatalogueBean);
+        Canvas skyCanvas = skyCanvasManager.canvas();
+        Pane skyPane = new Pane(skyCanvas);
+        skyCanvas.widthProperty().bind(skyPane.widthProperty());
+        skyCanvas.heightProperty().bind(skyPane.heightProperty());
+
+        if (progressiveLoader != null)
+            loadRemainingGenerations(progressiveLoader, snapshotFile, checksum);
         return skyPane;
     }
 
+    /**
+     * Méthode privée qui charge, sur un fil d'exécution d'arrière-plan, les générations
+     * restantes du catalogue. Chaque génération remplace la précédente dans le gestionnaire
+     * de canevas et le moteur de recherche, sur le fil de JavaFX ; la dernière est de plus
+     * écrite dans l'instantané binaire, pour les lancements suivants. Une erreur de chargement,
+     * y compris une ligne mal formée, est signalée par une alerte, sur le fil de JavaFX ;
+     * une erreur d'écriture de l'instantané, qui n'est qu'un cache, est ignorée.
+     *
+     * @param progressiveLoader le chargeur progressif du catalogue
+     * @param snapshotFile le fichier de l'instantané binaire du catalogue
+     * @param checksum la somme de contrôle des fichiers sources du catalogue
+     */
+    private void loadRemainingGenerations(ProgressiveCatalogueLoader progressiveLoader,
+                                          Path snapshotFile, long checksum) {
+        Thread loaderThread = new Thread(() -> {
+            StarCatalogue generation = null;
+            try {
+                while (progressiveLoader.hasNextGeneration()) {
+                    generation = progressiveLoader.nextGeneration();
+                    StarCatalogue published = generation;
+                    Platform.runLater(() -> {
+                        skyCanvasManager.setStarCatalogue(published);
+                        searchEngine.setCatalogue(published);
+                    });
+                }
+            } catch (IOException | RuntimeException e) {
+                // Le ciel reste affiché avec les étoiles déjà chargées, p.ex. si une ligne
+                // du catalogue est mal formée
+                Platform.runLater(() -> createCatalogueLoadingErrorAlert(e));
+                return;
+            }
+
+            try {
+                if (generation != null)
+                    CatalogueSnapshot.save(snapshotFile, checksum, generation);
+            } catch (RuntimeException e) {
+                // Le cache est facultatif : le catalogue chargé reste affiché et
+                // l'instantané sera réécrit au prochain lancement
+            }
+        }, "Chargement du catalogue");
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    /**
+     * Méthode privée qui retourne la somme de contrôle des fichiers sources du catalogue,
+     * qui permet de savoir si l'instantané binaire du catalogue est à jour.
+     *
+     * @return la somme de contrôle des fichiers sources du catalogue
+     * @throws IOException en cas d'erreur entrée / sortie
+     */
+    private long catalogueSourcesChecksum() throws IOException {
+        try (InputStream hs1 = catalogueStream(HYG_CATALOGUE_NAME);
+             InputStream hs2 = catalogueStream(ASTERISMS_CATALOGUE_NAME)) {
+            return CatalogueSnapshot.checksum(hs1, hs2);
+        }
+    }
+
     /**
      * Méthode privée qui crée et retourne la barre d'information.
      *
@@ -385,6 +480,25 @@ public final class Main extends Application {
         alert.showAndWait();
     }
 
+    /**
+     * Méthode privée qui créée et affiche une alerte d'erreur lorsque le chargement
+     * en arrière-plan du catalogue échoue.
+     *
+     * @param e l'exception levée lors du chargement du catalogue
+     */
+    private void createCatalogueLoadingErrorAlert(Exception e) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Erreur de chargement");
+
+        alert.setContentText(new StringBuilder()
+                .append("Le chargement des étoiles les plus faibles a échoué (")
+                .append(Objects.toString(e.getMessage(), e.getClass().getSimpleName()))
+                .append("). Seules les étoiles déjà chargées sont affichées.")
+                .toString());
+
+        alert.show();
+    }
+
     /**
      * Méthode privée qui retourne un formateur de texte adapté au type donné.
      *
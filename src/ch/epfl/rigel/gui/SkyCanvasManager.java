@@ -1,11 +1,15 @@
 package ch.epfl.rigel.gui;
 
 import ch.epfl.rigel.astronomy.CelestialObject;
+import ch.epfl.rigel.astronomy.HorizontalSky;
 import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.SolarSystemModel;
 import ch.epfl.rigel.astronomy.StarCatalogue;
 import ch.epfl.rigel.coordinates.CartesianCoordinates;
 import ch.epfl.rigel.coordinates.HorizontalCoordinates;
 import ch.epfl.rigel.coordinates.StereographicProjection;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.rigel.math.Trigonometry;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.binding.ObjectBinding;
@@ -18,6 +22,7 @@ import javafx.scene.transform.Transform;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static java.lang.Math.*;
 
@@ -29,11 +34,14 @@ import static java.lang.Math.*;
  */
 public final class SkyCanvasManager {
 
-    private final StarCatalogue starCatalogue;
+    private final ObjectProperty<StarCatalogue> starCatalogue;
     private final DateTimeBean dateTimeB;
     private final ViewingParametersBean viewingParametersB;
     private final ObserverLocationBean observerLocationB;
     private final ObservedCatalogueBean observedCatalogueB;
+    // Caches des modèles du système solaire, qui évitent de les recalculer entièrement à
+    // chaque image d'une animation
+    private final SolarSystemModel solarSystemModel = SolarSystemModel.cached(EPHEMERIS_MAX_ERROR);
 
     private Map<String, CelestialObject> celestialObjectMap = null;
 
@@ -44,6 +52,15 @@ public final class SkyCanvasManager {
     private final static double MAX_DISTANCE_OBJECT_UNDER_MOUSE = 10d;
     private final static double AZIMUTH_DEG_OFFSET = 10d;
     private final static double ALTITUDE_DEG_OFFSET = 5d;
+    private final static double WIDEST_FIELD_OF_VIEW_LIMITING_MAGNITUDE = 6.5;
+    // Magnitude limite du champ de vue le plus étroit, la plus faible de toutes
+    private final static double FAINTEST_LIMITING_MAGNITUDE = limitingMagnitude(
+            ViewingParametersBean.MIN_FIELD_OF_VIEW_DEG);
+    private final static int PARALLEL_PROJECTION_THRESHOLD = 1 << 15;
+    private final static double EPHEMERIS_MAX_ERROR = Angle.ofArcsec(1);
+    // La projection ne sert qu'au dessin et à la position du curseur, pour lesquels une
+    // erreur de l'ordre de la seconde d'arc est bien inférieure au pixel
+    private final static Trigonometry PROJECTION_TRIGONOMETRY = Trigonometry.FAST;
 
     // Liens externes
     private final DoubleBinding mouseAzDeg;
@@ -53,6 +70,7 @@ public final class SkyCanvasManager {
     // Liens internes
     private final ObjectBinding<StereographicProjection> projection;
     private final ObjectBinding<Transform> planeToCanvas;
+    private final ObjectBinding<HorizontalSky> horizontalSky;
     private final ObjectBinding<ObservedSky> observedSky;
     private final ObjectProperty<CartesianCoordinates> mousePosition;
     private final ObjectBinding<HorizontalCoordinates> mouseHorizontalPosition;
@@ -74,7 +92,7 @@ public final class SkyCanvasManager {
                             ObserverLocationBean observerLocationB,
                             ViewingParametersBean viewingParametersB,
                             ObservedCatalogueBean observedCatalogueB) {
-        this.starCatalogue = starCatalogue;
+        this.starCatalogue = new SimpleObjectProperty<>(starCatalogue);
         this.dateTimeB = dateTimeB;
         this.viewingParametersB = viewingParametersB;
         this.observerLocationB = observerLocationB;
@@ -85,17 +103,33 @@ public final class SkyCanvasManager {
 
         // 1. crée un certain nombre de propriétés et liens
         projection = Bindings.createObjectBinding(
-                () -> new StereographicProjection(viewingParametersB.getCenter()),
+                () -> new StereographicProjection(viewingParametersB.getCenter(), PROJECTION_TRIGONOMETRY),
                 viewingParametersB.centerProperty());
-        observedSky = Bindings.createObjectBinding(
-                () -> new ObservedSky(
+        // Le ciel en coordonnées horizontales ne dépend ni du centre de projection ni du champ
+        // de vue : les changer ne fait que reprojeter le ciel, sans recalculer aucune position
+        // astronomique. Il est donc calculé pour la magnitude limite la plus faible.
+        horizontalSky = Bindings.createObjectBinding(
+                () -> new HorizontalSky(
                         dateTimeB.getZonedDateTime(),
                         observerLocationB.getCoordinates(),
-                        projection.get(),
-                        starCatalogue),
+                        getStarCatalogue(),
+                        FAINTEST_LIMITING_MAGNITUDE,
+                        PARALLEL_PROJECTION_THRESHOLD,
+                        solarSystemModel),
                 dateTimeB.dateProperty(), dateTimeB.timeProperty(), dateTimeB.zoneProperty(),
                 observerLocationB.lonDegProperty(), observerLocationB.latDegProperty(),
-                projection);
+                this.starCatalogue);
+        // Les étoiles plus faibles que la magnitude limite du champ de vue, ou hors du cône de
+        // vue, qui contient tout le canevas, ne sont ni projetées ni dessinées
+        observedSky = Bindings.createObjectBinding(
+                () -> new ObservedSky(
+                        horizontalSky.get(),
+                        projection.get(),
+                        limitingMagnitude(viewingParametersB.getFieldOfViewDeg()),
+                        viewingParametersB.getViewRadius(canvas().getWidth(), canvas().getHeight()),
+                        PARALLEL_PROJECTION_THRESHOLD),
+                horizontalSky, projection, canvas().widthProperty(), canvas().heightProperty(),
+                viewingParametersB.fieldOfViewDegProperty());
         mousePosition = new SimpleObjectProperty<>();
         planeToCanvas = Bindings.createObjectBinding(
                 () -> Transform.affine(
@@ -175,6 +209,21 @@ public final class SkyCanvasManager {
         return celestialObjectMap;
     }
 
+    /**
+     * Méthode statique privée qui retourne la magnitude limite des étoiles affichées pour
+     * le champ de vue donné. Avec le champ de vue le plus large, elle correspond à la limite
+     * de l'œil nu (6.5) ; elle augmente ensuite avec le grossissement, comme pour un
+     * instrument dont la pupille d'entrée grandirait avec lui, soit de 5 log10 du rapport
+     * des champs de vue.
+     *
+     * @param fieldOfViewDeg le champ de vue, en degrés
+     * @return la magnitude limite des étoiles affichées
+     */
+    private static double limitingMagnitude(double fieldOfViewDeg) {
+        return WIDEST_FIELD_OF_VIEW_LIMITING_MAGNITUDE
+                + 5 * log10(ViewingParametersBean.MAX_FIELD_OF_VIEW_DEG / fieldOfViewDeg);
+    }
+
     /**
      * Méthode privée qui dessine le ciel sur le canevas.
      */
@@ -190,7 +239,26 @@ public final class SkyCanvasManager {
         painter.drawSun(sky, planeToCanvas);
         painter.drawMoon(sky, planeToCanvas);
         painter.drawHorizon(projection, planeToCanvas);
-        observedCatalogueB.setCelestialObjectMap(painter.getCelestialObjectMap());
+        observedCatalogueB.setCelestialObjectMap(solarSystemObjectMap(sky));
+    }
+
+    /**
+     * Méthode statique privée qui retourne la table associative, indexée par leur nom en
+     * majuscules, du Soleil, de la Lune et des planètes du ciel observé donné. Les étoiles
+     * n'y figurent pas : le moteur de recherche construit la table de leurs noms une seule
+     * fois par catalogue, si bien que l'élimination des étoiles hors du champ de vue
+     * n'affecte que le dessin.
+     *
+     * @param sky le ciel observé
+     * @return la table associative des objets du système solaire
+     */
+    private static Map<String, CelestialObject> solarSystemObjectMap(ObservedSky sky) {
+        Map<String, CelestialObject> objects = new TreeMap<>();
+        objects.put(sky.sun().name().toUpperCase(), sky.sun());
+        objects.put(sky.moon().name().toUpperCase(), sky.moon());
+        for (CelestialObject planet : sky.planets())
+            objects.put(planet.name().toUpperCase(), planet);
+        return objects;
     }
 
     /**
@@ -252,6 +320,7 @@ public final class SkyCanvasManager {
         viewingParametersB.fieldOfViewDegProperty().addListener((p, o, n) -> drawSky());
         canvas().widthProperty().addListener((p, o, n) -> drawSky());
         canvas().heightProperty().addListener((p, o, n) -> drawSky());
+        starCatalogue.addListener((p, o, n) -> drawSky());
     }
 
 
@@ -264,6 +333,34 @@ public final class SkyCanvasManager {
         return canvas.get();
     }
 
+    /**
+     * Méthode d'accès retournant le catalogue d'étoiles et d'astérismes affiché.
+     *
+     * @return le catalogue affiché
+     */
+    public StarCatalogue getStarCatalogue() {
+        return starCatalogue.get();
+    }
+
+    /**
+     * Méthode d'accès retournant la propriété du catalogue d'étoiles et d'astérismes affiché.
+     *
+     * @return la propriété du catalogue affiché
+     */
+    public ObjectProperty<StarCatalogue> starCatalogueProperty() {
+        return starCatalogue;
+    }
+
+    /**
+     * Méthode qui remplace le catalogue affiché par le catalogue donné, par exemple par
+     * une nouvelle génération d'un catalogue chargé progressivement, et redessine le ciel.
+     *
+     * @param starCatalogue le nouveau catalogue
+     */
+    public void setStarCatalogue(StarCatalogue starCatalogue) {
+        this.starCatalogue.set(starCatalogue);
+    }
+
     /**
      *  Méthode d'accès retournant le contenu de l'azimut
      *  en degrés de la position du curseur de la souris.
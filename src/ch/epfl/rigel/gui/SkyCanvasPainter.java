@@ -13,9 +13,7 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.transform.Transform;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.tan;
@@ -29,7 +27,6 @@ import static java.lang.Math.tan;
 public final class SkyCanvasPainter {
 
     private final Canvas canvas;
-    private Map<String, CelestialObject> celestialObjectMap;
 
     private final static Color BACKGROUND_COLOR = Color.BLACK;
     private final static Color ASTERISMS_COLOR = Color.BLUE;
@@ -55,16 +52,6 @@ public final class SkyCanvasPainter {
      */
     public SkyCanvasPainter(Canvas canvas) {
         this.canvas = canvas;
-        this.celestialObjectMap = new HashMap<>();
-    }
-
-    /**
-     * Méthode publique qui retourne la table associative des objets célestes dessinés.
-     *
-     * @return la table associative des objets célestes dessinés
-     */
-    public Map<String, CelestialObject> getCelestialObjectMap() {
-        return celestialObjectMap;
     }
 
     /**
@@ -89,16 +76,15 @@ public final class SkyCanvasPainter {
 
         drawVisibleAsterisms(sky, planeToCanvas);
 
-        for (int i = 0; i < sky.stars().size(); i++) {
-            Star star = sky.stars().get(i);
+        // Les étoiles sont lues dans les colonnes du catalogue : aucune n'est matérialisée
+        double[] starPositions = sky.starPositions();
+        for (int i : sky.visibleStarIndices()) {
             drawDisk(
-                    CartesianCoordinates.of(
-                            sky.starPositions()[2*i],
-                            sky.starPositions()[2*i+1]),
-                    size(star),
-                    BlackBodyColor.colorForTemperature(star.colorTemperature()),
-                    planeToCanvas,
-                    sky.stars().get(i));
+                    starPositions[2*i],
+                    starPositions[2*i+1],
+                    basedOnMagnitudeSize(sky.starMagnitude(i)),
+                    BlackBodyColor.colorForTemperature(sky.starColorTemperature(i)),
+                    planeToCanvas);
         }
     }
 
@@ -117,8 +103,7 @@ public final class SkyCanvasPainter {
                             sky.planetPositions()[2*i+1]),
                     size(sky.planets().get(i)),
                     PLANETS_COLOR,
-                    planeToCanvas,
-                    sky.planets().get(i)
+                    planeToCanvas
                     );
         }
     }
@@ -140,22 +125,19 @@ public final class SkyCanvasPainter {
                 absCenter,
                 sunSize*HALO_COEF,
                 SUN_HALO_COLOR,
-                planeToCanvas,
-                sun
+                planeToCanvas
         );
         drawDisk(
                 absCenter,
                 sunSize + abs(2/planeToCanvas.getMxx()),
                 SUN_MIDDLE_COLOR,
-                planeToCanvas,
-                null
+                planeToCanvas
         );
         drawDisk(
                 absCenter,
                 size(sun),
                 SUN_CENTER_COLOR,
-                planeToCanvas,
-                null
+                planeToCanvas
         );
     }
 
@@ -171,8 +153,7 @@ public final class SkyCanvasPainter {
                 sky.moonPosition(),
                 size(sky.moon()),
                 MOON_COLOR,
-                planeToCanvas,
-                sky.moon()
+                planeToCanvas
         );
     }
 
@@ -200,19 +181,29 @@ public final class SkyCanvasPainter {
      * @param color la couleur du disque
      * @param planeToCanvas la transformation entre le repère de la
      *                      projection et celui du canevas
-     * @param object l'objet céleste à dessiner
      */
     private void drawDisk(CartesianCoordinates absCenter, double absSize,
-                          Color color, Transform planeToCanvas, CelestialObject object) {
+                          Color color, Transform planeToCanvas) {
+        drawDisk(absCenter.x(), absCenter.y(), absSize, color, planeToCanvas);
+    }
+
+    /**
+     * Méthode privée qui fait de même que la méthode précédente, le centre du disque
+     * étant donné par ses coordonnées dans le repère de la projection.
+     *
+     * @param absX l'abscisse du centre du disque
+     * @param absY l'ordonnée du centre du disque
+     * @param absSize le diamètre du disque
+     * @param color la couleur du disque
+     * @param planeToCanvas la transformation entre le repère de la
+     *                      projection et celui du canevas
+     */
+    private void drawDisk(double absX, double absY, double absSize,
+                          Color color, Transform planeToCanvas) {
         GraphicsContext ctx = canvas.getGraphicsContext2D();
         ctx.setFill(color);
 
-        Point2D center = planeToCanvas.transform(
-                absCenter.x(),
-                absCenter.y());
-        if (object != null && !object.name().isBlank()) {
-            celestialObjectMap.put(object.name().toUpperCase(), object);
-        }
+        Point2D center = planeToCanvas.transform(absX, absY);
         Point2D dimension = planeToCanvas.deltaTransform(absSize, absSize);
         ctx.fillOval(
                 center.getX() - dimension.getX()/2,
@@ -367,17 +358,6 @@ public final class SkyCanvasPainter {
         return basedOnMagnitudeSize(planet.magnitude());
     }
 
-    /**
-     * Méthode qui retourne le diamètre du disque représentant
-     * l'étoile spécifiée dans notre projection.
-     *
-     * @param star l'étoile à représenter
-     * @return le diamètre du disque représentant l'étoile
-     */
-    private double size(Star star) {
-        return basedOnMagnitudeSize(star.magnitude());
-    }
-
     /**
      * Méthode privée qui calcule la taille effective de l'objet celeste
      * projeté dans notre projection stéréographique en fonction de sa
@@ -9,7 +9,7 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
-import static java.lang.Math.tan;
+import static java.lang.Math.*;
 
 /**
  * Cette classe est un bean JavaFX contenant les paramètres
@@ -22,12 +22,15 @@ public final class ViewingParametersBean {
     private DoubleProperty fieldOfViewDeg = new SimpleDoubleProperty();
     private ObjectProperty<HorizontalCoordinates> center = new SimpleObjectProperty<>();
 
-    private final static double MIN_FIELD_OF_VIEW_DEG = 30d;
-    private final static double MAX_FIELD_OF_VIEW_DEG = 150d;
+    // Bornes du champ de vue, *package private* car elles déterminent aussi les magnitudes
+    // limites du gestionnaire de canevas
+    final static double MIN_FIELD_OF_VIEW_DEG = 30d;
+    final static double MAX_FIELD_OF_VIEW_DEG = 150d;
     private final static double MIN_AZIMUTH_DEG = 0d;
     private final static double MAX_AZIMUTH_DEG = 360d;
     private final static double MIN_ALTITUDE_DEG = 5d;
     private final static double MAX_ALTITUDE_DEG = 90d;
+    private final static double VIEW_RADIUS_MARGIN_DEG = 1d;
 
 
     /**
@@ -58,6 +61,28 @@ public final class ViewingParametersBean {
                 (2*tan(Angle.ofDeg(getFieldOfViewDeg()) / 4)));
     }
 
+    /**
+     * Méthode qui calcule et retourne le rayon angulaire, en radians, d'un cône centré
+     * sur le centre de projection et contenant toute la portion du ciel visible sur un
+     * canevas des dimensions données : la distance angulaire entre le centre et les coins
+     * du canevas, augmentée d'une marge couvrant le disque des plus grosses étoiles.
+     * Si le canevas est vide, le rayon vaut π, et le cône contient tout le ciel.
+     *
+     * @param width la largeur du canevas
+     * @param height la hauteur du canevas
+     * @return le rayon angulaire du cône de vue
+     */
+    public double getViewRadius(double width, double height) {
+        if (!(width > 0 && height > 0))
+            return PI;
+
+        // Une distance r au centre dans le plan de la projection correspond à une distance
+        // angulaire 2·atan(r) sur la sphère céleste
+        double halfWidth = tan(Angle.ofDeg(getFieldOfViewDeg()) / 4);
+        double halfDiagonal = halfWidth * hypot(1, height / width);
+        return min(PI, 2*atan(halfDiagonal) + Angle.ofDeg(VIEW_RADIUS_MARGIN_DEG));
+    }
+
     /**
      * Méthode d'accès retournant la propriété du champ de vue en degrés.
      *
@@ -22,6 +22,7 @@ public final class Angle {
     private final static double HR_PER_RAD = 1 / RAD_PER_HR;
     private final static double RAD_PER_ARCMIN = TAU / (60. * 360.);
     private final static double RAD_PER_ARCSEC = RAD_PER_ARCMIN / 60.;
+    private final static RightOpenInterval POSITIVE_INTERVAL = RightOpenInterval.of(0, TAU);
 
 
     private Angle() {} // Constructeur privé pour rendre la classe non instantiable
@@ -33,8 +34,7 @@ public final class Angle {
      * @return la valeur de l'angle normalisé, réduit à l'intervalle [0, TAU[
      */
     public static double normalizePositive(double rad) {
-        RightOpenInterval interval = RightOpenInterval.of(0, TAU);
-        return interval.reduce(rad);
+        return POSITIVE_INTERVAL.reduce(rad);
     }
 
     /**
@@ -0,0 +1,149 @@
+package ch.epfl.rigel.math;
+
+import ch.epfl.rigel.Preconditions;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.cos;
+
+/**
+ * Classe qui représente l'approximation d'une fonction sur un intervalle fermé par son
+ * polynôme d'interpolation aux nœuds de Chebyshev, qui est presque le meilleur polynôme
+ * d'approximation uniforme de son degré.
+ *
+ * Les coefficients de Chebyshev sont calculés à partir des valeurs de la fonction aux
+ * nœuds, puis convertis une fois pour toutes en un polynôme (Polynomial) de la variable
+ * ramenée à [-1, 1] : une évaluation coûte ainsi un changement de variable et autant de
+ * multiplications-additions que le degré du polynôme.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class ChebyshevFit {
+
+    private final ClosedInterval interval;
+    private final Polynomial polynomial; // null si le polynôme d'interpolation est nul
+
+    private ChebyshevFit(ClosedInterval interval, Polynomial polynomial) { // Constructeur privé
+        this.interval = interval;
+        this.polynomial = polynomial;
+    }
+
+    /**
+     * Méthode qui retourne les count nœuds de Chebyshev de l'intervalle donné, triés
+     * par ordre croissant.
+     *
+     * @param interval l'intervalle
+     * @param count le nombre de nœuds
+     * @return les nœuds de Chebyshev de l'intervalle, par ordre croissant
+     * @throws IllegalArgumentException si le nombre de nœuds n'est pas strictement positif
+     */
+    public static double[] nodes(ClosedInterval interval, int count) {
+        Preconditions.checkArgument(count > 0);
+
+        double center = (interval.low() + interval.high()) / 2;
+        double halfSize = interval.size() / 2;
+        double[] nodes = new double[count];
+        for (int m = 0; m < count; m++)
+            nodes[m] = center - halfSize * cos(PI * (m + 0.5) / count);
+        return nodes;
+    }
+
+    /**
+     * Méthode qui retourne l'approximation sur l'intervalle donné de la fonction dont les
+     * valeurs aux nœuds de Chebyshev de l'intervalle, dans l'ordre de ceux retournés par
+     * nodes, sont données. Le polynôme d'approximation est de degré (au plus) égal au
+     * nombre de valeurs moins un.
+     *
+     * @param interval l'intervalle
+     * @param valuesAtNodes les valeurs de la fonction aux nœuds de Chebyshev
+     * @return l'approximation de la fonction sur l'intervalle
+     * @throws IllegalArgumentException s'il n'y a aucune valeur
+     */
+    public static ChebyshevFit of(ClosedInterval interval, double[] valuesAtNodes) {
+        int n = valuesAtNodes.length;
+        Preconditions.checkArgument(n > 0);
+
+        // Coefficients de Chebyshev : le nœud m, par ordre croissant, est cos(π(j + 1/2)/n)
+        // avec j = n - 1 - m
+        double[] chebyshev = new double[n];
+        for (int k = 0; k < n; k++) {
+            double sum = 0;
+            for (int m = 0; m < n; m++)
+                sum += valuesAtNodes[m] * cos(PI * k * (n - 1 - m + 0.5) / n);
+            chebyshev[k] = (k == 0 ? 1d : 2d) * sum / n;
+        }
+
+        // Conversion dans la base des monômes (par degré croissant), les polynômes de
+        // Chebyshev vérifiant T(0) = 1, T(1) = x et T(k+1) = 2x·T(k) - T(k-1)
+        double[] monomial = new double[n];
+        double[] previous = new double[n];
+        double[] current = new double[n];
+        current[0] = 1;
+        for (int k = 0; k < n; k++) {
+            for (int d = 0; d <= k; d++)
+                monomial[d] += chebyshev[k] * current[d];
+
+            double[] next = new double[n];
+            for (int d = 0; d < n - 1; d++)
+                next[d + 1] = (k == 0 ? 1 : 2) * current[d] - (k == 0 ? 0 : previous[d + 1]);
+            if (k > 0)
+                next[0] = -previous[0];
+            previous = current;
+            current = next;
+        }
+
+        int degree = n - 1;
+        while (degree >= 0 && monomial[degree] == 0)
+            degree -= 1;
+        if (degree < 0)
+            return new ChebyshevFit(interval, null);
+
+        double[] lowerCoefficients = new double[degree];
+        for (int d = 0; d < degree; d++)
+            lowerCoefficients[d] = monomial[degree - 1 - d];
+        return new ChebyshevFit(interval, Polynomial.of(monomial[degree], lowerCoefficients));
+    }
+
+    /**
+     * Méthode qui retourne l'approximation sur l'intervalle donné de la fonction donnée,
+     * par son polynôme d'interpolation aux count nœuds de Chebyshev de l'intervalle.
+     *
+     * @param interval l'intervalle
+     * @param count le nombre de nœuds
+     * @param function la fonction à approcher
+     * @return l'approximation de la fonction sur l'intervalle
+     * @throws IllegalArgumentException si le nombre de nœuds n'est pas strictement positif
+     */
+    public static ChebyshevFit of(ClosedInterval interval, int count, DoubleUnaryOperator function) {
+        double[] nodes = nodes(interval, count);
+        double[] values = new double[count];
+        for (int m = 0; m < count; m++)
+            values[m] = function.applyAsDouble(nodes[m]);
+        return of(interval, values);
+    }
+
+    /**
+     * Méthode d'accès qui retourne l'intervalle d'approximation.
+     *
+     * @return l'intervalle d'approximation
+     */
+    public ClosedInterval interval() {
+        return interval;
+    }
+
+    /**
+     * Méthode qui retourne la valeur de l'approximation au point donné, qui devrait
+     * appartenir à l'intervalle d'approximation : hors de celui-ci, le polynôme est
+     * évalué tel quel, et l'approximation se dégrade rapidement.
+     *
+     * @param x le point
+     * @return la valeur de l'approximation en x
+     */
+    public double at(double x) {
+        if (polynomial == null)
+            return 0;
+        double u = (2*x - interval.low() - interval.high()) / interval.size();
+        return polynomial.at(u);
+    }
+}
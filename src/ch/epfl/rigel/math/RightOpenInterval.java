@@ -61,7 +61,9 @@ public final class RightOpenInterval extends Interval {
     }
 
     /**
-     * Méthode qui réduit son argument à l'intervalle étudié
+     * Méthode qui réduit son argument à l'intervalle étudié. Une valeur très légèrement
+     * inférieure à la borne inférieure (p.ex. -1e-17 pour [0, τ[) donne, après arrondi, la
+     * borne supérieure exclue : la borne inférieure est alors retournée.
      *
      * @param v la valeur à réduire
      * @return la valeur réduite conformément à l'intervalle
@@ -70,7 +72,8 @@ public final class RightOpenInterval extends Interval {
         double a = low();
         double b = high();
 
-        return (a + floorMod(v - a, b - a));
+        double reduced = a + floorMod(v - a, b - a);
+        return (reduced >= b) ? a : reduced;
     }
 
     /**
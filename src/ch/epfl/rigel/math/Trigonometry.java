@@ -0,0 +1,193 @@
+package ch.epfl.rigel.math;
+
+import static ch.epfl.rigel.math.Angle.TAU;
+import static java.lang.Math.PI;
+
+/**
+ * Cette énumération représente une manière de calculer les fonctions trigonométriques
+ * utilisées par les conversions et les projections : soit exactement, au moyen des méthodes
+ * de Math, soit rapidement, par interpolation linéaire dans des tables précalculées.
+ *
+ * Le mode rapide est destiné au seul dessin du ciel, pour lequel une précision bien
+ * inférieure au pixel suffit : ses résultats diffèrent de ceux du mode exact d'au plus
+ * MAX_FAST_ERROR — en valeur absolue pour le sinus et le cosinus, en radians pour l'arc
+ * sinus et l'arc tangente —, soit environ 0.2 seconde d'arc. Les valeurs non finies et les
+ * angles de valeur absolue supérieure à 1e6 radians sont toujours traités exactement.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public enum Trigonometry {
+    /**
+     * Calcul exact, au moyen des méthodes de Math ; c'est le mode par défaut
+     */
+    EXACT {
+        @Override
+        public double sin(double rad) {
+            return Math.sin(rad);
+        }
+
+        @Override
+        public double cos(double rad) {
+            return Math.cos(rad);
+        }
+
+        @Override
+        public double asin(double x) {
+            return Math.asin(x);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return Math.atan2(y, x);
+        }
+    },
+
+    /**
+     * Calcul rapide, par interpolation linéaire dans des tables, d'erreur au plus MAX_FAST_ERROR
+     */
+    FAST {
+        @Override
+        public double sin(double rad) {
+            if (!(Math.abs(rad) <= MAX_TABULATED_ANGLE)) // Aussi vrai pour NaN
+                return Math.sin(rad);
+            return tabulatedSin(rad);
+        }
+
+        @Override
+        public double cos(double rad) {
+            if (!(Math.abs(rad) <= MAX_TABULATED_ANGLE))
+                return Math.cos(rad);
+            return tabulatedSin(rad + PI / 2);
+        }
+
+        @Override
+        public double asin(double x) {
+            if (Math.abs(x) > 1) // P.ex. dépassement dû aux erreurs du mode rapide
+                return Math.abs(x) <= 1 + MAX_FAST_ERROR ? Math.copySign(PI / 2, x) : Double.NaN;
+            return atan2(x, Math.sqrt((1 - x) * (1 + x)));
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            double absX = Math.abs(x);
+            double absY = Math.abs(y);
+            // Les valeurs non finies et les zéros (signés) sont confiés à Math
+            if (!(absX + absY < Double.POSITIVE_INFINITY) || absX + absY == 0)
+                return Math.atan2(y, x);
+
+            double a = absY <= absX
+                    ? tabulatedAtan(absY / absX)
+                    : PI / 2 - tabulatedAtan(absX / absY);
+            if (x < 0)
+                a = PI - a;
+            return Math.copySign(a, y);
+        }
+    };
+
+    /**
+     * Erreur maximale des fonctions du mode rapide par rapport à celles du mode exact
+     */
+    public final static double MAX_FAST_ERROR = 1e-6;
+
+    private final static int SIN_TABLE_SIZE = 4096; // Puissance de deux, par tour
+    private final static double SIN_STEPS_PER_RAD = SIN_TABLE_SIZE / TAU;
+    private final static double[] SIN_TABLE = sinTable();
+    private final static int ATAN_TABLE_SIZE = 1024; // Sur [0, 1]
+    private final static double[] ATAN_TABLE = atanTable();
+    private final static double MAX_TABULATED_ANGLE = 1e6;
+
+    /**
+     * Méthode qui retourne le sinus de l'angle donné.
+     *
+     * @param rad l'angle, en radians
+     * @return le sinus de l'angle
+     */
+    public abstract double sin(double rad);
+
+    /**
+     * Méthode qui retourne le cosinus de l'angle donné.
+     *
+     * @param rad l'angle, en radians
+     * @return le cosinus de l'angle
+     */
+    public abstract double cos(double rad);
+
+    /**
+     * Méthode qui retourne l'arc sinus du nombre donné, compris dans l'intervalle [-π/2, π/2],
+     * ou NaN si le nombre n'est pas compris dans [-1, 1]. En mode rapide, un nombre qui
+     * dépasse cet intervalle d'au plus MAX_FAST_ERROR — p.ex. un sinus calculé à partir de
+     * valeurs approchées — a pour arc sinus ±π/2.
+     *
+     * @param x le nombre
+     * @return l'arc sinus du nombre, en radians
+     */
+    public abstract double asin(double x);
+
+    /**
+     * Méthode qui retourne l'angle, compris dans l'intervalle [-π, π], du point de
+     * coordonnées cartésiennes (x, y), comme Math.atan2.
+     *
+     * @param y l'ordonnée du point
+     * @param x l'abscisse du point
+     * @return l'angle du point, en radians
+     */
+    public abstract double atan2(double y, double x);
+
+    /**
+     * Méthode statique privée qui retourne le sinus de l'angle donné, de valeur absolue au
+     * plus MAX_TABULATED_ANGLE, par interpolation linéaire dans la table des sinus. L'erreur
+     * d'interpolation est au plus h²/8, h étant le pas de la table, soit 3e-7.
+     *
+     * @param rad l'angle, en radians
+     * @return le sinus approché de l'angle
+     */
+    private static double tabulatedSin(double rad) {
+        double t = rad * SIN_STEPS_PER_RAD;
+        double floor = Math.floor(t);
+        int i = (int) ((long) floor & (SIN_TABLE_SIZE - 1));
+        double s0 = SIN_TABLE[i];
+        return s0 + (t - floor) * (SIN_TABLE[i + 1] - s0);
+    }
+
+    /**
+     * Méthode statique privée qui retourne l'arc tangente du nombre donné, compris dans
+     * l'intervalle [0, 1], par interpolation linéaire dans la table des arcs tangentes.
+     * L'erreur d'interpolation est au plus 0.65·h²/8, h étant le pas de la table, soit 8e-8.
+     *
+     * @param x le nombre, compris dans [0, 1]
+     * @return l'arc tangente approché du nombre, en radians
+     */
+    private static double tabulatedAtan(double x) {
+        double t = x * ATAN_TABLE_SIZE;
+        int i = Math.min((int) t, ATAN_TABLE_SIZE - 1);
+        double a0 = ATAN_TABLE[i];
+        return a0 + (t - i) * (ATAN_TABLE[i + 1] - a0);
+    }
+
+    /**
+     * Méthode statique privée qui calcule la table des sinus : SIN_TABLE_SIZE + 1 valeurs
+     * régulièrement espacées sur un tour, la dernière évitant tout cas particulier lors de
+     * l'interpolation.
+     *
+     * @return la table des sinus
+     */
+    private static double[] sinTable() {
+        double[] table = new double[SIN_TABLE_SIZE + 1];
+        for (int i = 0; i <= SIN_TABLE_SIZE; i++)
+            table[i] = Math.sin(i * TAU / SIN_TABLE_SIZE);
+        return table;
+    }
+
+    /**
+     * Méthode statique privée qui calcule la table des arcs tangentes : ATAN_TABLE_SIZE + 1
+     * valeurs régulièrement espacées sur [0, 1].
+     *
+     * @return la table des arcs tangentes
+     */
+    private static double[] atanTable() {
+        double[] table = new double[ATAN_TABLE_SIZE + 1];
+        for (int i = 0; i <= ATAN_TABLE_SIZE; i++)
+            table[i] = Math.atan((double) i / ATAN_TABLE_SIZE);
+        return table;
+    }
+}
@@ -2,10 +2,13 @@ package ch.epfl.rigel.astronomy;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,4 +88,24 @@ public class MyAsterismLoaderTest {
             }
         }
     }
+
+    @Test
+    void asterismLoaderDecompressesGzipStreams() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (InputStream asterismStream = getClass().getResourceAsStream(ASTERISMS_CATALOGUE);
+             GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            asterismStream.transferTo(gzip);
+        }
+
+        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME);
+             InputStream asterismStream = getClass().getResourceAsStream(ASTERISMS_CATALOGUE)) {
+            StarCatalogue.Builder builder = new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE);
+            int nbAsterisms = builder.loadFrom(asterismStream, AsterismLoader.INSTANCE)
+                    .asterisms().size();
+
+            builder.loadFrom(new ByteArrayInputStream(compressed.toByteArray()), AsterismLoader.INSTANCE);
+            assertEquals(2 * nbAsterisms, builder.asterisms().size());
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyCatalogueProjectionTest {
+
+    private final static int SIZE = 20_001;
+
+    @Test
+    void allStarsAreProjectedInCatalogueOrder() {
+        StarCatalogue catalogue = randomCatalogue();
+        HorizontalCoordinates center = HorizontalCoordinates.ofDeg(277, -23);
+        StereographicProjection projection = new StereographicProjection(center);
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                ZonedDateTime.parse("2020-02-17T20:15+01:00"), GeographicCoordinates.ofDeg(6.57, 46.52));
+
+        double[] sequential = CatalogueProjection.projectAll(catalogue, equToHrz, projection, Integer.MAX_VALUE);
+        double[] parallel = new double[2 * SIZE + 4];
+        CatalogueProjection.projectAll(catalogue, equToHrz, projection, 1, parallel);
+        assertEquals(2 * SIZE, sequential.length);
+        for (int i = 0; i < 2 * SIZE; i++)
+            assertEquals(sequential[i], parallel[i]);
+        assertEquals(0, parallel[2 * SIZE]);
+
+        for (int i = 0; i < SIZE; i++) {
+            HorizontalCoordinates hor = equToHrz.apply(EquatorialCoordinates.of(
+                    catalogue.starRa(i), catalogue.starDec(i)));
+            if (hor.angularDistanceTo(center) > 3) // Trop près de l'antipode du centre
+                continue;
+            CartesianCoordinates expected = projection.apply(hor);
+            double tolerance = 1e-9 * Math.max(1, Math.hypot(expected.x(), expected.y()));
+            assertEquals(expected.x(), sequential[2 * i], tolerance);
+            assertEquals(expected.y(), sequential[2 * i + 1], tolerance);
+        }
+    }
+
+    @Test
+    void projectAllFailsOnInvalidArguments() {
+        StarCatalogue catalogue = randomCatalogue();
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.of(0, 0));
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                ZonedDateTime.parse("2020-02-17T20:15+01:00"), GeographicCoordinates.ofDeg(6.57, 46.52));
+        assertThrows(IllegalArgumentException.class,
+                () -> CatalogueProjection.projectAll(catalogue, equToHrz, projection, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> CatalogueProjection.projectAll(catalogue, equToHrz, projection, 1, new double[2 * SIZE - 1]));
+    }
+
+    private static StarCatalogue randomCatalogue() {
+        SplittableRandom random = new SplittableRandom(25);
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        for (int i = 0; i < SIZE; i++) {
+            builder.addStar(i + 1, "? Ori",
+                    random.nextDouble(0, 2 * Math.PI),
+                    Math.asin(random.nextDouble(-1, 1)),
+                    (float) random.nextDouble(-1, 12),
+                    (float) random.nextDouble(-0.5, 5.5));
+        }
+        return new StarCatalogue(builder.stars(), List.of());
+    }
+}
@@ -0,0 +1,136 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyCatalogueSnapshotTest {
+
+    private static StarCatalogue smallCatalogue() {
+        Star s1 = new Star(1, "Etoile1", EquatorialCoordinates.of(0.5, 0.1), -1f, 1f);
+        Star s2 = new Star(2, "Étoile2", EquatorialCoordinates.of(1.5, -0.3), 2.5f, 0.2f);
+        Star s3 = new Star(3, "Etoile3", EquatorialCoordinates.of(3, 1.2), 4f, -0.4f);
+        return new StarCatalogue(List.of(s1, s2, s3), List.of(new Asterism(List.of(s3, s1))));
+    }
+
+    @Test
+    void snapshotRoundTripPreservesCatalogue() throws IOException {
+        StarCatalogue catalogue = smallCatalogue();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogueSnapshot.write(catalogue, 1234, out);
+
+        StarCatalogue loaded = new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream(out.toByteArray()), CatalogueSnapshot.INSTANCE)
+                .build();
+
+        assertEquals(catalogue.starCount(), loaded.starCount());
+        for (int i = 0; i < catalogue.starCount(); i++) {
+            Star expected = catalogue.stars().get(i);
+            Star actual = loaded.stars().get(i);
+            assertEquals(expected.name(), actual.name());
+            assertEquals(expected.hipparcosId(), actual.hipparcosId());
+            assertEquals(expected.equatorialPos().ra(), actual.equatorialPos().ra());
+            assertEquals(expected.equatorialPos().dec(), actual.equatorialPos().dec());
+            assertEquals(expected.magnitude(), actual.magnitude());
+            assertEquals(expected.colorTemperature(), actual.colorTemperature());
+            assertEquals(catalogue.table().unitXColumn()[i], loaded.table().unitXColumn()[i]);
+            assertEquals(catalogue.table().unitYColumn()[i], loaded.table().unitYColumn()[i]);
+            assertEquals(catalogue.table().unitZColumn()[i], loaded.table().unitZColumn()[i]);
+        }
+        Asterism asterism = loaded.asterisms().iterator().next();
+        assertEquals(List.of(2, 0), loaded.asterismIndices(asterism));
+        assertSame(loaded.stars().get(2), asterism.stars().get(0));
+    }
+
+    @Test
+    void loaderThrowsExceptionOnInvalidSnapshot() {
+        assertThrows(IOException.class, () -> new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream(new byte[] {1, 2, 3}), CatalogueSnapshot.INSTANCE));
+    }
+
+    @Test
+    void loadIfUpToDateUsesSnapshotOnlyWhenChecksumMatches(@TempDir Path directory) {
+        Path snapshotFile = directory.resolve("catalogue.snapshot");
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(snapshotFile, 1).isEmpty());
+
+        CatalogueSnapshot.save(snapshotFile, 1, smallCatalogue());
+        assertTrue(Files.isRegularFile(snapshotFile));
+        StarCatalogue fromSnapshot = CatalogueSnapshot.loadIfUpToDate(snapshotFile, 1).orElseThrow();
+        assertEquals(3, fromSnapshot.starCount());
+        assertEquals("Étoile2", fromSnapshot.starName(1));
+
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(snapshotFile, 2).isEmpty());
+    }
+
+    @Test
+    void loadIfUpToDateIgnoresCorruptedSnapshot(@TempDir Path directory) throws IOException {
+        Path snapshotFile = directory.resolve("catalogue.snapshot");
+        Files.write(snapshotFile, new byte[] {1, 2, 3, 4});
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(snapshotFile, 1).isEmpty());
+    }
+
+    @Test
+    void loadIfUpToDateRejectsCorruptedCountsWithIntactHeader(@TempDir Path directory) throws IOException {
+        Path snapshotFile = directory.resolve("catalogue.snapshot");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogueSnapshot.write(smallCatalogue(), 1, out);
+        byte[] snapshot = out.toByteArray();
+        int starCountOffset = 2*Integer.BYTES + Long.BYTES;
+
+        for (int count : new int[] {Integer.MAX_VALUE, 1 << 28, -1}) {
+            byte[] corrupted = snapshot.clone();
+            ByteBuffer.wrap(corrupted).putInt(starCountOffset, count);
+            Files.write(snapshotFile, corrupted);
+            assertTrue(CatalogueSnapshot.loadIfUpToDate(snapshotFile, 1).isEmpty());
+        }
+
+        Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length - 5));
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(snapshotFile, 1).isEmpty());
+        Files.write(snapshotFile, snapshot);
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(snapshotFile, 1).isPresent());
+    }
+
+    @Test
+    void snapshotFilesAreKeyedBySourceChecksum(@TempDir Path directory) throws IOException {
+        Path first = CatalogueSnapshot.snapshotFile(directory, 1);
+        Path second = CatalogueSnapshot.snapshotFile(directory, 0xFFFF_FFFFL);
+        assertNotEquals(first, second);
+        assertEquals(directory, first.getParent());
+
+        CatalogueSnapshot.save(first, 1, smallCatalogue());
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(first, 1).isPresent());
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(second, 0xFFFF_FFFFL).isEmpty());
+    }
+
+    @Test
+    void saveDeletesOtherSnapshots(@TempDir Path directory) throws IOException {
+        Path first = CatalogueSnapshot.snapshotFile(directory, 1);
+        Path second = CatalogueSnapshot.snapshotFile(directory, 2);
+        Path unrelated = directory.resolve("autre.txt");
+        Files.write(unrelated, new byte[] {1});
+
+        CatalogueSnapshot.save(first, 1, smallCatalogue());
+        CatalogueSnapshot.save(second, 2, smallCatalogue());
+        assertFalse(Files.exists(first));
+        assertTrue(CatalogueSnapshot.loadIfUpToDate(second, 2).isPresent());
+        assertTrue(Files.exists(unrelated));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.rigel.math.ClosedInterval;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static java.lang.Math.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyEphemerisCacheTest {
+
+    private final static double MAX_ERROR = Angle.ofArcsec(1);
+    private final static EclipticToEquatorialConversion CONVERSION =
+            new EclipticToEquatorialConversion(ZonedDateTime.parse("2020-02-17T20:15Z"));
+
+    @Test
+    void cachedBodiesMatchTheExactModels() {
+        SolarSystemModel cached = SolarSystemModel.cached(MAX_ERROR);
+        SolarSystemModel exact = SolarSystemModel.EXACT;
+
+        // Une animation accélérée, sur une centaine de jours
+        for (double days = 3700; days < 3800; days += 0.37) {
+            Sun sun = cached.sun().at(days, CONVERSION);
+            Sun exactSun = exact.sun().at(days, CONVERSION);
+            assertClose(exactSun.equatorialPos(), sun.equatorialPos());
+            assertEquals(exactSun.meanAnomaly(), sun.meanAnomaly(), 1e-5);
+            assertEquals(exactSun.angularSize(), sun.angularSize(), MAX_ERROR);
+
+            Moon moon = cached.moon().at(days, CONVERSION);
+            Moon exactMoon = exact.moon().at(days, CONVERSION);
+            assertClose(exactMoon.equatorialPos(), moon.equatorialPos());
+            assertEquals(exactMoon.phase(), moon.phase(), 1e-3);
+
+            for (int i = 0; i < exact.planets().size(); i++) {
+                Planet planet = cached.planets().get(i).at(days, CONVERSION);
+                Planet exactPlanet = exact.planets().get(i).at(days, CONVERSION);
+                assertEquals(exactPlanet.name(), planet.name());
+                assertClose(exactPlanet.equatorialPos(), planet.equatorialPos());
+                assertEquals(exactPlanet.angularSize(), planet.angularSize(), MAX_ERROR);
+                assertEquals(exactPlanet.magnitude(), planet.magnitude(), 1e-2);
+            }
+        }
+    }
+
+    @Test
+    void cacheRefitsWhenLeavingItsWindow() {
+        EphemerisCache<Moon> moon = EphemerisCache.ofMoon(MAX_ERROR);
+        assertNull(moon.coveredInterval());
+
+        moon.at(100, CONVERSION);
+        ClosedInterval first = moon.coveredInterval();
+        assertTrue(first.contains(100));
+
+        moon.at((100 + first.high()) / 2, CONVERSION);
+        assertSame(first, moon.coveredInterval());
+
+        moon.at(first.high() + 1, CONVERSION);
+        assertNotSame(first, moon.coveredInterval());
+        assertTrue(moon.coveredInterval().contains(first.high() + 1));
+
+        moon.at(-5000, CONVERSION);
+        assertTrue(moon.coveredInterval().contains(-5000));
+        assertThrows(IllegalArgumentException.class, () -> EphemerisCache.ofSun(0));
+    }
+
+    @Test
+    void cachedModelsCanBeUsedForTheHorizontalSky() {
+        StarCatalogue catalogue = new StarCatalogue(List.of(), List.of());
+        ZonedDateTime when = ZonedDateTime.parse("2020-02-17T20:15+01:00");
+        GeographicCoordinates where = GeographicCoordinates.ofDeg(6.57, 46.52);
+
+        HorizontalSky exact = new HorizontalSky(when, where, catalogue);
+        HorizontalSky cached = new HorizontalSky(when, where, catalogue, Double.POSITIVE_INFINITY,
+                Integer.MAX_VALUE, SolarSystemModel.cached(MAX_ERROR));
+        assertEquals(exact.moonHorizontalPos().az(), cached.moonHorizontalPos().az(), 2 * MAX_ERROR);
+        assertEquals(exact.planets().get(3).name(), cached.planets().get(3).name());
+    }
+
+    private static void assertClose(EquatorialCoordinates expected, EquatorialCoordinates actual) {
+        double cos = sin(expected.dec()) * sin(actual.dec())
+                + cos(expected.dec()) * cos(actual.dec()) * cos(expected.ra() - actual.ra());
+        assertTrue(acos(min(1, cos)) <= 2 * MAX_ERROR);
+    }
+}
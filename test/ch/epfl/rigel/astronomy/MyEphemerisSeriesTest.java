@@ -0,0 +1,99 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyEphemerisSeriesTest {
+
+    private final static ZonedDateTime START = ZonedDateTime.parse("2020-02-17T20:15+01:00");
+    private final static ZonedDateTime END = START.plusDays(30);
+    private final static Duration STEP = Duration.ofMinutes(37);
+    private final static GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private final static List<CelestialObjectModel<? extends CelestialObject>> MODELS =
+            List.of(SunModel.SUN, MoonModel.MOON, PlanetModel.JUPITER);
+
+    @Test
+    void seriesMatchesTheModels() {
+        EphemerisSeries series = EphemerisSeries.compute(MODELS, START, END, STEP, WHERE);
+        assertEquals(30 * 24 * 60 / 37 + 1, series.size());
+        assertEquals(3, series.objectCount());
+        assertEquals(0, series.firstInstant());
+        assertTrue(series.hasHorizontalCoordinates());
+
+        for (int k = 0; k < series.size(); k += 113) {
+            ZonedDateTime when = START.plus(STEP.multipliedBy(k));
+            assertEquals(when, series.instant(k));
+            double days = Epoch.J2010.daysUntil(when);
+            EclipticToEquatorialConversion eclToEqu = new EclipticToEquatorialConversion(when);
+            EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(when, WHERE);
+            for (int b = 0; b < MODELS.size(); b++) {
+                CelestialObject object = MODELS.get(b).at(days, eclToEqu);
+                HorizontalCoordinates hor = equToHrz.apply(object.equatorialPos());
+                assertEquals(object.equatorialPos().ra(), series.ra(b, k));
+                assertEquals(object.equatorialPos().dec(), series.dec(b, k));
+                assertEquals(hor.az(), series.az(b, k));
+                assertEquals(hor.alt(), series.alt(b, k));
+                assertEquals(series.alt(b, k), series.alt(b)[k]);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> series.ra(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.dec(0, series.size()));
+    }
+
+    @Test
+    void streamedChunksMatchTheWholeSeries() {
+        EphemerisSeries whole = EphemerisSeries.compute(MODELS, START, END, STEP);
+        assertFalse(whole.hasHorizontalCoordinates());
+        assertThrows(IllegalStateException.class, () -> whole.az(0, 0));
+
+        List<EphemerisSeries> chunks = new ArrayList<>();
+        EphemerisSeries.stream(MODELS, START, END, STEP, 100, chunks::add);
+
+        int next = 0;
+        for (EphemerisSeries chunk : chunks) {
+            assertEquals(next, chunk.firstInstant());
+            assertTrue(chunk.size() <= 100);
+            for (int k = 0; k < chunk.size(); k++) {
+                assertEquals(whole.instant(next + k), chunk.instant(k));
+                for (int b = 0; b < MODELS.size(); b++)
+                    assertEquals(whole.dec(b, next + k), chunk.dec(b, k));
+            }
+            next += chunk.size();
+        }
+        assertEquals(whole.size(), next);
+    }
+
+    @Test
+    void invalidRangesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EphemerisSeries.compute(MODELS, END, START, STEP));
+        assertThrows(IllegalArgumentException.class, () -> EphemerisSeries.compute(MODELS, START, END, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> EphemerisSeries.stream(MODELS, START, END, STEP, 0, chunk -> {}));
+        assertEquals(1, EphemerisSeries.compute(MODELS, START, START, STEP).size());
+    }
+
+    @Test
+    void tooManyObjectInstantPairsAreRejected() {
+        // 2¹¹ objets à 2²⁰ instants : 2³¹ couples objet-instant
+        List<SunModel> models = Collections.nCopies(1 << 11, SunModel.SUN);
+        ZonedDateTime end = START.plus(Duration.ofMillis((1 << 20) - 1));
+        Duration step = Duration.ofMillis(1);
+        assertThrows(IllegalArgumentException.class, () -> EphemerisSeries.compute(models, START, end, step));
+        assertThrows(IllegalArgumentException.class,
+                () -> EphemerisSeries.stream(models, START, end, step, 1 << 20, chunk -> fail()));
+    }
+}
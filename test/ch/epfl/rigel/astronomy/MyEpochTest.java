@@ -95,4 +95,20 @@ public class MyEpochTest {
         double expected = 1. + 2./NB_DAYS_IN_CENTURY + 18./NB_HOURS_IN_CENTURY + 10./NB_MINUTES_IN_CENTURY;
         assertEquals(expected, Epoch.J2010.julianCenturiesUntil(d), 1e-10);
     }
+
+    @Test
+    void untilWorksWithEpochMillisLikeWithZonedDateTime() {
+        ZonedDateTime[] moments = {
+                ZonedDateTime.parse("2020-02-17T20:15:12.345+01:00"),
+                ZonedDateTime.parse("1980-04-22T14:36:51.670Z"),
+                ZonedDateTime.parse("1492-10-12T06:00Z")
+        };
+        for (ZonedDateTime when : moments) {
+            long millis = when.toInstant().toEpochMilli();
+            for (Epoch epoch : Epoch.values()) {
+                assertEquals(epoch.daysUntil(when), epoch.daysUntil(millis));
+                assertEquals(epoch.julianCenturiesUntil(when), epoch.julianCenturiesUntil(millis));
+            }
+        }
+    }
 }
@@ -0,0 +1,176 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static java.lang.Math.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyHealpixIndexTest {
+
+    private final static String HYG_CATALOGUE_NAME = "/hygdata_v3.csv";
+
+    private final StarCatalogue catalogue;
+
+    MyHealpixIndexTest() throws IOException {
+        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME)) {
+            catalogue = new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
+                    .build();
+        }
+    }
+
+    @Test
+    void cellCentersLieInTheirCells() {
+        double[] center = new double[3];
+        for (int k = 0; k <= 5; k++) {
+            for (int cell = 0; cell < HealpixIndex.cellCount(k); cell++) {
+                HealpixIndex.cellCenter(k, cell, center);
+                assertEquals(cell, HealpixIndex.cellOf(k, center[0], center[1], center[2]));
+            }
+        }
+    }
+
+    @Test
+    void pointsAreWithinMaxCellRadiusOfTheirCellCenter() {
+        SplittableRandom rng = new SplittableRandom(2020);
+        double[] center = new double[3];
+        for (int i = 0; i < 100_000; i++) {
+            double[] v = randomUnitVector(rng);
+            for (int k = 0; k <= 8; k++) {
+                HealpixIndex.cellCenter(k, HealpixIndex.cellOf(k, v[0], v[1], v[2]), center);
+                double distance = acos(min(1, v[0]*center[0] + v[1]*center[1] + v[2]*center[2]));
+                assertTrue(distance <= HealpixIndex.maxCellRadius(k) + 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void cellsHaveEqualAreas() {
+        SplittableRandom rng = new SplittableRandom(17);
+        int k = 1;
+        int[] counts = new int[HealpixIndex.cellCount(k)];
+        int perCell = 2500;
+        for (int i = 0; i < perCell * counts.length; i++) {
+            double[] v = randomUnitVector(rng);
+            counts[HealpixIndex.cellOf(k, v[0], v[1], v[2])] += 1;
+        }
+        for (int count : counts)
+            assertEquals(perCell, count, 5 * sqrt(perCell));
+    }
+
+    @Test
+    void indexContainsEveryStarOnce() {
+        HealpixIndex index = catalogue.spatialIndex();
+        assertSame(index, catalogue.spatialIndex());
+        int[] stars = new int[index.size()];
+        for (int position = 0; position < index.size(); position++)
+            stars[position] = index.starAt(position);
+        Arrays.sort(stars);
+
+        assertEquals(catalogue.starCount(), stars.length);
+        for (int i = 0; i < stars.length; i++)
+            assertEquals(i, stars[i]);
+
+        int[] range = index.cellRange(EquatorialCoordinates.of(catalogue.starRa(42), catalogue.starDec(42)));
+        assertTrue(containsStar(index, range, 42));
+    }
+
+    @Test
+    void coneQueryReturnsEveryStarOfTheCone() {
+        HealpixIndex index = catalogue.spatialIndex();
+        SplittableRandom rng = new SplittableRandom(5);
+        for (int q = 0; q < 50; q++) {
+            EquatorialCoordinates center = EquatorialCoordinates.of(
+                    rng.nextDouble(0, 2 * PI), asin(rng.nextDouble(-1, 1)));
+            double radius = rng.nextDouble(0, 0.6);
+            int[] ranges = index.coneQuery(center, radius);
+            assertRangesAreSortedAndDisjoint(ranges);
+
+            int nbCandidates = 0;
+            for (int r = 0; r < ranges.length; r += 2)
+                nbCandidates += ranges[r + 1] - ranges[r];
+            assertTrue(nbCandidates < catalogue.starCount() || radius > 0.5);
+
+            for (int i = 0; i < catalogue.starCount(); i++) {
+                if (angularDistance(center, catalogue.starRa(i), catalogue.starDec(i)) <= radius)
+                    assertTrue(containsStar(index, ranges, i));
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> index.coneQuery(EquatorialCoordinates.of(0, 0), -1));
+    }
+
+    @Test
+    void polygonQueryReturnsEveryStarOfThePolygon() {
+        HealpixIndex index = catalogue.spatialIndex();
+        List<EquatorialCoordinates> square = List.of(
+                EquatorialCoordinates.of(1.0, -0.3),
+                EquatorialCoordinates.of(1.6, -0.3),
+                EquatorialCoordinates.of(1.6, 0.3),
+                EquatorialCoordinates.of(1.0, 0.3));
+        int[] ranges = index.polygonQuery(square);
+        assertRangesAreSortedAndDisjoint(ranges);
+        assertArrayEquals(ranges, index.polygonQuery(List.of(
+                square.get(3), square.get(2), square.get(1), square.get(0))));
+
+        int nbInside = 0;
+        for (int i = 0; i < catalogue.starCount(); i++) {
+            if (insideSquare(catalogue.starRa(i), catalogue.starDec(i))) {
+                nbInside++;
+                assertTrue(containsStar(index, ranges, i));
+            }
+        }
+        assertTrue(nbInside > 0);
+
+        assertThrows(IllegalArgumentException.class, () -> index.polygonQuery(square.subList(0, 2)));
+        assertThrows(IllegalArgumentException.class, () -> index.polygonQuery(List.of(
+                square.get(0), square.get(2), square.get(1), square.get(3))));
+    }
+
+    private static boolean insideSquare(double ra, double dec) {
+        // Les côtés en ascension droite sont des méridiens ; ceux en déclinaison ne sont pas
+        // des grands cercles, on se restreint donc à une bande intérieure sûre
+        return ra > 1.0 && ra < 1.6 && abs(dec) < 0.28;
+    }
+
+    private static double[] randomUnitVector(SplittableRandom rng) {
+        double z = rng.nextDouble(-1, 1);
+        double phi = rng.nextDouble(0, 2 * PI);
+        double r = sqrt(1 - z * z);
+        return new double[]{r * cos(phi), r * sin(phi), z};
+    }
+
+    private static double angularDistance(EquatorialCoordinates center, double ra, double dec) {
+        double cos = sin(center.dec()) * sin(dec) + cos(center.dec()) * cos(dec) * cos(ra - center.ra());
+        return acos(max(-1, min(1, cos)));
+    }
+
+    private static boolean containsStar(HealpixIndex index, int[] ranges, int star) {
+        for (int r = 0; r < ranges.length; r += 2) {
+            for (int position = ranges[r]; position < ranges[r + 1]; position++) {
+                if (index.starAt(position) == star)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertRangesAreSortedAndDisjoint(int[] ranges) {
+        assertEquals(0, ranges.length % 2);
+        for (int r = 0; r < ranges.length; r += 2) {
+            assertTrue(ranges[r] < ranges[r + 1]);
+            if (r > 0)
+                assertTrue(ranges[r - 1] < ranges[r]);
+        }
+    }
+}
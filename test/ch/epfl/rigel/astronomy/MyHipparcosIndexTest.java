@@ -0,0 +1,48 @@
+package ch.epfl.rigel.astronomy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyHipparcosIndexTest {
+
+    @Test
+    void indexBehavesLikeAMap() {
+        SplittableRandom rng = new SplittableRandom(2020);
+        HipparcosIndex index = new HipparcosIndex(0);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            int hipparcosId = rng.nextInt(200_000);
+            index.put(hipparcosId, i);
+            expected.put(hipparcosId, i);
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (int hipparcosId = 0; hipparcosId < 200_000; hipparcosId++)
+            assertEquals((int) expected.getOrDefault(hipparcosId, HipparcosIndex.ABSENT), index.get(hipparcosId));
+    }
+
+    @Test
+    void indexOfTableKeepsLastStarWithSameId() {
+        StarTable table = new StarTable();
+        table.add(5, "A", 0, 0, 0f, 6000);
+        table.add(0, "B", 0, 0, 0f, 6000);
+        table.add(5, "C", 0, 0, 0f, 6000);
+        HipparcosIndex index = HipparcosIndex.of(table);
+
+        assertEquals(2, index.get(5));
+        assertEquals(1, index.get(0));
+        assertEquals(HipparcosIndex.ABSENT, index.get(7));
+
+        table.add(7, "D", 0, 0, 0f, 6000);
+        index.putAll(table, 3);
+        assertEquals(3, index.get(7));
+    }
+}
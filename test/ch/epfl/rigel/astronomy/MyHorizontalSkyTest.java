@@ -0,0 +1,106 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyHorizontalSkyTest {
+
+    private final static String HYG_CATALOGUE_NAME = "/hygdata_v3.csv";
+    private final static String ASTERISMS_CATALOGUE = "/asterisms.txt";
+    private final static double DELTA = 1e-9;
+
+    private final ZonedDateTime when = ZonedDateTime.parse("2020-02-17T20:15+01:00");
+    private final GeographicCoordinates where = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private final StarCatalogue catalogue;
+
+    MyHorizontalSkyTest() throws IOException {
+        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME);
+             InputStream asterismStream = getClass().getResourceAsStream(ASTERISMS_CATALOGUE)) {
+            catalogue = new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
+                    .loadFrom(asterismStream, AsterismLoader.INSTANCE)
+                    .build();
+        }
+    }
+
+    @Test
+    void starDirectionsMatchHorizontalCoordinates() {
+        HorizontalSky sky = new HorizontalSky(when, where, catalogue);
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(when, where);
+
+        int[] indices = sky.computedStarIndices();
+        assertEquals(catalogue.starCount(), indices.length);
+        for (int k = 0; k < indices.length; k++) {
+            int i = indices[k];
+            HorizontalCoordinates hor = equToHrz.apply(
+                    EquatorialCoordinates.of(catalogue.starRa(i), catalogue.starDec(i)));
+            assertEquals(sin(hor.alt()), sky.starUpColumn()[k], DELTA);
+            assertEquals(cos(hor.alt()) * cos(hor.az()), sky.starNorthColumn()[k], DELTA);
+            assertEquals(cos(hor.alt()) * sin(hor.az()), sky.starEastColumn()[k], DELTA);
+        }
+        assertEquals(equToHrz.apply(sky.sun().equatorialPos()).alt(), sky.sunHorizontalPos().alt());
+    }
+
+    @Test
+    void fainterAsterismStarsAreComputedOnce() {
+        HorizontalSky sky = new HorizontalSky(when, where, catalogue, 2, Integer.MAX_VALUE);
+
+        int[] indices = sky.computedStarIndices();
+        assertEquals(indices.length, Arrays.stream(indices).distinct().count());
+        assertEquals(catalogue.starsBrighterThan(2), sky.starIndices().length);
+        for (Asterism asterism : catalogue.asterisms()) {
+            for (int i : catalogue.asterismIndices(asterism))
+                assertTrue(Arrays.stream(indices).anyMatch(j -> j == i));
+        }
+    }
+
+    @Test
+    void reprojectingGivesSameSkyAsFullComputation() {
+        HorizontalSky horizontalSky = new HorizontalSky(when, where, catalogue, 5, 1);
+        for (double az = 0; az < 6; az += 1.5) {
+            StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.of(az, 0.3));
+            ObservedSky reprojected = new ObservedSky(horizontalSky, projection, Double.POSITIVE_INFINITY,
+                    Math.PI, Integer.MAX_VALUE);
+            ObservedSky computed = new ObservedSky(when, where, projection, catalogue, 5, Integer.MAX_VALUE);
+
+            assertArrayEquals(computed.starPositions(), reprojected.starPositions());
+            assertArrayEquals(computed.planetPositions(), reprojected.planetPositions());
+            assertEquals(computed.sunPosition().x(), reprojected.sunPosition().x());
+            assertEquals(computed.moonPosition().y(), reprojected.moonPosition().y());
+            assertSame(horizontalSky.sun(), reprojected.sun());
+        }
+    }
+
+    @Test
+    void limitingMagnitudeOfObservedSkyGivesSameSkyAsFainterHorizontalSky() {
+        HorizontalSky faintSky = new HorizontalSky(when, where, catalogue, 8, 1);
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.of(2, 0.3));
+        for (double magnitude : new double[] {3, 5.5, 8, 12}) {
+            HorizontalSky sky = new HorizontalSky(when, where, catalogue, Math.min(magnitude, 8), 1);
+            for (double viewRadius : new double[] {0.8, Math.PI}) {
+                ObservedSky expected = new ObservedSky(sky, projection, Double.POSITIVE_INFINITY, viewRadius, 1);
+                ObservedSky actual = new ObservedSky(faintSky, projection, magnitude, viewRadius, 1);
+
+                assertArrayEquals(expected.starIndices(), actual.starIndices());
+                assertArrayEquals(expected.visibleStarIndices(), actual.visibleStarIndices());
+                assertArrayEquals(expected.starPositions(), actual.starPositions());
+            }
+        }
+    }
+}
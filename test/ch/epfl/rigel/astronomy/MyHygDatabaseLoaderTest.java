@@ -2,8 +2,17 @@ package ch.epfl.rigel.astronomy;
 
 import org.junit.jupiter.api.Test;
 
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -73,4 +82,99 @@ public class MyHygDatabaseLoaderTest {
             assertEquals(-0.14314563, rigel.equatorialPos().dec(), DELTA);
         }
     }
+
+    @Test
+    void loaderHandlesWindowsLineEndingsAndStopsAtBlankLine() throws IOException {
+        String header = "id,hip,hd,hr,gl,bf,proper,ra,dec,dist,pmra,pmdec,rv,mag,absmag,spect,ci,x,y,z,vx,vy,vz,rarad,decrad,pmrarad,pmdecrad,bayer,flam,con,comp,comp_primary,base,lum,var,var_min,var_max";
+        String line = "1,42,,,,,,,,,,,,-1.25,,,0.4,,,,,,,0.1234567890123456789,-1.5E-1,,,Alp,,Ori,,,,,,,";
+        String content = header + "\r\n" + line + "\r\n \r\n" + line + "\r\n";
+        StarCatalogue catalogue = new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII)),
+                        HygDatabaseLoader.INSTANCE)
+                .build();
+
+        assertEquals(1, catalogue.starCount());
+        Star star = catalogue.stars().get(0);
+        assertEquals("Alp Ori", star.name());
+        assertEquals(42, star.hipparcosId());
+        assertEquals((float) -1.25, star.magnitude());
+        assertEquals(Double.parseDouble("0.1234567890123456789"), star.equatorialPos().ra());
+        assertEquals(-0.15, star.equatorialPos().dec());
+    }
+
+    @Test
+    void loaderParsesMantissasTooLongForALong() throws IOException {
+        String header = "id,hip,hd,hr,gl,bf,proper,ra,dec,dist,pmra,pmdec,rv,mag,absmag,spect,ci,x,y,z,vx,vy,vz,rarad,decrad,pmrarad,pmdecrad,bayer,flam,con,comp,comp_primary,base,lum,var,var_min,var_max";
+        String line = "1,42,,,,,,,,,,,,-1.25,,,0.4,,,,,,,0.9999999999999999999,-0.99999999999999999999,,,Alp,,Ori,,,,,,,";
+        StarCatalogue catalogue = new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream((header + "\n" + line + "\n").getBytes(StandardCharsets.US_ASCII)),
+                        HygDatabaseLoader.INSTANCE)
+                .build();
+
+        Star star = catalogue.stars().get(0);
+        assertEquals(Double.parseDouble("0.9999999999999999999"), star.equatorialPos().ra());
+        assertEquals(Double.parseDouble("-0.99999999999999999999"), star.equatorialPos().dec());
+    }
+
+    @Test
+    void parallelLoaderLoadsSameStarsInSameOrder() throws IOException {
+        StarCatalogue sequential;
+        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME)) {
+            sequential = new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
+                    .build();
+        }
+        StarCatalogue parallel;
+        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME)) {
+            parallel = new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.PARALLEL)
+                    .build();
+        }
+
+        assertEquals(sequential.starCount(), parallel.starCount());
+        for (int i = 0; i < sequential.starCount(); i++) {
+            assertEquals(sequential.starName(i), parallel.starName(i));
+            assertEquals(sequential.starHipparcosId(i), parallel.starHipparcosId(i));
+            assertEquals(sequential.starRa(i), parallel.starRa(i));
+            assertEquals(sequential.starDec(i), parallel.starDec(i));
+            assertEquals(sequential.starMagnitude(i), parallel.starMagnitude(i));
+            assertEquals(sequential.starColorTemperature(i), parallel.starColorTemperature(i));
+        }
+    }
+
+    @Test
+    void loaderDecompressesGzipStreamsAndFiles(@TempDir Path directory) throws IOException {
+        byte[] plain;
+        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME)) {
+            plain = hygStream.readAllBytes();
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(plain);
+        }
+        Path compressedFile = directory.resolve("hygdata_v3.csv.gz");
+        Files.write(compressedFile, compressed.toByteArray());
+
+        StarCatalogue expected = new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream(plain), HygDatabaseLoader.INSTANCE)
+                .build();
+        StarCatalogue fromStream = new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream(compressed.toByteArray()), HygDatabaseLoader.PARALLEL)
+                .build();
+        StarCatalogue fromFile;
+        try (InputStream fileStream = new FileInputStream(compressedFile.toFile())) {
+            fromFile = new StarCatalogue.Builder()
+                    .loadFrom(fileStream, HygDatabaseLoader.INSTANCE)
+                    .build();
+        }
+
+        for (StarCatalogue catalogue : new StarCatalogue[] {fromStream, fromFile}) {
+            assertEquals(expected.starCount(), catalogue.starCount());
+            for (int i = 0; i < expected.starCount(); i++) {
+                assertEquals(expected.starName(i), catalogue.starName(i));
+                assertEquals(expected.starRa(i), catalogue.starRa(i));
+                assertEquals(expected.starMagnitude(i), catalogue.starMagnitude(i));
+            }
+        }
+    }
 }
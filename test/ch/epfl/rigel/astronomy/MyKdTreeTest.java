@@ -0,0 +1,59 @@
+package ch.epfl.rigel.astronomy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyKdTreeTest {
+
+    @Test
+    void nearestMatchesExhaustiveSearch() {
+        SplittableRandom rng = new SplittableRandom(2020);
+        int n = 5000;
+        double[] positions = new double[2*n];
+        for (int i = 0; i < n; i++) {
+            // Quelques points dupliqués, sur une grille, et très éloignés
+            positions[2*i] = i % 7 == 0 ? 0.25 : (i % 11 == 0 ? 1e6 * rng.nextDouble(-1, 1) : rng.nextDouble(-1, 1));
+            positions[2*i + 1] = i % 5 == 0 ? Math.rint(10 * rng.nextDouble(-1, 1)) / 10 : rng.nextDouble(-1, 1);
+        }
+        positions[2*3] = Double.NaN;
+        positions[2*4 + 1] = Double.POSITIVE_INFINITY;
+        int[] indices = IntStream.range(0, n).filter(i -> i % 3 != 1).toArray();
+        KdTree tree = KdTree.of(positions, indices);
+
+        assertEquals(indices.length - 1, tree.size());
+        for (int q = 0; q < 2000; q++) {
+            double x = rng.nextDouble(-1.2, 1.2), y = rng.nextDouble(-1.2, 1.2);
+            double maxDistance = rng.nextDouble(0, 0.1);
+
+            double best = maxDistance * maxDistance;
+            for (int i : indices) {
+                double dx = positions[2*i] - x, dy = positions[2*i + 1] - y;
+                if (dx*dx + dy*dy < best)
+                    best = dx*dx + dy*dy;
+            }
+
+            int nearest = tree.nearest(x, y, maxDistance * maxDistance);
+            if (best == maxDistance * maxDistance) {
+                assertEquals(KdTree.NONE, nearest);
+            } else {
+                assertTrue(nearest % 3 != 1);
+                double dx = positions[2*nearest] - x, dy = positions[2*nearest + 1] - y;
+                assertEquals(best, dx*dx + dy*dy);
+            }
+        }
+    }
+
+    @Test
+    void emptyTreeFindsNothing() {
+        KdTree tree = KdTree.of(new double[]{Double.NaN, Double.NaN}, new int[]{0});
+        assertEquals(0, tree.size());
+        assertEquals(KdTree.NONE, tree.nearest(0, 0, Double.POSITIVE_INFINITY));
+    }
+}
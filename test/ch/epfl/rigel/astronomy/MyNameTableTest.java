@@ -0,0 +1,63 @@
+package ch.epfl.rigel.astronomy;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyNameTableTest {
+
+    private static final String HYG_CATALOGUE_NAME = "/hygdata_v3.csv";
+
+    @Test
+    void nameTableDeduplicatesNamesAndPrecomputesKeys() {
+        NameTable names = new NameTable();
+        int ori = names.idOf("? Ori");
+        int rigel = names.idOf("Rigel");
+
+        assertEquals(ori, names.idOf(new String("? Ori")));
+        assertEquals(2, names.size());
+        assertEquals("Rigel", names.name(rigel));
+        assertEquals("RIGEL", names.key(rigel));
+        assertSame(names.key(rigel), names.key(rigel));
+        assertThrows(IndexOutOfBoundsException.class, () -> names.name(2));
+        assertThrows(IllegalArgumentException.class, () -> new NameTable(new String[]{"A", "B", "A"}));
+    }
+
+    @Test
+    void starsWithSameNameShareTheirNameAndKey() {
+        StarTable table = new StarTable();
+        table.add(1, new String("? Ori"), 0, 0, 0f, 6000);
+        table.add(2, "Rigel", 0, 0, 0f, 6000);
+        table.add(3, new String("? Ori"), 0, 0, 0f, 6000);
+
+        StarTable copy = new StarTable();
+        copy.add(4, "Betelgeuse", 0, 0, 0f, 6000);
+        copy.addAll(table);
+
+        assertEquals(3, copy.names().size());
+        assertSame(copy.name(1), copy.name(3));
+        assertSame(copy.star(1).name(), copy.star(3).name());
+        assertEquals("? ORI", copy.nameKey(3));
+        assertEquals("RIGEL", copy.nameKey(2));
+        assertSame(copy.nameKey(1), copy.nameKey(3));
+    }
+
+    @Test
+    void catalogueKeysAreUpperCaseNames() throws IOException {
+        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME)) {
+            StarCatalogue catalogue = new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
+                    .build();
+
+            assertTrue(catalogue.table().names().size() < catalogue.starCount());
+            for (int i = 0; i < catalogue.starCount(); i++)
+                assertEquals(catalogue.starName(i).toUpperCase(), catalogue.starNameKey(i));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.*;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -123,4 +124,95 @@ public class MyObservedSkyTest {
         Optional<CelestialObject> closestObject = observedSky.objectClosestTo(point, 0.01);
         assertTrue(closestObject.isEmpty());
     }
+
+    @Test
+    void starColumnAccessorsMatchTheStars() {
+        ObservedSky observedSky = new ObservedSky(d, where, stereographicProjection, catalogue);
+        for (int i : observedSky.visibleStarIndices()) {
+            Star star = catalogue.stars().get(i);
+            assertEquals(star.magnitude(), observedSky.starMagnitude(i));
+            assertEquals(star.colorTemperature(), observedSky.starColorTemperature(i));
+        }
+    }
+
+    @Test
+    void limitingMagnitudeRestrictsObservedStars() {
+        ObservedSky all = new ObservedSky(d, where, stereographicProjection, catalogue);
+        ObservedSky bright = new ObservedSky(d, where, stereographicProjection, catalogue, 3, Integer.MAX_VALUE);
+
+        assertEquals(catalogue.starCount(), all.starIndices().length);
+        assertEquals(catalogue.starsBrighterThan(3), bright.starIndices().length);
+        for (int i : bright.starIndices()) {
+            assertTrue(catalogue.starMagnitude(i) < 3);
+            assertEquals(all.starPositions()[2*i], bright.starPositions()[2*i]);
+            assertEquals(all.starPositions()[2*i + 1], bright.starPositions()[2*i + 1]);
+        }
+        for (Asterism asterism : catalogue.asterisms()) {
+            for (int i : catalogue.asterismIndices(asterism))
+                assertFalse(Double.isNaN(bright.starPositions()[2*i]));
+        }
+    }
+
+    @Test
+    void parallelProjectionGivesSameStarPositions() {
+        ObservedSky sequential = new ObservedSky(d, where, stereographicProjection, catalogue);
+        ObservedSky parallel = new ObservedSky(d, where, stereographicProjection, catalogue,
+                Double.POSITIVE_INFINITY, 1);
+
+        assertArrayEquals(sequential.starIndices(), parallel.starIndices());
+        assertArrayEquals(sequential.starPositions(), parallel.starPositions());
+        assertThrows(IllegalArgumentException.class, () -> new ObservedSky(
+                d, where, stereographicProjection, catalogue, Double.POSITIVE_INFINITY, 0));
+    }
+
+    @Test
+    void epochMillisConstructorGivesSamePositionsAsZonedDateTimeConstructor() {
+        ObservedSky zoned = new ObservedSky(d, where, stereographicProjection, catalogue);
+        ObservedSky millis = new ObservedSky(TimeContext.ofEpochMillis(d.toInstant().toEpochMilli()),
+                where, stereographicProjection, catalogue, Double.POSITIVE_INFINITY, Integer.MAX_VALUE);
+
+        assertEquals(zoned.sunPosition().x(), millis.sunPosition().x());
+        assertEquals(zoned.moonPosition().y(), millis.moonPosition().y());
+        assertArrayEquals(zoned.planetPositions(), millis.planetPositions());
+        assertArrayEquals(zoned.starPositions(), millis.starPositions());
+    }
+
+    @Test
+    void viewConeCullingKeepsOnlyStarsInsideTheCone() {
+        HorizontalSky horizontalSky = new HorizontalSky(d, where, catalogue, 5, Integer.MAX_VALUE);
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(120, 30));
+        double viewRadius = Math.toRadians(40);
+        ObservedSky full = new ObservedSky(horizontalSky, projection, Double.POSITIVE_INFINITY, Math.PI,
+                Integer.MAX_VALUE);
+        ObservedSky culled = new ObservedSky(horizontalSky, projection, Double.POSITIVE_INFINITY, viewRadius, 1);
+
+        // Une étoile est dans le cône si sa projection est à moins de tan(r/2) du centre
+        double maxRadius = Math.tan(viewRadius / 2);
+        int nbVisible = 0;
+        for (int i : full.starIndices()) {
+            double x = full.starPositions()[2*i], y = full.starPositions()[2*i + 1];
+            double radius = Math.hypot(x, y);
+            if (Math.abs(radius - maxRadius) < 1e-9)
+                continue;
+            boolean visible = radius < maxRadius;
+            assertEquals(visible, Arrays.stream(culled.visibleStarIndices()).anyMatch(j -> j == i));
+            if (visible) {
+                nbVisible++;
+                assertEquals(x, culled.starPositions()[2*i]);
+                assertEquals(y, culled.starPositions()[2*i + 1]);
+            }
+        }
+        assertTrue(0 < nbVisible && nbVisible < full.starIndices().length);
+
+        for (Asterism asterism : catalogue.asterisms()) {
+            for (int i : catalogue.asterismIndices(asterism))
+                assertEquals(full.starPositions()[2*i], culled.starPositions()[2*i]);
+        }
+
+        ObservedSky uncut = new ObservedSky(horizontalSky, projection, Double.POSITIVE_INFINITY, Math.PI, 1);
+        assertArrayEquals(full.starPositions(), uncut.starPositions());
+        assertArrayEquals(full.starIndices(), uncut.visibleStarIndices());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ObservedSky(horizontalSky, projection, Double.POSITIVE_INFINITY, Double.NaN, 1));
+    }
 }
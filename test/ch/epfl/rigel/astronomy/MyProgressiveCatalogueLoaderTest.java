@@ -0,0 +1,64 @@
+package ch.epfl.rigel.astronomy;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyProgressiveCatalogueLoaderTest {
+
+    private static final String HYG_CATALOGUE_NAME = "/hygdata_v3.csv";
+    private static final String ASTERISMS_CATALOGUE_NAME = "/asterisms.txt";
+
+    private ProgressiveCatalogueLoader newLoader(double... magnitudeLimits) throws IOException {
+        InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME);
+        InputStream asterismStream = getClass().getResourceAsStream(ASTERISMS_CATALOGUE_NAME);
+        return new ProgressiveCatalogueLoader(hygStream, asterismStream, magnitudeLimits);
+    }
+
+    @Test
+    void generationsExtendPreviousOnesAndKeepAsterisms() throws IOException {
+        ProgressiveCatalogueLoader loader = newLoader(4, 5);
+        assertEquals(3, loader.generationCount());
+
+        StarCatalogue first = loader.nextGeneration();
+        for (int i = 0; i < first.starCount(); i++) {
+            boolean isAsterismStar = false;
+            for (Asterism asterism : first.asterisms())
+                isAsterismStar |= asterism.stars().contains(first.stars().get(i));
+            assertTrue(first.starMagnitude(i) < 4 || isAsterismStar);
+        }
+
+        StarCatalogue previous = first;
+        while (loader.hasNextGeneration()) {
+            StarCatalogue next = loader.nextGeneration();
+            assertTrue(next.starCount() >= previous.starCount());
+            for (int i = 0; i < previous.starCount(); i++)
+                assertEquals(previous.starHipparcosId(i), next.starHipparcosId(i));
+            for (Asterism asterism : first.asterisms()) {
+                List<Integer> indices = next.asterismIndices(asterism);
+                assertEquals(first.asterismIndices(asterism), indices);
+                for (int j = 0; j < indices.size(); j++)
+                    assertSame(asterism.stars().get(j), next.stars().get(indices.get(j)));
+            }
+            previous = next;
+        }
+
+        assertEquals(5067, previous.starCount());
+        assertEquals(153, previous.asterisms().size());
+        assertThrows(NoSuchElementException.class, loader::nextGeneration);
+    }
+
+    @Test
+    void constructorFailsWithInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> newLoader());
+        assertThrows(IllegalArgumentException.class, () -> newLoader(5, 4));
+    }
+}
@@ -0,0 +1,108 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyRiseTransitSetTest {
+
+    private final static ZoneId ZONE = ZoneId.of("Europe/Zurich");
+    private final static GeographicCoordinates EPFL = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private final static LocalDate DAY = LocalDate.of(2020, 2, 17);
+    private final static double ONE_MINUTE = 1d / (24 * 60);
+
+    @Test
+    void sunEventsAtTheEpfl() {
+        RiseTransitSet sun = RiseTransitSet.ofModels(List.of(SunModel.SUN), DAY, DAY, ZONE, EPFL);
+        assertEquals(1, sun.objectCount());
+        assertEquals(1, sun.dayCount());
+
+        // Lever vers 7h33, passage au méridien vers 12h48 et coucher vers 18h03
+        assertEquals(daysAt("07:33"), sun.rise(0, 0), 3 * ONE_MINUTE);
+        assertEquals(daysAt("12:48"), sun.transit(0, 0), 3 * ONE_MINUTE);
+        assertEquals(daysAt("18:03"), sun.set(0, 0), 3 * ONE_MINUTE);
+    }
+
+    @Test
+    void fixedObjectsMatchTheRootFinding() {
+        Star betelgeuse = new Star(27989, "Betelgeuse", EquatorialCoordinates.of(1.5497, 0.1293), 0.45f, 1.5f);
+        Star polaris = new Star(11767, "Polaris", EquatorialCoordinates.of(0.6622, 1.5580), 1.97f, 0.6f);
+        Star canopus = new Star(30438, "Canopus", EquatorialCoordinates.of(1.6753, -0.9197), -0.62f, 0.16f);
+        LocalDate last = DAY.plusDays(40);
+
+        RiseTransitSet closed = RiseTransitSet.ofObjects(List.of(betelgeuse, polaris, canopus), DAY, last, ZONE, EPFL);
+        RiseTransitSet found = RiseTransitSet.ofModels(
+                List.<CelestialObjectModel<Star>>of((d, c) -> betelgeuse), DAY, last, ZONE, EPFL);
+
+        assertEquals(41, closed.dayCount());
+        for (int d = 0; d < closed.dayCount(); d++) {
+            assertEquals(closed.rise(0, d), found.rise(0, d), 2d / 86_400);
+            assertEquals(closed.transit(0, d), found.transit(0, d), 2d / 86_400);
+            assertEquals(closed.set(0, d), found.set(0, d), 2d / 86_400);
+
+            // Polaris est circumpolaire et Canopus ne se lève jamais à Lausanne
+            assertTrue(Double.isNaN(closed.rise(1, d)) && Double.isNaN(closed.set(1, d)));
+            assertFalse(Double.isNaN(closed.transit(1, d)));
+            assertTrue(Double.isNaN(closed.rise(2, d)) && Double.isNaN(closed.set(2, d)));
+        }
+    }
+
+    @Test
+    void fixedObjectsAccountForTheirAngularSize() {
+        EquatorialCoordinates pos = EquatorialCoordinates.of(1.5497, 0.1293);
+        Moon disc = new Moon(pos, (float) Math.toRadians(2), 0f, 0.5f);
+        Star point = new Star(27989, "Betelgeuse", pos, 0.45f, 1.5f);
+
+        RiseTransitSet closed = RiseTransitSet.ofObjects(List.of(disc, point), DAY, DAY, ZONE, EPFL);
+        RiseTransitSet found = RiseTransitSet.ofModels(
+                List.<CelestialObjectModel<Moon>>of((d, c) -> disc), DAY, DAY, ZONE, EPFL);
+
+        assertEquals(found.rise(0, 0), closed.rise(0, 0), 2d / 86_400);
+        assertEquals(found.set(0, 0), closed.set(0, 0), 2d / 86_400);
+
+        // Le haut du disque franchit l'horizon avant son centre
+        assertTrue(closed.rise(0, 0) < closed.rise(1, 0) - ONE_MINUTE);
+        assertTrue(closed.set(0, 0) > closed.set(1, 0) + ONE_MINUTE);
+        assertEquals(closed.transit(1, 0), closed.transit(0, 0));
+    }
+
+    @Test
+    void tooManyEventsAreRejected() {
+        // 2¹⁶ objets pendant 2¹⁵ jours : 2³¹ événements de chaque sorte
+        Star star = new Star(27989, "Betelgeuse", EquatorialCoordinates.of(1.5497, 0.1293), 0.45f, 1.5f);
+        List<Star> objects = Collections.nCopies(1 << 16, star);
+        assertThrows(IllegalArgumentException.class,
+                () -> RiseTransitSet.ofObjects(objects, DAY, DAY.plusDays((1 << 15) - 1), ZONE, EPFL));
+    }
+
+    @Test
+    void starCatalogueIsSolvedStarByStar() {
+        Star star = new Star(27989, "Betelgeuse", EquatorialCoordinates.of(1.5497, 0.1293), 0.45f, 1.5f);
+        StarCatalogue catalogue = new StarCatalogue(List.of(star), List.of());
+        RiseTransitSet stars = RiseTransitSet.ofStars(catalogue, DAY, DAY.plusDays(2), ZONE, EPFL);
+        RiseTransitSet objects = RiseTransitSet.ofObjects(List.of(star), DAY, DAY.plusDays(2), ZONE, EPFL);
+        for (int d = 0; d < 3; d++)
+            assertEquals(objects.rise(0, d), stars.rise(0, d));
+
+        // Le passage au méridien avance d'environ 4 minutes par jour
+        assertEquals(-3.93 * ONE_MINUTE, stars.transit(0, 1) - stars.transit(0, 0) - 1, 0.1 * ONE_MINUTE);
+        assertThrows(IndexOutOfBoundsException.class, () -> stars.set(1, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> RiseTransitSet.ofStars(catalogue, DAY, DAY.minusDays(1), ZONE, EPFL));
+    }
+
+    private static double daysAt(String localTime) {
+        return Epoch.J2010.daysUntil(ZonedDateTime.parse(DAY + "T" + localTime + "+01:00[Europe/Zurich]"));
+    }
+}
@@ -66,4 +66,26 @@ public class MySiderealTimeTest {
         GeographicCoordinates gc = GeographicCoordinates.ofDeg(-64, 11.1);
         assertEquals(0, SiderealTime.local(d2, gc) - SiderealTime.local(d1, gc), DELTA);
     }
+
+    @Test
+    void siderealTimeWorksWithEpochMillisLikeWithZonedDateTime() {
+        GeographicCoordinates where = GeographicCoordinates.ofDeg(6.57, 46.52);
+        ZonedDateTime[] moments = {
+                ZonedDateTime.parse("2020-02-17T20:15:12.345+01:00"),
+                ZonedDateTime.parse("1980-04-22T14:36:51.670Z"),
+                ZonedDateTime.parse("1969-07-20T20:17:40Z")
+        };
+        for (ZonedDateTime when : moments) {
+            long millis = when.toInstant().toEpochMilli();
+            assertEquals(SiderealTime.greenwich(when), SiderealTime.greenwich(millis));
+            assertEquals(SiderealTime.local(when, where), SiderealTime.local(millis, where));
+            assertEquals(SiderealTime.local(when, where), TimeContext.of(when).localSiderealTime(where));
+        }
+
+        // 1er janvier 2000 à 12h00 UTC, date julienne 2451545
+        TimeContext j2000 = TimeContext.ofJulianDate(2_451_545);
+        assertEquals(ZonedDateTime.parse("2000-01-01T12:00Z").toInstant().toEpochMilli(), j2000.epochMillis());
+        assertEquals(0, j2000.julianCenturiesSinceJ2000());
+        assertEquals(2_451_545, j2000.julianDate());
+    }
 }
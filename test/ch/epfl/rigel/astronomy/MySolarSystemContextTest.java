@@ -0,0 +1,58 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MySolarSystemContextTest {
+
+    private final static EclipticToEquatorialConversion CONVERSION =
+            new EclipticToEquatorialConversion(ZonedDateTime.parse("2020-02-17T20:15Z"));
+
+    @Test
+    void contextResultsAreIdenticalToTheSeparateComputations() {
+        for (double days = -2000; days < 2000; days += 97.3) {
+            SolarSystemContext context = SolarSystemContext.at(days, CONVERSION);
+
+            Sun sun = SunModel.SUN.at(days, CONVERSION);
+            assertEquals(sun.equatorialPos().ra(), SunModel.SUN.at(context).equatorialPos().ra());
+            assertSame(context.sun(), SunModel.SUN.at(context));
+
+            Moon moon = MoonModel.MOON.at(days, CONVERSION);
+            Moon contextMoon = MoonModel.MOON.at(context);
+            assertEquals(moon.equatorialPos().ra(), contextMoon.equatorialPos().ra());
+            assertEquals(moon.equatorialPos().dec(), contextMoon.equatorialPos().dec());
+            assertEquals(moon.phase(), contextMoon.phase());
+
+            List<Planet> planets = CelestialObjectModel.atAll(PlanetModel.ALL_EXTRA_TERRESTRIAL, context);
+            assertEquals(PlanetModel.ALL_EXTRA_TERRESTRIAL.size(), planets.size());
+            for (int i = 0; i < planets.size(); i++) {
+                Planet planet = PlanetModel.ALL_EXTRA_TERRESTRIAL.get(i).at(days, CONVERSION);
+                assertEquals(planet.name(), planets.get(i).name());
+                assertEquals(planet.equatorialPos().ra(), planets.get(i).equatorialPos().ra());
+                assertEquals(planet.equatorialPos().dec(), planets.get(i).equatorialPos().dec());
+                assertEquals(planet.angularSize(), planets.get(i).angularSize());
+                assertEquals(planet.magnitude(), planets.get(i).magnitude());
+            }
+        }
+    }
+
+    @Test
+    void earthOrbitStateIsTheOneOfTheSun() {
+        // La Terre est vue du Soleil à l'opposé du Soleil vu de la Terre
+        SolarSystemContext context = SolarSystemContext.at(1234.5, CONVERSION);
+        double sunLon = context.sun().eclipticPos().lon();
+        double earthLon = context.earthOrbitPlaneLongitude();
+        assertEquals(0, Math.sin(earthLon - sunLon - Math.PI), 1e-3);
+        assertEquals(1, context.earthOrbitRadius(), 0.02);
+        assertSame(CONVERSION, context.eclipticToEquatorialConversion());
+        assertThrows(NullPointerException.class, () -> SolarSystemContext.at(0, null));
+    }
+}
@@ -172,4 +172,108 @@ public class MyStarCatalogueTest {
             List<Integer> listIndices = catalogue.asterismIndices(asterism2);
         });
     }
+
+    @Test
+    void starsReturnsSameInstancesAsGiven() {
+        List<Star> stars = new ArrayList<>();
+        stars.add(new Star(1, "Etoile1", EquatorialCoordinates.of(0, 0), -1f, 1f));
+        stars.add(new Star(2, "Etoile2", EquatorialCoordinates.of(1, 0.5), 2f, 0f));
+
+        StarCatalogue catalogue = new StarCatalogue(stars, List.of());
+
+        assertSame(stars.get(0), catalogue.stars().get(0));
+        assertSame(stars.get(1), catalogue.stars().get(1));
+        assertEquals(2, catalogue.starCount());
+    }
+
+    @Test
+    void columnAccessorsMatchStars() {
+        Star star = new Star(42, "Etoile42", EquatorialCoordinates.of(1.5, -0.25), 3.5f, 0.6f);
+        StarCatalogue catalogue = new StarCatalogue(List.of(star), List.of());
+
+        assertEquals("Etoile42", catalogue.starName(0));
+        assertEquals(42, catalogue.starHipparcosId(0));
+        assertEquals(1.5, catalogue.starRa(0));
+        assertEquals(-0.25, catalogue.starDec(0));
+        assertEquals(star.magnitude(), catalogue.starMagnitude(0));
+        assertEquals(star.colorTemperature(), catalogue.starColorTemperature(0));
+    }
+
+    @Test
+    void builderCreatesStarsOnDemandAndKeepsThem() {
+        StarCatalogue.Builder builder = new StarCatalogue.Builder()
+                .addStar(7, "Etoile7", 1, 0.5, 2f, 0.3f);
+        Star star = builder.stars().get(0);
+        StarCatalogue catalogue = builder
+                .addAsterism(new Asterism(List.of(star)))
+                .build();
+
+        Star expected = new Star(7, "Etoile7", EquatorialCoordinates.of(1, 0.5), 2f, 0.3f);
+        assertSame(star, catalogue.stars().get(0));
+        assertEquals(expected.name(), star.name());
+        assertEquals(expected.colorTemperature(), star.colorTemperature());
+        assertEquals(expected.magnitude(), star.magnitude());
+        assertEquals(List.of(0), catalogue.asterismIndices(catalogue.asterisms().iterator().next()));
+    }
+
+    @Test
+    void builderAddStarThrowsExceptionWithInvalidValues() {
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.addStar(-1, "E", 0, 0, 0f, 0f));
+        assertThrows(IllegalArgumentException.class, () -> builder.addStar(1, "E", 0, 0, 0f, 6f));
+        assertThrows(IllegalArgumentException.class, () -> builder.addStar(1, "E", 7, 0, 0f, 0f));
+        assertThrows(IllegalArgumentException.class, () -> builder.addStar(1, "E", 0, 2, 0f, 0f));
+        assertThrows(NullPointerException.class, () -> builder.addStar(1, null, 0, 0, 0f, 0f));
+    }
+
+    @Test
+    void indexOfHipparcosIdWorks() {
+        StarCatalogue.Builder builder = new StarCatalogue.Builder()
+                .addStar(24436, "Rigel", 1, 0.5, 0.2f, 0f)
+                .addStar(0, "? Ori", 1, 0.5, 4f, 0f);
+        assertEquals(0, builder.indexOfHipparcosId(24436));
+        assertEquals(-1, builder.indexOfHipparcosId(27989));
+
+        builder.addStar(27989, "Betelgeuse", 1.5, 0.1, 0.4f, 1.8f)
+                .addStar(24436, "Rigel bis", 1, 0.5, 0.2f, 0f);
+        assertEquals(2, builder.indexOfHipparcosId(27989));
+        assertEquals(3, builder.indexOfHipparcosId(24436));
+
+        StarCatalogue catalogue = builder.build();
+        assertEquals(2, catalogue.indexOfHipparcosId(27989));
+        assertEquals(3, catalogue.indexOfHipparcosId(24436));
+        assertEquals(1, catalogue.indexOfHipparcosId(0));
+        assertEquals(-1, catalogue.indexOfHipparcosId(42));
+    }
+
+    @Test
+    void asterismIndicesUseIdentityWhenHipparcosIdsAreShared() {
+        Star s1 = new Star(0, "Etoile1", EquatorialCoordinates.of(0, 0), -1f, 1f);
+        Star s2 = new Star(0, "Etoile2", EquatorialCoordinates.of(0, 0), -1f, 1f);
+        Asterism asterism = new Asterism(List.of(s1, s2));
+        StarCatalogue catalogue = new StarCatalogue(List.of(s1, s2), List.of(asterism));
+        assertEquals(List.of(0, 1), catalogue.asterismIndices(asterism));
+    }
+
+    @Test
+    void starsBrighterThanUsesMagnitudeOrder() {
+        StarCatalogue catalogue = new StarCatalogue.Builder()
+                .addStar(1, "A", 0, 0, 3f, 0f)
+                .addStar(2, "B", 0, 0, -1f, 0f)
+                .addStar(3, "C", 0, 0, 5f, 0f)
+                .addStar(4, "D", 0, 0, 3f, 0f)
+                .addStar(5, "E", 0, 0, -0f, 0f)
+                .build();
+
+        int[] expectedOrder = {1, 4, 0, 3, 2};
+        for (int rank = 0; rank < expectedOrder.length; rank++)
+            assertEquals(expectedOrder[rank], catalogue.starIndexByMagnitude(rank));
+
+        assertEquals(0, catalogue.starsBrighterThan(-1));
+        assertEquals(1, catalogue.starsBrighterThan(-0.5));
+        assertEquals(2, catalogue.starsBrighterThan(3));
+        assertEquals(4, catalogue.starsBrighterThan(3.5));
+        assertEquals(5, catalogue.starsBrighterThan(Double.POSITIVE_INFINITY));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalogue.starIndexByMagnitude(5));
+    }
 }
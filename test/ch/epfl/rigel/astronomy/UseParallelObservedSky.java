@@ -0,0 +1,66 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Programme de mesure qui compare, pour des catalogues aléatoires de tailles croissantes,
+ * la durée de construction d'un ciel observé avec projection séquentielle et parallèle
+ * des étoiles.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class UseParallelObservedSky {
+
+    private final static int[] CATALOGUE_SIZES = {5_000, 50_000, 500_000, 2_000_000};
+    private final static int WARMUP_FRAMES = 10;
+    private final static int MEASURED_FRAMES = 20;
+
+    public static void main(String[] args) {
+        ZonedDateTime when = ZonedDateTime.parse("2020-02-17T20:15+01:00");
+        GeographicCoordinates where = GeographicCoordinates.ofDeg(6.57, 46.52);
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(277, -23));
+
+        System.out.printf("Parallélisme du fil commun : %d%n", ForkJoinPool.getCommonPoolParallelism());
+        System.out.printf("%10s %15s %15s %10s%n", "étoiles", "séquentiel (ms)", "parallèle (ms)", "gain");
+        for (int size : CATALOGUE_SIZES) {
+            StarCatalogue catalogue = randomCatalogue(size);
+            double sequential = millisPerFrame(when, where, projection, catalogue, Integer.MAX_VALUE);
+            double parallel = millisPerFrame(when, where, projection, catalogue, 1);
+            System.out.printf("%10d %15.2f %15.2f %9.2fx%n", size, sequential, parallel, sequential / parallel);
+        }
+    }
+
+    private static double millisPerFrame(ZonedDateTime when, GeographicCoordinates where,
+                                         StereographicProjection projection, StarCatalogue catalogue,
+                                         int parallelismThreshold) {
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            new ObservedSky(when.plusMinutes(i), where, projection, catalogue,
+                    Double.POSITIVE_INFINITY, parallelismThreshold);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++)
+            new ObservedSky(when.plusMinutes(i), where, projection, catalogue,
+                    Double.POSITIVE_INFINITY, parallelismThreshold);
+        return (System.nanoTime() - start) / 1e6 / MEASURED_FRAMES;
+    }
+
+    private static StarCatalogue randomCatalogue(int size) {
+        SplittableRandom rng = new SplittableRandom(size);
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        for (int i = 0; i < size; i++) {
+            builder.addStar(i + 1, "? Ori",
+                    rng.nextDouble(0, 2 * Math.PI),
+                    Math.asin(rng.nextDouble(-1, 1)),
+                    (float) rng.nextDouble(-1, 12),
+                    (float) rng.nextDouble(-0.5, 5.5));
+        }
+        return new StarCatalogue(builder.stars(), List.of());
+    }
+}
@@ -0,0 +1,95 @@
+package ch.epfl.rigel.coordinates;
+
+import ch.epfl.rigel.math.Angle;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyAllocationFreeProjectionTest {
+
+    private final static int STAR_COUNT = 50_000;
+    // Quelques objets par appel (p.ex. la matrice de la conversion) sont admis, mais pas un par étoile
+    private final static long MAX_ALLOCATED_BYTES_PER_CALL = 1024;
+
+    private final static EquatorialToHorizontalConversion EQU_TO_HRZ = new EquatorialToHorizontalConversion(
+            ZonedDateTime.parse("2020-02-17T20:15+01:00"), GeographicCoordinates.ofDeg(6.57, 46.52));
+    private final static StereographicProjection PROJECTION =
+            new StereographicProjection(HorizontalCoordinates.ofDeg(180, 22));
+
+    @Test
+    void perStarProjectionLoopDoesNotAllocate() {
+        SplittableRandom random = new SplittableRandom(2020);
+        double[] ra = new double[STAR_COUNT], dec = new double[STAR_COUNT];
+        double[] x = new double[STAR_COUNT], y = new double[STAR_COUNT], z = new double[STAR_COUNT];
+        int[] indices = new int[STAR_COUNT];
+        for (int i = 0; i < STAR_COUNT; i++) {
+            ra[i] = random.nextDouble(0, Angle.TAU);
+            dec[i] = random.nextDouble(-Math.PI / 2, Math.PI / 2);
+            x[i] = Math.cos(dec[i]) * Math.cos(ra[i]);
+            y[i] = Math.cos(dec[i]) * Math.sin(ra[i]);
+            z[i] = Math.sin(dec[i]);
+            indices[i] = i;
+        }
+        double[] az = new double[STAR_COUNT], alt = new double[STAR_COUNT];
+        double[] east = new double[STAR_COUNT], north = new double[STAR_COUNT], up = new double[STAR_COUNT];
+        double[] xy = new double[2 * STAR_COUNT];
+        int[] selection = new int[STAR_COUNT];
+
+        Runnable equatorialToHorizontal = () -> EQU_TO_HRZ.applyBatch(ra, dec, az, alt);
+        Runnable horizontalProjection = () -> PROJECTION.applyBatch(az, alt, xy);
+        Runnable unitVectors = () -> EQU_TO_HRZ.applyBatchToUnitVectors(
+                x, y, z, indices, 0, STAR_COUNT, east, north, up);
+        Runnable culledProjection = () -> {
+            int n = PROJECTION.selectWithinAngularDistance(east, north, up, 0, STAR_COUNT, 1, selection);
+            PROJECTION.applyBatchToHorizontalUnitVectors(east, north, up, indices, selection, 0, n, xy);
+        };
+
+        for (Runnable loop : new Runnable[] {equatorialToHorizontal, horizontalProjection, unitVectors, culledProjection})
+            assertTrue(allocatedBytes(loop) <= MAX_ALLOCATED_BYTES_PER_CALL);
+    }
+
+    @Test
+    void normalizationAndValidationDoNotAllocate() {
+        double[] sum = new double[1];
+        Runnable normalization = () -> {
+            for (int i = 0; i < STAR_COUNT; i++)
+                sum[0] += Angle.normalizePositive(i - STAR_COUNT / 2d);
+        };
+        assertTrue(allocatedBytes(normalization) <= MAX_ALLOCATED_BYTES_PER_CALL);
+
+        // Chaque appel à of ne crée plus que les coordonnées elles-mêmes
+        Runnable validation = () -> {
+            for (int i = 0; i < STAR_COUNT; i++)
+                sum[0] += HorizontalCoordinates.of(1, 0.5).alt();
+        };
+        Runnable creation = () -> {
+            for (int i = 0; i < STAR_COUNT; i++)
+                sum[0] += HorizontalCoordinates.ofTrusted(1, 0.5).alt();
+        };
+        assertTrue(allocatedBytes(validation) <= allocatedBytes(creation) + MAX_ALLOCATED_BYTES_PER_CALL);
+        assertTrue(Double.isFinite(sum[0]));
+    }
+
+    private static long allocatedBytes(Runnable loop) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return 0; // Mesure impossible sur cette machine virtuelle
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long thread = Thread.currentThread().getId();
+
+        loop.run(); // Premier appel, qui peut charger des classes
+        long before = threads.getThreadAllocatedBytes(thread);
+        long empty = threads.getThreadAllocatedBytes(thread);
+        loop.run();
+        long after = threads.getThreadAllocatedBytes(thread);
+        return after - empty - (empty - before);
+    }
+}
@@ -0,0 +1,79 @@
+package ch.epfl.rigel.coordinates;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyCoordinateBuffersTest {
+
+    private final static int SIZE = 500;
+
+    @Test
+    void buffersStoreAndReturnCoordinates() {
+        CartesianBuffer cartesian = CartesianBuffer.ofSize(3);
+        cartesian.set(1, CartesianCoordinates.of(0.5, -2));
+        assertEquals(3, cartesian.size());
+        assertEquals(0.5, cartesian.get(1).x());
+        assertEquals(-2, cartesian.y(1));
+        assertEquals(0, cartesian.x(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> cartesian.x(3));
+
+        double[] xy = new double[4];
+        CartesianBuffer wrapped = CartesianBuffer.wrap(xy);
+        wrapped.set(1, 3, 4);
+        assertEquals(4, xy[3]);
+        assertThrows(IllegalArgumentException.class, () -> CartesianBuffer.wrap(new double[3]));
+
+        HorizontalBuffer horizontal = HorizontalBuffer.ofSize(2);
+        horizontal.set(0, HorizontalCoordinates.ofDeg(120, 30));
+        horizontal.set(1, 1, -0.5);
+        assertEquals(120, horizontal.get(0).azDeg(), 1e-9);
+        assertEquals(-0.5, horizontal.alt(1));
+        assertThrows(IllegalArgumentException.class, () -> horizontal.set(0, 7, 0));
+        assertThrows(IllegalArgumentException.class, () -> horizontal.set(0, 1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> horizontal.set(2, 1, 0));
+    }
+
+    @Test
+    void batchMethodsOnBuffersMatchTheSingleObjectMethods() {
+        SplittableRandom random = new SplittableRandom(23);
+        double[] ra = new double[SIZE], dec = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            ra[i] = random.nextDouble(0, 2 * Math.PI);
+            dec[i] = random.nextDouble(-Math.PI / 2, Math.PI / 2);
+        }
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                ZonedDateTime.parse("2020-02-17T20:15+01:00"), GeographicCoordinates.ofDeg(6.57, 46.52));
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(180, 22));
+
+        HorizontalBuffer horizontal = HorizontalBuffer.ofSize(SIZE);
+        CartesianBuffer projected = CartesianBuffer.ofSize(SIZE);
+        HorizontalBuffer unprojected = HorizontalBuffer.ofSize(SIZE);
+        equToHrz.applyBatch(ra, dec, horizontal);
+        projection.applyBatch(horizontal, projected);
+        projected.set(0, 0, 0);
+        projection.inverseApplyBatch(projected, unprojected);
+
+        for (int i = 0; i < SIZE; i++) {
+            HorizontalCoordinates hor = equToHrz.apply(EquatorialCoordinates.of(ra[i], dec[i]));
+            assertEquals(hor.az(), horizontal.az(i));
+            assertEquals(hor.alt(), horizontal.alt(i));
+            if (i > 0) {
+                CartesianCoordinates xy = projection.apply(hor);
+                assertEquals(xy.x(), projected.x(i));
+                assertEquals(xy.y(), projected.y(i));
+            }
+            HorizontalCoordinates inverse = projection.inverseApply(projected.get(i));
+            assertEquals(inverse.az(), unprojected.az(i));
+            assertEquals(inverse.alt(), unprojected.alt(i));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> projection.applyBatch(horizontal, CartesianBuffer.ofSize(SIZE - 1)));
+    }
+}
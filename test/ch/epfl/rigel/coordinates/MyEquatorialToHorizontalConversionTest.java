@@ -68,6 +68,44 @@ public class MyEquatorialToHorizontalConversionTest {
         assertEquals(hcExpected.alt(), hc.alt(), DELTA);
     }
 
+    @Test
+    void azimuthOfObjectJustWestOfTheNorthernMeridianIsBelowTau() {
+        ZonedDateTime when = ZonedDateTime.of(2020, 2, 17, 20, 15, 0, 0, ZoneOffset.UTC);
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                when, GeographicCoordinates.ofDeg(6.57, 46.52));
+        // Angle horaire d'un ulp : atan2 retourne un azimut très légèrement négatif
+        double ra = Math.nextDown(equToHrz.localSiderealTime());
+        double dec = Angle.ofDeg(70);
+
+        HorizontalCoordinates hor = equToHrz.apply(EquatorialCoordinates.of(ra, dec));
+        assertEquals(0, hor.az());
+        double[] az = new double[1], alt = new double[1];
+        equToHrz.applyBatch(new double[] {ra}, new double[] {dec}, az, alt);
+        assertEquals(0, az[0]);
+    }
+
+    @Test
+    void altitudeStaysFiniteWhenRoundingPushesItsSinePastOne() {
+        ZonedDateTime when = ZonedDateTime.of(2020, 2, 17, 20, 15, 0, 0, ZoneOffset.UTC);
+        int nbOverflows = 0;
+        for (double latDeg = -89; latDeg <= 89; latDeg += 0.37) {
+            GeographicCoordinates where = GeographicCoordinates.ofDeg(6.57, latDeg);
+            EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(when, where);
+            // Étoile au zénith : sin(h) = sin²(lat) + cos²(lat), qui peut dépasser 1 d'un ulp
+            double lat = where.lat();
+            if (Math.sin(lat)*Math.sin(lat) + Math.cos(lat)*Math.cos(lat) > 1)
+                nbOverflows += 1;
+            EquatorialCoordinates zenith = EquatorialCoordinates.of(equToHrz.localSiderealTime(), lat);
+
+            HorizontalCoordinates hor = equToHrz.apply(zenith);
+            assertEquals(Math.PI / 2, hor.alt(), 1e-7);
+            double[] az = new double[1], alt = new double[1];
+            equToHrz.applyBatch(new double[] {zenith.ra()}, new double[] {zenith.dec()}, az, alt);
+            assertEquals(hor.alt(), alt[0]);
+        }
+        assertTrue(nbOverflows > 0);
+    }
+
     //@Test
     void conversionWorksWithAWebsiteConverter() {
         // Source : http://xjubier.free.fr/en/site_pages/astronomy/coordinatesConverter.html
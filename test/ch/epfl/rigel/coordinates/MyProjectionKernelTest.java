@@ -0,0 +1,81 @@
+package ch.epfl.rigel.coordinates;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyProjectionKernelTest {
+
+    private final static int SIZE = 1_003; // Pas un multiple du nombre de voies
+
+    @Test
+    void loadedKernelMatchesScalarKernelExactly() {
+        ProjectionKernel kernel = ProjectionKernel.load();
+        assertTrue(kernel.lanes() >= 1);
+        assertEquals(kernel.lanes(), StereographicProjection.vectorLanes());
+
+        SplittableRandom random = new SplittableRandom(25);
+        double[] x = new double[SIZE], y = new double[SIZE], z = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            double ra = random.nextDouble(0, 2 * Math.PI);
+            double dec = Math.asin(random.nextDouble(-1, 1));
+            x[i] = Math.cos(dec) * Math.cos(ra);
+            y[i] = Math.cos(dec) * Math.sin(ra);
+            z[i] = Math.sin(dec);
+        }
+        double[] m = new double[9];
+        for (int k = 0; k < m.length; k++)
+            m[k] = random.nextDouble(-1, 1);
+
+        int[][] ranges = {{0, SIZE}, {3, 3}, {5, 12}, {1, SIZE - 2}, {SIZE - 1, SIZE}};
+        for (int[] range : ranges) {
+            double[] expected = new double[2 * SIZE];
+            double[] actual = new double[2 * SIZE];
+            Arrays.fill(expected, -7);
+            Arrays.fill(actual, -7);
+            ScalarProjectionKernel.INSTANCE.project(m, x, y, z, range[0], range[1], expected);
+            kernel.project(m, x, y, z, range[0], range[1], actual);
+            assertArrayEquals(expected, actual);
+        }
+
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> kernel.project(m, x, y, z, 0, SIZE + 1, new double[2 * SIZE + 2]));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> kernel.project(m, x, y, z, 0, SIZE, new double[2 * SIZE - 1]));
+    }
+
+    @Test
+    void unitVectorRangeOnlyWritesItsOwnPoints() {
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                ZonedDateTime.parse("2020-02-17T20:15+01:00"), GeographicCoordinates.ofDeg(6.57, 46.52));
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(277, -23));
+
+        SplittableRandom random = new SplittableRandom(26);
+        double[] x = new double[SIZE], y = new double[SIZE], z = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            double ra = random.nextDouble(0, 2 * Math.PI);
+            double dec = Math.asin(random.nextDouble(-1, 1));
+            x[i] = Math.cos(dec) * Math.cos(ra);
+            y[i] = Math.cos(dec) * Math.sin(ra);
+            z[i] = Math.sin(dec);
+        }
+
+        double[] full = new double[2 * SIZE];
+        double[] slice = new double[2 * SIZE];
+        Arrays.fill(slice, -7);
+        projection.applyBatchToUnitVectorRange(equToHrz, x, y, z, 0, SIZE, full);
+        projection.applyBatchToUnitVectorRange(equToHrz, x, y, z, 5, SIZE - 3, slice);
+        for (int i = 0; i < SIZE; i++) {
+            boolean inside = 5 <= i && i < SIZE - 3;
+            assertEquals(inside ? full[2 * i] : -7, slice[2 * i]);
+            assertEquals(inside ? full[2 * i + 1] : -7, slice[2 * i + 1]);
+        }
+    }
+}
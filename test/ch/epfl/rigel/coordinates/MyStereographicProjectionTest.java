@@ -3,6 +3,10 @@ package ch.epfl.rigel.coordinates;
 import ch.epfl.rigel.math.Angle;
 import org.junit.jupiter.api.Test;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static java.lang.Math.cos;
 import static java.lang.Math.sin;
@@ -129,6 +133,44 @@ public class MyStereographicProjectionTest {
         assertEquals(phi, value.alt(), DELTA);
     }
 
+    @Test
+    void inverseApplyAltitudeStaysFiniteNearTheZenith() {
+        // Près du zénith, le sinus de la hauteur calculé par l'inversion peut dépasser 1
+        SplittableRandom rng = new SplittableRandom(2020);
+        for (int i = 0; i < 4000; i++) {
+            StereographicProjection sp = new StereographicProjection(
+                    HorizontalCoordinates.ofDeg(rng.nextDouble(0, 360), rng.nextDouble(5, 90)));
+            CartesianBuffer projected = CartesianBuffer.ofSize(100);
+            HorizontalBuffer unprojected = HorizontalBuffer.ofSize(100);
+            for (int j = 0; j < 100; j++) {
+                HorizontalCoordinates hor = HorizontalCoordinates.ofDeg(
+                        rng.nextDouble(0, 360), 90 - rng.nextDouble(0, 1e-3));
+                CartesianCoordinates xy = sp.apply(hor);
+                HorizontalCoordinates value = sp.inverseApply(xy);
+                projected.set(j, xy);
+
+                assertEquals(hor.alt(), value.alt(), 1e-7);
+            }
+            sp.inverseApplyBatch(projected, unprojected);
+            for (int j = 0; j < 100; j++) {
+                assertEquals(sp.inverseApply(projected.get(j)).alt(), unprojected.alt(j));
+            }
+        }
+    }
+
+    @Test
+    void inverseApplyAzimuthJustWestOfTheCenterIsBelowTau() {
+        // Abscisse légèrement négative : l'azimut vaut -1e-17 avant normalisation
+        StereographicProjection sp = new StereographicProjection(HorizontalCoordinates.ofDeg(0, 20));
+        assertEquals(0, sp.inverseApply(CartesianCoordinates.of(-1e-17, 0.5)).az());
+
+        CartesianBuffer projected = CartesianBuffer.ofSize(1);
+        HorizontalBuffer unprojected = HorizontalBuffer.ofSize(1);
+        projected.set(0, -1e-17, 0.5);
+        sp.inverseApplyBatch(projected, unprojected);
+        assertEquals(0, unprojected.az(0));
+    }
+
     @Test
     void equalsThrowsException() {
         assertThrows(UnsupportedOperationException.class, () -> {
@@ -156,4 +198,78 @@ public class MyStereographicProjectionTest {
         StereographicProjection sp = new StereographicProjection(HorizontalCoordinates.ofDeg(0.12345, -3.100231));
         assertEquals("StereographicProjection (cAz=0.1235°, cAlt=-3.1002°)", sp.toString());
     }
+
+    @Test
+    void batchMethodsGiveExactlySameResultsAsApply() {
+        ZonedDateTime when = ZonedDateTime.of(2020, 2, 17, 20, 15, 0, 0, ZoneOffset.UTC);
+        EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                when, GeographicCoordinates.ofDeg(6.57, 46.52));
+        StereographicProjection sp = new StereographicProjection(HorizontalCoordinates.ofDeg(277, -23));
+
+        SplittableRandom rng = new SplittableRandom(2020);
+        int n = 1000;
+        double[] ra = new double[n];
+        double[] dec = new double[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-PI / 2, PI / 2);
+        }
+
+        double[] az = new double[n];
+        double[] alt = new double[n];
+        double[] xy = new double[2*n];
+        equToHrz.applyBatch(ra, dec, az, alt);
+        sp.applyBatch(az, alt, xy);
+
+        for (int i = 0; i < n; i++) {
+            HorizontalCoordinates hor = equToHrz.apply(EquatorialCoordinates.of(ra[i], dec[i]));
+            CartesianCoordinates expected = sp.apply(hor);
+            assertEquals(hor.az(), az[i]);
+            assertEquals(hor.alt(), alt[i]);
+            assertEquals(expected.x(), xy[2*i]);
+            assertEquals(expected.y(), xy[2*i + 1]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> sp.applyBatch(az, alt, new double[n]));
+    }
+
+    @Test
+    void unitVectorBatchMatchesApplyWithinDocumentedTolerance() {
+        SplittableRandom rng = new SplittableRandom(2021);
+        int n = 2000;
+        double[] ra = new double[n];
+        double[] dec = new double[n];
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-PI / 2, PI / 2);
+            x[i] = cos(dec[i]) * cos(ra[i]);
+            y[i] = cos(dec[i]) * sin(ra[i]);
+            z[i] = sin(dec[i]);
+        }
+
+        for (int k = 0; k < 20; k++) {
+            ZonedDateTime when = ZonedDateTime.of(2020, 2, 17, 20, 15, 0, 0, ZoneOffset.UTC)
+                    .plusMinutes(rng.nextInt(0, 500_000));
+            EquatorialToHorizontalConversion equToHrz = new EquatorialToHorizontalConversion(
+                    when, GeographicCoordinates.ofDeg(rng.nextDouble(-180, 180), rng.nextDouble(-89, 89)));
+            StereographicProjection sp = new StereographicProjection(HorizontalCoordinates.of(
+                    rng.nextDouble(0, Angle.TAU), rng.nextDouble(-PI / 2, PI / 2)));
+
+            double[] xy = new double[2*n];
+            sp.applyBatchToUnitVectorRange(equToHrz, x, y, z, 0, n, xy);
+            for (int i = 0; i < n; i++) {
+                CartesianCoordinates expected = sp.apply(
+                        equToHrz.apply(EquatorialCoordinates.of(ra[i], dec[i])));
+                double radius = Math.hypot(expected.x(), expected.y());
+                // Distance angulaire à l'antipode du centre : 2·atan(1 / rayon)
+                if (2 * Math.atan(1 / radius) < 1e-3)
+                    continue;
+                double tolerance = 1e-9 * Math.max(1, radius);
+                assertEquals(expected.x(), xy[2*i], tolerance);
+                assertEquals(expected.y(), xy[2*i + 1], tolerance);
+            }
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package ch.epfl.rigel.coordinates;
+
+import java.util.SplittableRandom;
+
+/**
+ * Programme de mesure qui compare, pour des tables aléatoires de tailles croissantes, le
+ * débit du noyau de projection scalaire et celui du meilleur noyau disponible. Pour mesurer
+ * le noyau vectoriel, le répertoire source incubator doit être compilé et le programme
+ * exécuté avec l'option --add-modules jdk.incubator.vector ; sinon, les deux noyaux sont
+ * le noyau scalaire.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class UseVectorProjectionKernel {
+
+    private final static int[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private final static long MIN_POINTS_PER_MEASURE = 200_000_000;
+
+    public static void main(String[] args) {
+        ProjectionKernel best = ProjectionKernel.load();
+        System.out.printf("Noyau : %s (%d voies)%n", best.getClass().getSimpleName(), best.lanes());
+        System.out.printf("%10s %18s %18s %10s%n", "points", "scalaire (Mpt/s)", "meilleur (Mpt/s)", "gain");
+
+        SplittableRandom rng = new SplittableRandom(2020);
+        double[] m = new double[9];
+        for (int k = 0; k < m.length; k++)
+            m[k] = rng.nextDouble(-1, 1);
+        for (int size : SIZES) {
+            double[] x = new double[size], y = new double[size], z = new double[size];
+            for (int i = 0; i < size; i++) {
+                double ra = rng.nextDouble(0, 2 * Math.PI);
+                double dec = Math.asin(rng.nextDouble(-1, 1));
+                x[i] = Math.cos(dec) * Math.cos(ra);
+                y[i] = Math.cos(dec) * Math.sin(ra);
+                z[i] = Math.sin(dec);
+            }
+            double[] outXY = new double[2 * size];
+
+            double scalar = millionPointsPerSecond(ScalarProjectionKernel.INSTANCE, m, x, y, z, outXY);
+            double fastest = millionPointsPerSecond(best, m, x, y, z, outXY);
+            System.out.printf("%10d %18.1f %18.1f %9.2fx%n", size, scalar, fastest, fastest / scalar);
+        }
+    }
+
+    private static double millionPointsPerSecond(ProjectionKernel kernel, double[] m,
+                                                 double[] x, double[] y, double[] z, double[] outXY) {
+        int size = x.length;
+        int rounds = (int) Math.max(1, MIN_POINTS_PER_MEASURE / size);
+        for (int i = 0; i < rounds; i++) // Préchauffage
+            kernel.project(m, x, y, z, 0, size, outXY);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++)
+            kernel.project(m, x, y, z, 0, size, outXY);
+        return (double) rounds * size / (System.nanoTime() - start) * 1e3;
+    }
+}
@@ -0,0 +1,59 @@
+package ch.epfl.rigel.gui;
+
+import ch.epfl.rigel.astronomy.CelestialObject;
+import ch.epfl.rigel.astronomy.Moon;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyCelestialObjectSearchEngineTest {
+
+    private static StarCatalogue catalogue(String faintName) {
+        Star faint = new Star(1, faintName, EquatorialCoordinates.of(0.5, 0.1), 11f, 1f);
+        Star bright = new Star(2, "? Ori", EquatorialCoordinates.of(1.5, -0.3), 2.5f, 0.2f);
+        Star brightest = new Star(3, "? Ori", EquatorialCoordinates.of(3, 1.2), -1f, -0.4f);
+        return new StarCatalogue(List.of(faint, bright, brightest), List.of());
+    }
+
+    @Test
+    void everyStarOfTheCatalogueCanBeFound() {
+        CelestialObjectSearchEngine engine = new CelestialObjectSearchEngine();
+        engine.setCatalogue(catalogue("Faible"));
+
+        assertTrue(engine.search("FAIBLE"));
+        assertEquals("Faible", engine.getObject("FAIBLE").name());
+        // La plus brillante des étoiles de même nom est retenue
+        assertEquals(-1f, engine.getObject("? ORI").magnitude());
+        assertEquals("Faible", engine.getObject("HIP 1").name());
+        assertFalse(engine.search("Faible"));
+        assertThrows(IllegalArgumentException.class, () -> engine.getObject("RIGEL"));
+    }
+
+    @Test
+    void namesFollowCatalogueAndSolarSystemObjects() {
+        CelestialObjectSearchEngine engine = new CelestialObjectSearchEngine();
+        NavigableSet<String> names = engine.names();
+        engine.setCatalogue(catalogue("Faible"));
+        assertEquals(List.of("? ORI", "FAIBLE"), List.copyOf(names));
+
+        Moon moon = new Moon(EquatorialCoordinates.of(1, 0.2), 0.009f, -12f, 0.5f);
+        Map<String, CelestialObject> solarSystem = Map.of("LUNE", moon);
+        engine.setCelestialObjectMap(solarSystem);
+        assertSame(moon, engine.getObject("LUNE"));
+
+        engine.setCatalogue(catalogue("Autre"));
+        assertEquals(List.of("? ORI", "AUTRE", "LUNE"), List.copyOf(names));
+        assertFalse(engine.search("FAIBLE"));
+        assertThrows(UnsupportedOperationException.class, () -> names.add("RIGEL"));
+    }
+}
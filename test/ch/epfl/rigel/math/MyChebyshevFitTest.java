@@ -0,0 +1,47 @@
+package ch.epfl.rigel.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyChebyshevFitTest {
+
+    @Test
+    void nodesAreSortedAndInsideTheInterval() {
+        ClosedInterval interval = ClosedInterval.of(-3, 5);
+        double[] nodes = ChebyshevFit.nodes(interval, 7);
+        assertEquals(7, nodes.length);
+        assertEquals(1, nodes[3], 1e-12);
+        for (int m = 0; m < nodes.length; m++) {
+            assertTrue(interval.contains(nodes[m]));
+            if (m > 0)
+                assertTrue(nodes[m - 1] < nodes[m]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> ChebyshevFit.nodes(interval, 0));
+    }
+
+    @Test
+    void polynomialsOfLowDegreeAreReproduced() {
+        Polynomial p = Polynomial.of(0.5, -2, 0, 3, 1);
+        ChebyshevFit fit = ChebyshevFit.of(ClosedInterval.of(-2, 4), 6, p::at);
+        for (double x = -2; x <= 4; x += 0.125)
+            assertEquals(p.at(x), fit.at(x), 1e-10);
+
+        ChebyshevFit constant = ChebyshevFit.of(ClosedInterval.of(0, 1), 4, x -> 7);
+        assertEquals(7, constant.at(0.3), 1e-12);
+        ChebyshevFit zero = ChebyshevFit.of(ClosedInterval.of(0, 1), 4, x -> 0);
+        assertEquals(0, zero.at(0.3));
+    }
+
+    @Test
+    void smoothFunctionsAreApproximatedAccurately() {
+        ClosedInterval interval = ClosedInterval.of(10, 12);
+        ChebyshevFit fit = ChebyshevFit.of(interval, 12, Math::sin);
+        assertSame(interval, fit.interval());
+        for (double x = 10; x <= 12; x += 1d / 64)
+            assertEquals(Math.sin(x), fit.at(x), 1e-10);
+    }
+}
@@ -0,0 +1,132 @@
+package ch.epfl.rigel.math;
+
+import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static ch.epfl.rigel.math.Trigonometry.EXACT;
+import static ch.epfl.rigel.math.Trigonometry.FAST;
+import static ch.epfl.rigel.math.Trigonometry.MAX_FAST_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Thomas Bonnardel (319827)
+ */
+public class MyTrigonometryTest {
+
+    @Test
+    void exactModeIsMath() {
+        SplittableRandom rng = new SplittableRandom(1);
+        for (int i = 0; i < 1000; i++) {
+            double rad = rng.nextDouble(-100, 100);
+            double x = rng.nextDouble(-1, 1);
+            assertEquals(Math.sin(rad), EXACT.sin(rad));
+            assertEquals(Math.cos(rad), EXACT.cos(rad));
+            assertEquals(Math.asin(x), EXACT.asin(x));
+            assertEquals(Math.atan2(rad, x), EXACT.atan2(rad, x));
+        }
+    }
+
+    @Test
+    void fastSinAndCosAreWithinBoundOverOneTurn() {
+        double maxError = 0;
+        for (double rad = -Angle.TAU; rad <= Angle.TAU; rad += 1e-5) {
+            maxError = Math.max(maxError, Math.abs(FAST.sin(rad) - Math.sin(rad)));
+            maxError = Math.max(maxError, Math.abs(FAST.cos(rad) - Math.cos(rad)));
+        }
+        assertTrue(maxError <= MAX_FAST_ERROR, "max error " + maxError);
+    }
+
+    @Test
+    void fastSinAndCosAreWithinBoundForAllAngles() {
+        SplittableRandom rng = new SplittableRandom(2);
+        for (int i = 0; i < 1_000_000; i++) {
+            double rad = rng.nextDouble(-1e6, 1e6);
+            assertEquals(Math.sin(rad), FAST.sin(rad), MAX_FAST_ERROR);
+            assertEquals(Math.cos(rad), FAST.cos(rad), MAX_FAST_ERROR);
+        }
+        for (double rad : new double[] {1e6, -1e6, 1e7, -3e12, Double.MAX_VALUE}) {
+            assertEquals(Math.sin(rad), FAST.sin(rad), MAX_FAST_ERROR);
+            assertEquals(Math.cos(rad), FAST.cos(rad), MAX_FAST_ERROR);
+        }
+        assertTrue(Double.isNaN(FAST.sin(Double.NaN)));
+        assertTrue(Double.isNaN(FAST.cos(Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    void fastAtan2IsWithinBoundAllAroundTheCircle() {
+        double maxError = 0;
+        double[] radii = {Double.MIN_VALUE * 1e10, 1e-200, 1e-3, 1, 7.5, 1e200};
+        for (double r : radii) {
+            for (double theta = -Math.PI; theta <= Math.PI; theta += 1e-5) {
+                double y = r * Math.sin(theta);
+                double x = r * Math.cos(theta);
+                maxError = Math.max(maxError, Math.abs(FAST.atan2(y, x) - Math.atan2(y, x)));
+            }
+        }
+        assertTrue(maxError <= MAX_FAST_ERROR, "max error " + maxError);
+
+        SplittableRandom rng = new SplittableRandom(3);
+        for (int i = 0; i < 1_000_000; i++) {
+            double y = rng.nextDouble(-1, 1) * Math.pow(10, rng.nextInt(-300, 300));
+            double x = rng.nextDouble(-1, 1) * Math.pow(10, rng.nextInt(-300, 300));
+            assertEquals(Math.atan2(y, x), FAST.atan2(y, x), MAX_FAST_ERROR);
+        }
+    }
+
+    @Test
+    void fastAtan2HandlesSpecialValuesLikeMath() {
+        double inf = Double.POSITIVE_INFINITY;
+        double[] specials = {0d, -0d, 1, -1, inf, -inf, Double.NaN};
+        for (double y : specials) {
+            for (double x : specials)
+                assertEquals(Math.atan2(y, x), FAST.atan2(y, x), MAX_FAST_ERROR);
+        }
+        assertEquals(Math.PI, FAST.atan2(0d, -1));
+        assertEquals(-Math.PI, FAST.atan2(-0d, -1));
+    }
+
+    @Test
+    void fastAsinIsWithinBoundOverItsDomain() {
+        double maxError = 0;
+        for (double x = -1; x <= 1; x += 1e-6)
+            maxError = Math.max(maxError, Math.abs(FAST.asin(x) - Math.asin(x)));
+        assertTrue(maxError <= MAX_FAST_ERROR, "max error " + maxError);
+
+        assertEquals(Math.PI / 2, FAST.asin(1), MAX_FAST_ERROR);
+        assertEquals(-Math.PI / 2, FAST.asin(-1), MAX_FAST_ERROR);
+        assertEquals(Math.PI / 2, FAST.asin(1 + MAX_FAST_ERROR / 2));
+        assertEquals(-Math.PI / 2, FAST.asin(-1 - MAX_FAST_ERROR / 2));
+        assertTrue(Double.isNaN(FAST.asin(1.1)));
+        assertTrue(Double.isNaN(FAST.asin(Double.NaN)));
+    }
+
+    @Test
+    void fastProjectionIsWithinBoundOfExactProjection() {
+        HorizontalCoordinates center = HorizontalCoordinates.ofDeg(277, -23);
+        StereographicProjection exact = new StereographicProjection(center);
+        StereographicProjection fast = new StereographicProjection(center, FAST);
+
+        SplittableRandom rng = new SplittableRandom(4);
+        for (int i = 0; i < 100_000; i++) {
+            HorizontalCoordinates hor = HorizontalCoordinates.of(
+                    rng.nextDouble(0, Angle.TAU), Math.asin(rng.nextDouble(-1, 1)));
+            if (hor.angularDistanceTo(center) > Math.PI / 2)
+                continue;
+            CartesianCoordinates e = exact.apply(hor);
+            CartesianCoordinates f = fast.apply(hor);
+            assertEquals(e.x(), f.x(), 4 * MAX_FAST_ERROR);
+            assertEquals(e.y(), f.y(), 4 * MAX_FAST_ERROR);
+
+            HorizontalCoordinates exactBack = exact.inverseApply(e);
+            HorizontalCoordinates fastBack = fast.inverseApply(e);
+            assertEquals(exactBack.alt(), fastBack.alt(), MAX_FAST_ERROR);
+            double azError = Math.abs(exactBack.az() - fastBack.az());
+            assertTrue(Math.min(azError, Angle.TAU - azError) <= MAX_FAST_ERROR);
+        }
+        assertThrows(NullPointerException.class, () -> new StereographicProjection(center, null));
+    }
+}
@@ -0,0 +1,91 @@
+package ch.epfl.rigel.math;
+
+import ch.epfl.rigel.coordinates.CartesianBuffer;
+import ch.epfl.rigel.coordinates.HorizontalBuffer;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Programme de mesure qui compare, pour les deux modes de calcul des fonctions
+ * trigonométriques, la durée par appel de ces fonctions, ainsi que celle de la projection
+ * stéréographique et de son inverse sur des tableaux de points aléatoires.
+ *
+ * @author Thomas Bonnardel (319827)
+ */
+public final class UseFastTrigonometry {
+
+    private final static int SIZE = 1 << 16;
+    private final static int WARMUP_ROUNDS = 50;
+    private final static int MEASURED_ROUNDS = 200;
+
+    private static double sink; // Empêche l'élimination des calculs mesurés
+
+    public static void main(String[] args) {
+        SplittableRandom rng = new SplittableRandom(2020);
+        double[] angles = new double[SIZE];
+        double[] ratios = new double[SIZE];
+        HorizontalBuffer horizontal = HorizontalBuffer.ofSize(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            angles[i] = rng.nextDouble(-Math.PI, Math.PI);
+            ratios[i] = rng.nextDouble(-1, 1);
+            horizontal.set(i, rng.nextDouble(0, Angle.TAU), Math.asin(rng.nextDouble(-1, 1)));
+        }
+        HorizontalCoordinates center = HorizontalCoordinates.ofDeg(277, -23);
+        CartesianBuffer cartesian = CartesianBuffer.ofSize(SIZE);
+        new StereographicProjection(center).applyBatch(horizontal, cartesian);
+        HorizontalBuffer inverse = HorizontalBuffer.ofSize(SIZE);
+
+        System.out.printf("%-24s %12s %12s %10s%n", "ns par point", "exact", "rapide", "gain");
+        compare("sin", t -> {
+            double s = 0;
+            for (double a : angles)
+                s += t.sin(a);
+            return s;
+        });
+        compare("cos", t -> {
+            double s = 0;
+            for (double a : angles)
+                s += t.cos(a);
+            return s;
+        });
+        compare("asin", t -> {
+            double s = 0;
+            for (double r : ratios)
+                s += t.asin(r);
+            return s;
+        });
+        compare("atan2", t -> {
+            double s = 0;
+            for (int i = 0; i < SIZE; i++)
+                s += t.atan2(ratios[i], angles[i]);
+            return s;
+        });
+        compare("projection", t -> {
+            new StereographicProjection(center, t).applyBatch(horizontal, cartesian);
+            return cartesian.x(0);
+        });
+        compare("projection inverse", t -> {
+            new StereographicProjection(center, t).inverseApplyBatch(cartesian, inverse);
+            return inverse.az(0);
+        });
+    }
+
+    private static void compare(String name, ToDoubleFunction<Trigonometry> round) {
+        double exact = nanosPerPoint(Trigonometry.EXACT, round);
+        double fast = nanosPerPoint(Trigonometry.FAST, round);
+        System.out.printf("%-24s %12.2f %12.2f %9.2fx%n", name, exact, fast, exact / fast);
+    }
+
+    private static double nanosPerPoint(Trigonometry trigonometry, ToDoubleFunction<Trigonometry> round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++)
+            sink += round.applyAsDouble(trigonometry);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++)
+            sink += round.applyAsDouble(trigonometry);
+        return (double) (System.nanoTime() - start) / MEASURED_ROUNDS / SIZE;
+    }
+}